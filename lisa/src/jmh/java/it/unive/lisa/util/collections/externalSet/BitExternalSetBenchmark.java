@@ -0,0 +1,191 @@
+package it.unive.lisa.util.collections.externalSet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A JMH benchmark comparing {@link BitExternalSet}s against the
+ * {@link BaselineBitExternalSet}s they replaced, both connected to the same
+ * {@link ExternalSetCache}. All inputs are generated from fixed seeds, so that
+ * the same operations are measured on every run. The benchmark is executed by
+ * the {@code jmh} Gradle task.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BitExternalSetBenchmark {
+
+	/**
+	 * The implementation under measurement, either {@code current} or
+	 * {@code baseline}
+	 */
+	@Param({ "current", "baseline" })
+	public String implementation;
+
+	/**
+	 * The number of elements of the cache
+	 */
+	@Param({ "20000" })
+	public int elements;
+
+	private ExternalSetCache<Integer> cache;
+
+	private List<Integer> shuffled;
+
+	private List<Integer> lookups;
+
+	private List<Integer> toRemove;
+
+	private ExternalSet<Integer> half;
+
+	private ExternalSet<Integer> third;
+
+	/**
+	 * Builds the cache and the sets used by the benchmarks.
+	 */
+	@Setup
+	public void setup() {
+		cache = new ExternalSetCache<>();
+		List<Integer> all = new ArrayList<>(elements);
+		for (int i = 0; i < elements; i++)
+			all.add(i);
+		// elements are registered in the cache in a shuffled order
+		shuffled = new ArrayList<>(all);
+		Collections.shuffle(shuffled, new Random(42));
+		shuffled.forEach(cache::mkSingletonSet);
+
+		half = sample(all, 2, 1);
+		third = sample(all, 3, 2);
+		toRemove = new ArrayList<>(all.subList(0, elements / 2));
+		Collections.shuffle(toRemove, new Random(3));
+		lookups = new ArrayList<>(all);
+		Collections.shuffle(lookups, new Random(4));
+	}
+
+	private ExternalSet<Integer> empty() {
+		return implementation.equals("baseline") ? new BaselineBitExternalSet<>(cache) : cache.mkEmptySet();
+	}
+
+	private ExternalSet<Integer> sample(List<Integer> all, int every, int seed) {
+		Random random = new Random(seed);
+		ExternalSet<Integer> result = empty();
+		for (Integer e : all)
+			if (random.nextInt(every) == 0)
+				result.add(e);
+		return result;
+	}
+
+	/**
+	 * Adds all the elements of the cache to an empty set.
+	 *
+	 * @return the size of the set
+	 */
+	@Benchmark
+	public int addAll() {
+		ExternalSet<Integer> set = empty();
+		set.addAll(shuffled);
+		return set.size();
+	}
+
+	/**
+	 * Looks up all the elements of the cache in a set.
+	 *
+	 * @return the number of elements found
+	 */
+	@Benchmark
+	public int contains() {
+		int found = 0;
+		for (Integer e : lookups)
+			if (half.contains(e))
+				found++;
+		return found;
+	}
+
+	/**
+	 * Iterates over the elements of a set.
+	 *
+	 * @return the sum of the elements
+	 */
+	@Benchmark
+	public long iterate() {
+		long sum = 0;
+		for (Integer e : half)
+			sum += e;
+		return sum;
+	}
+
+	/**
+	 * Computes the size and the hash code of a modified copy of a set.
+	 *
+	 * @return the sum of size and hash code
+	 */
+	@Benchmark
+	public int sizeAndHashCode() {
+		ExternalSet<Integer> copy = half.copy();
+		copy.add(0);
+		return copy.size() + copy.hashCode();
+	}
+
+	/**
+	 * Computes the union of two sets.
+	 *
+	 * @return the size of the union
+	 */
+	@Benchmark
+	public int union() {
+		return half.union(third).size();
+	}
+
+	/**
+	 * Computes the intersection of two sets.
+	 *
+	 * @return the size of the intersection
+	 */
+	@Benchmark
+	public int intersection() {
+		return half.intersection(third).size();
+	}
+
+	/**
+	 * Computes the difference of two sets.
+	 *
+	 * @return the size of the difference
+	 */
+	@Benchmark
+	public int difference() {
+		return half.difference(third).size();
+	}
+
+	/**
+	 * Removes half of the elements of the cache, one at a time, from a copy
+	 * of a set.
+	 *
+	 * @return the size of the set
+	 */
+	@Benchmark
+	public int removeHalf() {
+		ExternalSet<Integer> copy = half.copy();
+		for (Integer e : toRemove)
+			copy.remove(e);
+		return copy.size();
+	}
+}
@@ -2,6 +2,7 @@ package it.unive.lisa;
 
 import static it.unive.lisa.LiSAFactory.getDefaultFor;
 
+import it.unive.lisa.caches.AnalysisContext;
 import it.unive.lisa.checks.warnings.Warning;
 import it.unive.lisa.interprocedural.InterproceduralAnalysis;
 import it.unive.lisa.interprocedural.callgraph.CallGraph;
@@ -61,7 +62,12 @@ public class LiSA {
 	}
 
 	/**
-	 * Runs LiSA, executing all the checks that have been added.
+	 * Runs LiSA, executing all the checks that have been added. The analysis
+	 * uses the {@link AnalysisContext} of the configuration, or a new one if
+	 * none was set. Once the analysis completes, the default context is reset
+	 * (see {@link AnalysisContext#resetDefault()}), so that the caches filled
+	 * outside of any context, e.g. while parsing the program, are not kept
+	 * across runs.
 	 * 
 	 * @param program the program to analyze
 	 * 
@@ -92,11 +98,16 @@ public class LiSA {
 		}
 
 		LiSARunner runner = new LiSARunner(conf, interproc, callGraph, conf.getState());
+		AnalysisContext context = conf.getAnalysisContext() == null ? new AnalysisContext()
+				: conf.getAnalysisContext();
 
 		try {
-			warnings.addAll(TimerLogger.execSupplier(log, "Analysis time", () -> runner.run(program, fileManager)));
+			warnings.addAll(TimerLogger.execSupplier(log, "Analysis time",
+					() -> context.execute(() -> runner.run(program, fileManager))));
 		} catch (AnalysisExecutionException e) {
 			throw new AnalysisException("LiSA has encountered an exception while executing the analysis", e);
+		} finally {
+			AnalysisContext.resetDefault();
 		}
 
 		printStats();
@@ -132,4 +143,16 @@ public class LiSA {
 	public Collection<Warning> getWarnings() {
 		return Collections.unmodifiableCollection(warnings);
 	}
+
+	/**
+	 * Yields an unmodifiable view of the names of the files that have been
+	 * created during the analysis, relative to the workdir of the
+	 * configuration. Invoking this method before invoking
+	 * {@link #run(Program)} will return an empty collection.
+	 * 
+	 * @return a view of the names of the created files
+	 */
+	public Collection<String> getCreatedFiles() {
+		return Collections.unmodifiableCollection(fileManager.createdFiles());
+	}
 }
@@ -1,6 +1,8 @@
 package it.unive.lisa;
 
 import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.caches.AnalysisContext;
+import it.unive.lisa.checks.ThreadSafeCheck;
 import it.unive.lisa.checks.semantic.SemanticCheck;
 import it.unive.lisa.checks.syntactic.SyntacticCheck;
 import it.unive.lisa.checks.warnings.Warning;
@@ -12,6 +14,8 @@ import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * A holder for the configuration of a {@link LiSA} analysis.
@@ -80,6 +84,22 @@ public class LiSAConfiguration {
 	 */
 	private String workdir;
 
+	/**
+	 * The executor where independent fixpoint computations can be executed in
+	 * parallel, if any
+	 */
+	private ExecutorService executor;
+
+	/**
+	 * The pool where thread-safe checks can be executed in parallel, if any
+	 */
+	private ForkJoinPool checksPool;
+
+	/**
+	 * The context owning the caches of the analysis, if any
+	 */
+	private AnalysisContext analysisContext;
+
 	/**
 	 * Builds a new configuration object, with default settings. By default:
 	 * <ul>
@@ -93,6 +113,12 @@ public class LiSAConfiguration {
 	 * <li>the type inference will not be dumped</li>
 	 * <li>the results of the analysis will not be dumped</li>
 	 * <li>the json report will not be dumped</li>
+	 * <li>no {@link ExecutorService} is set, and fixpoints are computed
+	 * sequentially</li>
+	 * <li>no {@link ForkJoinPool} is set for checks, and checks are executed
+	 * sequentially</li>
+	 * <li>no {@link AnalysisContext} is set, and a new one is created for each
+	 * run</li>
 	 * </ul>
 	 */
 	public LiSAConfiguration() {
@@ -305,6 +331,55 @@ public class LiSAConfiguration {
 		return this;
 	}
 
+	/**
+	 * Sets the {@link ExecutorService} that the {@link InterproceduralAnalysis}
+	 * can use to compute independent fixpoints in parallel (see
+	 * {@link InterproceduralAnalysis#setExecutor(ExecutorService)}). Any
+	 * existing value is overwritten. Both platform threads (e.g.
+	 * {@link java.util.concurrent.Executors#newFixedThreadPool(int)}) and
+	 * virtual threads (e.g. {@code Executors.newVirtualThreadPerTaskExecutor()}
+	 * on Java 21+) can back the executor. LiSA never shuts down the given
+	 * executor. Use {@code null} to compute fixpoints sequentially.
+	 * 
+	 * @param executor the executor to use, or {@code null}
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public LiSAConfiguration setExecutor(ExecutorService executor) {
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 * Sets the {@link ForkJoinPool} where the checks annotated with
+	 * {@link ThreadSafeCheck} are executed in parallel. Any existing value is
+	 * overwritten. LiSA never shuts down the given pool. Use {@code null} to
+	 * execute all checks sequentially.
+	 * 
+	 * @param checksPool the pool to use, or {@code null}
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public LiSAConfiguration setChecksPool(ForkJoinPool checksPool) {
+		this.checksPool = checksPool;
+		return this;
+	}
+
+	/**
+	 * Sets the {@link AnalysisContext} owning the caches used during the
+	 * analysis. Any existing value is overwritten. Analyses sharing the same
+	 * context, possibly running concurrently, reuse the caches filled by each
+	 * other. Use {@code null} to create a new context for each run.
+	 * 
+	 * @param analysisContext the context to use, or {@code null}
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public LiSAConfiguration setAnalysisContext(AnalysisContext analysisContext) {
+		this.analysisContext = analysisContext;
+		return this;
+	}
+
 	/**
 	 * Yields the {@link CallGraph} for the analysis. Might be {@code null} if
 	 * none was set.
@@ -414,14 +489,50 @@ public class LiSAConfiguration {
 		return workdir;
 	}
 
+	/**
+	 * Yields the {@link ExecutorService} where independent fixpoints can be
+	 * computed in parallel. Might be {@code null} if none was set, meaning
+	 * that fixpoints have to be computed sequentially.
+	 * 
+	 * @return the executor, or {@code null}
+	 */
+	public ExecutorService getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Yields the {@link ForkJoinPool} where thread-safe checks can be executed
+	 * in parallel. Might be {@code null} if none was set, meaning that checks
+	 * have to be executed sequentially.
+	 * 
+	 * @return the pool, or {@code null}
+	 */
+	public ForkJoinPool getChecksPool() {
+		return checksPool;
+	}
+
+	/**
+	 * Yields the {@link AnalysisContext} owning the caches used during the
+	 * analysis. Might be {@code null} if none was set, meaning that a new
+	 * context has to be created for each run.
+	 * 
+	 * @return the context, or {@code null}
+	 */
+	public AnalysisContext getAnalysisContext() {
+		return analysisContext;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
+		result = prime * result + ((analysisContext == null) ? 0 : analysisContext.hashCode());
+		result = prime * result + ((checksPool == null) ? 0 : checksPool.hashCode());
 		result = prime * result + ((callGraph == null) ? 0 : callGraph.hashCode());
 		result = prime * result + (dumpAnalysis ? 1231 : 1237);
 		result = prime * result + (dumpCFGs ? 1231 : 1237);
 		result = prime * result + (dumpTypeInference ? 1231 : 1237);
+		result = prime * result + ((executor == null) ? 0 : executor.hashCode());
 		result = prime * result + (inferTypes ? 1231 : 1237);
 		result = prime * result + (jsonOutput ? 1231 : 1237);
 		result = prime * result + ((state == null) ? 0 : state.hashCode());
@@ -440,6 +551,16 @@ public class LiSAConfiguration {
 		if (getClass() != obj.getClass())
 			return false;
 		LiSAConfiguration other = (LiSAConfiguration) obj;
+		if (analysisContext == null) {
+			if (other.analysisContext != null)
+				return false;
+		} else if (!analysisContext.equals(other.analysisContext))
+			return false;
+		if (checksPool == null) {
+			if (other.checksPool != null)
+				return false;
+		} else if (!checksPool.equals(other.checksPool))
+			return false;
 		if (callGraph == null) {
 			if (other.callGraph != null)
 				return false;
@@ -451,6 +572,11 @@ public class LiSAConfiguration {
 			return false;
 		if (dumpTypeInference != other.dumpTypeInference)
 			return false;
+		if (executor == null) {
+			if (other.executor != null)
+				return false;
+		} else if (!executor.equals(other.executor))
+			return false;
 		if (inferTypes != other.inferTypes)
 			return false;
 		if (jsonOutput != other.jsonOutput)
@@ -487,6 +613,9 @@ public class LiSAConfiguration {
 				"\n  dump inferred types: " + dumpTypeInference +
 				"\n  dump analysis results: " + dumpAnalysis +
 				"\n  dump json report: " + jsonOutput +
+				"\n  parallel fixpoints: " + (executor != null) +
+				"\n  parallel checks: " + (checksPool != null) +
+				"\n  shared analysis context: " + (analysisContext != null) +
 				"\n  " + syntacticChecks.size() + " syntactic checks to execute"
 				+ (syntacticChecks.isEmpty() ? "" : ":");
 		for (SyntacticCheck check : syntacticChecks)
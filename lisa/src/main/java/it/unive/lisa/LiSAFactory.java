@@ -14,21 +14,30 @@ import it.unive.lisa.analysis.nonrelational.value.NonRelationalValueDomain;
 import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
 import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.interprocedural.callgraph.CallGraph;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.reflections.Reflections;
 import org.reflections.scanners.SubTypesScanner;
 
@@ -45,6 +54,8 @@ import org.reflections.scanners.SubTypesScanner;
  */
 public class LiSAFactory {
 
+	private static final Logger log = LogManager.getLogger(LiSAFactory.class);
+
 	private static <T> T construct(Class<T> component, Class<?>[] argTypes, Object[] params)
 			throws AnalysisSetupException {
 		try {
@@ -252,7 +263,27 @@ public class LiSAFactory {
 	 * @param <T> the type of the component
 	 */
 	public static class ConfigurableComponent<T> {
-		private static final Reflections scanner = new Reflections(LiSA.class, new SubTypesScanner());
+
+		/**
+		 * The resource holding the index of the components, generated at
+		 * compile time by {@code it.unive.lisa.processor.ComponentIndexProcessor}
+		 */
+		private static final String INDEX = "META-INF/lisa/components";
+
+		/**
+		 * The implementations of each component, read from all the indexes
+		 * found in the classpath, or {@code null} if no index is available
+		 */
+		private static final Map<String, Collection<String>> index = readIndex();
+
+		/**
+		 * The scanner used when no index is available, or when the index has
+		 * no entry for a component. It is lazily created since scanning the
+		 * classpath is expensive.
+		 */
+		private static final class Scanner {
+			private static final Reflections INSTANCE = new Reflections(LiSA.class, new SubTypesScanner());
+		}
 
 		private final Class<T> component;
 		private final Class<? extends T> defaultInstance;
@@ -261,7 +292,7 @@ public class LiSAFactory {
 		private ConfigurableComponent(Class<T> component) {
 			this.component = component;
 			this.defaultInstance = getDefaultClassFor(component);
-			this.alternatives = scanner.getSubTypesOf(component)
+			this.alternatives = findAlternatives(component)
 					.stream()
 					.map(c -> Pair.of(c, c.getModifiers()))
 					.filter(p -> !Modifier.isAbstract(p.getRight()) && !Modifier.isInterface(p.getRight()))
@@ -269,6 +300,60 @@ public class LiSAFactory {
 					.collect(Collectors.toList());
 		}
 
+		private static Map<String, Collection<String>> readIndex() {
+			ClassLoader loader = LiSA.class.getClassLoader();
+			Map<String, Collection<String>> result = new HashMap<>();
+			boolean found = false;
+			try {
+				Enumeration<URL> resources = loader.getResources(INDEX);
+				while (resources.hasMoreElements()) {
+					found = true;
+					try (BufferedReader reader = new BufferedReader(
+							new InputStreamReader(resources.nextElement().openStream(), StandardCharsets.UTF_8))) {
+						String line;
+						while ((line = reader.readLine()) != null) {
+							int separator = line.indexOf('=');
+							if (separator > 0)
+								result.computeIfAbsent(line.substring(0, separator), k -> new LinkedHashSet<>())
+										.add(line.substring(separator + 1).trim());
+						}
+					}
+				}
+			} catch (IOException e) {
+				log.warn("Unable to read the index of the analysis components, falling back to classpath scanning",
+						e);
+				return null;
+			}
+
+			return found ? result : null;
+		}
+
+		private static <T> Collection<Class<? extends T>> findAlternatives(Class<T> component) {
+			if (index != null) {
+				Collection<String> names = index.get(component.getName());
+				if (names != null)
+					return fromIndex(component, names);
+				log.warn("The index of the analysis components has no entry for " + component.getName()
+						+ ", falling back to classpath scanning");
+			}
+
+			return Scanner.INSTANCE.getSubTypesOf(component);
+		}
+
+		private static <T> Collection<Class<? extends T>> fromIndex(Class<T> component, Collection<String> names) {
+			ClassLoader loader = LiSA.class.getClassLoader();
+			Collection<Class<? extends T>> result = new ArrayList<>();
+			for (String name : names)
+				try {
+					Class<?> c = Class.forName(name, false, loader);
+					if (component.isAssignableFrom(c))
+						result.add(c.asSubclass(component));
+				} catch (ClassNotFoundException | LinkageError e) {
+					log.warn("Unable to load " + name + " from the index of the analysis components", e);
+				}
+			return result;
+		}
+
 		/**
 		 * Yields the component represented by this
 		 * {@link ConfigurableComponent}.
@@ -305,7 +390,9 @@ public class LiSAFactory {
 
 	/**
 	 * Yields the collection of {@link ConfigurableComponent}s that can be used
-	 * to customize the analysis.
+	 * to customize the analysis. Their alternatives are read from the index
+	 * generated at compile time, and the classpath is scanned only if no index
+	 * is available or if the index has no entry for a component.
 	 * 
 	 * @return the components that can be configured
 	 */
@@ -36,8 +36,11 @@ import it.unive.lisa.util.datastructures.graph.GraphVisitor;
 import it.unive.lisa.util.file.FileManager;
 import java.io.IOException;
 import java.io.Writer;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import org.apache.logging.log4j.LogManager;
@@ -91,7 +94,8 @@ public class LiSARunner<A extends AbstractState<A, H, V>,
 	 * @param program     the program to analyze
 	 * @param fileManager the file manager for the analysis
 	 * 
-	 * @return the warnings generated by the analysis
+	 * @return the warnings generated by the analysis, sorted if checks have
+	 *             been executed in parallel
 	 */
 	Collection<Warning> run(Program program, FileManager fileManager) {
 		finalizeProgram(program);
@@ -104,7 +108,7 @@ public class LiSARunner<A extends AbstractState<A, H, V>,
 
 		CheckTool tool = new CheckTool();
 		if (!conf.getSyntacticChecks().isEmpty())
-			ChecksExecutor.executeAll(tool, program, conf.getSyntacticChecks());
+			ChecksExecutor.executeAll(tool, program, conf.getSyntacticChecks(), conf.getChecksPool());
 		else
 			log.warn("Skipping syntactic checks execution since none have been provided");
 
@@ -117,6 +121,7 @@ public class LiSARunner<A extends AbstractState<A, H, V>,
 
 		try {
 			interproc.init(program, callGraph);
+			interproc.setExecutor(conf.getExecutor());
 		} catch (InterproceduralAnalysisException e) {
 			log.fatal("Exception while building the interprocedural analysis for the input program", e);
 			throw new AnalysisExecutionException(
@@ -138,13 +143,24 @@ public class LiSARunner<A extends AbstractState<A, H, V>,
 				CheckToolWithAnalysisResults<A, H,
 						V> toolWithResults = new CheckToolWithAnalysisResults<>(tool, results);
 				tool = toolWithResults;
-				ChecksExecutor.executeAll(toolWithResults, program, conf.getSemanticChecks());
+				ChecksExecutor.executeAll(toolWithResults, program, conf.getSemanticChecks(), conf.getChecksPool());
 			} else
 				log.warn("Skipping semantic checks execution since none have been provided");
 		} else
 			log.warn("Skipping analysis execution since no abstract sate has been provided");
 
-		return tool.getWarnings();
+		if (conf.getChecksPool() == null)
+			return tool.getWarnings();
+
+		// checks might have been executed in parallel: sorting makes the
+		// order of the warnings deterministic. Warnings are grouped by class
+		// first, since comparisons between different kinds of warnings are
+		// not guaranteed to be consistent
+		List<Warning> warnings = new ArrayList<>(tool.getWarnings());
+		warnings.sort(Comparator.comparing((Warning w) -> w.getClass().getName())
+				.thenComparing(Comparator.naturalOrder())
+				.thenComparing(Warning::toString));
+		return warnings;
 	}
 
 	private void analyze(Collection<CFG> allCFGs, FileManager fileManager) {
@@ -180,6 +196,7 @@ public class LiSARunner<A extends AbstractState<A, H, V>,
 			typesState = getInstance(SimpleAbstractState.class, heap, types).top();
 			typesInterproc = getInstance(interproc.getClass());
 			typesInterproc.init(program, callGraph);
+			typesInterproc.setExecutor(conf.getExecutor());
 		} catch (AnalysisSetupException | InterproceduralAnalysisException e) {
 			throw new AnalysisExecutionException("Unable to initialize type inference", e);
 		}
@@ -253,8 +270,8 @@ public class LiSARunner<A extends AbstractState<A, H, V>,
 	}
 
 	private void finalizeProgram(Program program) {
-		// fill up the types cache by side effect on an external set
-		Caches.types().clear();
+		// fill up the types cache of the current context by side effect on an
+		// external set
 		ExternalSet<Type> types = Caches.types().mkEmptySet();
 		program.getRegisteredTypes().forEach(types::add);
 		types = null;
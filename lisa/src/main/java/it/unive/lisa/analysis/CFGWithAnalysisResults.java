@@ -6,6 +6,8 @@ import it.unive.lisa.outputs.DotCFG;
 import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.edge.Edge;
 import it.unive.lisa.program.cfg.statement.Statement;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
@@ -73,10 +75,8 @@ public class CFGWithAnalysisResults<A extends AbstractState<A, H, V>, H extends
 			Map<Statement, AnalysisState<A, H, V>> entryStates,
 			Map<Statement, AnalysisState<A, H, V>> results) {
 		super(cfg);
-		this.results = new StatementStore<>(singleton);
-		results.forEach(this.results::put);
-		this.entryStates = new StatementStore<>(singleton);
-		entryStates.forEach(this.entryStates::put);
+		this.results = new StatementStore<>(singleton, results);
+		this.entryStates = new StatementStore<>(singleton, entryStates);
 	}
 
 	private CFGWithAnalysisResults(CFG cfg, StatementStore<A, H, V> entryStates, StatementStore<A, H, V> results) {
@@ -259,4 +259,9 @@ public class CFGWithAnalysisResults<A extends AbstractState<A, H, V>, H extends
 	protected DotCFG toDot(Function<Statement, String> labelGenerator) {
 		return DotCFG.fromCFG(this, id, labelGenerator);
 	}
+
+	@Override
+	public void dump(Writer writer, Function<Statement, String> labelGenerator) throws IOException {
+		DotCFG.writeCFG(this, id, labelGenerator, writer);
+	}
 }
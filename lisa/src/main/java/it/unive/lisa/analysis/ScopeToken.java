@@ -15,6 +15,12 @@ public class ScopeToken {
 
 	private final CodeElement scoper;
 
+	/**
+	 * The cached textual representation of this token, used as prefix in the
+	 * names of the identifiers that are moved out of this scope
+	 */
+	private String representation;
+
 	/**
 	 * Builds a new scope, referring to the given code element.
 	 * 
@@ -63,6 +69,8 @@ public class ScopeToken {
 
 	@Override
 	public String toString() {
-		return "[" + scoper.getLocation() + "]";
+		if (representation == null)
+			representation = "[" + scoper.getLocation() + "]";
+		return representation;
 	}
 }
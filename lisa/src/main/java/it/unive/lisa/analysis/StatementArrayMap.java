@@ -0,0 +1,366 @@
+package it.unive.lisa.analysis;
+
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.util.datastructures.graph.AdjacencyMatrix;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A {@link Map} from {@link Statement}s to values, backed by arrays indexed by
+ * the offsets of the statements (see {@link Statement#getOffset()}). The
+ * arrays cover a window of offsets that grows as needed: a map holding the
+ * results of a whole cfg uses offsets starting from {@code 0}, while a map
+ * holding the results of the expressions nested into a single statement only
+ * spans the few offsets assigned to them. Since offsets of frozen cfgs are
+ * dense (see {@link AdjacencyMatrix#freeze()}), lookups and insertions
+ * require neither hashing nor the creation of entry objects. Statements
+ * without an offset, or whose offset is already used by a different
+ * statement, are stored in a secondary {@link HashMap}.<br>
+ * <br>
+ * Copies created through {@link #StatementArrayMap(Map)} share the arrays of
+ * the original map until one of the two is modified. The entries returned
+ * while iterating over this map are immutable. Instances of this class are
+ * not thread-safe.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <V> the type of the values
+ */
+public class StatementArrayMap<V> extends AbstractMap<Statement, V> {
+
+	private static final int DEFAULT_CAPACITY = 8;
+
+	/**
+	 * The offset corresponding to the first element of the arrays
+	 */
+	private int base;
+
+	/**
+	 * The keys, where {@code keys[i].getOffset() == base + i}, or {@code null}
+	 * for unused offsets
+	 */
+	private Statement[] keys;
+
+	/**
+	 * The values, where {@code values[i]} is the value of {@code keys[i]}
+	 */
+	private Object[] values;
+
+	/**
+	 * The number of mappings stored in the arrays
+	 */
+	private int arraySize;
+
+	/**
+	 * The mappings that cannot be stored in the arrays, lazily created
+	 */
+	private Map<Statement, V> overflow;
+
+	/**
+	 * Whether or not the arrays and {@link #overflow} are shared with another
+	 * map, and thus must be copied before being modified
+	 */
+	private boolean shared;
+
+	/**
+	 * Builds an empty map.
+	 */
+	public StatementArrayMap() {
+		this(-1, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Builds an empty map, able to contain the mappings for the statements
+	 * with offsets between {@code base} (included) and
+	 * {@code base + capacity} (excluded) without resizing its arrays. If
+	 * {@code base} is negative, the window of offsets will start at the offset
+	 * of the first statement added to the map.
+	 *
+	 * @param base     the first offset of the window
+	 * @param capacity the initial capacity
+	 */
+	public StatementArrayMap(int base, int capacity) {
+		this.base = base;
+		this.keys = new Statement[Math.max(1, capacity)];
+		this.values = new Object[keys.length];
+		this.arraySize = 0;
+		this.overflow = null;
+		this.shared = false;
+	}
+
+	/**
+	 * Builds a map containing the same mappings of the given one. If
+	 * {@code other} is an instance of this class, the copy takes constant time
+	 * and the arrays are copied only when one of the two maps is modified.
+	 *
+	 * @param other the map to copy
+	 */
+	public StatementArrayMap(Map<Statement, ? extends V> other) {
+		if (other instanceof StatementArrayMap) {
+			StatementArrayMap<?> o = (StatementArrayMap<?>) other;
+			this.base = o.base;
+			this.keys = o.keys;
+			this.values = o.values;
+			this.arraySize = o.arraySize;
+			@SuppressWarnings("unchecked")
+			Map<Statement, V> overflow = (Map<Statement, V>) o.overflow;
+			this.overflow = overflow;
+			this.shared = true;
+			o.shared = true;
+		} else {
+			this.base = -1;
+			this.keys = new Statement[Math.max(DEFAULT_CAPACITY, other.size())];
+			this.values = new Object[keys.length];
+			this.arraySize = 0;
+			this.overflow = null;
+			this.shared = false;
+			putAll(other);
+		}
+	}
+
+	/**
+	 * Yields the position of the given key in the arrays, or {@code -1} if it
+	 * is not stored there.
+	 */
+	private int indexOf(Object key) {
+		if (!(key instanceof Statement))
+			return -1;
+		int idx = ((Statement) key).getOffset() - base;
+		if (base < 0 || idx < 0 || idx >= keys.length || keys[idx] != key)
+			return -1;
+		return idx;
+	}
+
+	/**
+	 * Copies the arrays and {@link #overflow} if they are shared with another
+	 * map.
+	 */
+	private void unshare() {
+		if (!shared)
+			return;
+		keys = keys.clone();
+		values = values.clone();
+		if (overflow != null)
+			overflow = new HashMap<>(overflow);
+		shared = false;
+	}
+
+	/**
+	 * Makes sure that the arrays are not shared and that they can hold the
+	 * given offset, yielding the position of the offset in the arrays.
+	 */
+	private int ensureOwned(int offset) {
+		unshare();
+		if (base < 0 && arraySize == 0)
+			base = offset;
+
+		int idx = offset - base;
+		if (idx >= 0 && idx < keys.length)
+			return idx;
+
+		int length = keys.length;
+		int newBase = base, newEnd = base + length;
+		if (idx < 0)
+			newBase = Math.max(0, Math.min(offset, newEnd - 2 * length));
+		else
+			newEnd = Math.max(offset + 1, base + 2 * length);
+
+		Statement[] newKeys = new Statement[newEnd - newBase];
+		Object[] newValues = new Object[newKeys.length];
+		System.arraycopy(keys, 0, newKeys, base - newBase, length);
+		System.arraycopy(values, 0, newValues, base - newBase, length);
+		keys = newKeys;
+		values = newValues;
+		base = newBase;
+		return offset - base;
+	}
+
+	private Map<Statement, V> ownedOverflow() {
+		unshare();
+		if (overflow == null)
+			overflow = new HashMap<>();
+		return overflow;
+	}
+
+	@Override
+	public int size() {
+		return arraySize + (overflow == null ? 0 : overflow.size());
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return indexOf(key) >= 0 || (overflow != null && overflow.containsKey(key));
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(Object key) {
+		int idx = indexOf(key);
+		if (idx >= 0)
+			return (V) values[idx];
+		return overflow == null ? null : overflow.get(key);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V put(Statement key, V value) {
+		int idx = indexOf(key);
+		if (idx >= 0) {
+			V previous = (V) values[idx];
+			if (previous != value) {
+				idx = ensureOwned(key.getOffset());
+				values[idx] = value;
+			}
+			return previous;
+		}
+
+		int offset = key.getOffset();
+		if (offset >= 0 && (overflow == null || !overflow.containsKey(key))) {
+			int candidate = base < 0 ? -1 : offset - base;
+			if (candidate < 0 || candidate >= keys.length || keys[candidate] == null) {
+				idx = ensureOwned(offset);
+				keys[idx] = key;
+				values[idx] = value;
+				arraySize++;
+				return null;
+			}
+		}
+
+		// no offset, or the offset is used by another statement
+		return ownedOverflow().put(key, value);
+	}
+
+	@Override
+	public V remove(Object key) {
+		int idx = indexOf(key);
+		if (idx >= 0)
+			return removeAt(idx);
+		if (overflow == null || !overflow.containsKey(key))
+			return null;
+		return ownedOverflow().remove(key);
+	}
+
+	@SuppressWarnings("unchecked")
+	private V removeAt(int idx) {
+		V previous = (V) values[idx];
+		idx = ensureOwned(keys[idx].getOffset());
+		keys[idx] = null;
+		values[idx] = null;
+		arraySize--;
+		return previous;
+	}
+
+	@Override
+	public void clear() {
+		if (shared) {
+			keys = new Statement[DEFAULT_CAPACITY];
+			values = new Object[DEFAULT_CAPACITY];
+			overflow = null;
+			shared = false;
+		} else {
+			Arrays.fill(keys, null);
+			Arrays.fill(values, null);
+			if (overflow != null)
+				overflow.clear();
+		}
+		base = -1;
+		arraySize = 0;
+	}
+
+	@Override
+	public Set<Entry<Statement, V>> entrySet() {
+		return new AbstractSet<>() {
+
+			@Override
+			public Iterator<Entry<Statement, V>> iterator() {
+				return new Iterator<>() {
+
+					/**
+					 * The next position of the arrays to inspect
+					 */
+					private int next = 0;
+
+					/**
+					 * The position of the last entry returned from the
+					 * arrays, or {@code -1}
+					 */
+					private int last = -1;
+
+					/**
+					 * The iterator over the overflow, once the arrays have
+					 * been consumed
+					 */
+					private Iterator<Entry<Statement, V>> rest = null;
+
+					private Statement lastOverflow = null;
+
+					private void advance() {
+						while (next < keys.length && keys[next] == null)
+							next++;
+					}
+
+					@Override
+					public boolean hasNext() {
+						advance();
+						if (next < keys.length)
+							return true;
+						if (rest == null)
+							rest = overflow == null ? null : new HashMap<>(overflow).entrySet().iterator();
+						return rest != null && rest.hasNext();
+					}
+
+					@Override
+					public Entry<Statement, V> next() {
+						if (!hasNext())
+							throw new NoSuchElementException();
+						if (next < keys.length) {
+							last = next++;
+							lastOverflow = null;
+							@SuppressWarnings("unchecked")
+							V value = (V) values[last];
+							return new SimpleImmutableEntry<>(keys[last], value);
+						}
+
+						last = -1;
+						Entry<Statement, V> entry = rest.next();
+						lastOverflow = entry.getKey();
+						return new SimpleImmutableEntry<>(entry);
+					}
+
+					@Override
+					public void remove() {
+						if (last >= 0) {
+							removeAt(last);
+							last = -1;
+						} else if (lastOverflow != null) {
+							StatementArrayMap.this.remove(lastOverflow);
+							lastOverflow = null;
+						} else
+							throw new IllegalStateException();
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return StatementArrayMap.this.size();
+			}
+
+			@Override
+			public void clear() {
+				StatementArrayMap.this.clear();
+			}
+		};
+	}
+}
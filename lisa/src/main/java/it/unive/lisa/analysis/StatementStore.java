@@ -4,11 +4,14 @@ import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.lattices.FunctionalLattice;
 import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.program.cfg.statement.Statement;
+import java.util.Map;
 
 /**
  * A functional lattice that stores instances of {@link AnalysisState} computed
  * on statements. Storing states in such an object enables easy fixpoint
- * computation thanks to the function lub and widening operations.
+ * computation thanks to the function lub and widening operations. States are
+ * stored in a {@link StatementArrayMap}, indexed by the offsets of the
+ * statements.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -28,6 +31,26 @@ public class StatementStore<A extends AbstractState<A, H, V>, H extends HeapDoma
 		super(state);
 	}
 
+	/**
+	 * Builds the store, containing the given mappings.
+	 * 
+	 * @param state    an instance of the underlying lattice
+	 * @param function the mappings to store, that are copied in a
+	 *                     {@link StatementArrayMap} (or shared with it, if
+	 *                     {@code function} is already an instance of that
+	 *                     class)
+	 */
+	public StatementStore(AnalysisState<A, H, V> state, Map<Statement, AnalysisState<A, H, V>> function) {
+		super(state, new StatementArrayMap<>(function));
+	}
+
+	@Override
+	protected Map<Statement, AnalysisState<A, H, V>> mkNewFunction(Map<Statement, AnalysisState<A, H, V>> other) {
+		if (other == null)
+			return new StatementArrayMap<>();
+		return new StatementArrayMap<>(other);
+	}
+
 	/**
 	 * Stores the given state for the given statement. This is a "forced"
 	 * update, without performing any lattice operation if a mapping for the
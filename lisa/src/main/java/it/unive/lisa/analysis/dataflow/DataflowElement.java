@@ -9,6 +9,7 @@ import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.ValueExpression;
 import java.util.Collection;
+import java.util.Collections;
 
 /**
  * An element of the dataflow domain, that is associated to an
@@ -34,6 +35,20 @@ public interface DataflowElement<D extends DataflowDomain<D, E>, E extends Dataf
 	 */
 	Identifier getIdentifier();
 
+	/**
+	 * Yields the {@link Identifier}s whose values this element depends on,
+	 * besides the one returned by {@link #getIdentifier()}. When one of them
+	 * is assigned, this element is removed by the domain in addition to the
+	 * ones that are killed by
+	 * {@link #kill(Identifier, ValueExpression, ProgramPoint, DataflowDomain)}.
+	 * The default implementation yields an empty collection.
+	 * 
+	 * @return the identifiers this element depends on
+	 */
+	default Collection<Identifier> getOperands() {
+		return Collections.emptySet();
+	}
+
 	/**
 	 * The dataflow <i>gen</i> operation, yielding the dataflow elements that
 	 * are generated by the assignment of the given {@code expression} to the
@@ -53,7 +68,9 @@ public interface DataflowElement<D extends DataflowDomain<D, E>, E extends Dataf
 	/**
 	 * The dataflow <i>kill</i> operation, yielding the {@link Identifier}s that
 	 * are killed by the assignment of the given {@code expression} to the given
-	 * {@code id}.
+	 * {@code id}. Elements having {@code id} among their
+	 * {@link #getOperands()} are killed by the domain, and they do not need to
+	 * be returned by this method.
 	 * 
 	 * @param id         the {@link Identifier} being assigned
 	 * @param expression the expressions that is being assigned to {@code id}
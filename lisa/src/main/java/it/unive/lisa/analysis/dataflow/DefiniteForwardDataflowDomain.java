@@ -8,6 +8,7 @@ import it.unive.lisa.analysis.representation.SetRepresentation;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -33,6 +34,12 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 
 	private final E domain;
 
+	/**
+	 * The universe of the elements, if they are stored in bit vectors, or
+	 * {@code null} if they are stored in {@link HashSet}s
+	 */
+	private final ElementUniverse<E> universe;
+
 	/**
 	 * Builds an empty domain.
 	 * 
@@ -40,16 +47,58 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 	 *                   to perform <i>kill</i> and <i>gen</i> operations
 	 */
 	public DefiniteForwardDataflowDomain(E domain) {
-		this(domain, new HashSet<>(), true, false);
+		this(domain, false);
+	}
+
+	/**
+	 * Builds an empty domain, choosing how the elements are stored. If
+	 * {@code bitVectors} is {@code true}, each element generated during the
+	 * analysis is assigned a position in a universe shared by all the
+	 * instances derived from this one, and sets of elements are stored as bit
+	 * vectors over that universe: <i>kill</i>, <i>gen</i>, least upper bounds
+	 * and comparisons then become bitwise operations, at the price of never
+	 * releasing the positions of the elements that are no longer used.
+	 * 
+	 * @param domain     a singleton instance to be used during semantic
+	 *                       operations to perform <i>kill</i> and <i>gen</i>
+	 *                       operations
+	 * @param bitVectors whether or not elements should be stored in bit
+	 *                       vectors instead of {@link HashSet}s
+	 */
+	public DefiniteForwardDataflowDomain(E domain, boolean bitVectors) {
+		this(domain, bitVectors ? new ElementUniverse<>() : null, true, false);
+	}
+
+	private DefiniteForwardDataflowDomain(E domain, ElementUniverse<E> universe, boolean isTop, boolean isBottom) {
+		this(domain, universe, universe == null ? new HashSet<>() : universe.emptySet(), isTop, isBottom);
 	}
 
-	private DefiniteForwardDataflowDomain(E domain, Set<E> elements, boolean isTop, boolean isBottom) {
-		super(elements);
+	private DefiniteForwardDataflowDomain(E domain, ElementUniverse<E> universe, Set<E> elements, boolean isTop,
+			boolean isBottom) {
+		super(universe == null ? elements : universe.convert(elements));
 		this.domain = domain;
+		this.universe = universe;
 		this.isTop = isTop;
 		this.isBottom = isBottom;
 	}
 
+	/**
+	 * Yields the elements of this domain as a bit vector. This can be invoked
+	 * only if {@link #universe} is not {@code null}.
+	 */
+	private ExternalSet<E> bits() {
+		return (ExternalSet<E>) elements;
+	}
+
+	/**
+	 * Whether or not both this domain and the given one store their elements
+	 * as bit vectors of the same universe. Elements of instances with a
+	 * universe are always converted to bit vectors when they are built.
+	 */
+	private boolean sameUniverse(DefiniteForwardDataflowDomain<E> other) {
+		return universe != null && universe == other.universe;
+	}
+
 	@Override
 	public DefiniteForwardDataflowDomain<E> assign(Identifier id, ValueExpression expression, ProgramPoint pp)
 			throws SemanticException {
@@ -60,11 +109,17 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 		// or if the expression cannot be processed, return this
 		if (!domain.tracksIdentifiers(id) || !domain.canProcess(expression))
 			return this;
-		DefiniteForwardDataflowDomain<E> killed = forgetIdentifiers(domain.kill(id, expression, pp, this));
+		DefiniteForwardDataflowDomain<E> killed = forgetIdentifiers(domain.kill(id, expression, pp, this))
+				.forgetDependents(id);
+		if (universe != null) {
+			ExternalSet<E> generated = universe.mkSet(domain.gen(id, expression, pp, this));
+			return new DefiniteForwardDataflowDomain<E>(domain, universe, killed.bits().union(generated), false, false);
+		}
+
 		Set<E> updated = new HashSet<>(killed.elements);
 		for (E generated : domain.gen(id, expression, pp, this))
 			updated.add(generated);
-		return new DefiniteForwardDataflowDomain<E>(domain, updated, false, false);
+		return new DefiniteForwardDataflowDomain<E>(domain, universe, updated, false, false);
 	}
 
 	@Override
@@ -85,6 +140,13 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 		if (isTop())
 			return this;
 
+		if (universe != null) {
+			ExternalSet<E> mask = universe.killMask(id);
+			if (mask == null || !bits().intersects(mask))
+				return this;
+			return new DefiniteForwardDataflowDomain<E>(domain, universe, bits().difference(mask), false, false);
+		}
+
 		Collection<E> toRemove = new LinkedList<>();
 		for (E e : elements)
 			if (e.getIdentifier().equals(id))
@@ -94,7 +156,47 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 			return this;
 		Set<E> updated = new HashSet<>(elements);
 		updated.removeAll(toRemove);
-		return new DefiniteForwardDataflowDomain<E>(domain, updated, false, false);
+		return new DefiniteForwardDataflowDomain<E>(domain, universe, updated, false, false);
+	}
+
+	/**
+	 * Yields a copy of this domain without the elements having {@code id}
+	 * among their {@link DataflowElement#getOperands()}.
+	 */
+	private DefiniteForwardDataflowDomain<E> forgetDependents(Identifier id) {
+		if (isTop() || isBottom())
+			return this;
+
+		if (universe != null) {
+			ExternalSet<E> mask = universe.operandMask(id);
+			if (mask == null || !bits().intersects(mask))
+				return this;
+			return new DefiniteForwardDataflowDomain<E>(domain, universe, bits().difference(mask), false, false);
+		}
+
+		Set<E> updated = new HashSet<>();
+		for (E e : elements)
+			if (!e.getOperands().contains(id))
+				updated.add(e);
+
+		if (updated.size() == elements.size())
+			return this;
+		return new DefiniteForwardDataflowDomain<E>(domain, universe, updated, false, false);
+	}
+
+	@Override
+	protected DefiniteForwardDataflowDomain<E> lubAux(DefiniteForwardDataflowDomain<E> other)
+			throws SemanticException {
+		if (sameUniverse(other))
+			return mk(bits().intersection(other.bits()));
+		return super.lubAux(other);
+	}
+
+	@Override
+	protected boolean lessOrEqualAux(DefiniteForwardDataflowDomain<E> other) throws SemanticException {
+		if (sameUniverse(other))
+			return bits().contains(other.bits());
+		return super.lessOrEqualAux(other);
 	}
 
 	@Override
@@ -133,7 +235,7 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 
 	@Override
 	public DefiniteForwardDataflowDomain<E> top() {
-		return new DefiniteForwardDataflowDomain<>(domain, new HashSet<>(), true, false);
+		return new DefiniteForwardDataflowDomain<>(domain, universe, true, false);
 	}
 
 	@Override
@@ -143,7 +245,7 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 
 	@Override
 	public DefiniteForwardDataflowDomain<E> bottom() {
-		return new DefiniteForwardDataflowDomain<>(domain, new HashSet<>(), false, true);
+		return new DefiniteForwardDataflowDomain<>(domain, universe, false, true);
 	}
 
 	@Override
@@ -153,7 +255,7 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 
 	@Override
 	protected DefiniteForwardDataflowDomain<E> mk(Set<E> set) {
-		return new DefiniteForwardDataflowDomain<>(domain, set, false, false);
+		return new DefiniteForwardDataflowDomain<>(domain, universe, set, false, false);
 	}
 
 	@Override
@@ -163,21 +265,21 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 
 	@Override
 	public DefiniteForwardDataflowDomain<E> pushScope(ScopeToken scope) throws SemanticException {
-		DefiniteForwardDataflowDomain<E> result = new DefiniteForwardDataflowDomain<>(this.domain);
+		Set<E> result = new HashSet<>();
 		E pushed;
 		for (E element : this.elements)
 			if ((pushed = element.pushScope(scope)) != null)
-				result.elements.add(pushed);
-		return result;
+				result.add(pushed);
+		return new DefiniteForwardDataflowDomain<>(domain, universe, result, true, false);
 	}
 
 	@Override
 	public DefiniteForwardDataflowDomain<E> popScope(ScopeToken scope) throws SemanticException {
-		DefiniteForwardDataflowDomain<E> result = new DefiniteForwardDataflowDomain<>(this.domain);
+		Set<E> result = new HashSet<>();
 		E popped;
 		for (E element : this.elements)
 			if ((popped = element.popScope(scope)) != null)
-				result.elements.add(popped);
-		return result;
+				result.add(popped);
+		return new DefiniteForwardDataflowDomain<>(domain, universe, result, true, false);
 	}
 }
@@ -0,0 +1,153 @@
+package it.unive.lisa.analysis.dataflow;
+
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The universe of {@link DataflowElement}s used by the bit-vector-backed
+ * variants of {@link PossibleForwardDataflowDomain} and
+ * {@link DefiniteForwardDataflowDomain}. Each element is assigned a position
+ * in an {@link ExternalSetCache} the first time it is generated, and sets of
+ * elements are {@link ExternalSet}s over that cache, so that least upper
+ * bounds, greatest lower bounds and comparisons are bitwise operations over
+ * arrays of {@code long}s. For each {@link Identifier}, the universe also
+ * keeps the set of elements that refer to it (see
+ * {@link DataflowElement#getIdentifier()}) and the set of elements that depend
+ * on it (see {@link DataflowElement#getOperands()}): forgetting an identifier,
+ * or killing the elements that depend on it, is then a bitwise difference
+ * with one of those sets.<br>
+ * <br>
+ * The universe is shared by all the instances of the domain that are derived
+ * from the same top (or bottom) one, and it grows during the analysis. The sets
+ * created through this class, and the ones yielded by
+ * {@link #killMask(Identifier)} and {@link #operandMask(Identifier)}, must
+ * never be modified. Instances of this class are thread-safe.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <E> the type of {@link DataflowElement} contained in this universe
+ */
+final class ElementUniverse<E extends DataflowElement<?, E>> {
+
+	private final ExternalSetCache<E> cache;
+
+	private final ExternalSet<E> empty;
+
+	/**
+	 * The elements referring to each identifier
+	 */
+	private final ConcurrentMap<Identifier, ExternalSet<E>> masks;
+
+	/**
+	 * The elements depending on each identifier
+	 */
+	private final ConcurrentMap<Identifier, ExternalSet<E>> operandMasks;
+
+	/**
+	 * Builds an empty universe.
+	 */
+	ElementUniverse() {
+		cache = new ExternalSetCache<>();
+		empty = cache.mkEmptySet();
+		masks = new ConcurrentHashMap<>();
+		operandMasks = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Yields the empty set of this universe.
+	 *
+	 * @return the empty set
+	 */
+	ExternalSet<E> emptySet() {
+		return empty;
+	}
+
+	/**
+	 * Yields a set of this universe containing the given elements, adding
+	 * them to the universe if needed.
+	 *
+	 * @param elements the elements
+	 *
+	 * @return the set containing {@code elements}
+	 */
+	ExternalSet<E> mkSet(Iterable<E> elements) {
+		ExternalSet<E> result = cache.mkSet(elements);
+		for (E e : elements)
+			register(e);
+		return result;
+	}
+
+	/**
+	 * Yields a set of this universe equal to the given one. If {@code set} is
+	 * already a set of this universe, it is returned as-is.
+	 *
+	 * @param set the set to convert
+	 *
+	 * @return a set of this universe containing the elements of {@code set}
+	 */
+	ExternalSet<E> convert(Set<E> set) {
+		if (owns(set))
+			return (ExternalSet<E>) set;
+		return mkSet(set);
+	}
+
+	/**
+	 * Yields {@code true} if and only if the given set is a set of this
+	 * universe.
+	 *
+	 * @param set the set
+	 *
+	 * @return whether or not {@code set} belongs to this universe
+	 */
+	private boolean owns(Set<?> set) {
+		return set instanceof ExternalSet && ((ExternalSet<?>) set).getCache() == cache;
+	}
+
+	/**
+	 * Yields the set of elements of this universe that refer to the given
+	 * identifier, or {@code null} if no such element exists.
+	 *
+	 * @param id the identifier
+	 *
+	 * @return the elements referring to {@code id}, or {@code null}
+	 */
+	ExternalSet<E> killMask(Identifier id) {
+		return masks.get(id);
+	}
+
+	/**
+	 * Yields the set of elements of this universe that have the given
+	 * identifier among their operands, or {@code null} if no such element
+	 * exists.
+	 *
+	 * @param id the identifier
+	 *
+	 * @return the elements depending on {@code id}, or {@code null}
+	 */
+	ExternalSet<E> operandMask(Identifier id) {
+		return operandMasks.get(id);
+	}
+
+	private void register(E element) {
+		Identifier id = element.getIdentifier();
+		if (id != null)
+			addToMask(masks, id, element);
+		for (Identifier operand : element.getOperands())
+			addToMask(operandMasks, operand, element);
+	}
+
+	private void addToMask(ConcurrentMap<Identifier, ExternalSet<E>> table, Identifier id, E element) {
+		ExternalSet<E> mask = table.get(id);
+		if (mask != null && mask.contains(element))
+			return;
+
+		// masks are replaced instead of being modified, since they might be
+		// in use by other threads
+		table.compute(id, (k, current) -> current == null ? cache.mkSingletonSet(element)
+				: current.contains(element) ? current : current.union(cache.mkSingletonSet(element)));
+	}
+}
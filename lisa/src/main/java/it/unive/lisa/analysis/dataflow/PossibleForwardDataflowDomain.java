@@ -8,6 +8,7 @@ import it.unive.lisa.analysis.representation.SetRepresentation;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -31,6 +32,12 @@ public class PossibleForwardDataflowDomain<E extends DataflowElement<PossibleFor
 
 	private final E domain;
 
+	/**
+	 * The universe of the elements, if they are stored in bit vectors, or
+	 * {@code null} if they are stored in {@link HashSet}s
+	 */
+	private final ElementUniverse<E> universe;
+
 	/**
 	 * Builds an empty domain.
 	 * 
@@ -38,16 +45,58 @@ public class PossibleForwardDataflowDomain<E extends DataflowElement<PossibleFor
 	 *                   to perform <i>kill</i> and <i>gen</i> operations
 	 */
 	public PossibleForwardDataflowDomain(E domain) {
-		this(domain, new HashSet<>(), true, false);
+		this(domain, false);
+	}
+
+	/**
+	 * Builds an empty domain, choosing how the elements are stored. If
+	 * {@code bitVectors} is {@code true}, each element generated during the
+	 * analysis is assigned a position in a universe shared by all the
+	 * instances derived from this one, and sets of elements are stored as bit
+	 * vectors over that universe: <i>kill</i>, <i>gen</i>, least upper bounds
+	 * and comparisons then become bitwise operations, at the price of never
+	 * releasing the positions of the elements that are no longer used.
+	 * 
+	 * @param domain     a singleton instance to be used during semantic
+	 *                       operations to perform <i>kill</i> and <i>gen</i>
+	 *                       operations
+	 * @param bitVectors whether or not elements should be stored in bit
+	 *                       vectors instead of {@link HashSet}s
+	 */
+	public PossibleForwardDataflowDomain(E domain, boolean bitVectors) {
+		this(domain, bitVectors ? new ElementUniverse<>() : null, true, false);
+	}
+
+	private PossibleForwardDataflowDomain(E domain, ElementUniverse<E> universe, boolean isTop, boolean isBottom) {
+		this(domain, universe, universe == null ? new HashSet<>() : universe.emptySet(), isTop, isBottom);
 	}
 
-	private PossibleForwardDataflowDomain(E domain, Set<E> elements, boolean isTop, boolean isBottom) {
-		super(elements);
+	private PossibleForwardDataflowDomain(E domain, ElementUniverse<E> universe, Set<E> elements, boolean isTop,
+			boolean isBottom) {
+		super(universe == null ? elements : universe.convert(elements));
 		this.domain = domain;
+		this.universe = universe;
 		this.isTop = isTop;
 		this.isBottom = isBottom;
 	}
 
+	/**
+	 * Yields the elements of this domain as a bit vector. This can be invoked
+	 * only if {@link #universe} is not {@code null}.
+	 */
+	private ExternalSet<E> bits() {
+		return (ExternalSet<E>) elements;
+	}
+
+	/**
+	 * Whether or not both this domain and the given one store their elements
+	 * as bit vectors of the same universe. Elements of instances with a
+	 * universe are always converted to bit vectors when they are built.
+	 */
+	private boolean sameUniverse(PossibleForwardDataflowDomain<E> other) {
+		return universe != null && universe == other.universe;
+	}
+
 	@Override
 	public PossibleForwardDataflowDomain<E> assign(Identifier id, ValueExpression expression, ProgramPoint pp)
 			throws SemanticException {
@@ -58,11 +107,17 @@ public class PossibleForwardDataflowDomain<E extends DataflowElement<PossibleFor
 		// or if the expression cannot be processed, return this
 		if (!domain.tracksIdentifiers(id) || !domain.canProcess(expression))
 			return this;
-		PossibleForwardDataflowDomain<E> killed = forgetIdentifiers(domain.kill(id, expression, pp, this));
+		PossibleForwardDataflowDomain<E> killed = forgetIdentifiers(domain.kill(id, expression, pp, this))
+				.forgetDependents(id);
+		if (universe != null) {
+			ExternalSet<E> generated = universe.mkSet(domain.gen(id, expression, pp, this));
+			return new PossibleForwardDataflowDomain<E>(domain, universe, killed.bits().union(generated), false, false);
+		}
+
 		Set<E> updated = new HashSet<>(killed.elements);
 		for (E generated : domain.gen(id, expression, pp, this))
 			updated.add(generated);
-		return new PossibleForwardDataflowDomain<E>(domain, updated, false, false);
+		return new PossibleForwardDataflowDomain<E>(domain, universe, updated, false, false);
 	}
 
 	@Override
@@ -83,6 +138,13 @@ public class PossibleForwardDataflowDomain<E extends DataflowElement<PossibleFor
 		if (isTop())
 			return this;
 
+		if (universe != null) {
+			ExternalSet<E> mask = universe.killMask(id);
+			if (mask == null || !bits().intersects(mask))
+				return this;
+			return new PossibleForwardDataflowDomain<E>(domain, universe, bits().difference(mask), false, false);
+		}
+
 		Collection<E> toRemove = new LinkedList<>();
 		for (E e : elements)
 			if (e.getIdentifier().equals(id))
@@ -92,7 +154,47 @@ public class PossibleForwardDataflowDomain<E extends DataflowElement<PossibleFor
 			return this;
 		Set<E> updated = new HashSet<>(elements);
 		updated.removeAll(toRemove);
-		return new PossibleForwardDataflowDomain<E>(domain, updated, false, false);
+		return new PossibleForwardDataflowDomain<E>(domain, universe, updated, false, false);
+	}
+
+	/**
+	 * Yields a copy of this domain without the elements having {@code id}
+	 * among their {@link DataflowElement#getOperands()}.
+	 */
+	private PossibleForwardDataflowDomain<E> forgetDependents(Identifier id) {
+		if (isTop() || isBottom())
+			return this;
+
+		if (universe != null) {
+			ExternalSet<E> mask = universe.operandMask(id);
+			if (mask == null || !bits().intersects(mask))
+				return this;
+			return new PossibleForwardDataflowDomain<E>(domain, universe, bits().difference(mask), false, false);
+		}
+
+		Set<E> updated = new HashSet<>();
+		for (E e : elements)
+			if (!e.getOperands().contains(id))
+				updated.add(e);
+
+		if (updated.size() == elements.size())
+			return this;
+		return new PossibleForwardDataflowDomain<E>(domain, universe, updated, false, false);
+	}
+
+	@Override
+	protected PossibleForwardDataflowDomain<E> lubAux(PossibleForwardDataflowDomain<E> other)
+			throws SemanticException {
+		if (sameUniverse(other))
+			return mk(bits().union(other.bits()));
+		return super.lubAux(other);
+	}
+
+	@Override
+	protected boolean lessOrEqualAux(PossibleForwardDataflowDomain<E> other) throws SemanticException {
+		if (sameUniverse(other))
+			return other.bits().contains(bits());
+		return super.lessOrEqualAux(other);
 	}
 
 	@Override
@@ -131,7 +233,7 @@ public class PossibleForwardDataflowDomain<E extends DataflowElement<PossibleFor
 
 	@Override
 	public PossibleForwardDataflowDomain<E> top() {
-		return new PossibleForwardDataflowDomain<>(domain, new HashSet<>(), true, false);
+		return new PossibleForwardDataflowDomain<>(domain, universe, true, false);
 	}
 
 	@Override
@@ -141,7 +243,7 @@ public class PossibleForwardDataflowDomain<E extends DataflowElement<PossibleFor
 
 	@Override
 	public PossibleForwardDataflowDomain<E> bottom() {
-		return new PossibleForwardDataflowDomain<>(domain, new HashSet<>(), false, true);
+		return new PossibleForwardDataflowDomain<>(domain, universe, false, true);
 	}
 
 	@Override
@@ -151,7 +253,7 @@ public class PossibleForwardDataflowDomain<E extends DataflowElement<PossibleFor
 
 	@Override
 	protected PossibleForwardDataflowDomain<E> mk(Set<E> set) {
-		return new PossibleForwardDataflowDomain<>(domain, set, false, false);
+		return new PossibleForwardDataflowDomain<>(domain, universe, set, false, false);
 	}
 
 	@Override
@@ -161,22 +263,22 @@ public class PossibleForwardDataflowDomain<E extends DataflowElement<PossibleFor
 
 	@Override
 	public PossibleForwardDataflowDomain<E> pushScope(ScopeToken scope) throws SemanticException {
-		PossibleForwardDataflowDomain<E> result = new PossibleForwardDataflowDomain<>(this.domain);
+		Set<E> result = new HashSet<>();
 		E pushed;
 		for (E element : this.elements)
 			if ((pushed = element.pushScope(scope)) != null)
-				result.elements.add(pushed);
-		return result;
+				result.add(pushed);
+		return new PossibleForwardDataflowDomain<>(domain, universe, result, true, false);
 	}
 
 	@Override
 	public PossibleForwardDataflowDomain<E> popScope(ScopeToken scope) throws SemanticException {
-		PossibleForwardDataflowDomain<E> result = new PossibleForwardDataflowDomain<>(this.domain);
+		Set<E> result = new HashSet<>();
 		E popped;
 		for (E element : this.elements)
 			if ((popped = element.popScope(scope)) != null)
-				result.elements.add(popped);
-		return result;
+				result.add(popped);
+		return new PossibleForwardDataflowDomain<>(domain, universe, result, true, false);
 	}
 
 }
@@ -16,6 +16,7 @@ import it.unive.lisa.symbolic.value.TernaryExpression;
 import it.unive.lisa.symbolic.value.UnaryExpression;
 import it.unive.lisa.symbolic.value.ValueExpression;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 
 /**
@@ -30,6 +31,12 @@ public class AvailableExpressions
 	private final Identifier id;
 	private final ValueExpression expression;
 
+	/**
+	 * The identifiers appearing in {@link #expression}, computed once since
+	 * they are queried by every assignment
+	 */
+	private final Collection<Identifier> operands;
+
 	/**
 	 * Builds an empty available expressions object.
 	 */
@@ -40,6 +47,7 @@ public class AvailableExpressions
 	private AvailableExpressions(Identifier id, ValueExpression expression) {
 		this.id = id;
 		this.expression = expression;
+		this.operands = expression == null ? Collections.emptySet() : getIdentifierOperands(expression);
 	}
 
 	@Override
@@ -52,7 +60,12 @@ public class AvailableExpressions
 		return id;
 	}
 
-	private Collection<Identifier> getIdentifierOperands(SymbolicExpression expression) {
+	@Override
+	public Collection<Identifier> getOperands() {
+		return operands;
+	}
+
+	private static Collection<Identifier> getIdentifierOperands(SymbolicExpression expression) {
 		Collection<Identifier> result = new HashSet<>();
 
 		if (expression instanceof Identifier)
@@ -88,17 +101,9 @@ public class AvailableExpressions
 	@Override
 	public Collection<Identifier> kill(Identifier id, ValueExpression expression, ProgramPoint pp,
 			DefiniteForwardDataflowDomain<AvailableExpressions> domain) {
-		Collection<Identifier> result = new HashSet<>();
-		result.add(id);
-
-		for (AvailableExpressions ae : domain.getDataflowElements()) {
-			Collection<Identifier> ids = getIdentifierOperands(ae.expression);
-
-			if (ids.contains(id))
-				result.add(ae.getIdentifier());
-		}
-
-		return result;
+		// the expressions using id are killed by the domain, since id is
+		// among their operands
+		return Collections.singleton(id);
 	}
 
 	@Override
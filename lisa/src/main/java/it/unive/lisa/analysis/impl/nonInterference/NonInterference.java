@@ -17,11 +17,17 @@ import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.TernaryOperator;
 import it.unive.lisa.symbolic.value.UnaryOperator;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import it.unive.lisa.util.collections.HashConsingPool;
+import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.Map;
 
 /**
  * The type-system based implementation of the non interference analysis.
+ * Instances of this class are hash-consed through a {@link HashConsingPool}
+ * shared by all the values created starting from the same instance built with
+ * {@link #NonInterference()}: distinct values of the same analysis are never
+ * equal, and can be compared with {@code ==}.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -40,25 +46,59 @@ public class NonInterference extends BaseInferredValue<NonInterference> {
 
 	private final byte integrity;
 
+	/**
+	 * The guards, mapped to the guard-free value they evaluate to. This map is
+	 * never modified after the creation of this instance.
+	 */
 	private final Map<ProgramPoint, NonInterference> guards;
 
+	private final int hash;
+
+	private final HashConsingPool<NonInterference> pool;
+
+	/**
+	 * Whether or not this is the canonical instance of {@link #pool}
+	 */
+	private boolean canonical;
+
 	/**
 	 * Builds a new instance of non interference, referring to the top element
-	 * of the lattice.
+	 * of the lattice. The new instance uses a fresh {@link HashConsingPool} to
+	 * canonicalize all the values created starting from it.
 	 */
 	public NonInterference() {
-		this(NI_HIGH, NI_LOW);
+		this(NI_HIGH, NI_LOW, Collections.emptyMap(), new HashConsingPool<>());
+		pool.intern(this);
+		canonical = true;
 	}
 
-	private NonInterference(byte confidentiality, byte integrity) {
+	private NonInterference(byte confidentiality, byte integrity, Map<ProgramPoint, NonInterference> guards,
+			HashConsingPool<NonInterference> pool) {
 		this.confidentiality = confidentiality;
 		this.integrity = integrity;
-		this.guards = new IdentityHashMap<>();
+		this.guards = guards;
+		this.pool = pool;
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + confidentiality;
+		result = prime * result + guards.hashCode();
+		result = prime * result + integrity;
+		this.hash = result;
+	}
+
+	private NonInterference mk(byte confidentiality, byte integrity) {
+		return mk(confidentiality, integrity, Collections.emptyMap());
+	}
+
+	private NonInterference mk(byte confidentiality, byte integrity, Map<ProgramPoint, NonInterference> guards) {
+		NonInterference result = pool.intern(new NonInterference(confidentiality, integrity, guards, pool));
+		result.canonical = true;
+		return result;
 	}
 
 	@Override
 	public NonInterference top() {
-		return new NonInterference(NI_HIGH, NI_LOW);
+		return mk(NI_HIGH, NI_LOW);
 	}
 
 	@Override
@@ -68,7 +108,7 @@ public class NonInterference extends BaseInferredValue<NonInterference> {
 
 	@Override
 	public NonInterference bottom() {
-		return new NonInterference(NI_BOTTOM, NI_BOTTOM);
+		return mk(NI_BOTTOM, NI_BOTTOM);
 	}
 
 	@Override
@@ -127,7 +167,7 @@ public class NonInterference extends BaseInferredValue<NonInterference> {
 		// BB
 		byte confidentiality = isHighConfidentiality() || other.isHighConfidentiality() ? NI_HIGH : NI_LOW;
 		byte integrity = isLowIntegrity() || other.isLowIntegrity() ? NI_LOW : NI_HIGH;
-		return new NonInterference(confidentiality, integrity);
+		return mk(confidentiality, integrity);
 	}
 
 	@Override
@@ -151,12 +191,7 @@ public class NonInterference extends BaseInferredValue<NonInterference> {
 
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + confidentiality;
-		result = prime * result + ((guards == null) ? 0 : guards.hashCode());
-		result = prime * result + integrity;
-		return result;
+		return hash;
 	}
 
 	@Override
@@ -168,15 +203,17 @@ public class NonInterference extends BaseInferredValue<NonInterference> {
 		if (getClass() != obj.getClass())
 			return false;
 		NonInterference other = (NonInterference) obj;
-		if (confidentiality != other.confidentiality)
+		if (canonical && other.canonical && pool == other.pool)
+			// distinct canonical instances are never equal
 			return false;
-		if (guards == null) {
-			if (other.guards != null)
-				return false;
-		} else if (!guards.equals(other.guards))
+		if (hash != other.hash)
+			return false;
+		if (confidentiality != other.confidentiality)
 			return false;
 		if (integrity != other.integrity)
 			return false;
+		if (!guards.equals(other.guards))
+			return false;
 		return true;
 	}
 
@@ -194,22 +231,19 @@ public class NonInterference extends BaseInferredValue<NonInterference> {
 		for (NonInterference guard : guards.values())
 			res = res.lub(guard);
 
-		// we have to create a new one here, otherwise we would end up
-		// adding those entries to one of the
-		guards.forEach(res.guards::put);
-		return res;
+		return guards.isEmpty() ? res : mk(res.confidentiality, res.integrity, guards);
 	}
 
 	private NonInterference mkLowHigh() {
-		return new NonInterference(NI_LOW, NI_HIGH);
+		return mk(NI_LOW, NI_HIGH);
 	}
 
 	private NonInterference mkLowLow() {
-		return new NonInterference(NI_LOW, NI_LOW);
+		return mk(NI_LOW, NI_LOW);
 	}
 
 	private NonInterference mkHighHigh() {
-		return new NonInterference(NI_HIGH, NI_HIGH);
+		return mk(NI_HIGH, NI_HIGH);
 	}
 
 	private NonInterference mkHighLow() {
@@ -290,8 +324,8 @@ public class NonInterference extends BaseInferredValue<NonInterference> {
 			ValueExpression expression, ProgramPoint pp) throws SemanticException {
 		InferredPair<NonInterference> eval = eval(expression, environment, pp);
 		NonInterference inf = eval.getInferred();
-		eval.getState().guards.forEach(inf.guards::put);
-		inf.guards.put(pp, inf);
-		return new InferenceSystem<>(environment, inf);
+		Map<ProgramPoint, NonInterference> guards = new IdentityHashMap<>(eval.getState().guards);
+		guards.put(pp, mk(inf.confidentiality, inf.integrity));
+		return new InferenceSystem<>(environment, mk(inf.confidentiality, inf.integrity, guards));
 	}
 }
@@ -15,11 +15,6 @@ import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.TernaryOperator;
 import it.unive.lisa.symbolic.value.UnaryOperator;
 import it.unive.lisa.symbolic.value.ValueExpression;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.SortedSet;
-import java.util.TreeSet;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * The interval abstract domain, approximating integer values as the minimum
@@ -29,44 +24,98 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * Top and bottom cases for least upper bounds, widening and less or equals
  * operations are handled by {@link BaseLattice} in {@link BaseLattice#lub},
  * {@link BaseLattice#widening} and {@link BaseLattice#lessOrEqual} methods,
- * respectively.
- * 
+ * respectively.<br>
+ * <br>
+ * Bounds are stored as primitive {@code long}s, using
+ * {@link #MINUS_INFINITY} and {@link #PLUS_INFINITY} to represent infinite
+ * bounds. Arithmetic operations saturate: a bound that does not fit in a
+ * {@code long} becomes infinite. Instances are immutable, and
+ * {@link #of(long, long)} shares canonical instances for top, bottom and
+ * small singleton intervals.
+ *
  * @author <a href="mailto:vincenzo.arceri@unive.it">Vincenzo Arceri</a>
  */
 public class Interval extends BaseNonRelationalValueDomain<Interval> {
 
-	private static final Interval TOP = new Interval(null, null, true);
-	private static final Interval BOTTOM = new Interval(null, null, false);
+	/**
+	 * The value representing a low bound of minus infinity.
+	 */
+	public static final long MINUS_INFINITY = Long.MIN_VALUE;
+
+	/**
+	 * The value representing a high bound of plus infinity.
+	 */
+	public static final long PLUS_INFINITY = Long.MAX_VALUE;
 
-	private final boolean isTop;
+	private static final Interval TOP = new Interval(MINUS_INFINITY, PLUS_INFINITY);
+	private static final Interval BOTTOM = new Interval(PLUS_INFINITY, MINUS_INFINITY);
 
-	private final Integer low;
-	private final Integer high;
+	private static final int CACHE_LOW = -128;
+	private static final int CACHE_HIGH = 127;
+	private static final Interval[] SINGLETONS = new Interval[CACHE_HIGH - CACHE_LOW + 1];
 
-	private Interval(Integer low, Integer high, boolean isTop) {
+	static {
+		for (int i = 0; i < SINGLETONS.length; i++)
+			SINGLETONS[i] = new Interval(i + CACHE_LOW, i + CACHE_LOW);
+	}
+
+	private final long low;
+	private final long high;
+
+	private Interval(long low, long high) {
 		this.low = low;
 		this.high = high;
-		this.isTop = isTop;
 	}
 
 	/**
-	 * Builds an interval from its low bound and high bound. Call this
-	 * constructor iff {@code low} and {@code high} are not both null. If you
-	 * need to build top or bottom elements, call {@link Interval#top()} and
-	 * {@link Interval#bottom()}, respectively.
-	 * 
-	 * @param low  the low bound
-	 * @param high the high bound
+	 * Builds the top interval.
 	 */
-	public Interval(Integer low, Integer high) {
-		this(low, high, false);
+	public Interval() {
+		this(MINUS_INFINITY, PLUS_INFINITY);
 	}
 
 	/**
-	 * Builds the top interval.
+	 * Yields the interval {@code [low, high]}. If {@code low > high}, the
+	 * bottom interval is returned. A {@code low} bound equal to
+	 * {@link #PLUS_INFINITY} is approximated with the greatest finite value,
+	 * and a {@code high} bound equal to {@link #MINUS_INFINITY} with the
+	 * smallest finite value. Canonical instances are returned for top and for
+	 * small singletons.
+	 *
+	 * @param low  the low bound, or {@link #MINUS_INFINITY}
+	 * @param high the high bound, or {@link #PLUS_INFINITY}
+	 *
+	 * @return the interval
 	 */
-	public Interval() {
-		this(null, null, true);
+	public static Interval of(long low, long high) {
+		if (low == PLUS_INFINITY)
+			low = PLUS_INFINITY - 1;
+		if (high == MINUS_INFINITY)
+			high = MINUS_INFINITY + 1;
+		if (low > high)
+			return BOTTOM;
+		if (low == MINUS_INFINITY && high == PLUS_INFINITY)
+			return TOP;
+		if (low == high && low >= CACHE_LOW && low <= CACHE_HIGH)
+			return SINGLETONS[(int) low - CACHE_LOW];
+		return new Interval(low, high);
+	}
+
+	/**
+	 * Builds an interval from its low bound and high bound, where
+	 * {@code null} stands for an infinite bound. Call this constructor iff
+	 * {@code low} and {@code high} are not both null. If you need to build top
+	 * or bottom elements, call {@link Interval#top()} and
+	 * {@link Interval#bottom()}, respectively.
+	 * 
+	 * @param low  the low bound, or {@code null} for minus infinity
+	 * @param high the high bound, or {@code null} for plus infinity
+	 * 
+	 * @deprecated use {@link #of(long, long)}, that shares canonical instances
+	 */
+	@Deprecated
+	public Interval(Integer low, Integer high) {
+		this(low == null ? MINUS_INFINITY : low, high == null ? PLUS_INFINITY : high);
 	}
 
 	@Override
@@ -76,7 +125,7 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 
 	@Override
 	public boolean isTop() {
-		return isTop && low == null && low == high;
+		return low == MINUS_INFINITY && high == PLUS_INFINITY;
 	}
 
 	@Override
@@ -86,25 +135,73 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 
 	@Override
 	public boolean isBottom() {
-		return !isTop && low == null && low == high;
+		return low > high;
 	}
 
 	/**
 	 * Yields the high bound of this interval.
-	 * 
-	 * @return the high bound of this interval.
+	 *
+	 * @return the high bound of this interval, or {@link #PLUS_INFINITY}
 	 */
-	public Integer getHigh() {
+	public long getHighBound() {
 		return high;
 	}
 
 	/**
 	 * Yields the low bound of this interval.
+	 *
+	 * @return the low bound of this interval, or {@link #MINUS_INFINITY}
+	 */
+	public long getLowBound() {
+		return low;
+	}
+
+	/**
+	 * Yields the high bound of this interval. A bound that does not fit in an
+	 * {@code int} is approximated with plus infinity.
+	 * 
+	 * @return the high bound of this interval, or {@code null} if it is plus
+	 *             infinity
+	 * 
+	 * @deprecated use {@link #getHighBound()}
+	 */
+	@Deprecated
+	public Integer getHigh() {
+		return high > Integer.MAX_VALUE || high < Integer.MIN_VALUE ? null : (int) high;
+	}
+
+	/**
+	 * Yields the low bound of this interval. A bound that does not fit in an
+	 * {@code int} is approximated with minus infinity.
+	 * 
+	 * @return the low bound of this interval, or {@code null} if it is minus
+	 *             infinity
 	 * 
-	 * @return the low bound of this interval.
+	 * @deprecated use {@link #getLowBound()}
 	 */
+	@Deprecated
 	public Integer getLow() {
-		return low;
+		return low > Integer.MAX_VALUE || low < Integer.MIN_VALUE ? null : (int) low;
+	}
+
+	/**
+	 * Yields {@code true} if and only if the low bound of this interval is
+	 * minus infinity.
+	 *
+	 * @return {@code true} if the low bound is minus infinity
+	 */
+	public boolean lowIsMinusInfinity() {
+		return low == MINUS_INFINITY;
+	}
+
+	/**
+	 * Yields {@code true} if and only if the high bound of this interval is
+	 * plus infinity.
+	 *
+	 * @return {@code true} if the high bound is plus infinity
+	 */
+	public boolean highIsPlusInfinity() {
+		return high == PLUS_INFINITY;
 	}
 
 	@Override
@@ -126,8 +223,8 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 	@Override
 	protected Interval evalNonNullConstant(Constant constant, ProgramPoint pp) {
 		if (constant.getValue() instanceof Integer) {
-			Integer i = (Integer) constant.getValue();
-			return new Interval(i, i);
+			int i = (Integer) constant.getValue();
+			return of(i, i);
 		}
 
 		return top();
@@ -139,18 +236,15 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 		case NUMERIC_NEG:
 			if (arg.isTop())
 				return top();
-			return arg.mul(new Interval(-1, -1));
+			return of(negate(arg.high), negate(arg.low));
 		case STRING_LENGTH:
-			return new Interval(0, null);
+			return of(0, PLUS_INFINITY);
 		default:
 			return top();
 		}
 	}
 
-	private boolean is(int n) {
-		if (low == null || high == null)
-			return false;
-
+	private boolean is(long n) {
 		return low == n && high == n;
 	}
 
@@ -167,7 +261,7 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 			return left.diff(right);
 		case NUMERIC_MUL:
 			if (left.is(0) || right.is(0))
-				return new Interval(0, 0);
+				return of(0, 0);
 
 			if (left.isTop() || right.isTop())
 				return top();
@@ -178,42 +272,42 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 				return bottom();
 
 			if (left.is(0))
-				return new Interval(0, 0);
+				return of(0, 0);
 
 			if (left.isTop() || right.isTop())
 				return top();
 
 			return left.div(right);
 		case NUMERIC_MOD:
+			if (right.is(0))
+				return bottom();
+
 			// [0,0] % [a,b] = [0,0]
-			if (left.isSingleton() && left.getHigh() == 0) {
-				return new Interval(0, 0);
-			}
+			if (left.is(0))
+				return of(0, 0);
 
 			// [a,a] % [b,b] = [a%b,a%b]
 			if (left.isSingleton() && right.isSingleton()) {
-				int result = left.getHigh() % right.getHigh();
-				return new Interval(result, result);
+				long result = left.high % right.high;
+				return of(result, result);
 			}
 
 			// We don't deal with infinite modulo
-			if (right.getHigh() != null && right.getLow() != null) {
-				int range = Math.max(Math.abs(right.getLow()), Math.abs(right.getHigh()));
+			if (!right.lowIsMinusInfinity() && !right.highIsPlusInfinity()) {
+				long range = Math.max(Math.abs(right.low), Math.abs(right.high));
 
 				// [a,b] % [c,d] = [0,(max(abs(c), abs(d))-1] (a>0)
-				if (left.getLow() != null && left.getLow() >= 0) {
-					return new Interval(0, range - 1);
-				}
+				if (!left.lowIsMinusInfinity() && left.low >= 0)
+					return of(0, range - 1);
 
 				// [a,b] % [c,d] = [-((max(abs(c), abs(d))-1),0] (b<=0)
-				if (left.getHigh() != null && left.getHigh() <= 0) {
-					return new Interval(-(range - 1), 0);
-				}
+				if (!left.highIsPlusInfinity() && left.high <= 0)
+					return of(-(range - 1), 0);
 
-				return new Interval(-(range - 1), range - 1);
+				return of(-(range - 1), range - 1);
 			}
 
-			return TOP;
+			return top();
 		default:
 			return top();
 		}
@@ -227,147 +321,134 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 
 	@Override
 	protected Interval lubAux(Interval other) throws SemanticException {
-		Integer newLow = lowIsMinusInfinity() || other.lowIsMinusInfinity() ? null : Math.min(low, other.low);
-		Integer newHigh = highIsPlusInfinity() || other.highIsPlusInfinity() ? null : Math.max(high, other.high);
-		return newLow == null && newLow == newHigh ? top() : new Interval(newLow, newHigh);
+		return of(Math.min(low, other.low), Math.max(high, other.high));
 	}
 
 	@Override
 	public Interval glbAux(Interval other) {
-		Integer newLow = lowIsMinusInfinity() ? other.low : other.lowIsMinusInfinity() ? low : Math.max(low, other.low);
-		Integer newHigh = highIsPlusInfinity() ? other.high
-				: other.highIsPlusInfinity() ? high : Math.min(high, other.high);
-
-		if (newLow != null && newHigh != null && newLow > newHigh)
-			return bottom();
-		return newLow == null && newLow == newHigh ? top() : new Interval(newLow, newHigh);
+		return of(Math.max(low, other.low), Math.min(high, other.high));
 	}
 
 	@Override
 	protected Interval wideningAux(Interval other) throws SemanticException {
-		Integer newLow, newHigh;
-		if (other.highIsPlusInfinity() || (!highIsPlusInfinity() && other.high > high))
-			newHigh = null;
-		else
-			newHigh = other.high;
-
-		if (other.lowIsMinusInfinity() || (!lowIsMinusInfinity() && other.low < low))
-			newLow = null;
-		else
-			newLow = other.low;
-
-		return newLow == null && newLow == newHigh ? top() : new Interval(newLow, newHigh);
+		long newLow = other.low < low ? MINUS_INFINITY : other.low;
+		long newHigh = other.high > high ? PLUS_INFINITY : other.high;
+		return of(newLow, newHigh);
 	}
 
 	@Override
 	protected boolean lessOrEqualAux(Interval other) throws SemanticException {
-		return geqLow(low, other.low) && leqHigh(high, other.high);
+		return low >= other.low && high <= other.high;
 	}
 
-	private boolean lowIsMinusInfinity() {
-		return low == null;
+	/**
+	 * Yields {@code -n}, where the negation of an infinite value is the
+	 * opposite infinite value.
+	 */
+	private static long negate(long n) {
+		if (n == MINUS_INFINITY)
+			return PLUS_INFINITY;
+		if (n == PLUS_INFINITY)
+			return MINUS_INFINITY;
+		return -n;
 	}
 
-	private boolean highIsPlusInfinity() {
-		return high == null;
+	/**
+	 * Yields {@code n1 + n2}, saturating to infinity. The two values are never
+	 * infinities of opposite sign.
+	 */
+	private static long add(long n1, long n2) {
+		if (n1 == MINUS_INFINITY || n2 == MINUS_INFINITY)
+			return MINUS_INFINITY;
+		if (n1 == PLUS_INFINITY || n2 == PLUS_INFINITY)
+			return PLUS_INFINITY;
+		long result = n1 + n2;
+		if (((n1 ^ result) & (n2 ^ result)) < 0)
+			// overflow: the result has a sign different from both operands
+			return n1 < 0 ? MINUS_INFINITY : PLUS_INFINITY;
+		return result;
 	}
 
-	private Interval plus(Interval other) {
-		Integer newLow, newHigh;
-
-		if (lowIsMinusInfinity() || other.lowIsMinusInfinity())
-			newLow = null;
-		else
-			newLow = low + other.low;
-
-		if (highIsPlusInfinity() || other.highIsPlusInfinity())
-			newHigh = null;
-		else
-			newHigh = high + other.high;
+	/**
+	 * Yields {@code n1 * n2}, saturating to infinity. Zero times an infinite
+	 * value is zero.
+	 */
+	private static long multiply(long n1, long n2) {
+		if (n1 == 0 || n2 == 0)
+			return 0;
+		long infinity = (n1 < 0) == (n2 < 0) ? PLUS_INFINITY : MINUS_INFINITY;
+		if (n1 == MINUS_INFINITY || n1 == PLUS_INFINITY || n2 == MINUS_INFINITY || n2 == PLUS_INFINITY)
+			return infinity;
+		long result = n1 * n2;
+		long high = Math.multiplyHigh(n1, n2);
+		if ((high == 0 && result >= 0) || (high == -1 && result < 0))
+			return result;
+		return infinity;
+	}
 
-		return newLow == null && newLow == newHigh ? top() : new Interval(newLow, newHigh);
+	private Interval plus(Interval other) {
+		return of(add(low, other.low), add(high, other.high));
 	}
 
 	private Interval diff(Interval other) {
-		Integer newLow, newHigh;
-
-		if (other.highIsPlusInfinity() || lowIsMinusInfinity())
-			newLow = null;
-		else
-			newLow = low - other.high;
-
-		if (other.lowIsMinusInfinity() || highIsPlusInfinity())
-			newHigh = null;
-		else
-			newHigh = high - other.low;
-
-		return newLow == null && newLow == newHigh ? top() : new Interval(newLow, newHigh);
+		return of(add(low, negate(other.high)), add(high, negate(other.low)));
 	}
 
 	private Interval mul(Interval other) {
 		// this = [l1, h1]
 		// other = [l2, h2]
-
-		SortedSet<Integer> boundSet = new TreeSet<>();
-		Integer l1 = low;
-		Integer h1 = high;
-		Integer l2 = other.low;
-		Integer h2 = other.high;
-
-		AtomicBoolean lowInf = new AtomicBoolean(false), highInf = new AtomicBoolean(false);
-
-		// x1 * y1
-		multiplyBounds(boundSet, l1, l2, lowInf, highInf);
-
-		// x1 * y2
-		multiplyBounds(boundSet, l1, h2, lowInf, highInf);
-
-		// x2 * y1
-		multiplyBounds(boundSet, h1, l2, lowInf, highInf);
-
-		// x2 * y2
-		multiplyBounds(boundSet, h1, h2, lowInf, highInf);
-
-		Interval result = new Interval(lowInf.get() ? null : boundSet.first(), highInf.get() ? null : boundSet.last());
-		if (result.low == null && result.high == result.low)
-			return top();
-		else
-			return result;
+		long ll = multiply(low, other.low);
+		long lh = multiply(low, other.high);
+		long hl = multiply(high, other.low);
+		long hh = multiply(high, other.high);
+		return of(Math.min(Math.min(ll, lh), Math.min(hl, hh)), Math.max(Math.max(ll, lh), Math.max(hl, hh)));
 	}
 
 	private Interval div(Interval other) {
 		// this = [l1, h1]
 		// other = [l2, h2]
+		if (other.low <= 0 && other.high >= 0) {
+			// the divisor contains zero: we divide separately by its
+			// negative and positive parts
+			Interval negative = other.low < 0 ? divAux(other.low, -1) : BOTTOM;
+			Interval positive = other.high > 0 ? divAux(1, other.high) : BOTTOM;
+			return of(Math.min(negative.low, positive.low), Math.max(negative.high, positive.high));
+		}
 
-		SortedSet<Integer> boundSet = new TreeSet<>();
-		Integer l1 = low;
-		Integer h1 = high;
-		Integer l2 = other.low;
-		Integer h2 = other.high;
-
-		AtomicBoolean lowInf = new AtomicBoolean(false), highInf = new AtomicBoolean(false);
-
-		// l1 / l2
-		divideBounds(boundSet, l1, l2, lowInf, highInf);
-
-		// x1 / y2
-		divideBounds(boundSet, l1, h2, lowInf, highInf);
-
-		// x2 / y1
-		divideBounds(boundSet, h2, l2, lowInf, highInf);
+		return divAux(other.low, other.high);
+	}
 
-		// x2 / y2
-		divideBounds(boundSet, h1, h2, lowInf, highInf);
+	/**
+	 * Divides this interval by {@code [l2, h2]}, that does not contain zero.
+	 */
+	private Interval divAux(long l2, long h2) {
+		long newLow = Math.min(Math.min(divide(low, l2, false), divide(low, h2, false)),
+				Math.min(divide(high, l2, false), divide(high, h2, false)));
+		long newHigh = Math.max(Math.max(divide(low, l2, true), divide(low, h2, true)),
+				Math.max(divide(high, l2, true), divide(high, h2, true)));
+		return of(newLow, newHigh);
+	}
 
-		Interval result = new Interval(lowInf.get() ? null : boundSet.first(), highInf.get() ? null : boundSet.last());
-		if (result.low == null && result.high == result.low)
-			return top();
-		else
-			return result;
+	/**
+	 * Yields {@code n / d}, rounded towards plus infinity if {@code ceil} holds
+	 * and towards minus infinity otherwise. {@code d} is never zero.
+	 */
+	private static long divide(long n, long d, boolean ceil) {
+		if (n == MINUS_INFINITY || n == PLUS_INFINITY)
+			return (n < 0) == (d < 0) ? PLUS_INFINITY : MINUS_INFINITY;
+		if (d == MINUS_INFINITY || d == PLUS_INFINITY)
+			return 0;
+		return ceil ? -Math.floorDiv(-n, d) : Math.floorDiv(n, d);
 	}
 
+	/**
+	 * Yields {@code true} if and only if this interval contains a single
+	 * integer value.
+	 *
+	 * @return {@code true} if this interval is a singleton
+	 */
 	public boolean isSingleton() {
-		return low != null && low.equals(high);
+		return low == high && low != MINUS_INFINITY && low != PLUS_INFINITY;
 	}
 
 	@Override
@@ -379,13 +460,7 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 
 		switch (operator) {
 		case COMPARISON_EQ:
-			Interval glb = null;
-			try {
-				glb = left.glb(right);
-			} catch (SemanticException e) {
-				e.printStackTrace();
-			}
-			if (glb.isBottom())
+			if (left.glbAux(right).isBottom())
 				return Satisfiability.NOT_SATISFIED;
 			else if (left.isSingleton() && left.equals(right))
 				return Satisfiability.SATISFIED;
@@ -395,52 +470,11 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 		case COMPARISON_GT:
 			return satisfiesBinaryExpression(BinaryOperator.COMPARISON_LT, right, left, pp);
 		case COMPARISON_LE:
-			Interval firstBound = right.high == null ? top() : new Interval(null, right.high);
-			Interval secondBound = left.low == null ? top() : new Interval(left.low, null);
-
-			Interval firstCheck = null;
-			Interval secondCheck = null;
-
-			try {
-				firstCheck = firstBound.glb(left);
-				secondCheck = secondBound.glb(right);
-			} catch (SemanticException e) {
-				e.printStackTrace();
-			}
-
-			if (firstCheck.isBottom() || secondCheck.isBottom())
-				return Satisfiability.NOT_SATISFIED;
-
-			if (firstCheck.equals(left) && secondCheck.equals(right))
-				return Satisfiability.SATISFIED;
-			return Satisfiability.UNKNOWN;
+			return satisfiesLessOrEqual(left, right, right.high, left.low);
 		case COMPARISON_LT:
-			firstBound = right.high == null ? top() : new Interval(null, right.high - 1);
-			secondBound = left.low == null ? top() : new Interval(left.low + 1, null);
-
-			firstCheck = null;
-			secondCheck = null;
-
-			try {
-				firstCheck = firstBound.glb(left);
-				secondCheck = secondBound.glb(right);
-			} catch (SemanticException e) {
-				e.printStackTrace();
-			}
-
-			if (firstCheck.isBottom() || secondCheck.isBottom())
-				return Satisfiability.NOT_SATISFIED;
-			if (firstCheck.equals(left) && secondCheck.equals(right))
-				return Satisfiability.SATISFIED;
-			return Satisfiability.UNKNOWN;
+			return satisfiesLessOrEqual(left, right, add(right.high, -1), add(left.low, 1));
 		case COMPARISON_NE:
-			glb = null;
-			try {
-				glb = left.glb(right);
-			} catch (SemanticException e) {
-				e.printStackTrace();
-			}
-			if (glb.isBottom())
+			if (left.glbAux(right).isBottom())
 				return Satisfiability.SATISFIED;
 			return Satisfiability.UNKNOWN;
 		default:
@@ -448,122 +482,28 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 		}
 	}
 
-	private void multiplyBounds(SortedSet<Integer> boundSet, Integer i, Integer j, AtomicBoolean lowInf,
-			AtomicBoolean highInf) {
-		if (i == null) {
-			if (j == null)
-				// -inf * -inf = +inf
-				highInf.set(true);
-			else {
-				if (j > 0)
-					// -inf * positive
-					lowInf.set(true);
-				else if (j < 0)
-					// -inf * negative
-					highInf.set(true);
-				else
-					boundSet.add(0);
-			}
-		} else if (j == null) {
-			if (i > 0)
-				// -inf * positive
-				lowInf.set(true);
-			else if (i < 0)
-				// -inf * negative
-				highInf.set(true);
-			else
-				boundSet.add(0);
-		} else
-			boundSet.add(i * j);
-	}
-
-	private void divideBounds(SortedSet<Integer> boundSet, Integer i, Integer j, AtomicBoolean lowInf,
-			AtomicBoolean highInf) {
-		if (i == null) {
-			if (j == null)
-				// -inf * -inf = +inf
-				highInf.set(true);
-			else {
-				if (j > 0)
-					// -inf * positive
-					lowInf.set(true);
-				else if (j < 0)
-					// -inf * negative
-					highInf.set(true);
-
-				// division by zero!
-			}
-		} else if (j == null) {
-			if (i > 0)
-				// -inf * positive
-				lowInf.set(true);
-			else if (i < 0)
-				// -inf * negative
-				highInf.set(true);
-			else
-				boundSet.add(0);
-		} else if (j != 0) {
-			boundSet.add((int) Math.ceil(i / (double) j));
-			boundSet.add((int) Math.floor(i / (double) j));
-		}
-		// division by zero!
-	}
-
 	/**
-	 * Given two interval lower bounds, yields {@code true} iff l1 >= l2, taking
-	 * into account -Inf values (i.e., when l1 or l2 is {@code null}.) This
-	 * method is used for the implementation of {@link Interval#lessOrEqualAux}.
-	 * 
-	 * @param l1 the lower bound of the first interval.
-	 * @param l2 the lower bounds of the second interval.
-	 * 
-	 * @return {@code true} iff iff l1 >= l2, taking into account -Inf values;
+	 * Checks whether {@code left} is always (or never) lower than or equal to
+	 * {@code maxLeft}, and {@code right} is always (or never) greater than or
+	 * equal to {@code minRight}.
 	 */
-	private boolean geqLow(Integer l1, Integer l2) {
-		if (l1 == null) {
-			if (l2 == null)
-				return true;
-			else
-				return false;
-		} else {
-			if (l2 == null)
-				return true;
-			else
-				return l1 >= l2;
-		}
-	}
+	private static Satisfiability satisfiesLessOrEqual(Interval left, Interval right, long maxLeft, long minRight) {
+		Interval firstCheck = left.glbAux(of(MINUS_INFINITY, maxLeft));
+		Interval secondCheck = right.glbAux(of(minRight, PLUS_INFINITY));
 
-	/**
-	 * Given two interval upper bounds, yields {@code true} iff h1 <= h2, taking
-	 * into account +Inf values (i.e., when h1 or h2 is {@code null}.) This
-	 * method is used for the implementation of {@link Interval#lessOrEqualAux}.
-	 * 
-	 * @param h1 the upper bound of the first interval.
-	 * @param h2 the upper bounds of the second interval.
-	 * 
-	 * @return {@code true} iff iff h1 <= h2, taking into account +Inf values;
-	 */
-	private boolean leqHigh(Integer h1, Integer h2) {
-		if (h1 == null) {
-			if (h2 == null)
-				return true;
-			else
-				return false;
-		} else {
-			if (h2 == null)
-				return false;
-			else
-				return h1 <= h2;
-		}
+		if (firstCheck.isBottom() || secondCheck.isBottom())
+			return Satisfiability.NOT_SATISFIED;
+		if (firstCheck.equals(left) && secondCheck.equals(right))
+			return Satisfiability.SATISFIED;
+		return Satisfiability.UNKNOWN;
 	}
 
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + ((high == null) ? 0 : high.hashCode());
-		result = prime * result + (isTop ? 1231 : 1237);
-		result = prime * result + ((low == null) ? 0 : low.hashCode());
+		result = prime * result + Long.hashCode(high);
+		result = prime * result + Long.hashCode(low);
 		return result;
 	}
 
@@ -576,19 +516,7 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 		if (getClass() != obj.getClass())
 			return false;
 		Interval other = (Interval) obj;
-		if (high == null) {
-			if (other.high != null)
-				return false;
-		} else if (!high.equals(other.high))
-			return false;
-		if (isTop != other.isTop)
-			return false;
-		if (low == null) {
-			if (other.low != null)
-				return false;
-		} else if (!low.equals(other.low))
-			return false;
-		return true;
+		return low == other.low && high == other.high;
 	}
 
 	@Override
@@ -596,13 +524,7 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 			ValueEnvironment<Interval> environment, BinaryOperator operator, ValueExpression left,
 			ValueExpression right, ProgramPoint pp) throws SemanticException {
 
-		Map<Identifier, Interval> map = null;
-
-		if (environment.getMap() == null)
-			map = new HashMap<Identifier, Interval>();
-		else
-			map = new HashMap<>(environment.getMap());
-
+		// note that bottom values are treated as having an infinite low bound
 		switch (operator) {
 		case COMPARISON_EQ:
 			if (left instanceof Identifier)
@@ -613,69 +535,65 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 		case COMPARISON_GE:
 			if (left instanceof Identifier) {
 				Interval rightEval = eval(right, environment, pp);
-				if (rightEval.lowIsMinusInfinity())
+				if (rightEval.isBottom() || rightEval.lowIsMinusInfinity())
 					return environment;
 
-				Interval bound = new Interval(rightEval.low, null);
-				map.put((Identifier) left, bound);
-				return new ValueEnvironment<Interval>(bottom(), map);
+				Interval bound = of(rightEval.low, PLUS_INFINITY);
+				return environment.putState((Identifier) left, bound);
 			} else if (right instanceof Identifier) {
 				Interval leftEval = eval(left, environment, pp);
-				Interval bound = leftEval.lowIsMinusInfinity() ? leftEval : new Interval(null, leftEval.low);
-				map.put((Identifier) right, bound);
-				return new ValueEnvironment<Interval>(bottom(), map);
+				Interval bound = leftEval.isBottom() || leftEval.lowIsMinusInfinity() ? leftEval
+						: of(MINUS_INFINITY, leftEval.low);
+				return environment.putState((Identifier) right, bound);
 			} else
 				return environment;
 		case COMPARISON_GT:
 			if (left instanceof Identifier) {
 				Interval rightEval = eval(right, environment, pp);
-				if (rightEval.lowIsMinusInfinity())
+				if (rightEval.isBottom() || rightEval.lowIsMinusInfinity())
 					return environment;
 
-				Interval bound = new Interval(rightEval.low + 1, null);
-				map.put((Identifier) left, bound);
-				return new ValueEnvironment<Interval>(bottom(), map);
+				Interval bound = of(add(rightEval.low, 1), PLUS_INFINITY);
+				return environment.putState((Identifier) left, bound);
 			} else if (right instanceof Identifier) {
 				Interval leftEval = eval(left, environment, pp);
-				Interval bound = leftEval.lowIsMinusInfinity() ? leftEval : new Interval(null, leftEval.low - 1);
-				map.put((Identifier) right, bound);
-				return new ValueEnvironment<Interval>(bottom(), map);
+				Interval bound = leftEval.isBottom() || leftEval.lowIsMinusInfinity() ? leftEval
+						: of(MINUS_INFINITY, add(leftEval.low, -1));
+				return environment.putState((Identifier) right, bound);
 			} else
 				return environment;
 		case COMPARISON_LE:
 			if (left instanceof Identifier) {
 				Interval rightEval = eval(right, environment, pp);
-				Interval bound = rightEval.lowIsMinusInfinity() ? rightEval : new Interval(null, rightEval.low);
-				map.put((Identifier) left, bound);
-				return new ValueEnvironment<Interval>(bottom(), map);
+				Interval bound = rightEval.isBottom() || rightEval.lowIsMinusInfinity() ? rightEval
+						: of(MINUS_INFINITY, rightEval.low);
+				return environment.putState((Identifier) left, bound);
 			} else if (right instanceof Identifier) {
 				Interval leftEval = eval(left, environment, pp);
-				if (leftEval.lowIsMinusInfinity())
+				if (leftEval.isBottom() || leftEval.lowIsMinusInfinity())
 					return environment;
 
-				Interval bound = new Interval(leftEval.low, null);
-				map.put((Identifier) right, bound);
-				return new ValueEnvironment<Interval>(bottom(), map);
+				Interval bound = of(leftEval.low, PLUS_INFINITY);
+				return environment.putState((Identifier) right, bound);
 			} else
 				return environment;
 		case COMPARISON_LT:
 			if (left instanceof Identifier) {
 				Interval rightEval = eval(right, environment, pp);
-				Interval bound = rightEval.lowIsMinusInfinity() ? rightEval : new Interval(null, rightEval.low - 1);
-				map.put((Identifier) left, bound);
-				return new ValueEnvironment<Interval>(bottom(), map);
+				Interval bound = rightEval.isBottom() || rightEval.lowIsMinusInfinity() ? rightEval
+						: of(MINUS_INFINITY, add(rightEval.low, -1));
+				return environment.putState((Identifier) left, bound);
 			} else if (right instanceof Identifier) {
 				Interval leftEval = eval(left, environment, pp);
-				if (leftEval.lowIsMinusInfinity())
+				if (leftEval.isBottom() || leftEval.lowIsMinusInfinity())
 					return environment;
 
-				Interval bound = new Interval(leftEval.low + 1, null);
-				map.put((Identifier) right, bound);
-				return new ValueEnvironment<Interval>(bottom(), map);
+				Interval bound = of(add(leftEval.low, 1), PLUS_INFINITY);
+				return environment.putState((Identifier) right, bound);
 			} else
 				return environment;
 		default:
 			return environment;
 		}
 	}
-}
\ No newline at end of file
+}
@@ -3,7 +3,7 @@ package it.unive.lisa.analysis.impl.numeric;
 import it.unive.lisa.analysis.BaseLattice;
 import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticException;
-import it.unive.lisa.analysis.nonrelational.value.BaseNonRelationalValueDomain;
+import it.unive.lisa.analysis.nonrelational.value.FiniteNonRelationalValueDomain;
 import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
 import it.unive.lisa.analysis.representation.DomainRepresentation;
 import it.unive.lisa.analysis.representation.StringRepresentation;
@@ -11,49 +11,53 @@ import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.value.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * The Parity abstract domain, tracking if a numeric value is even or odd,
- * implemented as a {@link BaseNonRelationalValueDomain}, handling top and
+ * implemented as a {@link FiniteNonRelationalValueDomain}, handling top and
  * bottom values for the expression evaluation and bottom values for the
  * expression satisfiability. Top and bottom cases for least upper bound,
  * widening and less or equals operations are handled by {@link BaseLattice} in
  * {@link BaseLattice#lub}, {@link BaseLattice#widening} and
- * {@link BaseLattice#lessOrEqual} methods, respectively.
+ * {@link BaseLattice#lessOrEqual} methods, respectively. All the operations
+ * on parities are precomputed by {@link FiniteNonRelationalValueDomain}: the
+ * evaluation of an expression never creates new instances of this class.
  * 
  * @author <a href="mailto:vincenzo.arceri@unive.it">Vincenzo Arceri</a>
  */
-public class Parity extends BaseNonRelationalValueDomain<Parity> {
+public class Parity extends FiniteNonRelationalValueDomain<Parity> {
 
-	private static final Parity EVEN = new Parity(false, false);
-	private static final Parity ODD = new Parity(false, false);
-	private static final Parity TOP = new Parity();
-	private static final Parity BOTTOM = new Parity(false, true);
+	private static final int TOP_INDEX = 3;
 
-	private final boolean isTop, isBottom;
+	private static final Parity BOTTOM = new Parity(0);
+	private static final Parity EVEN = new Parity(1);
+	private static final Parity ODD = new Parity(2);
+	private static final Parity TOP = new Parity(TOP_INDEX);
+
+	private static final Tables<Parity> TABLES = new Tables<>(List.of(BOTTOM, EVEN, ODD, TOP));
 
 	/**
 	 * Builds the parity abstract domain, representing the top of the parity
 	 * abstract domain.
 	 */
 	public Parity() {
-		this(true, false);
+		this(TOP_INDEX);
 	}
 
-	private Parity(boolean isTop, boolean isBottom) {
-		this.isTop = isTop;
-		this.isBottom = isBottom;
+	private Parity(int index) {
+		super(index);
 	}
 
 	@Override
-	public Parity top() {
-		return TOP;
+	protected Tables<Parity> tables() {
+		return TABLES;
 	}
 
 	@Override
-	public boolean isTop() {
-		return isTop;
+	public Parity top() {
+		return TOP;
 	}
 
 	@Override
@@ -108,7 +112,7 @@ public class Parity extends BaseNonRelationalValueDomain<Parity> {
 	}
 
 	@Override
-	protected Parity evalUnaryExpression(UnaryOperator operator, Parity arg, ProgramPoint pp) {
+	protected Parity evalUnary(UnaryOperator operator, Parity arg) {
 		switch (operator) {
 		case NUMERIC_NEG:
 			return arg;
@@ -118,7 +122,7 @@ public class Parity extends BaseNonRelationalValueDomain<Parity> {
 	}
 
 	@Override
-	protected Parity evalBinaryExpression(BinaryOperator operator, Parity left, Parity right, ProgramPoint pp) {
+	protected Parity evalBinary(BinaryOperator operator, Parity left, Parity right) {
 		switch (operator) {
 		case NUMERIC_ADD:
 		case NUMERIC_SUB:
@@ -159,48 +163,10 @@ public class Parity extends BaseNonRelationalValueDomain<Parity> {
 	}
 
 	@Override
-	protected Parity lubAux(Parity other) throws SemanticException {
-		return TOP;
-	}
-
-	@Override
-	protected Parity wideningAux(Parity other) throws SemanticException {
-		return lubAux(other);
-	}
-
-	@Override
-	protected boolean lessOrEqualAux(Parity other) throws SemanticException {
+	protected boolean lessOrEqualElement(Parity other) {
 		return false;
 	}
 
-	@Override
-	public int hashCode() {
-		if (isBottom())
-			return 1;
-		else if (this == EVEN)
-			return 2;
-		else if (this == ODD)
-			return 3;
-		else
-			return 4;
-	}
-
-	@Override
-	public boolean equals(Object obj) {
-		if (this == obj)
-			return true;
-		if (obj == null)
-			return false;
-		if (getClass() != obj.getClass())
-			return false;
-		Parity other = (Parity) obj;
-		if (isBottom != other.isBottom)
-			return false;
-		if (isTop != other.isTop)
-			return false;
-		return isTop && other.isTop;
-	}
-
 	private boolean isModTwo(ValueExpression exp) {
 		return exp instanceof BinaryExpression && ((BinaryExpression) exp).getOperator() == BinaryOperator.NUMERIC_MOD
 				&& ((BinaryExpression) exp).getRight() instanceof Constant
@@ -4,7 +4,7 @@ import it.unive.lisa.analysis.BaseLattice;
 import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticDomain.Satisfiability;
 import it.unive.lisa.analysis.SemanticException;
-import it.unive.lisa.analysis.nonrelational.value.BaseNonRelationalValueDomain;
+import it.unive.lisa.analysis.nonrelational.value.FiniteNonRelationalValueDomain;
 import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
 import it.unive.lisa.analysis.representation.DomainRepresentation;
 import it.unive.lisa.analysis.representation.StringRepresentation;
@@ -12,48 +12,51 @@ import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.value.BinaryOperator;
 import it.unive.lisa.symbolic.value.Constant;
 import it.unive.lisa.symbolic.value.Identifier;
-import it.unive.lisa.symbolic.value.TernaryOperator;
 import it.unive.lisa.symbolic.value.UnaryOperator;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import java.util.List;
 
 /**
  * The basic Sign abstract domain, tracking zero, strictly positive and strictly
  * negative integer values, implemented as a
- * {@link BaseNonRelationalValueDomain}, handling top and bottom values for the
- * expression evaluation and bottom values for the expression satisfiability.
- * Top and bottom cases for least upper bounds, widening and less or equals
- * operations are handled by {@link BaseLattice} in {@link BaseLattice#lub},
- * {@link BaseLattice#widening} and {@link BaseLattice#lessOrEqual} methods,
- * respectively.
+ * {@link FiniteNonRelationalValueDomain}, handling top and bottom values for
+ * the expression evaluation and bottom values for the expression
+ * satisfiability. Top and bottom cases for least upper bounds, widening and
+ * less or equals operations are handled by {@link BaseLattice} in
+ * {@link BaseLattice#lub}, {@link BaseLattice#widening} and
+ * {@link BaseLattice#lessOrEqual} methods, respectively. All the operations
+ * on signs are precomputed by {@link FiniteNonRelationalValueDomain}: the
+ * evaluation of an expression never creates new instances of this class.
  * 
  * @author <a href="mailto:vincenzo.arceri@unive.it">Vincenzo Arceri</a>
  */
-public class Sign extends BaseNonRelationalValueDomain<Sign> {
+public class Sign extends FiniteNonRelationalValueDomain<Sign> {
 
-	private static final Sign POS = new Sign(false, false);
-	private static final Sign NEG = new Sign(false, false);
-	private static final Sign ZERO = new Sign(false, false);
-	private static final Sign TOP = new Sign();
-	private static final Sign BOTTOM = new Sign(false, true);
+	private static final int TOP_INDEX = 4;
 
-	private final boolean isTop, isBottom;
+	private static final Sign BOTTOM = new Sign(0);
+	private static final Sign ZERO = new Sign(1);
+	private static final Sign POS = new Sign(2);
+	private static final Sign NEG = new Sign(3);
+	private static final Sign TOP = new Sign(TOP_INDEX);
+
+	private static final Tables<Sign> TABLES = new Tables<>(List.of(BOTTOM, ZERO, POS, NEG, TOP));
 
 	/**
 	 * Builds the sign abstract domain, representing the top of the sign
 	 * abstract domain.
 	 */
 	public Sign() {
-		this(true, false);
+		this(TOP_INDEX);
 	}
 
-	private Sign(boolean isTop, boolean isBottom) {
-		this.isTop = isTop;
-		this.isBottom = isBottom;
+	private Sign(int index) {
+		super(index);
 	}
 
 	@Override
-	public boolean isTop() {
-		return isTop;
+	protected Tables<Sign> tables() {
+		return TABLES;
 	}
 
 	@Override
@@ -118,7 +121,7 @@ public class Sign extends BaseNonRelationalValueDomain<Sign> {
 	}
 
 	@Override
-	protected Sign evalUnaryExpression(UnaryOperator operator, Sign arg, ProgramPoint pp) {
+	protected Sign evalUnary(UnaryOperator operator, Sign arg) {
 		switch (operator) {
 		case NUMERIC_NEG:
 			if (arg.isPositive())
@@ -135,7 +138,7 @@ public class Sign extends BaseNonRelationalValueDomain<Sign> {
 	}
 
 	@Override
-	protected Sign evalBinaryExpression(BinaryOperator operator, Sign left, Sign right, ProgramPoint pp) {
+	protected Sign evalBinary(BinaryOperator operator, Sign left, Sign right) {
 		switch (operator) {
 		case NUMERIC_ADD:
 			if (left.isZero())
@@ -177,53 +180,12 @@ public class Sign extends BaseNonRelationalValueDomain<Sign> {
 	}
 
 	@Override
-	protected Sign lubAux(Sign other) throws SemanticException {
-		return TOP;
-	}
-
-	@Override
-	protected Sign wideningAux(Sign other) throws SemanticException {
-		return lubAux(other);
-	}
-
-	@Override
-	protected boolean lessOrEqualAux(Sign other) throws SemanticException {
+	protected boolean lessOrEqualElement(Sign other) {
 		return false;
 	}
 
 	@Override
-	public int hashCode() {
-		if (this == ZERO)
-			return 0;
-		else if (this == POS)
-			return 1;
-		else if (this == NEG)
-			return 2;
-		else if (this == BOTTOM)
-			return 3;
-		else
-			return 4;
-	}
-
-	@Override
-	public boolean equals(Object obj) {
-		if (this == obj)
-			return true;
-		if (obj == null)
-			return false;
-		if (getClass() != obj.getClass())
-			return false;
-		Sign other = (Sign) obj;
-		if (isBottom != other.isBottom)
-			return false;
-		if (isTop != other.isTop)
-			return false;
-		return isTop && other.isTop;
-	}
-
-	@Override
-	protected Satisfiability satisfiesBinaryExpression(BinaryOperator operator, Sign left, Sign right,
-			ProgramPoint pp) {
+	protected Satisfiability satisfiesBinary(BinaryOperator operator, Sign left, Sign right) {
 		if (left.isTop() || right.isTop())
 			return Satisfiability.UNKNOWN;
 
@@ -265,12 +227,6 @@ public class Sign extends BaseNonRelationalValueDomain<Sign> {
 			return Satisfiability.NOT_SATISFIED;
 	}
 
-	@Override
-	protected Satisfiability satisfiesTernaryExpression(TernaryOperator operator, Sign left, Sign middle, Sign right,
-			ProgramPoint pp) {
-		return Satisfiability.UNKNOWN;
-	}
-
 	@Override
 	protected ValueEnvironment<Sign> assumeBinaryExpression(
 			ValueEnvironment<Sign> environment, BinaryOperator operator, ValueExpression left,
@@ -9,7 +9,7 @@ import it.unive.lisa.analysis.nonrelational.inference.InferredValue;
 import it.unive.lisa.analysis.representation.DomainRepresentation;
 import it.unive.lisa.analysis.representation.SetRepresentation;
 import it.unive.lisa.analysis.representation.StringRepresentation;
-import it.unive.lisa.caches.Caches;
+import it.unive.lisa.caches.AnalysisContext;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.program.cfg.statement.Expression;
 import it.unive.lisa.symbolic.SymbolicExpression;
@@ -29,6 +29,7 @@ import it.unive.lisa.type.Type;
 import it.unive.lisa.type.TypeTokenType;
 import it.unive.lisa.type.Untyped;
 import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
 
 /**
  * An {@link InferredValue} holding a set of {@link Type}s, representing the
@@ -38,13 +39,43 @@ import it.unive.lisa.util.collections.externalSet.ExternalSet;
  */
 public class InferredTypes extends BaseInferredValue<InferredTypes> {
 
-	private static final InferredTypes TOP = new InferredTypes(Caches.types().mkUniversalSet());
+	/**
+	 * The types cache of an {@link AnalysisContext}, together with the top and
+	 * bottom instances built over it
+	 */
+	private static final class Constants {
+
+		private final ExternalSetCache<Type> types;
+
+		private final InferredTypes top;
+
+		private final InferredTypes bottom;
 
-	private static final InferredTypes BOTTOM = new InferredTypes(Caches.types().mkEmptySet());
+		private final InferredPair<InferredTypes> topPair;
+
+		private final InferredPair<InferredTypes> bottomPair;
+
+		private Constants(AnalysisContext context) {
+			types = context.getTypes();
+			top = new InferredTypes(this, types.mkUniversalSet());
+			bottom = new InferredTypes(this, types.mkEmptySet());
+			topPair = new InferredPair<>(top, top, top);
+			bottomPair = new InferredPair<>(bottom, bottom, bottom);
+		}
+	}
 
-	private static final InferredPair<InferredTypes> BOTTOM_PAIR = new InferredPair<>(BOTTOM, BOTTOM, BOTTOM);
+	/**
+	 * Yields the constants of the current {@link AnalysisContext}.
+	 */
+	private static Constants contextConstants() {
+		return AnalysisContext.current().getCache(Constants.class, Constants::new);
+	}
 
-	private static final InferredPair<InferredTypes> TOP_PAIR = new InferredPair<>(TOP, TOP, TOP);
+	/**
+	 * The constants of the context where this instance has been created,
+	 * shared by all the instances derived from it
+	 */
+	private final Constants constants;
 
 	private final ExternalSet<Type> elements;
 
@@ -53,7 +84,8 @@ public class InferredTypes extends BaseInferredValue<InferredTypes> {
 	 * represents an empty set of types.
 	 */
 	public InferredTypes() {
-		this(Caches.types().mkEmptySet());
+		this.constants = contextConstants();
+		this.elements = constants.types.mkEmptySet();
 	}
 
 	/**
@@ -62,7 +94,8 @@ public class InferredTypes extends BaseInferredValue<InferredTypes> {
 	 * @param type the type to be included in the set of inferred types
 	 */
 	InferredTypes(Type type) {
-		this(Caches.types().mkSingletonSet(type));
+		this.constants = contextConstants();
+		this.elements = constants.types.mkSingletonSet(type);
 	}
 
 	/**
@@ -72,6 +105,11 @@ public class InferredTypes extends BaseInferredValue<InferredTypes> {
 	 * @param types the types to be included in the set of inferred types
 	 */
 	InferredTypes(ExternalSet<Type> types) {
+		this(contextConstants(), types);
+	}
+
+	private InferredTypes(Constants constants, ExternalSet<Type> types) {
+		this.constants = constants;
 		this.elements = types;
 	}
 
@@ -87,12 +125,12 @@ public class InferredTypes extends BaseInferredValue<InferredTypes> {
 
 	@Override
 	public InferredTypes top() {
-		return TOP;
+		return constants.top;
 	}
 
 	@Override
 	public InferredTypes bottom() {
-		return BOTTOM;
+		return constants.bottom;
 	}
 
 	@Override
@@ -106,8 +144,12 @@ public class InferredTypes extends BaseInferredValue<InferredTypes> {
 		return new SetRepresentation(elements, StringRepresentation::new);
 	}
 
-	private InferredPair<InferredTypes> mk(InferredTypes types) {
-		return new InferredPair<>(this, types, BOTTOM);
+	private InferredPair<InferredTypes> mk(ExternalSet<Type> types) {
+		return new InferredPair<>(this, new InferredTypes(constants, types), constants.bottom);
+	}
+
+	private InferredPair<InferredTypes> mk(Type type) {
+		return mk(constants.types.mkSingletonSet(type));
 	}
 
 	@Override
@@ -116,22 +158,22 @@ public class InferredTypes extends BaseInferredValue<InferredTypes> {
 		InferredPair<InferredTypes> eval = super.evalIdentifier(id, environment, pp);
 		if (!eval.getInferred().isTop() && !eval.getInferred().isBottom())
 			return eval;
-		return mk(new InferredTypes(id.getTypes()));
+		return mk(id.getTypes());
 	}
 
 	@Override
 	protected InferredPair<InferredTypes> evalPushAny(PushAny pushAny, InferredTypes state, ProgramPoint pp) {
-		return mk(new InferredTypes(pushAny.getTypes()));
+		return mk(pushAny.getTypes());
 	}
 
 	@Override
 	protected InferredPair<InferredTypes> evalNullConstant(InferredTypes state, ProgramPoint pp) {
-		return mk(new InferredTypes(NullType.INSTANCE));
+		return mk(NullType.INSTANCE);
 	}
 
 	@Override
 	protected InferredPair<InferredTypes> evalNonNullConstant(Constant constant, InferredTypes state, ProgramPoint pp) {
-		return mk(new InferredTypes(constant.getDynamicType()));
+		return mk(constant.getDynamicType());
 	}
 
 	@Override
@@ -140,20 +182,20 @@ public class InferredTypes extends BaseInferredValue<InferredTypes> {
 		switch (operator) {
 		case LOGICAL_NOT:
 			if (arg.elements.noneMatch(Type::isBooleanType))
-				return BOTTOM_PAIR;
-			return mk(new InferredTypes(BoolType.INSTANCE));
+				return constants.bottomPair;
+			return mk(BoolType.INSTANCE);
 		case NUMERIC_NEG:
 			if (arg.elements.noneMatch(Type::isNumericType))
-				return BOTTOM_PAIR;
-			return mk(new InferredTypes(arg.elements.filter(Type::isNumericType)));
+				return constants.bottomPair;
+			return mk(arg.elements.filter(Type::isNumericType));
 		case STRING_LENGTH:
 			if (arg.elements.noneMatch(Type::isStringType))
-				return BOTTOM_PAIR;
-			return mk(new InferredTypes(IntType.INSTANCE));
+				return constants.bottomPair;
+			return mk(IntType.INSTANCE);
 		case TYPEOF:
-			return mk(new InferredTypes(new TypeTokenType(arg.elements.copy())));
+			return mk(new TypeTokenType(arg.elements.copy()));
 		default:
-			return TOP_PAIR;
+			return constants.topPair;
 		}
 	}
 
@@ -164,58 +206,58 @@ public class InferredTypes extends BaseInferredValue<InferredTypes> {
 		switch (operator) {
 		case COMPARISON_EQ:
 		case COMPARISON_NE:
-			return mk(new InferredTypes(BoolType.INSTANCE));
+			return mk(BoolType.INSTANCE);
 		case COMPARISON_GE:
 		case COMPARISON_GT:
 		case COMPARISON_LE:
 		case COMPARISON_LT:
 			if (left.elements.noneMatch(Type::isNumericType) || right.elements.noneMatch(Type::isNumericType))
-				return BOTTOM_PAIR;
+				return constants.bottomPair;
 			ExternalSet<Type> set = commonNumericalType(left.elements, right.elements);
 			if (set.isEmpty())
-				return BOTTOM_PAIR;
-			return mk(new InferredTypes(BoolType.INSTANCE));
+				return constants.bottomPair;
+			return mk(BoolType.INSTANCE);
 		case LOGICAL_AND:
 		case LOGICAL_OR:
 			if (left.elements.noneMatch(Type::isBooleanType) || right.elements.noneMatch(Type::isBooleanType))
-				return BOTTOM_PAIR;
-			return mk(new InferredTypes(BoolType.INSTANCE));
+				return constants.bottomPair;
+			return mk(BoolType.INSTANCE);
 		case NUMERIC_ADD:
 		case NUMERIC_DIV:
 		case NUMERIC_MOD:
 		case NUMERIC_MUL:
 		case NUMERIC_SUB:
 			if (left.elements.noneMatch(Type::isNumericType) || right.elements.noneMatch(Type::isNumericType))
-				return BOTTOM_PAIR;
+				return constants.bottomPair;
 			set = commonNumericalType(left.elements, right.elements);
 			if (set.isEmpty())
-				return BOTTOM_PAIR;
-			return mk(new InferredTypes(set));
+				return constants.bottomPair;
+			return mk(set);
 		case STRING_CONCAT:
 			if (left.elements.noneMatch(Type::isStringType) || right.elements.noneMatch(Type::isStringType))
-				return BOTTOM_PAIR;
-			return mk(new InferredTypes(StringType.INSTANCE));
+				return constants.bottomPair;
+			return mk(StringType.INSTANCE);
 		case STRING_INDEX_OF:
 			if (left.elements.noneMatch(Type::isStringType) || right.elements.noneMatch(Type::isStringType))
-				return BOTTOM_PAIR;
-			return mk(new InferredTypes(IntType.INSTANCE));
+				return constants.bottomPair;
+			return mk(IntType.INSTANCE);
 		case STRING_CONTAINS:
 		case STRING_ENDS_WITH:
 		case STRING_EQUALS:
 		case STRING_STARTS_WITH:
 			if (left.elements.noneMatch(Type::isStringType) || right.elements.noneMatch(Type::isStringType))
-				return BOTTOM_PAIR;
-			return mk(new InferredTypes(BoolType.INSTANCE));
+				return constants.bottomPair;
+			return mk(BoolType.INSTANCE);
 		case TYPE_CAST:
 			return evalTypeCast(null, left, right, state, pp);
 		case TYPE_CONV:
 			return evalTypeConv(null, left, right, state, pp);
 		case TYPE_CHECK:
 			if (right.elements.noneMatch(Type::isTypeTokenType))
-				return BOTTOM_PAIR;
-			return mk(new InferredTypes(BoolType.INSTANCE));
+				return constants.bottomPair;
+			return mk(BoolType.INSTANCE);
 		default:
-			return TOP_PAIR;
+			return constants.topPair;
 		}
 	}
 
@@ -230,15 +272,15 @@ public class InferredTypes extends BaseInferredValue<InferredTypes> {
 					|| middle.elements.filter(Type::isNumericType).noneMatch(t -> t.asNumericType().isIntegral())
 					|| right.elements.noneMatch(Type::isNumericType)
 					|| right.elements.filter(Type::isNumericType).noneMatch(t -> t.asNumericType().isIntegral()))
-				return BOTTOM_PAIR;
-			return mk(new InferredTypes(StringType.INSTANCE));
+				return constants.bottomPair;
+			return mk(StringType.INSTANCE);
 		case STRING_REPLACE:
 			if (left.elements.noneMatch(Type::isStringType) || middle.elements.noneMatch(Type::isStringType)
 					|| right.elements.noneMatch(Type::isStringType))
-				return BOTTOM_PAIR;
-			return mk(new InferredTypes(StringType.INSTANCE));
+				return constants.bottomPair;
+			return mk(StringType.INSTANCE);
 		default:
-			return TOP_PAIR;
+			return constants.topPair;
 		}
 	}
 
@@ -294,7 +336,7 @@ public class InferredTypes extends BaseInferredValue<InferredTypes> {
 
 	@Override
 	protected InferredTypes lubAux(InferredTypes other) throws SemanticException {
-		return new InferredTypes(elements.union(other.elements));
+		return new InferredTypes(constants, elements.union(other.elements));
 	}
 
 	@Override
@@ -347,7 +389,7 @@ public class InferredTypes extends BaseInferredValue<InferredTypes> {
 	 * @return the set of possible types after the cast
 	 */
 	ExternalSet<Type> cast(ExternalSet<Type> types, ExternalSet<Type> tokens) {
-		ExternalSet<Type> result = Caches.types().mkEmptySet();
+		ExternalSet<Type> result = constants.types.mkEmptySet();
 		for (Type token : tokens.filter(Type::isTypeTokenType).multiTransform(t -> t.asTypeTokenType().getTypes()))
 			for (Type t : types)
 				if (t.canBeAssignedTo(token))
@@ -371,7 +413,7 @@ public class InferredTypes extends BaseInferredValue<InferredTypes> {
 	 * @return the set of possible types after the type conversion
 	 */
 	ExternalSet<Type> convert(ExternalSet<Type> types, ExternalSet<Type> tokens) {
-		ExternalSet<Type> result = Caches.types().mkEmptySet();
+		ExternalSet<Type> result = constants.types.mkEmptySet();
 		for (Type token : tokens.filter(Type::isTypeTokenType).multiTransform(t -> t.asTypeTokenType().getTypes()))
 			for (Type t : types)
 				if (t.canBeAssignedTo(token))
@@ -417,9 +459,9 @@ public class InferredTypes extends BaseInferredValue<InferredTypes> {
 		if (left.noneMatch(Type::isNumericType) && right.noneMatch(Type::isNumericType))
 			// if none have numeric types in them,
 			// we cannot really compute the
-			return Caches.types().mkEmptySet();
+			return constants.types.mkEmptySet();
 
-		ExternalSet<Type> result = Caches.types().mkEmptySet();
+		ExternalSet<Type> result = constants.types.mkEmptySet();
 		for (Type t1 : left.filter(type -> type.isNumericType() || type.isUntyped()))
 			for (Type t2 : right.filter(type -> type.isNumericType() || type.isUntyped()))
 				if (t1.isUntyped() && t2.isUntyped())
@@ -438,22 +480,22 @@ public class InferredTypes extends BaseInferredValue<InferredTypes> {
 	protected InferredPair<InferredTypes> evalTypeCast(BinaryExpression cast, InferredTypes left, InferredTypes right,
 			InferredTypes state, ProgramPoint pp) {
 		if (right.elements.noneMatch(Type::isTypeTokenType))
-			return BOTTOM_PAIR;
+			return constants.bottomPair;
 		ExternalSet<Type> set = cast(left.elements, right.elements);
 		if (set.isEmpty())
-			return BOTTOM_PAIR;
-		return mk(new InferredTypes(set));
+			return constants.bottomPair;
+		return mk(set);
 	}
 
 	@Override
 	protected InferredPair<InferredTypes> evalTypeConv(BinaryExpression conv, InferredTypes left, InferredTypes right,
 			InferredTypes state, ProgramPoint pp) {
 		if (right.elements.noneMatch(Type::isTypeTokenType))
-			return BOTTOM_PAIR;
+			return constants.bottomPair;
 		ExternalSet<Type> set = convert(left.elements, right.elements);
 		if (set.isEmpty())
-			return BOTTOM_PAIR;
-		return mk(new InferredTypes(set));
+			return constants.bottomPair;
+		return mk(set);
 	}
 
 	@Override
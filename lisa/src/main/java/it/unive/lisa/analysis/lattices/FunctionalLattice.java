@@ -3,11 +3,14 @@ package it.unive.lisa.analysis.lattices;
 import it.unive.lisa.analysis.BaseLattice;
 import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.util.collections.PersistentHashMap;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -59,7 +62,12 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	/**
 	 * Creates a new instance of the underlying function. The purpose of this
 	 * method is to provide a common function implementation to every subclass
-	 * that does not have implementation-specific requirements.
+	 * that does not have implementation-specific requirements. If
+	 * {@code other} is a {@link PersistentHashMap}, the returned function is a
+	 * persistent map sharing its structure with {@code other}, and it is
+	 * created in constant time. Subclasses that are frequently copied and
+	 * slightly modified can select persistent functions by overriding this
+	 * method with {@link #mkNewPersistentFunction(Map)}.
 	 * 
 	 * @param other an optional function to copy, can be {@code null}
 	 * 
@@ -67,11 +75,59 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	 *             given one
 	 */
 	protected Map<K, V> mkNewFunction(Map<K, V> other) {
+		if (other instanceof PersistentHashMap)
+			return new PersistentHashMap<>(other);
 		if (other == null)
 			return new HashMap<>();
 		return new HashMap<>(other);
 	}
 
+	/**
+	 * Creates a new instance of the underlying function, mapping each key in
+	 * {@code keys} to the value at the same position in {@code values}. If a
+	 * key appears more than once, its last value is kept. This is used to
+	 * build the results of lattice operations in a single step: the returned
+	 * function has the same type of the ones created by
+	 * {@link #mkNewFunction(Map)}, and if it is a {@link PersistentHashMap} it
+	 * is built at once through a {@link PersistentHashMap.Builder} instead of
+	 * being filled key by key.
+	 * 
+	 * @param keys   the keys of the function
+	 * @param values the values of the function
+	 * 
+	 * @return a new function containing the given mappings
+	 */
+	protected Map<K, V> mkNewFunction(List<K> keys, List<V> values) {
+		Map<K, V> function = mkNewFunction(null);
+		if (function instanceof PersistentHashMap) {
+			PersistentHashMap.Builder<K, V> builder = new PersistentHashMap.Builder<>(keys.size());
+			for (int i = 0; i < keys.size(); i++)
+				builder.put(keys.get(i), values.get(i));
+			return builder.build();
+		}
+
+		for (int i = 0; i < keys.size(); i++)
+			function.put(keys.get(i), values.get(i));
+		return function;
+	}
+
+	/**
+	 * Creates a new instance of the underlying function as a
+	 * {@link PersistentHashMap}. Copying a persistent function takes constant
+	 * time, and each update on the copy takes time logarithmic in the size of
+	 * the function, sharing the rest of the structure with the original one.
+	 * 
+	 * @param other an optional function to copy, can be {@code null}
+	 * 
+	 * @return a new persistent function, either empty or containing the same
+	 *             data of the given one
+	 */
+	protected final Map<K, V> mkNewPersistentFunction(Map<K, V> other) {
+		if (other == null)
+			return new PersistentHashMap<>();
+		return new PersistentHashMap<>(other);
+	}
+
 	/**
 	 * Yields the set of keys currently in this lattice.
 	 * 
@@ -171,14 +227,15 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	protected final F functionalLift(F other, KeyFunctionalLift<K> keyLifter, FunctionalLift<V> valueLifter)
 			throws SemanticException {
 		F result = bottom();
-		result.function = mkNewFunction(null);
-		Set<K> keys = keyLifter.keyLift(this.getKeys(), other.getKeys());
+		List<K> keys = new ArrayList<>(keyLifter.keyLift(this.getKeys(), other.getKeys()));
+		List<V> values = new ArrayList<>(keys.size());
 		for (K key : keys)
 			try {
-				result.function.put(key, valueLifter.lift(getState(key), other.getState(key)));
+				values.add(valueLifter.lift(getState(key), other.getState(key)));
 			} catch (SemanticException e) {
 				throw new SemanticException("Exception during functional lifting of key '" + key + "'", e);
 			}
+		result.function = mkNewFunction(keys, values);
 		return result;
 	}
 
@@ -56,7 +56,7 @@ public abstract class InverseSetLattice<S extends InverseSetLattice<S, E>, E> ex
 	protected abstract S mk(Set<E> set);
 
 	@Override
-	protected final S lubAux(S other) throws SemanticException {
+	protected S lubAux(S other) throws SemanticException {
 		Set<E> lub = new HashSet<>(elements);
 		lub.retainAll(other.elements);
 		return mk(lub);
@@ -97,7 +97,7 @@ public abstract class InverseSetLattice<S extends InverseSetLattice<S, E>, E> ex
 	}
 
 	@Override
-	protected final boolean lessOrEqualAux(S other) throws SemanticException {
+	protected boolean lessOrEqualAux(S other) throws SemanticException {
 		return elements.containsAll(other.elements);
 	}
 
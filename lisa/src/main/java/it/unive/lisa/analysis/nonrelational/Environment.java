@@ -13,8 +13,11 @@ import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.OutOfScopeIdentifier;
 import it.unive.lisa.util.collections.CollectionsDiffBuilder;
+import it.unive.lisa.util.collections.PersistentHashMap;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
@@ -69,6 +72,18 @@ public abstract class Environment<M extends Environment<M, E, T, V>,
 		super(domain, function);
 	}
 
+	/**
+	 * {@inheritDoc}<br>
+	 * <br>
+	 * Environments are copied on each assignment, so their functions are
+	 * {@link PersistentHashMap}s: copying a function takes constant time, and
+	 * the copies share most of their structure.
+	 */
+	@Override
+	protected Map<Identifier, T> mkNewFunction(Map<Identifier, T> other) {
+		return mkNewPersistentFunction(other);
+	}
+
 	/**
 	 * Copies this environment. The function of the returned environment
 	 * <b>must</b> be a (shallow) copy of the one of the given environment.
@@ -106,6 +121,25 @@ public abstract class Environment<M extends Environment<M, E, T, V>,
 		return assignAux(id, expression, func, value, eval.getRight(), pp);
 	}
 
+	/**
+	 * Yields a copy of this environment where {@code id} is mapped to
+	 * {@code state}. Differently from
+	 * {@link #assign(Identifier, SymbolicExpression, ProgramPoint)}, no
+	 * expression is evaluated and the update is always strong. The returned
+	 * environment is built through {@link #mk(NonRelationalElement, Map)}, and
+	 * it is thus an instance of the same class of this one.
+	 * 
+	 * @param id    the identifier to update
+	 * @param state the new state of {@code id}
+	 * 
+	 * @return the updated environment
+	 */
+	public final M putState(Identifier id, T state) {
+		Map<Identifier, T> func = mkNewFunction(function);
+		func.put(id, state);
+		return mk(lattice, func);
+	}
+
 	/**
 	 * Yields the evaluation of the given expression, happening at the given
 	 * program point. The result of the evaluation is in the form of
@@ -191,10 +225,142 @@ public abstract class Environment<M extends Environment<M, E, T, V>,
 		if (other.isBottom() || this.isTop() || other.lessOrEqual((M) this))
 			return glbAux(other.lattice, other.function, other);
 
-		M lift = functionalLift(other, (k1, k2) -> glbKeys(k1, k2), (o1, o2) -> o1 == null ? o2 : o1.glb(o2));
+		M lift = lift(other, false, (o1, o2) -> o1.glb(o2));
 		return glbAux(lift.lattice, lift.function, other);
 	}
 
+	@Override
+	public M lubAux(M other) throws SemanticException {
+		return lift(other, true, (o1, o2) -> o1.lub(o2));
+	}
+
+	@Override
+	public M wideningAux(M other) throws SemanticException {
+		return lift(other, true, (o1, o2) -> o1.widening(o2));
+	}
+
+	/**
+	 * Lifts {@code valueLifter} to the functions of this environment and
+	 * {@code other}, yielding an environment whose function maps each key to
+	 * the lift of the values of that key in the two environments. This is
+	 * used to compute least upper bounds, widenings and greatest lower bounds.
+	 * The default implementation uses {@link #functionalLift}: environments
+	 * whose {@link #mkNewFunction(Map)} yields functions that can be combined
+	 * more efficiently should override this method (e.g., through
+	 * {@link #arrayLift(Environment, boolean, FunctionalLift)}).
+	 * 
+	 * @param other       the other environment
+	 * @param union       whether the keys of the result are the union (if
+	 *                        {@code true}) or the intersection (if
+	 *                        {@code false}) of the keys of the two functions
+	 * @param valueLifter the value lifter
+	 * 
+	 * @return the lifted environment
+	 * 
+	 * @throws SemanticException if something goes wrong while lifting the
+	 *                               values
+	 */
+	protected M lift(M other, boolean union, FunctionalLift<T> valueLifter) throws SemanticException {
+		KeyFunctionalLift<Identifier> keyLifter = union ? (k1, k2) -> lubKeys(k1, k2) : (k1, k2) -> glbKeys(k1, k2);
+		return functionalLift(other, keyLifter, (o1, o2) -> o1 == null ? o2 : valueLifter.lift(o1, o2));
+	}
+
+	/**
+	 * Counterpart of {@link #lessOrEqualAux(FunctionalLattice)} for
+	 * environments whose functions are both {@link IdentifierArrayMap}s. The
+	 * keys of the two functions are scanned in ascending order of id. This can
+	 * be used only by environments whose {@link #mkNewFunction(Map)} always
+	 * yields {@link IdentifierArrayMap}s.
+	 * 
+	 * @param other the other environment
+	 * 
+	 * @return whether or not this environment is less or equal than
+	 *             {@code other}
+	 * 
+	 * @throws SemanticException if something goes wrong while comparing the
+	 *                               values
+	 */
+	@SuppressWarnings("unchecked")
+	protected final boolean arrayLessOrEqual(M other) throws SemanticException {
+		IdentifierArrayMap<T> mine = (IdentifierArrayMap<T>) function;
+		IdentifierArrayMap<T> theirs = (IdentifierArrayMap<T>) other.function;
+		int j = 0;
+		for (int i = 0; i < mine.size(); i++) {
+			int id = mine.idAt(i);
+			while (j < theirs.size() && theirs.idAt(j) < id)
+				j++;
+			T otherValue = j < theirs.size() && theirs.idAt(j) == id ? theirs.valueAt(j) : other.lattice.bottom();
+			if (!mine.valueAt(i).lessOrEqual(otherValue))
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Counterpart of {@link #lift(Environment, boolean, FunctionalLift)} for
+	 * environments whose functions are both {@link IdentifierArrayMap}s. The
+	 * keys of the two functions are scanned in ascending order of id, and the
+	 * resulting function is built without searching for the position of each
+	 * key. This can be used only by environments whose
+	 * {@link #mkNewFunction(Map)} always yields {@link IdentifierArrayMap}s.
+	 * 
+	 * @param other       the other environment
+	 * @param union       whether the keys of the result are the union (if
+	 *                        {@code true}) or the intersection (if
+	 *                        {@code false}) of the keys of the two functions
+	 * @param valueLifter the value lifter
+	 * 
+	 * @return the lifted environment
+	 * 
+	 * @throws SemanticException if something goes wrong while lifting the
+	 *                               values
+	 */
+	@SuppressWarnings("unchecked")
+	protected final M arrayLift(M other, boolean union, FunctionalLift<T> valueLifter) throws SemanticException {
+		IdentifierArrayMap<T> mine = (IdentifierArrayMap<T>) function;
+		IdentifierArrayMap<T> theirs = (IdentifierArrayMap<T>) other.function;
+		IdentifierArrayMap<T> lifted = new IdentifierArrayMap<>(
+				union ? mine.size() + theirs.size() : Math.min(mine.size(), theirs.size()));
+
+		int i = 0, j = 0;
+		while (i < mine.size() || j < theirs.size()) {
+			int myId = i < mine.size() ? mine.idAt(i) : Integer.MAX_VALUE;
+			int theirId = j < theirs.size() ? theirs.idAt(j) : Integer.MAX_VALUE;
+			Identifier key;
+			T left, right;
+			if (myId == theirId) {
+				key = mine.keyAt(i);
+				left = mine.valueAt(i++);
+				right = theirs.valueAt(j++);
+			} else if (!union) {
+				if (myId < theirId)
+					i++;
+				else
+					j++;
+				continue;
+			} else if (myId < theirId) {
+				key = mine.keyAt(i);
+				left = mine.valueAt(i++);
+				right = other.lattice.bottom();
+			} else {
+				key = theirs.keyAt(j);
+				left = lattice.bottom();
+				right = theirs.valueAt(j++);
+			}
+
+			try {
+				lifted.append(key, valueLifter.lift(left, right));
+			} catch (SemanticException e) {
+				throw new SemanticException("Exception during functional lifting of key '" + key + "'", e);
+			}
+		}
+
+		M result = bottom();
+		result.function = lifted;
+		return result;
+	}
+
 	/**
 	 * Auxiliary glb operation, invoked after the result has been computed to
 	 * create the concrete instance of environment. Note that any additional
@@ -268,14 +434,17 @@ public abstract class Environment<M extends Environment<M, E, T, V>,
 		if (isBottom() || isTop())
 			return (M) this;
 
-		Map<Identifier, T> function = mkNewFunction(null);
-		for (Identifier id : getKeys()) {
-			Identifier lifted = lifter.apply(id);
-			if (lifted != null)
-				function.put(lifted, getState(id));
+		List<Identifier> keys = new ArrayList<>(function.size());
+		List<T> values = new ArrayList<>(function.size());
+		for (Map.Entry<Identifier, T> entry : function.entrySet()) {
+			Identifier lifted = lifter.apply(entry.getKey());
+			if (lifted != null) {
+				keys.add(lifted);
+				values.add(entry.getValue());
+			}
 		}
 
-		return mk(lattice, function);
+		return mk(lattice, mkNewFunction(keys, values));
 	}
 
 	/**
@@ -0,0 +1,304 @@
+package it.unive.lisa.analysis.nonrelational;
+
+import it.unive.lisa.symbolic.value.Identifier;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A {@link Map} from {@link Identifier}s to values, backed by arrays sorted by
+ * the ids of the identifiers (see {@link Identifier#getInternId()}). Lookups
+ * are binary searches over a primitive {@code int} array, and two maps can be
+ * combined key by key (as {@link Environment} does for least upper bounds,
+ * greatest lower bounds and comparisons) with a single linear scan of both
+ * arrays, instead of one hash lookup per key.<br>
+ * <br>
+ * Copies created through {@link #IdentifierArrayMap(Map)} share the arrays of
+ * the original map until one of the two is modified. The entries returned
+ * while iterating over this map are immutable. Instances of this class are
+ * not thread-safe.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <V> the type of the values
+ */
+public class IdentifierArrayMap<V> extends AbstractMap<Identifier, V> {
+
+	private static final int DEFAULT_CAPACITY = 8;
+
+	/**
+	 * The ids of the keys, sorted in ascending order
+	 */
+	private int[] ids;
+
+	/**
+	 * The keys, where {@code keys[i].getInternId() == ids[i]}
+	 */
+	private Identifier[] keys;
+
+	/**
+	 * The values, where {@code values[i]} is the value of {@code keys[i]}
+	 */
+	private Object[] values;
+
+	private int size;
+
+	/**
+	 * Whether or not the arrays are shared with another map, and thus must be
+	 * copied before being modified
+	 */
+	private boolean shared;
+
+	/**
+	 * Builds an empty map.
+	 */
+	public IdentifierArrayMap() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Builds an empty map, able to contain the given number of mappings
+	 * without resizing its arrays.
+	 *
+	 * @param capacity the initial capacity
+	 */
+	public IdentifierArrayMap(int capacity) {
+		this.ids = new int[capacity];
+		this.keys = new Identifier[capacity];
+		this.values = new Object[capacity];
+		this.size = 0;
+		this.shared = false;
+	}
+
+	/**
+	 * Builds a map containing the same mappings of the given one. If
+	 * {@code other} is an instance of this class, the copy takes constant time
+	 * and the arrays are copied only when one of the two maps is modified.
+	 *
+	 * @param other the map to copy
+	 */
+	public IdentifierArrayMap(Map<Identifier, ? extends V> other) {
+		if (other instanceof IdentifierArrayMap) {
+			IdentifierArrayMap<?> o = (IdentifierArrayMap<?>) other;
+			this.ids = o.ids;
+			this.keys = o.keys;
+			this.values = o.values;
+			this.size = o.size;
+			this.shared = true;
+			o.shared = true;
+		} else {
+			this.ids = new int[Math.max(DEFAULT_CAPACITY, other.size())];
+			this.keys = new Identifier[ids.length];
+			this.values = new Object[ids.length];
+			this.size = 0;
+			this.shared = false;
+			putAll(other);
+		}
+	}
+
+	private int indexOf(Object key) {
+		if (!(key instanceof Identifier))
+			return -1;
+		return Arrays.binarySearch(ids, 0, size, ((Identifier) key).getInternId());
+	}
+
+	/**
+	 * Makes sure that the arrays are not shared and that they can hold
+	 * {@code capacity} elements.
+	 */
+	private void ensureOwned(int capacity) {
+		if (!shared && capacity <= ids.length)
+			return;
+		int length = capacity <= ids.length ? ids.length : Math.max(capacity, ids.length * 2);
+		ids = Arrays.copyOf(ids, length);
+		keys = Arrays.copyOf(keys, length);
+		values = Arrays.copyOf(values, length);
+		shared = false;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return indexOf(key) >= 0;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(Object key) {
+		int idx = indexOf(key);
+		return idx < 0 ? null : (V) values[idx];
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V put(Identifier key, V value) {
+		int id = key.getInternId();
+		int idx = Arrays.binarySearch(ids, 0, size, id);
+		if (idx >= 0) {
+			V previous = (V) values[idx];
+			if (previous != value) {
+				ensureOwned(size);
+				values[idx] = value;
+			}
+			return previous;
+		}
+
+		idx = -(idx + 1);
+		ensureOwned(size + 1);
+		System.arraycopy(ids, idx, ids, idx + 1, size - idx);
+		System.arraycopy(keys, idx, keys, idx + 1, size - idx);
+		System.arraycopy(values, idx, values, idx + 1, size - idx);
+		ids[idx] = id;
+		keys[idx] = key;
+		values[idx] = value;
+		size++;
+		return null;
+	}
+
+	@Override
+	public V remove(Object key) {
+		int idx = indexOf(key);
+		if (idx < 0)
+			return null;
+		return removeAt(idx);
+	}
+
+	@SuppressWarnings("unchecked")
+	private V removeAt(int idx) {
+		V previous = (V) values[idx];
+		ensureOwned(size);
+		System.arraycopy(ids, idx + 1, ids, idx, size - idx - 1);
+		System.arraycopy(keys, idx + 1, keys, idx, size - idx - 1);
+		System.arraycopy(values, idx + 1, values, idx, size - idx - 1);
+		size--;
+		keys[size] = null;
+		values[size] = null;
+		return previous;
+	}
+
+	@Override
+	public void clear() {
+		if (shared) {
+			ids = new int[DEFAULT_CAPACITY];
+			keys = new Identifier[DEFAULT_CAPACITY];
+			values = new Object[DEFAULT_CAPACITY];
+			shared = false;
+		} else {
+			Arrays.fill(keys, 0, size, null);
+			Arrays.fill(values, 0, size, null);
+		}
+		size = 0;
+	}
+
+	/**
+	 * Adds a mapping whose key has an id greater than the ones of all the keys
+	 * already in this map, without searching for its position.
+	 *
+	 * @param key   the key
+	 * @param value the value
+	 */
+	void append(Identifier key, V value) {
+		ensureOwned(size + 1);
+		ids[size] = key.getInternId();
+		keys[size] = key;
+		values[size] = value;
+		size++;
+	}
+
+	/**
+	 * Yields the id of the {@code i}-th key of this map, in ascending order.
+	 *
+	 * @param i the position of the key
+	 *
+	 * @return the id of the key
+	 */
+	int idAt(int i) {
+		return ids[i];
+	}
+
+	/**
+	 * Yields the {@code i}-th key of this map, in ascending order of ids.
+	 *
+	 * @param i the position of the key
+	 *
+	 * @return the key
+	 */
+	Identifier keyAt(int i) {
+		return keys[i];
+	}
+
+	/**
+	 * Yields the value of the {@code i}-th key of this map, in ascending order
+	 * of ids.
+	 *
+	 * @param i the position of the key
+	 *
+	 * @return the value
+	 */
+	@SuppressWarnings("unchecked")
+	V valueAt(int i) {
+		return (V) values[i];
+	}
+
+	@Override
+	public Set<Entry<Identifier, V>> entrySet() {
+		return new AbstractSet<>() {
+
+			@Override
+			public Iterator<Entry<Identifier, V>> iterator() {
+				return new Iterator<>() {
+
+					private int next = 0;
+
+					private boolean canRemove = false;
+
+					@Override
+					public boolean hasNext() {
+						return next < size;
+					}
+
+					@Override
+					public Entry<Identifier, V> next() {
+						if (next >= size)
+							throw new NoSuchElementException();
+						canRemove = true;
+						Entry<Identifier, V> entry = new SimpleImmutableEntry<>(keys[next], valueAt(next));
+						next++;
+						return entry;
+					}
+
+					@Override
+					public void remove() {
+						if (!canRemove)
+							throw new IllegalStateException();
+						canRemove = false;
+						removeAt(--next);
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+
+			@Override
+			public void clear() {
+				IdentifierArrayMap.this.clear();
+			}
+		};
+	}
+}
@@ -24,7 +24,10 @@ import it.unive.lisa.symbolic.value.ValueExpression;
  * Base implementation for {@link InferredValue}s. This class extends
  * {@link BaseLattice} and implements
  * {@link InferredValue#eval(ValueExpression, InferenceSystem, ProgramPoint)} by
- * taking care of the recursive computation of inner expressions evaluation.
+ * taking care of the recursive computation of inner expressions evaluation.<br>
+ * <br>
+ * Subclasses with immutable instances can speed up comparisons by hash-consing
+ * them (see {@link it.unive.lisa.util.collections.HashConsingPool}).
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -0,0 +1,101 @@
+package it.unive.lisa.analysis.nonrelational.value;
+
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.nonrelational.IdentifierArrayMap;
+import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.ValueExpression;
+import java.util.Map;
+
+/**
+ * A {@link ValueEnvironment} whose functions are {@link IdentifierArrayMap}s,
+ * that is, arrays sorted by {@link Identifier#getInternId()}. Least upper
+ * bounds, widenings, greatest lower bounds and comparisons between two
+ * instances of this class are performed through a single scan of the two
+ * arrays. This environment is best suited for analyses where lattice
+ * operations dominate over assignments, since each assignment copies the
+ * arrays of the function once they are shared with another environment.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ * 
+ * @param <T> the concrete instance of the {@link NonRelationalValueDomain}
+ *                whose instances are mapped in this environment
+ */
+public class ArrayValueEnvironment<T extends NonRelationalValueDomain<T>> extends ValueEnvironment<T> {
+
+	/**
+	 * Builds an empty environment.
+	 * 
+	 * @param domain a singleton instance to be used during semantic operations
+	 *                   to retrieve top and bottom values
+	 */
+	public ArrayValueEnvironment(T domain) {
+		super(domain);
+	}
+
+	/**
+	 * Builds an environment from a given map.
+	 * 
+	 * @param domain   a singleton instance to be used during semantic
+	 *                     operations to retrieve top and bottom values
+	 * @param function the function representing the mapping contained in the
+	 *                     new environment; can be {@code null}
+	 */
+	public ArrayValueEnvironment(T domain, Map<Identifier, T> function) {
+		super(domain, function == null || function instanceof IdentifierArrayMap ? function
+				: new IdentifierArrayMap<>(function));
+	}
+
+	@Override
+	protected Map<Identifier, T> mkNewFunction(Map<Identifier, T> other) {
+		if (other == null)
+			return new IdentifierArrayMap<>();
+		return new IdentifierArrayMap<>(other);
+	}
+
+	@Override
+	protected ValueEnvironment<T> mk(T lattice, Map<Identifier, T> function) {
+		return new ArrayValueEnvironment<>(lattice, function);
+	}
+
+	@Override
+	protected ValueEnvironment<T> copy() {
+		return new ArrayValueEnvironment<>(lattice, mkNewFunction(function));
+	}
+
+	@Override
+	protected ValueEnvironment<T> assignAux(Identifier id, ValueExpression expression, Map<Identifier, T> function,
+			T value, T eval, ProgramPoint pp) {
+		return new ArrayValueEnvironment<>(lattice, function);
+	}
+
+	@Override
+	protected ValueEnvironment<T> glbAux(T lattice, Map<Identifier, T> function, ValueEnvironment<T> other) {
+		return new ArrayValueEnvironment<>(lattice, function);
+	}
+
+	@Override
+	protected ValueEnvironment<T> lift(ValueEnvironment<T> other, boolean union, FunctionalLift<T> valueLifter)
+			throws SemanticException {
+		if (other instanceof ArrayValueEnvironment)
+			return arrayLift(other, union, valueLifter);
+		return super.lift(other, union, valueLifter);
+	}
+
+	@Override
+	public boolean lessOrEqualAux(ValueEnvironment<T> other) throws SemanticException {
+		if (other instanceof ArrayValueEnvironment)
+			return arrayLessOrEqual(other);
+		return super.lessOrEqualAux(other);
+	}
+
+	@Override
+	public ValueEnvironment<T> top() {
+		return isTop() ? this : new ArrayValueEnvironment<T>(lattice.top(), null);
+	}
+
+	@Override
+	public ValueEnvironment<T> bottom() {
+		return isBottom() ? this : new ArrayValueEnvironment<T>(lattice.bottom(), null);
+	}
+}
@@ -25,7 +25,11 @@ import it.unive.lisa.symbolic.value.ValueExpression;
  * Base implementation for {@link NonRelationalValueDomain}s. This class extends
  * {@link BaseLattice} and implements
  * {@link NonRelationalValueDomain#eval(it.unive.lisa.symbolic.SymbolicExpression, it.unive.lisa.analysis.lattices.FunctionalLattice, ProgramPoint)}
- * by taking care of the recursive computation of inner expressions evaluation.
+ * by taking care of the recursive computation of inner expressions
+ * evaluation.<br>
+ * <br>
+ * Subclasses with immutable instances can speed up comparisons by hash-consing
+ * them (see {@link it.unive.lisa.util.collections.HashConsingPool}).
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
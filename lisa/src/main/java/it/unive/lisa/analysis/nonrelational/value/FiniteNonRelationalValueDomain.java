@@ -0,0 +1,355 @@
+package it.unive.lisa.analysis.nonrelational.value;
+
+import it.unive.lisa.analysis.SemanticDomain.Satisfiability;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.symbolic.value.BinaryOperator;
+import it.unive.lisa.symbolic.value.UnaryOperator;
+import java.util.List;
+
+/**
+ * A {@link BaseNonRelationalValueDomain} with finitely many elements, whose
+ * lattice operations and transfer functions are evaluated through lookup
+ * tables. Each element of the domain is identified by an index, and all the
+ * elements are listed once in a {@link Tables} instance (usually stored in a
+ * static field of the concrete domain). When such an instance is built, it
+ * tabulates:
+ * <ul>
+ * <li>the partial order, as defined by
+ * {@link #lessOrEqualElement(FiniteNonRelationalValueDomain)}, from which
+ * least upper bounds and greatest lower bounds are derived;</li>
+ * <li>the evaluation of each {@link UnaryOperator} and {@link BinaryOperator}
+ * on each (pair of) element(s), as defined by
+ * {@link #evalUnary(UnaryOperator, FiniteNonRelationalValueDomain)} and
+ * {@link #evalBinary(BinaryOperator, FiniteNonRelationalValueDomain, FiniteNonRelationalValueDomain)};</li>
+ * <li>the satisfiability of each {@link UnaryOperator} and
+ * {@link BinaryOperator} on each (pair of) element(s), as defined by
+ * {@link #satisfiesUnary(UnaryOperator, FiniteNonRelationalValueDomain)} and
+ * {@link #satisfiesBinary(BinaryOperator, FiniteNonRelationalValueDomain, FiniteNonRelationalValueDomain)}.</li>
+ * </ul>
+ * Afterwards, {@link #lubAux(FiniteNonRelationalValueDomain)},
+ * {@link #glbAux(FiniteNonRelationalValueDomain)},
+ * {@link #lessOrEqualAux(FiniteNonRelationalValueDomain)} and the evaluation
+ * and satisfiability of unary and binary expressions are array lookups that
+ * never allocate new elements. As a consequence, the transfer functions of
+ * domains extending this class cannot depend on the program point where they
+ * are evaluated. Since the lattice is finite, the widening coincides with the
+ * least upper bound.<br>
+ * <br>
+ * Two elements are equal if they have the same index: domains can thus expose
+ * public constructors (e.g., for building the singleton instance used to
+ * retrieve top and bottom values) without breaking equality.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <T> the concrete type of this domain
+ */
+public abstract class FiniteNonRelationalValueDomain<T extends FiniteNonRelationalValueDomain<T>>
+		extends BaseNonRelationalValueDomain<T> {
+
+	private static final UnaryOperator[] UNARY_OPERATORS = UnaryOperator.values();
+
+	private static final BinaryOperator[] BINARY_OPERATORS = BinaryOperator.values();
+
+	/**
+	 * The index of this element. This field is not private since private
+	 * fields cannot be accessed through the type variable {@code T}.
+	 */
+	final int index;
+
+	/**
+	 * Builds the element with the given index.
+	 *
+	 * @param index the index of the element, that is, its position in the
+	 *                  {@link Tables} of this domain
+	 */
+	protected FiniteNonRelationalValueDomain(int index) {
+		this.index = index;
+	}
+
+	/**
+	 * Yields the lookup tables of this domain. All the elements of the domain
+	 * must return the same instance.
+	 *
+	 * @return the tables
+	 */
+	protected abstract Tables<T> tables();
+
+	/**
+	 * Yields {@code true} if and only if this element is less or equal than
+	 * {@code other}. This method is invoked only while building the
+	 * {@link Tables} of this domain, and it is guaranteed that the two
+	 * elements are different and that they are neither top nor bottom.
+	 *
+	 * @param other the other element
+	 *
+	 * @return {@code true} if this element is less or equal than
+	 *             {@code other}
+	 */
+	protected abstract boolean lessOrEqualElement(T other);
+
+	/**
+	 * Yields the evaluation of a unary expression. This method is invoked only
+	 * while building the {@link Tables} of this domain, and it is guaranteed
+	 * that {@code arg} is not bottom. The default implementation returns
+	 * {@link #top()}.
+	 *
+	 * @param operator the unary operator
+	 * @param arg      the abstract value of the argument
+	 *
+	 * @return the abstract value of the expression
+	 */
+	protected T evalUnary(UnaryOperator operator, T arg) {
+		return top();
+	}
+
+	/**
+	 * Yields the evaluation of a binary expression. This method is invoked
+	 * only while building the {@link Tables} of this domain, and it is
+	 * guaranteed that neither {@code left} nor {@code right} are bottom. The
+	 * default implementation returns {@link #top()}.
+	 *
+	 * @param operator the binary operator
+	 * @param left     the abstract value of the left-hand side
+	 * @param right    the abstract value of the right-hand side
+	 *
+	 * @return the abstract value of the expression
+	 */
+	protected T evalBinary(BinaryOperator operator, T left, T right) {
+		return top();
+	}
+
+	/**
+	 * Yields the satisfiability of a unary expression. This method is invoked
+	 * only while building the {@link Tables} of this domain, and it is
+	 * guaranteed that {@code arg} is not bottom. The default implementation
+	 * returns {@link Satisfiability#UNKNOWN}.
+	 *
+	 * @param operator the unary operator
+	 * @param arg      the abstract value of the argument
+	 *
+	 * @return the satisfiability of the expression
+	 */
+	protected Satisfiability satisfiesUnary(UnaryOperator operator, T arg) {
+		return Satisfiability.UNKNOWN;
+	}
+
+	/**
+	 * Yields the satisfiability of a binary expression. This method is invoked
+	 * only while building the {@link Tables} of this domain, and it is
+	 * guaranteed that neither {@code left} nor {@code right} are bottom. The
+	 * default implementation returns {@link Satisfiability#UNKNOWN}.
+	 *
+	 * @param operator the binary operator
+	 * @param left     the abstract value of the left-hand side
+	 * @param right    the abstract value of the right-hand side
+	 *
+	 * @return the satisfiability of the expression
+	 */
+	protected Satisfiability satisfiesBinary(BinaryOperator operator, T left, T right) {
+		return Satisfiability.UNKNOWN;
+	}
+
+	@Override
+	public final boolean isTop() {
+		return index == top().index;
+	}
+
+	@Override
+	public final boolean isBottom() {
+		return index == bottom().index;
+	}
+
+	@Override
+	protected final T evalUnaryExpression(UnaryOperator operator, T arg, ProgramPoint pp) {
+		return tables().unary[operator.ordinal()][arg.index];
+	}
+
+	@Override
+	protected final T evalBinaryExpression(BinaryOperator operator, T left, T right, ProgramPoint pp) {
+		Tables<T> tables = tables();
+		return tables.binary[operator.ordinal()][left.index * tables.size + right.index];
+	}
+
+	@Override
+	protected final Satisfiability satisfiesUnaryExpression(UnaryOperator operator, T arg, ProgramPoint pp) {
+		return tables().satisfiesUnary[operator.ordinal()][arg.index];
+	}
+
+	@Override
+	protected final Satisfiability satisfiesBinaryExpression(BinaryOperator operator, T left, T right,
+			ProgramPoint pp) {
+		Tables<T> tables = tables();
+		return tables.satisfiesBinary[operator.ordinal()][left.index * tables.size + right.index];
+	}
+
+	@Override
+	protected final T lubAux(T other) throws SemanticException {
+		Tables<T> tables = tables();
+		return tables.lub[index * tables.size + other.index];
+	}
+
+	@Override
+	protected final T wideningAux(T other) throws SemanticException {
+		return lubAux(other);
+	}
+
+	@Override
+	protected final boolean lessOrEqualAux(T other) throws SemanticException {
+		Tables<T> tables = tables();
+		return tables.lessOrEqual[index * tables.size + other.index];
+	}
+
+	@Override
+	public final T glbAux(T other) {
+		Tables<T> tables = tables();
+		return tables.glb[index * tables.size + other.index];
+	}
+
+	@Override
+	public final int hashCode() {
+		return index;
+	}
+
+	@Override
+	public final boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		return index == ((FiniteNonRelationalValueDomain<?>) obj).index;
+	}
+
+	/**
+	 * The lookup tables of a {@link FiniteNonRelationalValueDomain}. Pairs of
+	 * elements are stored in row-major order, that is, the entry for the pair
+	 * {@code (l, r)} is at position {@code l * n + r}, where {@code n} is the
+	 * number of elements of the domain.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 *
+	 * @param <T> the concrete type of the domain
+	 */
+	public static final class Tables<T extends FiniteNonRelationalValueDomain<T>> {
+
+		private final int size;
+
+		private final boolean[] lessOrEqual;
+
+		private final T[] lub;
+
+		private final T[] glb;
+
+		private final T[][] unary;
+
+		private final T[][] binary;
+
+		private final Satisfiability[][] satisfiesUnary;
+
+		private final Satisfiability[][] satisfiesBinary;
+
+		/**
+		 * Builds the tables for a domain, tabulating all its operations. The
+		 * given elements must be all the elements of the domain, each one
+		 * placed at the position corresponding to its index.
+		 *
+		 * @param elements the elements of the domain
+		 *
+		 * @throws IllegalArgumentException if an element is not placed at its
+		 *                                      index, or if the partial order
+		 *                                      does not define a lattice
+		 */
+		public Tables(List<T> elements) {
+			size = elements.size();
+			for (int i = 0; i < size; i++)
+				if (elements.get(i).index != i)
+					throw new IllegalArgumentException("Element " + elements.get(i) + " is not placed at its index");
+
+			lessOrEqual = new boolean[size * size];
+			for (int l = 0; l < size; l++)
+				for (int r = 0; r < size; r++)
+					lessOrEqual[l * size + r] = lessOrEqual(elements.get(l), elements.get(r));
+
+			lub = newArray(size * size);
+			glb = newArray(size * size);
+			for (int l = 0; l < size; l++)
+				for (int r = 0; r < size; r++) {
+					lub[l * size + r] = bound(elements, l, r, true);
+					glb[l * size + r] = bound(elements, l, r, false);
+				}
+
+			unary = newTable(UNARY_OPERATORS.length, size);
+			satisfiesUnary = new Satisfiability[UNARY_OPERATORS.length][size];
+			for (UnaryOperator op : UNARY_OPERATORS)
+				for (T arg : elements)
+					if (arg.isBottom()) {
+						unary[op.ordinal()][arg.index] = arg;
+						satisfiesUnary[op.ordinal()][arg.index] = Satisfiability.BOTTOM;
+					} else {
+						unary[op.ordinal()][arg.index] = elements.get(arg.evalUnary(op, arg).index);
+						satisfiesUnary[op.ordinal()][arg.index] = arg.satisfiesUnary(op, arg);
+					}
+
+			binary = newTable(BINARY_OPERATORS.length, size * size);
+			satisfiesBinary = new Satisfiability[BINARY_OPERATORS.length][size * size];
+			for (BinaryOperator op : BINARY_OPERATORS)
+				for (T left : elements)
+					for (T right : elements) {
+						int pos = left.index * size + right.index;
+						if (left.isBottom() || right.isBottom()) {
+							binary[op.ordinal()][pos] = left.bottom();
+							satisfiesBinary[op.ordinal()][pos] = Satisfiability.BOTTOM;
+						} else {
+							binary[op.ordinal()][pos] = elements.get(left.evalBinary(op, left, right).index);
+							satisfiesBinary[op.ordinal()][pos] = left.satisfiesBinary(op, left, right);
+						}
+					}
+		}
+
+		@SuppressWarnings("unchecked")
+		private T[] newArray(int length) {
+			// T erases to FiniteNonRelationalValueDomain, so the cast is safe
+			return (T[]) new FiniteNonRelationalValueDomain<?>[length];
+		}
+
+		@SuppressWarnings("unchecked")
+		private T[][] newTable(int rows, int columns) {
+			// T erases to FiniteNonRelationalValueDomain, so the cast is safe
+			return (T[][]) new FiniteNonRelationalValueDomain<?>[rows][columns];
+		}
+
+		private boolean lessOrEqual(T left, T right) {
+			if (left.index == right.index || left.isBottom() || right.isTop())
+				return true;
+			if (left.isTop() || right.isBottom())
+				return false;
+			return left.lessOrEqualElement(right);
+		}
+
+		private T bound(List<T> elements, int l, int r, boolean upper) {
+			T result = null;
+			for (int c = 0; c < size; c++) {
+				boolean isBound = upper ? lessOrEqual[l * size + c] && lessOrEqual[r * size + c]
+						: lessOrEqual[c * size + l] && lessOrEqual[c * size + r];
+				if (!isBound)
+					continue;
+				if (result == null || (upper ? lessOrEqual[c * size + result.index]
+						: lessOrEqual[result.index * size + c]))
+					result = elements.get(c);
+			}
+
+			for (int c = 0; c < size; c++) {
+				boolean isBound = upper ? lessOrEqual[l * size + c] && lessOrEqual[r * size + c]
+						: lessOrEqual[c * size + l] && lessOrEqual[c * size + r];
+				if (isBound && !(upper ? lessOrEqual[result.index * size + c]
+						: lessOrEqual[c * size + result.index]))
+					throw new IllegalArgumentException("Elements " + elements.get(l) + " and " + elements.get(r)
+							+ " do not have a " + (upper ? "least upper" : "greatest lower") + " bound");
+			}
+
+			return result;
+		}
+	}
+}
@@ -32,8 +32,7 @@ public class IntervalParityDomain extends ReducedCartesianProduct<IntervalParity
 
 	private boolean isIntervalParityInvalid(Interval interval, Parity parity) {
 		if (interval.isSingleton() && !parity.isTop() && !parity.isBottom()) {
-			Integer value = interval.getLow();
-			Parity valueParity = Parity.getFromInt(value);
+			Parity valueParity = Parity.getFromInt((int) interval.getLowBound());
 			return !valueParity.equals(parity);
 		}
 		return false;
@@ -49,12 +48,12 @@ public class IntervalParityDomain extends ReducedCartesianProduct<IntervalParity
 		}
 
 		if (!interval.isTop() && !parity.isTop() && !interval.isBottom() && !parity.isBottom()) {
-			if (interval.getLow() != null && Parity.getFromInt(interval.getLow() + 1).equals(parity)) {
-				return new Interval(interval.getLow() + 1, interval.getHigh());
+			if (!interval.lowIsMinusInfinity() && Parity.getFromInt((int) interval.getLowBound() + 1).equals(parity)) {
+				return Interval.of(interval.getLowBound() + 1, interval.getHighBound());
 			}
 
-			if (interval.getHigh() != null && Parity.getFromInt(interval.getHigh() - 1).equals(parity)) {
-				return new Interval(interval.getLow(), interval.getHigh() - 1);
+			if (!interval.highIsPlusInfinity() && Parity.getFromInt((int) interval.getHighBound() - 1).equals(parity)) {
+				return Interval.of(interval.getLowBound(), interval.getHighBound() - 1);
 			}
 		}
 		return interval;
@@ -70,8 +69,7 @@ public class IntervalParityDomain extends ReducedCartesianProduct<IntervalParity
 		}
 
 		if (interval.isSingleton()) {
-			Integer value = interval.getLow();
-			return Parity.getFromInt(value);
+			return Parity.getFromInt((int) interval.getLowBound());
 		}
 
 		return parity;
@@ -97,16 +95,16 @@ public class IntervalParityDomain extends ReducedCartesianProduct<IntervalParity
 			IntervalParityDomain modValue = eval((ValueExpression) modulo.getRight(), environment, pp);
 			IntervalParityDomain value = eval((ValueExpression) modulo.getLeft(), environment, pp);
 
-			Integer equalsValueInt = equalsValue.left.isSingleton() ? equalsValue.left.getHigh() : -1;
-			Integer modValueInt = modValue.left.isSingleton() ? modValue.left.getHigh() : -1;
-			Integer valueInt = value.left.isSingleton() ? value.left.getHigh() : -1;
+			long equalsValueInt = equalsValue.left.isSingleton() ? equalsValue.left.getHighBound() : -1;
+			long modValueInt = modValue.left.isSingleton() ? modValue.left.getHighBound() : -1;
+			long valueInt = value.left.isSingleton() ? value.left.getHighBound() : -1;
 			Parity valueParity = value.right;
 
 			switch (comparison.getOperator()) {
 				// value % modValue == equalsValue
 				case COMPARISON_EQ:
-					if (modValueInt.equals(2) && valueParity.equals(Parity.getFromInt(equalsValueInt)) 
-							&& (valueInt.equals(0) || valueInt.equals(1))) {
+					if (modValueInt == 2 && valueParity.equals(Parity.getFromInt((int) equalsValueInt)) 
+							&& (valueInt == 0 || valueInt == 1)) {
 						return SemanticDomain.Satisfiability.SATISFIED;
 					} else {
 						return SemanticDomain.Satisfiability.NOT_SATISFIED;
@@ -114,8 +112,8 @@ public class IntervalParityDomain extends ReducedCartesianProduct<IntervalParity
 
 				// value % modValue != equalsValue
 				case COMPARISON_NE:
-					if (modValueInt.equals(2) && valueParity.equals(Parity.getFromInt(equalsValueInt)) 
-							&& (valueInt.equals(0) || valueInt.equals(1))) {
+					if (modValueInt == 2 && valueParity.equals(Parity.getFromInt((int) equalsValueInt)) 
+							&& (valueInt == 0 || valueInt == 1)) {
 						return SemanticDomain.Satisfiability.NOT_SATISFIED;
 					} else {
 						return SemanticDomain.Satisfiability.SATISFIED;
@@ -0,0 +1,188 @@
+package it.unive.lisa.caches;
+
+import it.unive.lisa.LiSA;
+import it.unive.lisa.LiSAConfiguration;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The context of an analysis, owning the caches that are used while analyzing
+ * a program: the {@link ExternalSetCache} of {@link Type}s, and any other
+ * object that has to be shared among all the components of the analysis (see
+ * {@link #getCache(Object, Function)}). All {@link ExternalSet}s that are
+ * combined together must come from the same context.<br>
+ * <br>
+ * Contexts are bound to threads: the one bound to the current thread is
+ * returned by {@link #current()}, and it is the one used by
+ * {@link Caches#types()}. Threads where no context has been bound use a
+ * default one, shared by the whole JVM, that is replaced with an empty one at
+ * the end of each run of {@link LiSA} (see {@link #resetDefault()}). Each
+ * run of {@link LiSA} binds the context of its configuration (see
+ * {@link LiSAConfiguration#setAnalysisContext(AnalysisContext)}), or a new
+ * one if none was set, to the threads executing the analysis. This enables
+ * different analyses to run concurrently in the same JVM, and analyses
+ * sharing a context to reuse the caches filled by the previous ones.
+ * Instances of this class are thread-safe.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public final class AnalysisContext {
+
+	/**
+	 * The context used by threads that have no context bound to them
+	 */
+	private static volatile AnalysisContext defaultContext = new AnalysisContext();
+
+	/**
+	 * The context bound to each thread, if any
+	 */
+	private static final ThreadLocal<AnalysisContext> CURRENT = new ThreadLocal<>();
+
+	/**
+	 * The cache of types
+	 */
+	private final ExternalSetCache<Type> types;
+
+	/**
+	 * The additional caches, indexed by their key
+	 */
+	private final ConcurrentMap<Object, Object> caches;
+
+	/**
+	 * Builds a new context, with empty caches.
+	 */
+	public AnalysisContext() {
+		this.types = new ExternalSetCache<>();
+		this.caches = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Yields the context bound to the current thread, or the default one if no
+	 * context has been bound to it.
+	 *
+	 * @return the current context
+	 */
+	public static AnalysisContext current() {
+		AnalysisContext context = CURRENT.get();
+		return context == null ? defaultContext : context;
+	}
+
+	/**
+	 * Replaces the context used by threads that have no context bound to them
+	 * with a new one, with empty caches. The caches of the previous default
+	 * context are then released as soon as the objects built with them (e.g.,
+	 * programs parsed outside of any context) are no longer used. Since
+	 * {@link ExternalSet}s built with different caches cannot be combined,
+	 * this should not happen while other threads are using the default
+	 * context: objects that must outlive a reset should be built inside a
+	 * context of their own (see {@link #execute(Supplier)}).
+	 */
+	public static void resetDefault() {
+		defaultContext = new AnalysisContext();
+	}
+
+	/**
+	 * Yields the cache for {@link ExternalSet}s containing {@link Type}s of
+	 * this context.
+	 *
+	 * @return the types cache
+	 */
+	public ExternalSetCache<Type> getTypes() {
+		return types;
+	}
+
+	/**
+	 * Yields the cache associated with the given key in this context, creating
+	 * it through {@code factory} the first time it is requested. Classes that
+	 * need to keep objects depending on the caches of the context (e.g.,
+	 * constant {@link ExternalSet}s) should store them here instead of in
+	 * static fields, using a key that is private to them.
+	 *
+	 * @param <T>     the type of the cache
+	 * @param key     the key of the cache
+	 * @param factory the function creating the cache for this context
+	 *
+	 * @return the cache associated with {@code key}
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T getCache(Object key, Function<AnalysisContext, T> factory) {
+		Object cache = caches.get(key);
+		if (cache == null)
+			cache = caches.computeIfAbsent(key, k -> factory.apply(this));
+		return (T) cache;
+	}
+
+	/**
+	 * Executes the given action with this context bound to the current
+	 * thread, restoring the previous binding afterwards.
+	 *
+	 * @param <T>    the type of the result of the action
+	 * @param action the action to execute
+	 *
+	 * @return the result of the action
+	 */
+	public <T> T execute(Supplier<T> action) {
+		AnalysisContext previous = bind();
+		try {
+			return action.get();
+		} finally {
+			restore(previous);
+		}
+	}
+
+	/**
+	 * Yields a {@link Runnable} that executes the given one with this context
+	 * bound to the thread where it runs. This is useful for executing tasks
+	 * in thread pools.
+	 *
+	 * @param task the task to execute
+	 *
+	 * @return the wrapped task
+	 */
+	public Runnable wrap(Runnable task) {
+		return () -> execute(() -> {
+			task.run();
+			return null;
+		});
+	}
+
+	/**
+	 * Yields a {@link Callable} that executes the given one with this context
+	 * bound to the thread where it runs, propagating any exception it throws.
+	 * This is useful for submitting tasks to executors.
+	 *
+	 * @param <T>  the type of the result of the task
+	 * @param task the task to execute
+	 *
+	 * @return the wrapped task
+	 */
+	public <T> Callable<T> wrap(Callable<T> task) {
+		return () -> {
+			AnalysisContext previous = bind();
+			try {
+				return task.call();
+			} finally {
+				restore(previous);
+			}
+		};
+	}
+
+	private AnalysisContext bind() {
+		AnalysisContext previous = CURRENT.get();
+		CURRENT.set(this);
+		return previous;
+	}
+
+	private static void restore(AnalysisContext previous) {
+		if (previous == null)
+			CURRENT.remove();
+		else
+			CURRENT.set(previous);
+	}
+}
@@ -6,25 +6,21 @@ import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
 
 /**
  * A holder of {@link ExternalSetCache}s, to ensure that all
- * {@link ExternalSet}s built to hold a given element type will share the same
- * <i>unique</i> cache.
+ * {@link ExternalSet}s built to hold a given element type during the same
+ * analysis will share the same <i>unique</i> cache. Caches are owned by the
+ * {@link AnalysisContext} bound to the current thread.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
 public class Caches {
 
 	/**
-	 * The cache of types
-	 */
-	private static final ExternalSetCache<Type> types = new ExternalSetCache<>();
-
-	/**
-	 * Yields the globally defined cache for {@link ExternalSet}s containing
-	 * {@link Type}s.
+	 * Yields the cache for {@link ExternalSet}s containing {@link Type}s of the
+	 * current {@link AnalysisContext} (see {@link AnalysisContext#current()}).
 	 * 
 	 * @return the types cache
 	 */
 	public static ExternalSetCache<Type> types() {
-		return types;
+		return AnalysisContext.current().getTypes();
 	}
 }
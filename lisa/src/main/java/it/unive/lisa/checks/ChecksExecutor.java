@@ -2,11 +2,17 @@ package it.unive.lisa.checks;
 
 import static it.unive.lisa.logging.IterationLogger.iterate;
 
+import it.unive.lisa.caches.AnalysisContext;
+import it.unive.lisa.logging.TimerLogger;
 import it.unive.lisa.program.CompilationUnit;
 import it.unive.lisa.program.Global;
 import it.unive.lisa.program.Program;
 import it.unive.lisa.program.cfg.CFG;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -30,8 +36,51 @@ public class ChecksExecutor {
 	 */
 	public static <C extends Check<T>, T> void executeAll(T tool, Program program,
 			Collection<C> checks) {
+		executeAll(tool, program, checks, null);
+	}
+
+	/**
+	 * Executes all the given checks on the given inputs cfgs. If {@code pool}
+	 * is not {@code null}, the checks annotated with {@link ThreadSafeCheck}
+	 * are executed in parallel on it, each visit of a global, a cfg or a
+	 * compilation unit by one of such checks being a separate task. All other
+	 * checks are executed sequentially in the calling thread once the
+	 * parallel ones have completed.
+	 * 
+	 * @param <C>     the type of the checks to execute
+	 * @param <T>     the type of the auxiliary tool used by the check
+	 * @param tool    the auxiliary tool to be used during the checks execution
+	 * @param program the program to analyze
+	 * @param checks  the checks to execute
+	 * @param pool    the pool where thread-safe checks are executed, or
+	 *                    {@code null} to execute all checks sequentially
+	 */
+	public static <C extends Check<T>, T> void executeAll(T tool, Program program,
+			Collection<C> checks, ForkJoinPool pool) {
 		checks.forEach(c -> c.beforeExecution(tool));
 
+		Collection<C> sequential = checks;
+		if (pool != null) {
+			Collection<C> parallel = new ArrayList<>();
+			sequential = new ArrayList<>();
+			for (C check : checks)
+				if (check.getClass().isAnnotationPresent(ThreadSafeCheck.class))
+					parallel.add(check);
+				else
+					sequential.add(check);
+
+			if (!parallel.isEmpty())
+				executeInParallel(tool, program, parallel, pool);
+		}
+
+		if (!sequential.isEmpty())
+			executeSequentially(tool, program, sequential);
+
+		checks.forEach(c -> c.afterExecution(tool));
+	}
+
+	private static <C extends Check<T>, T> void executeSequentially(T tool, Program program,
+			Collection<C> checks) {
 		for (Global global : iterate(log, program.getGlobals(), "Analyzing program globals...", "Globals"))
 			checks.forEach(c -> c.visitGlobal(tool, program, global, false));
 
@@ -40,8 +89,46 @@ public class ChecksExecutor {
 
 		for (CompilationUnit unit : iterate(log, program.getUnits(), "Analyzing compilation units...", "Units"))
 			checks.forEach(c -> visitUnit(tool, unit, c));
+	}
 
-		checks.forEach(c -> c.afterExecution(tool));
+	private static <C extends Check<T>, T> void executeInParallel(T tool, Program program,
+			Collection<C> checks, ForkJoinPool pool) {
+		// tasks have to use the context of the analysis, whatever thread
+		// executes them
+		AnalysisContext context = AnalysisContext.current();
+		List<ForkJoinTask<?>> tasks = new ArrayList<>();
+		for (C c : checks) {
+			for (Global global : program.getGlobals())
+				tasks.add(task(context, () -> c.visitGlobal(tool, program, global, false)));
+			for (CFG cfg : program.getCFGs())
+				tasks.add(task(context, () -> cfg.accept(c, tool)));
+			for (CompilationUnit unit : program.getUnits())
+				tasks.add(task(context, () -> visitUnitInParallel(context, tool, unit, c)));
+		}
+
+		TimerLogger.execAction(log, "Executing " + checks.size() + " thread-safe checks in parallel",
+				() -> pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks))));
+	}
+
+	private static ForkJoinTask<?> task(AnalysisContext context, Runnable action) {
+		return ForkJoinTask.adapt(context.wrap(action));
+	}
+
+	private static <C extends Check<T>, T> void visitUnitInParallel(AnalysisContext context, T tool,
+			CompilationUnit unit, C c) {
+		if (!c.visitCompilationUnit(tool, unit))
+			return;
+
+		List<ForkJoinTask<?>> tasks = new ArrayList<>();
+		for (Global global : unit.getGlobals())
+			tasks.add(task(context, () -> c.visitGlobal(tool, unit, global, false)));
+		for (Global global : unit.getInstanceGlobals(false))
+			tasks.add(task(context, () -> c.visitGlobal(tool, unit, global, true)));
+		for (CFG cfg : unit.getCFGs())
+			tasks.add(task(context, () -> cfg.accept(c, tool)));
+		for (CFG cfg : unit.getInstanceCFGs(false))
+			tasks.add(task(context, () -> cfg.accept(c, tool)));
+		ForkJoinTask.invokeAll(tasks);
 	}
 
 	private static <C extends Check<T>, T> void visitUnit(T tool, CompilationUnit unit, C c) {
@@ -0,0 +1,24 @@
+package it.unive.lisa.checks;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * An annotation marking {@link Check}s whose callbacks can be invoked
+ * concurrently. When checks are executed on a {@link ForkJoinPool} (see
+ * {@link ChecksExecutor#executeAll(Object, it.unive.lisa.program.Program,
+ * java.util.Collection, ForkJoinPool)}), the visits of globals, cfgs and
+ * compilation units performed by annotated checks are distributed over the
+ * pool, with no guarantee on their order. Checks that are not annotated are
+ * always executed sequentially. {@link Check#beforeExecution(Object)} and
+ * {@link Check#afterExecution(Object)} are never invoked concurrently.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ThreadSafeCheck {
+}
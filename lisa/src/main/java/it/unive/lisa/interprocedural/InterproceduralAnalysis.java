@@ -21,6 +21,7 @@ import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.util.datastructures.graph.FixpointException;
 import java.util.Collection;
+import java.util.concurrent.ExecutorService;
 
 /**
  * The definition of interprocedural analyses.
@@ -121,4 +122,18 @@ public interface InterproceduralAnalysis<A extends AbstractState<A, H, V>,
 	 *                                     given call
 	 */
 	Call resolve(UnresolvedCall unresolvedCall) throws CallResolutionException;
+
+	/**
+	 * Sets the {@link ExecutorService} that this analysis can use to run
+	 * independent fixpoint computations in parallel. A {@code null} value
+	 * means that all computations have to be executed sequentially, in the
+	 * calling thread. The executor is owned by the caller, and it is never
+	 * shut down by this analysis. The default implementation of this method
+	 * ignores the given executor: analyses that can exploit parallelism must
+	 * override it.
+	 * 
+	 * @param executor the executor to use, or {@code null}
+	 */
+	default void setExecutor(ExecutorService executor) {
+	}
 }
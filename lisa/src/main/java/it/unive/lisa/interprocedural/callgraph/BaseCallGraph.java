@@ -13,11 +13,18 @@ import it.unive.lisa.program.cfg.statement.HybridCall;
 import it.unive.lisa.program.cfg.statement.OpenCall;
 import it.unive.lisa.program.cfg.statement.UnresolvedCall;
 import it.unive.lisa.type.Type;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
 import it.unive.lisa.util.datastructures.graph.Graph;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import org.apache.commons.lang3.tuple.Pair;
 
 /**
  * An instance of {@link CallGraph} that provides the basic mechanism to resolve
@@ -25,7 +32,12 @@ import java.util.stream.Collectors;
  * <br>
  * The graph underlying this call graph is built lazily through each call to
  * resolve: querying for information about the graph before the completion of
- * the analysis might lead to wrong results.
+ * the analysis might lead to wrong results.<br>
+ * <br>
+ * Since calls are resolved every time their semantics is evaluated, the
+ * resolution of each {@link UnresolvedCall} is cached, together with the
+ * types that determined it (see {@link #getReceiverTypesKey(Expression)}).
+ * The cached resolution is reused as long as those types do not change.
  *
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a> and
  *             <a href="mailto:pietro.ferrara@unive.it">Pietro Ferrara</a>
@@ -34,27 +46,45 @@ public abstract class BaseCallGraph extends Graph<BaseCallGraph, CallGraphNode,
 
 	private Program program;
 
+	/**
+	 * The last resolution of each call, together with the types it has been
+	 * computed with
+	 */
+	private final Map<UnresolvedCall, Pair<List<Object>, Call>> resolutions = new ConcurrentHashMap<>();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
 	@Override
 	public final void init(Program program) throws CallGraphConstructionException {
 		this.program = program;
+		resolutions.clear();
+		hits.reset();
+		misses.reset();
 	}
 
 	@Override
 	public final Call resolve(UnresolvedCall call) throws CallResolutionException {
+		List<Object> key = resolutionKey(call);
+		Pair<List<Object>, Call> cached = resolutions.get(call);
+		if (cached != null && cached.getLeft().equals(key)) {
+			hits.increment();
+			return cached.getRight();
+		}
+
+		misses.increment();
 		Collection<CFG> targets = new ArrayList<>();
 		Collection<NativeCFG> nativeTargets = new ArrayList<>();
 
 		if (call.isInstanceCall()) {
-			if (call.getParameters().length == 0)
-				throw new CallResolutionException(
-						"An instance call should have at least one parameter to be used as the receiver of the call");
 			Expression receiver = call.getParameters()[0];
 			for (Type recType : getPossibleTypesOfReceiver(receiver)) {
 				if (!recType.isUnitType())
 					continue;
 
 				CompilationUnit unit = recType.asUnitType().getUnit();
-				Collection<CodeMember> candidates = unit.getInstanceCodeMembersByName(call.getTargetName(), true);
+				Collection<CodeMember> candidates = unit.getDispatchTargets(call.getTargetName());
 				for (CodeMember cm : candidates)
 					if (cm.getDescriptor().isInstance()
 							&& call.getStrategy().matches(cm.getDescriptor().getArgs(), call.getParameters()))
@@ -64,8 +94,8 @@ public abstract class BaseCallGraph extends Graph<BaseCallGraph, CallGraphNode,
 							nativeTargets.add((NativeCFG) cm);
 			}
 		} else {
-			for (CodeMember cm : program.getAllCodeMembers())
-				if (!cm.getDescriptor().isInstance() && cm.getDescriptor().getName().equals(call.getTargetName())
+			for (CodeMember cm : program.getAllCodeMembersByName(call.getTargetName(), call.getParameters().length))
+				if (!cm.getDescriptor().isInstance()
 						&& call.getStrategy().matches(cm.getDescriptor().getArgs(), call.getParameters()))
 					if (cm instanceof CFG)
 						targets.add((CFG) cm);
@@ -86,27 +116,115 @@ public abstract class BaseCallGraph extends Graph<BaseCallGraph, CallGraphNode,
 
 		resolved.setOffset(call.getOffset());
 
-		CallGraphNode source = new CallGraphNode(this, call.getCFG());
-		if (!adjacencyMatrix.containsNode(source, false))
-			addNode(source, program.getEntryPoints().contains(call.getCFG()));
+		// calls might be resolved by parallel fixpoints
+		synchronized (this) {
+			CallGraphNode source = new CallGraphNode(this, call.getCFG());
+			if (!adjacencyMatrix.containsNode(source, false))
+				addNode(source, program.getEntryPoints().contains(call.getCFG()));
 
-		for (CFG target : targets) {
-			CallGraphNode t = new CallGraphNode(this, target);
-			if (!adjacencyMatrix.containsNode(t, false))
-				addNode(t, program.getEntryPoints().contains(call.getCFG()));
-			addEdge(new CallGraphEdge(source, t));
-		}
+			for (CFG target : targets) {
+				CallGraphNode t = new CallGraphNode(this, target);
+				if (!adjacencyMatrix.containsNode(t, false))
+					addNode(t, program.getEntryPoints().contains(call.getCFG()));
+				addEdge(new CallGraphEdge(source, t));
+			}
 
-		for (NativeCFG target : nativeTargets) {
-			CallGraphNode t = new CallGraphNode(this, target);
-			if (!adjacencyMatrix.containsNode(t, false))
-				addNode(t, false);
-			addEdge(new CallGraphEdge(source, t));
+			for (NativeCFG target : nativeTargets) {
+				CallGraphNode t = new CallGraphNode(this, target);
+				if (!adjacencyMatrix.containsNode(t, false))
+					addNode(t, false);
+				addEdge(new CallGraphEdge(source, t));
+			}
 		}
 
+		// runtime types might be modified in place: the key must not change
+		// with them
+		key.replaceAll(k -> k instanceof ExternalSet ? ((ExternalSet<?>) k).copy() : k);
+		resolutions.put(call, Pair.of(key, resolved));
 		return resolved;
 	}
 
+	private List<Object> resolutionKey(UnresolvedCall call) throws CallResolutionException {
+		List<Object> key = new ArrayList<>(call.getParameters().length + 1);
+		if (call.isInstanceCall()) {
+			if (call.getParameters().length == 0)
+				throw new CallResolutionException(
+						"An instance call should have at least one parameter to be used as the receiver of the call");
+			key.add(getReceiverTypesKey(call.getParameters()[0]));
+		}
+
+		// static types cannot change, while the runtime ones are used to
+		// match the signatures of the candidates
+		switch (call.getStrategy()) {
+		case DYNAMIC_TYPES:
+			for (Expression param : call.getParameters())
+				key.add(param.getRuntimeTypes());
+			break;
+		case FIRST_DYNAMIC_THEN_STATIC:
+			if (call.getParameters().length > 0)
+				key.add(call.getParameters()[0].getRuntimeTypes());
+			break;
+		case STATIC_TYPES:
+		default:
+			break;
+		}
+
+		return key;
+	}
+
+	/**
+	 * Yields an object that determines the result of
+	 * {@link #getPossibleTypesOfReceiver(Expression)}: if the objects yielded
+	 * for a receiver at two different times are equal, then the possible
+	 * types of that receiver are the same, and the cached resolution of the
+	 * call can be reused. The object returned by this method is allowed to be
+	 * the possible types themselves, as done by the default implementation,
+	 * but subclasses can provide cheaper alternatives.
+	 * 
+	 * @param receiver an expression
+	 * 
+	 * @return the object identifying the possible types of the given
+	 *             expression
+	 */
+	protected Object getReceiverTypesKey(Expression receiver) {
+		return getPossibleTypesOfReceiver(receiver);
+	}
+
+	/**
+	 * Yields the number of calls to {@link #resolve(UnresolvedCall)} that
+	 * reused a cached resolution since the last call to
+	 * {@link #init(Program)}.
+	 * 
+	 * @return the number of cache hits
+	 */
+	public long getResolutionCacheHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Yields the number of calls to {@link #resolve(UnresolvedCall)} that
+	 * computed the targets of the call since the last call to
+	 * {@link #init(Program)}.
+	 * 
+	 * @return the number of cache misses
+	 */
+	public long getResolutionCacheMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Yields the fraction of calls to {@link #resolve(UnresolvedCall)} that
+	 * reused a cached resolution since the last call to
+	 * {@link #init(Program)}, or {@code 0} if no call has been resolved.
+	 * 
+	 * @return the hit rate of the resolution cache
+	 */
+	public double getResolutionCacheHitRate() {
+		long h = hits.sum();
+		long total = h + misses.sum();
+		return total == 0 ? 0 : (double) h / total;
+	}
+
 	/**
 	 * Returns all the possible types of the given expression, that is a
 	 * receiver of a method call. How we choose this set varies from the call
@@ -120,13 +238,21 @@ public abstract class BaseCallGraph extends Graph<BaseCallGraph, CallGraphNode,
 
 	@Override
 	public Collection<CodeMember> getCallees(CodeMember cm) {
-		return followersOf(new CallGraphNode(this, cm)).stream().map(CallGraphNode::getCodeMember)
+		CallGraphNode node = new CallGraphNode(this, cm);
+		if (!adjacencyMatrix.containsNode(node, false))
+			// code members that neither call nor are called
+			return Collections.emptyList();
+		return followersOf(node).stream().map(CallGraphNode::getCodeMember)
 				.collect(Collectors.toList());
 	}
 
 	@Override
 	public Collection<CodeMember> getCallers(CodeMember cm) {
-		return predecessorsOf(new CallGraphNode(this, cm)).stream().map(CallGraphNode::getCodeMember)
+		CallGraphNode node = new CallGraphNode(this, cm);
+		if (!adjacencyMatrix.containsNode(node, false))
+			// code members that neither call nor are called
+			return Collections.emptyList();
+		return predecessorsOf(node).stream().map(CallGraphNode::getCodeMember)
 				.collect(Collectors.toList());
 	}
 
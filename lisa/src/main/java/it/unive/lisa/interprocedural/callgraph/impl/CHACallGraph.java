@@ -22,4 +22,9 @@ public final class CHACallGraph extends BaseCallGraph {
 		return receiver.getStaticType().allInstances();
 	}
 
+	@Override
+	protected Object getReceiverTypesKey(Expression receiver) {
+		return receiver.getStaticType();
+	}
+
 }
@@ -0,0 +1,364 @@
+package it.unive.lisa.interprocedural.impl;
+
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.ScopeToken;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.caches.AnalysisContext;
+import it.unive.lisa.caches.Caches;
+import it.unive.lisa.interprocedural.callgraph.CallResolutionException;
+import it.unive.lisa.logging.Counter;
+import it.unive.lisa.logging.IterationLogger;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.Parameter;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.CFGCall;
+import it.unive.lisa.program.cfg.statement.OpenCall;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.program.cfg.statement.UnresolvedCall;
+import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.util.datastructures.graph.FixpointException;
+import it.unive.lisa.util.datastructures.graph.GraphVisitor;
+import it.unive.lisa.util.datastructures.graph.algorithms.StronglyConnectedComponents;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A bottom-up, summary-based interprocedural analysis. Before computing any
+ * fixpoint, all the calls of the program are resolved, and the strongly
+ * connected components of the resulting call graph are computed. Components
+ * are then analyzed in reverse topological order, that is, callees before
+ * their callers, starting each {@link CFG} from the most generic entry state
+ * (where nothing is known about its parameters).<br>
+ * <br>
+ * The <i>summary</i> of a cfg is a table mapping each entry state the cfg has
+ * been reached with to the corresponding exit state. At each {@link CFGCall},
+ * the actual parameters are assigned to the formal ones, and the resulting
+ * entry state is looked up in the summary of the target: the fixpoint of the
+ * target is computed only if that entry state has never been seen before,
+ * and its exit state is then added to the summary. Since the exit state is
+ * computed from the state of the caller, it already holds the values of the
+ * caller's variables, and the return value of the call can be evaluated
+ * directly on it.<br>
+ * <br>
+ * Each recursive call pushes a new scope, so that entry states of recursive
+ * calls are never the same. To ensure termination, at most
+ * {@code maxRecursionDepth} computations of the same cfg can be nested inside
+ * each other: deeper calls are approximated as {@link OpenCall}s are, that is,
+ * with the top state.<br>
+ * <br>
+ * If an executor is provided through {@link #setExecutor(ExecutorService)},
+ * each component is analyzed in parallel with the ones that do not depend on
+ * it, as soon as all the components it calls have been analyzed.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <A> the abstract state of the analysis
+ * @param <H> the heap domain
+ * @param <V> the value domain
+ */
+public class BottomUpAnalysis<A extends AbstractState<A, H, V>,
+		H extends HeapDomain<H>,
+		V extends ValueDomain<V>> extends CallGraphBasedAnalysis<A, H, V> {
+
+	private static final Logger log = LogManager.getLogger(BottomUpAnalysis.class);
+
+	/**
+	 * The default number of computations of the same cfg that can be nested
+	 * inside each other.
+	 */
+	public static final int DEFAULT_MAX_RECURSION_DEPTH = 3;
+
+	/**
+	 * The results of the fixpoints, one for each analyzed cfg
+	 */
+	private final Map<CFG, CFGWithAnalysisResults<A, H, V>> results;
+
+	/**
+	 * The summaries of the analyzed cfgs, mapping each entry state to the
+	 * corresponding exit state
+	 */
+	private final Map<CFG, Map<AnalysisState<A, H, V>, AnalysisState<A, H, V>>> summaries;
+
+	/**
+	 * The number of computations of each cfg that can be nested inside each
+	 * other
+	 */
+	private final int maxRecursionDepth;
+
+	/**
+	 * The number of computations of each cfg that are in progress on the
+	 * current thread
+	 */
+	private final ThreadLocal<Map<CFG, Integer>> inProgress;
+
+	/**
+	 * The executor where independent components are analyzed, if any
+	 */
+	private ExecutorService executor;
+
+	/**
+	 * Builds the analysis, allowing {@link #DEFAULT_MAX_RECURSION_DEPTH}
+	 * nested computations of the same cfg.
+	 */
+	public BottomUpAnalysis() {
+		this(DEFAULT_MAX_RECURSION_DEPTH);
+	}
+
+	/**
+	 * Builds the analysis.
+	 *
+	 * @param maxRecursionDepth the number of computations of the same cfg
+	 *                              that can be nested inside each other,
+	 *                              after which recursive calls are
+	 *                              approximated with the top state
+	 */
+	public BottomUpAnalysis(int maxRecursionDepth) {
+		this.maxRecursionDepth = maxRecursionDepth;
+		this.results = new ConcurrentHashMap<>();
+		this.summaries = new ConcurrentHashMap<>();
+		this.inProgress = ThreadLocal.withInitial(HashMap::new);
+	}
+
+	@Override
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+
+	@Override
+	public final void fixpoint(AnalysisState<A, H, V> entryState) throws FixpointException {
+		results.clear();
+		summaries.clear();
+
+		Collection<CFG> cfgs = program.getAllCFGs();
+		for (CFG cfg : IterationLogger.iterate(log, cfgs, "Building the call graph", "cfgs")) {
+			Collection<UnresolvedCall> calls = new ArrayList<>();
+			cfg.accept(new CallsCollector(), calls);
+			for (UnresolvedCall call : calls)
+				try {
+					callgraph.resolve(call);
+				} catch (CallResolutionException e) {
+					throw new FixpointException("Unable to resolve call " + call + " in " + cfg, e);
+				}
+		}
+
+		// components are sorted so that callers come before their callees
+		List<Collection<CFG>> components = StronglyConnectedComponents.compute(cfgs, this::calleesOf);
+		Counter counter = new Counter(log, Level.INFO, "Computing fixpoint over the whole program", "cfgs",
+				cfgs.size(), 0.025);
+		counter.on();
+		try {
+			if (executor == null)
+				for (int i = components.size() - 1; i >= 0; i--)
+					analyze(components.get(i), entryState, counter);
+			else
+				analyzeInParallel(components, entryState, counter);
+		} finally {
+			counter.off();
+		}
+
+		int entries = 0;
+		for (Map<AnalysisState<A, H, V>, AnalysisState<A, H, V>> summary : summaries.values())
+			entries += summary.size();
+		log.info("Summaries hold " + entries + " entry states of " + summaries.size() + " cfgs");
+	}
+
+	private void analyzeInParallel(List<Collection<CFG>> components, AnalysisState<A, H, V> entryState,
+			Counter counter) throws FixpointException {
+		Map<CFG, Integer> indexes = new ConcurrentHashMap<>();
+		for (int i = 0; i < components.size(); i++)
+			for (CFG cfg : components.get(i))
+				indexes.put(cfg, i);
+
+		// tasks have to use the context of the analysis, whatever thread
+		// executes them
+		AnalysisContext context = AnalysisContext.current();
+		CompletableFuture<?>[] tasks = new CompletableFuture<?>[components.size()];
+		for (int i = components.size() - 1; i >= 0; i--) {
+			Collection<CFG> component = components.get(i);
+			Set<Integer> deps = new HashSet<>();
+			for (CFG cfg : component)
+				for (CFG callee : calleesOf(cfg))
+					if (indexes.get(callee) != i)
+						deps.add(indexes.get(callee));
+
+			Runnable task = context.wrap(() -> {
+				try {
+					analyze(component, entryState, counter);
+				} catch (FixpointException e) {
+					throw new CompletionException(e);
+				}
+			});
+
+			if (deps.isEmpty())
+				tasks[i] = CompletableFuture.runAsync(task, executor);
+			else
+				tasks[i] = CompletableFuture.allOf(deps.stream().map(d -> tasks[d])
+						.toArray(CompletableFuture<?>[]::new)).thenRunAsync(task, executor);
+		}
+
+		try {
+			CompletableFuture.allOf(tasks).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof FixpointException)
+				throw (FixpointException) e.getCause();
+			throw new FixpointException("Unexpected exception during parallel fixpoint computation", e.getCause());
+		}
+	}
+
+	private void analyze(Collection<CFG> component, AnalysisState<A, H, V> entryState, Counter counter)
+			throws FixpointException {
+		for (CFG cfg : component)
+			try {
+				results.put(cfg, cfg.fixpoint(prepareEntryStateOfEntryPoint(entryState, cfg), this));
+				counter.count();
+			} catch (SemanticException e) {
+				throw new FixpointException("Error while creating the entrystate for " + cfg, e);
+			}
+	}
+
+	private Collection<CFG> calleesOf(CFG cfg) {
+		return callgraph.getCallees(cfg).stream().filter(CFG.class::isInstance).map(CFG.class::cast)
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public final Collection<CFGWithAnalysisResults<A, H, V>> getAnalysisResultsOf(CFG cfg) {
+		if (results.containsKey(cfg))
+			return Collections.singleton(results.get(cfg));
+		else
+			return Collections.emptySet();
+	}
+
+	@Override
+	public final AnalysisState<A, H, V> getAbstractResultOf(CFGCall call, AnalysisState<A, H, V> entryState,
+			ExpressionSet<SymbolicExpression>[] parameters)
+			throws SemanticException {
+		ScopeToken scope = new ScopeToken(call);
+		// hide the variables visible by the caller
+		AnalysisState<A, H, V> callState = entryState.pushScope(scope);
+		AnalysisState<A, H, V> result = entryState.bottom();
+
+		for (CFG cfg : call.getTargets()) {
+			// prepare the state for the call: assign the value to each
+			// parameter
+			AnalysisState<A, H, V> prepared = callState;
+			for (int i = 0; i < parameters.length; i++) {
+				AnalysisState<A, H, V> temp = prepared.bottom();
+				Parameter parameter = cfg.getDescriptor().getArgs()[i];
+				Identifier parid = new Variable(
+						Caches.types().mkSet(parameter.getStaticType().allInstances()),
+						parameter.getName(), parameter.getAnnotations());
+				for (SymbolicExpression exp : parameters[i])
+					temp = temp.lub(prepared.assign(parid, exp.pushScope(scope), cfg.getGenericProgramPoint()));
+				prepared = temp;
+			}
+
+			AnalysisState<A, H, V> exitState = summarize(cfg, prepared);
+			if (exitState == null) {
+				// the recursion is too deep: we cannot say anything about
+				// the result
+				if (call.getStaticType().isVoidType())
+					result = result.lub(entryState.top());
+				else
+					result = result.lub(entryState.top()
+							.smallStepSemantics(new Variable(call.getRuntimeTypes(), "ret_value"), call));
+				continue;
+			}
+
+			// store the return value of the call inside the meta variable
+			AnalysisState<A, H, V> tmp = callState.bottom();
+			Identifier meta = (Identifier) call.getMetaVariable().pushScope(scope);
+			for (SymbolicExpression ret : exitState.getComputedExpressions())
+				tmp = tmp.lub(exitState.assign(meta, ret, call));
+
+			// save the resulting state
+			result = result.lub(tmp.popScope(scope));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Yields the exit state of {@code cfg} when its execution starts from
+	 * {@code entryState}, looking it up in the summary of {@code cfg} or
+	 * computing it if it is not there.
+	 */
+	private AnalysisState<A, H, V> summarize(CFG cfg, AnalysisState<A, H, V> entryState)
+			throws SemanticException {
+		Map<AnalysisState<A, H, V>, AnalysisState<A, H, V>> summary = summaries.computeIfAbsent(cfg,
+				c -> new ConcurrentHashMap<>());
+		AnalysisState<A, H, V> exitState = summary.get(entryState);
+		if (exitState != null)
+			return exitState;
+
+		Map<CFG, Integer> depths = inProgress.get();
+		int depth = depths.getOrDefault(cfg, 0);
+		if (depth >= maxRecursionDepth)
+			return null;
+
+		depths.put(cfg, depth + 1);
+		try {
+			exitState = cfg.fixpoint(entryState, this).getExitState();
+		} catch (FixpointException e) {
+			throw new SemanticException("Exception during the interprocedural analysis", e);
+		} finally {
+			if (depth == 0)
+				depths.remove(cfg);
+			else
+				depths.put(cfg, depth);
+		}
+
+		// computations of the same entry state on different threads yield
+		// the same exit state
+		summary.putIfAbsent(entryState, exitState);
+		return exitState;
+	}
+
+	/**
+	 * A {@link GraphVisitor} that collects all the {@link UnresolvedCall}s
+	 * contained in a {@link CFG}, including the ones nested in other
+	 * expressions.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	private static class CallsCollector implements GraphVisitor<CFG, Statement, Edge, Collection<UnresolvedCall>> {
+
+		@Override
+		public boolean visit(Collection<UnresolvedCall> tool, CFG graph) {
+			return true;
+		}
+
+		@Override
+		public boolean visit(Collection<UnresolvedCall> tool, CFG graph, Statement node) {
+			if (node instanceof UnresolvedCall)
+				tool.add((UnresolvedCall) node);
+			return true;
+		}
+
+		@Override
+		public boolean visit(Collection<UnresolvedCall> tool, CFG graph, Edge edge) {
+			return true;
+		}
+	}
+}
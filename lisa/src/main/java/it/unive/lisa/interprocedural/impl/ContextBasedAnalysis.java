@@ -19,21 +19,26 @@ import it.unive.lisa.program.cfg.statement.CFGCall;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.util.collections.LRUCache;
 import it.unive.lisa.util.datastructures.graph.FixpointException;
-import it.unive.lisa.util.workset.FIFOWorkingSet;
-import it.unive.lisa.util.workset.VisitOnceWorkingSet;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
  * A context sensitive interprocedural analysis. The context sensitivity is
- * tuned by the kind of {@link ContextSensitivityToken} used.
+ * tuned by the kind of {@link ContextSensitivityToken} used. The analysis
+ * keeps track of the results consumed at each call site: whenever a result
+ * changes, only the results that depend on it are computed again, starting
+ * from the entry states they have been computed with.
  * 
  * @param <A> the abstract state of the analysis
  * @param <H> the heap domain
@@ -45,6 +50,11 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V>,
 
 	private static final Logger log = LogManager.getLogger(ContextBasedAnalysis.class);
 
+	/**
+	 * The default number of exit states that are cached during the analysis.
+	 */
+	public static final int DEFAULT_SUMMARY_CACHE_SIZE = 1000;
+
 	/**
 	 * The cache of the fixpoints' results. {@link Map#keySet()} will contain
 	 * all the cfgs that have been added. If a key's values's
@@ -55,7 +65,32 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V>,
 
 	private ContextSensitivityToken token;
 
-	private final Collection<CFG> fixpointTriggers;
+	/**
+	 * The results that have been updated during the last iteration, and whose
+	 * dependents need to be computed again.
+	 */
+	private final Collection<Pair<CFG, ContextSensitivityToken>> fixpointTriggers;
+
+	/**
+	 * Maps each result, identified by its cfg and token, to the results whose
+	 * computation consumed it at some call site.
+	 */
+	private final Map<Pair<CFG, ContextSensitivityToken>, Set<Pair<CFG, ContextSensitivityToken>>> dependencies;
+
+	private int avoidedFixpoints;
+
+	/**
+	 * The exit states computed for each cfg, token and entry state. Each
+	 * entry also holds the version of the results of its cfg when it has been
+	 * cached, and it is valid only as long as that version does not change.
+	 */
+	private final LRUCache<SummaryKey, AnalysisState<A, H, V>> summaries;
+
+	/**
+	 * The number of times that the stored results of each cfg have been
+	 * updated.
+	 */
+	private final Map<CFG, Integer> versions;
 
 	/**
 	 * Builds the analysis, using {@link SingleScopeToken}s.
@@ -65,14 +100,35 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V>,
 	}
 
 	/**
-	 * Builds the analysis.
+	 * Builds the analysis, using a summary cache of
+	 * {@link #DEFAULT_SUMMARY_CACHE_SIZE} entries.
 	 *
 	 * @param token an instance of the tokens to be used to partition w.r.t.
 	 *                  context sensitivity
 	 */
 	public ContextBasedAnalysis(ContextSensitivityToken token) {
+		this(token, DEFAULT_SUMMARY_CACHE_SIZE);
+	}
+
+	/**
+	 * Builds the analysis. The exit states of the fixpoints computed at call
+	 * sites are cached, so that calls reaching the same cfg with the same
+	 * entry state can reuse them, as long as no result has changed in the
+	 * meantime. When the cache is full, the least recently used entry is
+	 * evicted.
+	 *
+	 * @param token            an instance of the tokens to be used to
+	 *                             partition w.r.t. context sensitivity
+	 * @param summaryCacheSize the maximum number of exit states that can be
+	 *                             cached; if zero or negative, no exit state
+	 *                             is cached
+	 */
+	public ContextBasedAnalysis(ContextSensitivityToken token, int summaryCacheSize) {
 		this.token = token.empty();
-		fixpointTriggers = new HashSet<>();
+		fixpointTriggers = new LinkedHashSet<>();
+		dependencies = new HashMap<>();
+		summaries = new LRUCache<>(summaryCacheSize);
+		versions = new HashMap<>();
 	}
 
 	@Override
@@ -101,37 +157,116 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V>,
 
 	private void fixpointAux(AnalysisState<A, H, V> entryState) throws AnalysisExecutionException {
 		this.results = null;
-		int iter = 0;
-		do {
-			log.info("Performing " + ordinal(iter + 1) + " fixpoint iteration");
+		fixpointTriggers.clear();
+		dependencies.clear();
+		avoidedFixpoints = 0;
+		summaries.clear();
+		versions.clear();
+
+		log.info("Performing " + ordinal(1) + " fixpoint iteration");
+		for (CFG cfg : IterationLogger.iterate(log, program.getEntryPoints(), "Processing entrypoints", "entries"))
+			try {
+				CFGResults<A, H, V> value = new CFGResults<>(new CFGWithAnalysisResults<>(cfg, entryState));
+				AnalysisState<A, H, V> entryStateCFG = prepareEntryStateOfEntryPoint(entryState, cfg);
+				if (results == null)
+					this.results = new FixpointResults<>(value.top());
+				results.putResult(cfg, token.empty(), cfg.fixpoint(entryStateCFG, this));
+			} catch (SemanticException e) {
+				throw new AnalysisExecutionException("Error while creating the entrystate for " + cfg, e);
+			} catch (FixpointException e) {
+				throw new AnalysisExecutionException("Error while computing fixpoint for entrypoint " + cfg, e);
+			}
+
+		int iter = 1;
+		while (!fixpointTriggers.isEmpty()) {
+			// only the results that consumed one of the updated results need
+			// to be computed again: if those change, their own dependents
+			// will be processed in the next iteration
+			Set<Pair<CFG, ContextSensitivityToken>> worklist = new LinkedHashSet<>();
+			for (Pair<CFG, ContextSensitivityToken> trigger : fixpointTriggers)
+				worklist.addAll(dependencies.getOrDefault(trigger, Collections.emptySet()));
 			fixpointTriggers.clear();
-			for (CFG cfg : IterationLogger.iterate(log, program.getEntryPoints(), "Processing entrypoints", "entries"))
+
+			int stored = 0;
+			for (CFGResults<A, H, V> res : results.values())
+				stored += res.getAll().size();
+			avoidedFixpoints += stored - worklist.size();
+
+			log.info("Performing " + ordinal(iter + 1) + " fixpoint iteration");
+			for (Pair<CFG, ContextSensitivityToken> dependent : IterationLogger.iterate(log, worklist,
+					"Processing dependent results", "results"))
 				try {
-					CFGResults<A, H, V> value = new CFGResults<>(new CFGWithAnalysisResults<>(cfg, entryState));
-					AnalysisState<A, H, V> entryStateCFG = prepareEntryStateOfEntryPoint(entryState, cfg);
-					if (results == null)
-						this.results = new FixpointResults<>(value.top());
-					results.putResult(cfg, token.empty(), cfg.fixpoint(entryStateCFG, this));
+					recompute(dependent.getLeft(), dependent.getRight());
 				} catch (SemanticException e) {
-					throw new AnalysisExecutionException("Error while creating the entrystate for " + cfg, e);
+					throw new AnalysisExecutionException("Error while updating the results of " + dependent.getLeft(),
+							e);
 				} catch (FixpointException e) {
-					throw new AnalysisExecutionException("Error while computing fixpoint for entrypoint " + cfg, e);
+					throw new AnalysisExecutionException("Error while computing fixpoint for " + dependent.getLeft(),
+							e);
 				}
 
-			// starting from the callers of the cfgs that needed a lub,
-			// find out the complete set of cfgs that might need to be
-			// processed again
-			VisitOnceWorkingSet<CFG> ws = VisitOnceWorkingSet.mk(FIFOWorkingSet.mk());
-			fixpointTriggers.forEach(cfg -> callgraph.getCallers(cfg).stream().filter(CFG.class::isInstance)
-					.map(CFG.class::cast).forEach(ws::push));
-			while (!ws.isEmpty())
-				callgraph.getCallers(ws.pop()).stream().filter(CFG.class::isInstance).map(CFG.class::cast)
-						.forEach(ws::push);
+			iter++;
+		}
 
-			ws.getSeen().forEach(results::forget);
+		log.info("Dependency tracking avoided " + avoidedFixpoints + " fixpoint computations");
+		log.info("Summary cache: " + summaries.getHits() + " hits, " + summaries.getMisses() + " misses");
+	}
 
-			iter++;
-		} while (!fixpointTriggers.isEmpty());
+	private void recompute(CFG cfg, ContextSensitivityToken localToken)
+			throws SemanticException, FixpointException {
+		CFGWithAnalysisResults<A, H, V> previous = results.getState(cfg).getState(localToken);
+
+		// the analysis is restarted from the entry state that has been used
+		// for the previous result, as if the call site that generated it was
+		// being processed
+		ContextSensitivityToken saved = token;
+		token = localToken;
+		try {
+			CFGWithAnalysisResults<A, H, V> fixpointResult = cfg.fixpoint(previous.getEntryState(), this);
+			fixpointResult.setId(previous.getId());
+			if (results.putResult(cfg, localToken, fixpointResult).getLeft()) {
+				fixpointTriggers.add(Pair.of(cfg, localToken));
+				versions.merge(cfg, 1, Integer::sum);
+			}
+		} finally {
+			token = saved;
+		}
+	}
+
+	/**
+	 * Yields the number of fixpoint computations that have been avoided by
+	 * tracking the dependencies between results during the last execution of
+	 * {@link #fixpoint(AnalysisState)}. Each time some result changes, the
+	 * results that did not consume it, and that would have been computed
+	 * again by a restart of the analysis from the entrypoints, are counted as
+	 * avoided.
+	 * 
+	 * @return the number of avoided fixpoint computations
+	 */
+	public int getAvoidedFixpoints() {
+		return avoidedFixpoints;
+	}
+
+	/**
+	 * Yields the number of times that the exit state of a call has been found
+	 * in the summary cache during the last execution of
+	 * {@link #fixpoint(AnalysisState)}, avoiding a fixpoint computation.
+	 * 
+	 * @return the number of cache hits
+	 */
+	public long getSummaryCacheHits() {
+		return summaries.getHits();
+	}
+
+	/**
+	 * Yields the number of times that the exit state of a call has not been
+	 * found in the summary cache during the last execution of
+	 * {@link #fixpoint(AnalysisState)}.
+	 * 
+	 * @return the number of cache misses
+	 */
+	public long getSummaryCacheMisses() {
+		return summaries.getMisses();
 	}
 
 	@Override
@@ -158,12 +293,14 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V>,
 			ExpressionSet<SymbolicExpression>[] parameters)
 			throws SemanticException {
 		ScopeToken scope = new ScopeToken(call);
+		Pair<CFG, ContextSensitivityToken> caller = Pair.of(call.getCFG(), token);
 		token = token.pushToken(scope);
+		// nested calls might change the token: keep track of the one
+		// identifying the results consumed by this call
+		ContextSensitivityToken callee = token;
 		AnalysisState<A, H, V> result = entryState.bottom();
 
 		for (CFG cfg : call.getTargets()) {
-			Pair<AnalysisState<A, H, V>, AnalysisState<A, H, V>> states = getEntryAndExit(cfg);
-
 			// prepare the state for the call: hide the visible variables
 			AnalysisState<A, H, V> callState = entryState.pushScope(scope);
 			// prepare the state for the call: assign the value to each
@@ -180,23 +317,40 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V>,
 				prepared = temp;
 			}
 
-			AnalysisState<A, H, V> exitState;
-			if (states != null && prepared.lessOrEqual(states.getLeft()))
-				// no need to compute the fixpoint: we already have an
-				// approximation
-				exitState = states.getRight();
-			else {
-				// compute the result
-				CFGWithAnalysisResults<A, H, V> fixpointResult = null;
-				try {
-					fixpointResult = computeFixpoint(cfg, token, prepared);
-				} catch (FixpointException | InterproceduralAnalysisException e) {
-					throw new SemanticException("Exception during the interprocedural analysis", e);
+			// if the results of this cfg did not change since the last time
+			// it has been reached with the same entry state, the exit state
+			// is the stored one, exactly as if it was retrieved below
+			int stateHash = prepared.hashCode();
+			AnalysisState<A, H, V> exitState = summaries.get(new SummaryKey(cfg, token, prepared, stateHash,
+					versions.getOrDefault(cfg, 0)));
+			if (exitState == null) {
+				Pair<AnalysisState<A, H, V>, AnalysisState<A, H, V>> states = getEntryAndExit(cfg);
+				if (states != null && prepared.lessOrEqual(states.getLeft()))
+					// no need to compute the fixpoint: we already have an
+					// approximation
+					exitState = states.getRight();
+				else {
+					// compute the result
+					CFGWithAnalysisResults<A, H, V> fixpointResult = null;
+					try {
+						fixpointResult = computeFixpoint(cfg, token, prepared);
+					} catch (FixpointException | InterproceduralAnalysisException e) {
+						throw new SemanticException("Exception during the interprocedural analysis", e);
+					}
+
+					exitState = fixpointResult.getExitState();
 				}
 
-				exitState = fixpointResult.getExitState();
+				// the fixpoint computation might have updated the results of
+				// this cfg
+				summaries.put(new SummaryKey(cfg, token, prepared, stateHash, versions.getOrDefault(cfg, 0)),
+						exitState);
 			}
 
+			// whenever the result of the target changes, the caller needs to
+			// be computed again
+			dependencies.computeIfAbsent(Pair.of(cfg, callee), k -> new LinkedHashSet<>()).add(caller);
+
 			// store the return value of the call inside the meta variable
 			AnalysisState<A, H, V> tmp = callState.bottom();
 			Identifier meta = (Identifier) call.getMetaVariable().pushScope(scope);
@@ -218,9 +372,53 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V>,
 		CFGWithAnalysisResults<A, H, V> fixpointResult = cfg.fixpoint(computedEntryState, this);
 		fixpointResult.setId(localToken.toString());
 		Pair<Boolean, CFGWithAnalysisResults<A, H, V>> res = results.putResult(cfg, localToken, fixpointResult);
-		if (res.getLeft())
-			fixpointTriggers.add(cfg);
+		if (res.getLeft()) {
+			fixpointTriggers.add(Pair.of(cfg, localToken));
+			versions.merge(cfg, 1, Integer::sum);
+		}
 		return res.getRight();
 	}
 
+	/**
+	 * The key of a cached exit state. The hash code of the entry state is the
+	 * most expensive part of the key: it is computed once by the caller, and
+	 * entry states are compared only if their hash codes are the same.
+	 * 
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	private static class SummaryKey {
+		private final CFG cfg;
+		private final ContextSensitivityToken token;
+		private final AnalysisState<?, ?, ?> entryState;
+		private final int stateHash;
+		private final int version;
+		private final int hash;
+
+		private SummaryKey(CFG cfg, ContextSensitivityToken token, AnalysisState<?, ?, ?> entryState, int stateHash,
+				int version) {
+			this.cfg = cfg;
+			this.token = token;
+			this.entryState = entryState;
+			this.stateHash = stateHash;
+			this.version = version;
+			this.hash = Objects.hash(cfg, token, stateHash, version);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			SummaryKey other = (SummaryKey) obj;
+			return hash == other.hash && stateHash == other.stateHash && version == other.version && cfg == other.cfg
+					&& Objects.equals(token, other.token) && entryState.equals(other.entryState);
+		}
+	}
+
 }
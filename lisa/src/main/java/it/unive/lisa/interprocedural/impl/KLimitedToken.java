@@ -0,0 +1,122 @@
+package it.unive.lisa.interprocedural.impl;
+
+import it.unive.lisa.analysis.ScopeToken;
+import java.util.LinkedList;
+import java.util.Objects;
+
+/**
+ * A context sensitive token representing the last {@code k} calls of the call
+ * chain (k-limited call strings). Two tokens are equal if their last
+ * {@code k} calls are the same, regardless of the calls that precede them.
+ * Increasing {@code k} makes the analysis more precise, at the price of
+ * computing more results for each cfg. <br>
+ * <br>
+ * Tokens are immutable and share their structure: each token only stores the
+ * call that has been pushed and a reference to the token it has been pushed
+ * on, so that both {@link #pushToken(ScopeToken)} and {@link #popToken()}
+ * do not copy the call chain. The hash code of each token is computed only
+ * once, when the token is created.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class KLimitedToken implements ContextSensitivityToken {
+
+	private final int k;
+
+	private final KLimitedToken parent;
+
+	private final ScopeToken scope;
+
+	private final int hash;
+
+	private KLimitedToken(int k, KLimitedToken parent, ScopeToken scope) {
+		this.k = k;
+		this.parent = parent;
+		this.scope = scope;
+
+		int result = k;
+		KLimitedToken current = this;
+		for (int i = 0; i < k && current.scope != null; i++, current = current.parent)
+			result = 31 * result + current.scope.hashCode();
+		this.hash = result;
+	}
+
+	@Override
+	public ContextSensitivityToken empty() {
+		return new KLimitedToken(k, null, null);
+	}
+
+	@Override
+	public ContextSensitivityToken pushToken(ScopeToken c) {
+		return new KLimitedToken(k, this, c);
+	}
+
+	@Override
+	public ContextSensitivityToken popToken() {
+		return parent == null ? this : parent;
+	}
+
+	/**
+	 * Return an empty token that keeps track of the last {@code k} calls.
+	 *
+	 * @param k the maximum number of calls that distinguish tokens
+	 *
+	 * @return an empty token
+	 *
+	 * @throws IllegalArgumentException if {@code k} is negative
+	 */
+	public static KLimitedToken getSingleton(int k) {
+		if (k < 0)
+			throw new IllegalArgumentException("The length of the call strings cannot be negative");
+		return new KLimitedToken(k, null, null);
+	}
+
+	/**
+	 * Yields the maximum number of calls that distinguish this token from
+	 * the other ones.
+	 *
+	 * @return the length limit of the call strings
+	 */
+	public int getK() {
+		return k;
+	}
+
+	@Override
+	public String toString() {
+		LinkedList<ScopeToken> calls = new LinkedList<>();
+		KLimitedToken current = this;
+		for (int i = 0; i < k && current.scope != null; i++, current = current.parent)
+			calls.addFirst(current.scope);
+		return String.valueOf(calls);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+		if (o == null || getClass() != o.getClass())
+			return false;
+		KLimitedToken that = (KLimitedToken) o;
+		if (k != that.k || hash != that.hash)
+			return false;
+
+		KLimitedToken mine = this, other = that;
+		for (int i = 0; i < k; i++, mine = mine.parent, other = other.parent) {
+			if (mine == other)
+				// same suffix
+				return true;
+			if (mine.scope == null || other.scope == null)
+				return mine.scope == other.scope;
+			if (!Objects.equals(mine.scope, other.scope))
+				return false;
+		}
+
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+}
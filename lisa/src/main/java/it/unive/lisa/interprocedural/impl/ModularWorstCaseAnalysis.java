@@ -7,11 +7,13 @@ import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.lattices.ExpressionSet;
 import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.caches.AnalysisContext;
 import it.unive.lisa.caches.Caches;
 import it.unive.lisa.interprocedural.InterproceduralAnalysis;
 import it.unive.lisa.interprocedural.InterproceduralAnalysisException;
 import it.unive.lisa.interprocedural.callgraph.CallGraph;
 import it.unive.lisa.interprocedural.callgraph.CallResolutionException;
+import it.unive.lisa.logging.Counter;
 import it.unive.lisa.logging.IterationLogger;
 import it.unive.lisa.program.Program;
 import it.unive.lisa.program.cfg.CFG;
@@ -26,16 +28,25 @@ import it.unive.lisa.symbolic.value.Variable;
 import it.unive.lisa.type.Type;
 import it.unive.lisa.util.collections.externalSet.ExternalSet;
 import it.unive.lisa.util.datastructures.graph.FixpointException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
- * A worst case modular analysis were all method calls return top.
+ * A worst case modular analysis were all method calls return top. Since every
+ * cfg is analyzed independently, fixpoints over different cfgs are computed in
+ * parallel if an executor is provided through
+ * {@link #setExecutor(ExecutorService)}.
  * 
  * @param <A> the abstract state of the analysis
  * @param <H> the heap domain
@@ -61,6 +72,11 @@ public class ModularWorstCaseAnalysis<A extends AbstractState<A, H, V>,
 	 */
 	private final Map<CFG, Optional<CFGWithAnalysisResults<A, H, V>>> results;
 
+	/**
+	 * The executor where fixpoints over different cfgs are computed, if any
+	 */
+	private ExecutorService executor;
+
 	/**
 	 * Builds the call graph.
 	 */
@@ -68,23 +84,68 @@ public class ModularWorstCaseAnalysis<A extends AbstractState<A, H, V>,
 		this.results = new ConcurrentHashMap<>();
 	}
 
+	@Override
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+
 	@Override
 	public final void fixpoint(AnalysisState<A, H, V> entryState) throws FixpointException {
-		for (CFG cfg : IterationLogger.iterate(log, program.getAllCFGs(), "Computing fixpoint over the whole program",
-				"cfgs"))
-			try {
-				AnalysisState<A, H, V> prepared = entryState;
-
-				for (Parameter arg : cfg.getDescriptor().getArgs()) {
-					ExternalSet<Type> all = Caches.types().mkSet(arg.getStaticType().allInstances());
-					Variable id = new Variable(all, arg.getName(), arg.getAnnotations());
-					prepared = prepared.assign(id, new PushAny(all), cfg.getGenericProgramPoint());
-				}
-
-				results.put(cfg, Optional.of(cfg.fixpoint(prepared, this)));
-			} catch (SemanticException e) {
-				throw new FixpointException("Error while creating the entrystate for " + cfg, e);
+		if (executor == null) {
+			for (CFG cfg : IterationLogger.iterate(log, program.getAllCFGs(),
+					"Computing fixpoint over the whole program", "cfgs"))
+				analyze(cfg, entryState);
+			return;
+		}
+
+		// each cfg is analyzed with a top entry state: there are no
+		// dependencies between the fixpoints
+		Collection<CFG> cfgs = program.getAllCFGs();
+		Counter counter = new Counter(log, Level.INFO, "Computing fixpoint over the whole program", "cfgs",
+				cfgs.size(), 0.025);
+		List<Future<?>> tasks = new ArrayList<>(cfgs.size());
+		// tasks have to use the context of the analysis, whatever thread
+		// executes them
+		AnalysisContext context = AnalysisContext.current();
+		counter.on();
+		try {
+			for (CFG cfg : cfgs)
+				tasks.add(executor.submit(context.wrap(() -> {
+					analyze(cfg, entryState);
+					counter.count();
+					return null;
+				})));
+
+			for (Future<?> task : tasks)
+				task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new FixpointException("Interrupted while waiting for fixpoint computations", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof FixpointException)
+				throw (FixpointException) e.getCause();
+			throw new FixpointException("Unexpected exception during parallel fixpoint computation", e.getCause());
+		} finally {
+			for (Future<?> task : tasks)
+				task.cancel(true);
+			counter.off();
+		}
+	}
+
+	private void analyze(CFG cfg, AnalysisState<A, H, V> entryState) throws FixpointException {
+		try {
+			AnalysisState<A, H, V> prepared = entryState;
+
+			for (Parameter arg : cfg.getDescriptor().getArgs()) {
+				ExternalSet<Type> all = Caches.types().mkSet(arg.getStaticType().allInstances());
+				Variable id = new Variable(all, arg.getName(), arg.getAnnotations());
+				prepared = prepared.assign(id, new PushAny(all), cfg.getGenericProgramPoint());
 			}
+
+			results.put(cfg, Optional.of(cfg.fixpoint(prepared, this)));
+		} catch (SemanticException e) {
+			throw new FixpointException("Error while creating the entrystate for " + cfg, e);
+		}
 	}
 
 	@Override
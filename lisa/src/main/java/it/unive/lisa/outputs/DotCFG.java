@@ -5,14 +5,18 @@ import it.unive.lisa.program.cfg.edge.Edge;
 import it.unive.lisa.program.cfg.edge.FalseEdge;
 import it.unive.lisa.program.cfg.edge.TrueEdge;
 import it.unive.lisa.program.cfg.statement.Statement;
+import java.io.IOException;
 import java.io.Reader;
+import java.io.Writer;
 import java.util.function.Function;
 import org.graphstream.graph.implementations.MultiGraph;
 
 /**
  * An {@link DotGraph} built from a {@link CFG}. Instances of this class can be
  * created through {@link #fromCFG(CFG, String, Function)}, or read from a file
- * through {@link DotGraph#readDot(Reader)}.
+ * through {@link DotGraph#readDot(Reader)}. A {@link CFG} can also be dumped
+ * without building the whole graph in memory through
+ * {@link #writeCFG(CFG, String, Function, Writer)}.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
@@ -59,12 +63,60 @@ public class DotCFG extends DotGraph<Statement, Edge, CFG> {
 		return graph;
 	}
 
+	/**
+	 * Dumps a {@link CFG} in dot format through the given {@link Writer},
+	 * producing the same output of
+	 * {@code fromCFG(source, title, labelGenerator).dumpDot(writer)}. Nodes and
+	 * edges are written as soon as they are visited, and the label of each
+	 * node is generated right before writing the node: differently from
+	 * {@link #fromCFG(CFG, String, Function)}, the labels are never kept in
+	 * memory all together, and no intermediate graph is built.
+	 * 
+	 * @param source         the source to export into dot format
+	 * @param title          the title of the graph, if any
+	 * @param labelGenerator the function used to generate extra labels
+	 * @param writer         the writer to use for dumping the graph
+	 * 
+	 * @throws IOException if an I/O error occurs while writing
+	 */
+	public static void writeCFG(CFG source, String title, Function<Statement, String> labelGenerator, Writer writer)
+			throws IOException {
+		DotWriter<Statement> dot = new DotWriter<>(writer, title);
+
+		for (Statement node : source.getEntrypoints())
+			dot.writeNode(node, true, node.stopsExecution(), labelGenerator);
+
+		for (Statement node : source.getNodes())
+			if (!source.getEntrypoints().contains(node))
+				dot.writeNode(node, false, node.stopsExecution(), labelGenerator);
+
+		for (Statement src : source.getNodes())
+			for (Statement dest : source.followersOf(src)) {
+				Edge edge = source.getEdgeConnecting(src, dest);
+				if (edge instanceof TrueEdge)
+					dot.writeEdge(src, dest, COLOR_BLUE, CONDITIONAL_EDGE_STYLE);
+				else if (edge instanceof FalseEdge)
+					dot.writeEdge(src, dest, COLOR_RED, CONDITIONAL_EDGE_STYLE);
+				else
+					dot.writeEdge(src, dest, COLOR_BLACK, null);
+			}
+
+		dot.writeLegend(CFGLegend.HTML);
+		dot.end();
+	}
+
 	private static class CFGLegend {
+		private static final String HTML = mkHtml();
+
 		private final org.graphstream.graph.Graph graph;
 
 		private CFGLegend() {
 			graph = new MultiGraph("legend");
 			org.graphstream.graph.Node l = graph.addNode("legend");
+			l.setAttribute(LABEL, HTML);
+		}
+
+		private static String mkHtml() {
 			StringBuilder builder = new StringBuilder();
 			builder.append("<");
 			builder.append("<table border=\"0\" cellpadding=\"2\" cellspacing=\"0\" cellborder=\"0\">");
@@ -104,7 +156,7 @@ public class DotCFG extends DotGraph<Statement, Edge, CFG> {
 			builder.append("</td></tr>");
 			builder.append("</table>");
 			builder.append(">");
-			l.setAttribute("label", builder.toString());
+			return builder.toString();
 		}
 	}
 }
@@ -113,6 +113,27 @@ public abstract class DotGraph<N extends Node<N, E, G>, E extends Edge<N, E, G>,
 		return replace.replace("\\", "\\\\");
 	}
 
+	/**
+	 * Yields the html label of the given node, composed by joining
+	 * {@code node.toString()} ( {@link Object#toString()}) with
+	 * {@code labelGenerator.apply(node)} ({@link Function#apply(Object)})
+	 * through a new line.
+	 * 
+	 * @param <T>            the type of the node
+	 * @param node           the node
+	 * @param labelGenerator the function that is used to enrich nodes labels
+	 * 
+	 * @return the label of the node, already escaped and wrapped in angle
+	 *             brackets
+	 */
+	static <T> String nodeLabel(T node, Function<T, String> labelGenerator) {
+		String label = dotEscape(node.toString());
+		String extraLabel = labelGenerator.apply(node);
+		if (!extraLabel.isEmpty())
+			extraLabel = "<BR/>" + dotEscape(extraLabel);
+		return "<" + label + extraLabel + ">";
+	}
+
 	private final org.graphstream.graph.Graph graph, legend;
 
 	private final String title;
@@ -158,14 +179,17 @@ public abstract class DotGraph<N extends Node<N, E, G>, E extends Edge<N, E, G>,
 		if (exit)
 			n.setAttribute(EXIT_NODE_EXTRA_ATTR, EXIT_NODE_EXTRA_VALUE);
 
-		String label = dotEscape(node.toString());
-		String extraLabel = labelGenerator.apply(node);
-		if (!extraLabel.isEmpty())
-			extraLabel = "<BR/>" + dotEscape(extraLabel);
-		n.setAttribute(LABEL, "<" + label + extraLabel + ">");
+		n.setAttribute(LABEL, nodeLabel(node, labelGenerator));
 	}
 
-	private String nodeName(long id) {
+	/**
+	 * Yields the name of the node with the given code.
+	 * 
+	 * @param id the code of the node
+	 * 
+	 * @return the name of the node
+	 */
+	static String nodeName(long id) {
 		return "node" + id;
 	}
 
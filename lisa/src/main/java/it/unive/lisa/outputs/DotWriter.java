@@ -0,0 +1,152 @@
+package it.unive.lisa.outputs;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A writer that emits a graph in dot format directly to a {@link Writer}, one
+ * node or edge at a time, without building an in-memory model of the graph
+ * first. The output has the same format of the one produced by
+ * {@link DotGraph#dumpDot(Writer)}, and can thus be read back through
+ * {@link DotGraph#readDot(Reader)}. Nodes must all be written before edges,
+ * and the legend, if any, must be written last, right before invoking
+ * {@link #end()}.<br>
+ * <br>
+ * The only information kept by this writer is the code assigned to each
+ * node, so that the memory needed for dumping a graph does not depend on the
+ * size of the labels of its nodes.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <N> the type of the nodes of the graph
+ */
+final class DotWriter<N> {
+
+	private static final String NL = System.lineSeparator();
+
+	private final Writer writer;
+
+	private final Map<N, Long> codes = new IdentityHashMap<>();
+
+	private long nextCode = 0;
+
+	/**
+	 * Builds the writer, emitting the header of the graph.
+	 *
+	 * @param writer the writer where the graph will be written
+	 * @param title  the title of the graph, if any
+	 *
+	 * @throws IOException if an I/O error occurs while writing
+	 */
+	DotWriter(Writer writer, String title) throws IOException {
+		this.writer = writer;
+		writer.write("digraph {" + NL);
+		if (title != null) {
+			writer.write("\tlabelloc=\"t\";" + NL);
+			writer.write("\tlabel=\"" + title + "\";" + NL);
+		}
+	}
+
+	/**
+	 * Writes a node. The label of {@code node} is generated right before
+	 * writing it, and it is not retained afterwards.
+	 *
+	 * @param node           the node
+	 * @param entry          whether or not this node is an entrypoint of the
+	 *                           graph
+	 * @param exit           whether or not this node is an exitpoint of the
+	 *                           graph
+	 * @param labelGenerator the function that is used to enrich nodes labels
+	 *
+	 * @throws IOException if an I/O error occurs while writing
+	 */
+	void writeNode(N node, boolean entry, boolean exit, Function<N, String> labelGenerator) throws IOException {
+		writer.write("\t\"");
+		writer.write(DotGraph.nodeName(code(node)));
+		writer.write("\" [");
+		writeAttribute(DotGraph.SHAPE, DotGraph.NODE_SHAPE);
+		writer.write(',');
+		writeAttribute(DotGraph.COLOR, entry || exit ? DotGraph.SPECIAL_NODE_COLOR : DotGraph.NORMAL_NODE_COLOR);
+		if (exit) {
+			writer.write(',');
+			writeAttribute(DotGraph.EXIT_NODE_EXTRA_ATTR, DotGraph.EXIT_NODE_EXTRA_VALUE);
+		}
+		writer.write(',');
+		writer.write(DotGraph.LABEL);
+		writer.write('=');
+		writer.write(DotGraph.nodeLabel(node, labelGenerator));
+		writer.write("];" + NL);
+	}
+
+	/**
+	 * Writes an edge.
+	 *
+	 * @param source      the source node of the edge
+	 * @param destination the destination node of the edge
+	 * @param color       the color of the edge, or {@code null} if none
+	 * @param style       the style of the edge, or {@code null} if none
+	 *
+	 * @throws IOException if an I/O error occurs while writing
+	 */
+	void writeEdge(N source, N destination, String color, String style) throws IOException {
+		writer.write("\t\"");
+		writer.write(DotGraph.nodeName(code(source)));
+		writer.write("\" -> \"");
+		writer.write(DotGraph.nodeName(code(destination)));
+		writer.write('"');
+		if (color != null || style != null) {
+			writer.write(" [");
+			if (color != null)
+				writeAttribute(DotGraph.COLOR, color);
+			if (color != null && style != null)
+				writer.write(',');
+			if (style != null)
+				writeAttribute(DotGraph.STYLE, style);
+			writer.write(']');
+		}
+		writer.write(";" + NL);
+	}
+
+	/**
+	 * Writes the legend of the graph, as a cluster containing a single node
+	 * with the given html label.
+	 *
+	 * @param label the label of the legend, wrapped in angle brackets
+	 *
+	 * @throws IOException if an I/O error occurs while writing
+	 */
+	void writeLegend(String label) throws IOException {
+		writer.write("subgraph cluster_legend {" + NL);
+		writer.write("\tlabel=\"Legend\";" + NL);
+		writer.write("\tstyle=dotted;" + NL);
+		writer.write("\tnode [shape=plaintext];" + NL);
+		writer.write("\t\"legend\" [" + DotGraph.LABEL + "=" + label + "];" + NL);
+		writer.write("}" + NL + NL);
+	}
+
+	/**
+	 * Writes the end of the graph and flushes the underlying writer, that is
+	 * not closed.
+	 *
+	 * @throws IOException if an I/O error occurs while writing
+	 */
+	void end() throws IOException {
+		writer.write("}" + NL);
+		writer.flush();
+	}
+
+	private long code(N node) {
+		return codes.computeIfAbsent(node, n -> nextCode++);
+	}
+
+	private void writeAttribute(String key, String value) throws IOException {
+		writer.write(key);
+		writer.write("=\"");
+		writer.write(value);
+		writer.write('"');
+	}
+}
@@ -8,6 +8,7 @@ import it.unive.lisa.program.cfg.CodeLocation;
 import it.unive.lisa.program.cfg.CodeMember;
 import it.unive.lisa.program.cfg.NativeCFG;
 import it.unive.lisa.program.cfg.Parameter;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -74,6 +75,13 @@ public class CompilationUnit extends Unit implements CodeElement {
 	 */
 	private boolean hierarchyComputed;
 
+	/**
+	 * The instance code members that are visible from this unit, indexed by
+	 * name. This is computed by {@link #validateAndFinalize()}, and it is
+	 * {@code null} before that.
+	 */
+	private Map<String, Collection<CodeMember>> dispatchTable;
+
 	private Annotations annotations;
 
 	/**
@@ -374,6 +382,29 @@ public class CompilationUnit extends Unit implements CodeElement {
 		return searchCodeMembers(cm -> cm.getDescriptor().getName().equals(name), true, true, traverseHierarchy);
 	}
 
+	/**
+	 * Yields the collection of all instance {@link CodeMember}s that are
+	 * visible from this unit and that have the given name, that is, the ones
+	 * that an instance call with that name can be dispatched to if the
+	 * receiver is an instance of this unit. The returned collection is the
+	 * same as the one returned by
+	 * {@link #getInstanceCodeMembersByName(String, boolean)} when traversing
+	 * the hierarchy: code members of super units that are overridden in this
+	 * unit, or in units between this one and the super unit, are excluded.
+	 * After {@link #validateAndFinalize()} has been called, this method does
+	 * not traverse the hierarchy, since the code members are precomputed for
+	 * each name.
+	 * 
+	 * @param name the name of the code members to include
+	 * 
+	 * @return the unmodifiable collection of code members with the given name
+	 */
+	public final Collection<CodeMember> getDispatchTargets(String name) {
+		if (dispatchTable == null)
+			return Collections.unmodifiableCollection(getInstanceCodeMembersByName(name, true));
+		return dispatchTable.getOrDefault(name, Collections.emptyList());
+	}
+
 	/**
 	 * Finds all the instance code members whose signature matches the one of
 	 * the given {@link CFGDescriptor}, according to
@@ -561,7 +592,9 @@ public class CompilationUnit extends Unit implements CodeElement {
 	 * call resolutions. Instance code members are also linked to other ones in
 	 * the hierarchy, populating the collections
 	 * {@link CFGDescriptor#overriddenBy()} and
-	 * {@link CFGDescriptor#overrides()}.
+	 * {@link CFGDescriptor#overrides()}. Finally, the instance code members
+	 * visible from this unit are grouped by name, to be returned by
+	 * {@link #getDispatchTargets(String)}.
 	 */
 	@Override
 	public final void validateAndFinalize() throws ProgramValidationException {
@@ -623,6 +656,14 @@ public class CompilationUnit extends Unit implements CodeElement {
 						}
 				}
 
+		// the hierarchy of this unit is now complete: we can flatten the
+		// code members that are visible from this unit
+		Map<String, Collection<CodeMember>> table = new HashMap<>();
+		for (CodeMember cm : getInstanceCodeMembers(true))
+			table.computeIfAbsent(cm.getDescriptor().getName(), n -> new ArrayList<>()).add(cm);
+		table.replaceAll((n, members) -> Collections.unmodifiableCollection(members));
+		dispatchTable = table;
+
 		hierarchyComputed = true;
 	}
 
@@ -4,7 +4,10 @@ import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.CFGDescriptor;
 import it.unive.lisa.program.cfg.CodeMember;
 import it.unive.lisa.program.cfg.NativeCFG;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -42,6 +45,13 @@ public abstract class Unit {
 	 */
 	private final Map<String, NativeCFG> constructs;
 
+	/**
+	 * The code members returned by {@link #getAllCodeMembers()}, indexed by
+	 * name and then by number of parameters. This is built by
+	 * {@link #validateAndFinalize()}, and it is {@code null} before that.
+	 */
+	private Map<String, Map<Integer, Collection<CodeMember>>> index;
+
 	/**
 	 * Builds a unit, defined at the given location.
 	 * 
@@ -250,6 +260,51 @@ public abstract class Unit {
 		return all;
 	}
 
+	/**
+	 * Yields the collection of all the code members returned by
+	 * {@link #getAllCodeMembers()} that have the given name. After
+	 * {@link #validateAndFinalize()} has been called, this method does not
+	 * iterate over the code members of the unit, and it does not reflect code
+	 * members added after the validation.
+	 * 
+	 * @param name the name of the code members to include
+	 * 
+	 * @return the unmodifiable collection of code members with the given name
+	 */
+	public final Collection<CodeMember> getAllCodeMembersByName(String name) {
+		if (index == null)
+			return getAllCodeMembers().stream().filter(cm -> cm.getDescriptor().getName().equals(name))
+					.collect(Collectors.toUnmodifiableList());
+
+		Map<Integer, Collection<CodeMember>> byArity = index.get(name);
+		if (byArity == null)
+			return Collections.emptyList();
+		if (byArity.size() == 1)
+			return byArity.values().iterator().next();
+		return byArity.values().stream().flatMap(Collection::stream).collect(Collectors.toUnmodifiableList());
+	}
+
+	/**
+	 * Yields the collection of all the code members returned by
+	 * {@link #getAllCodeMembers()} that have the given name and the given
+	 * number of parameters. After {@link #validateAndFinalize()} has been
+	 * called, this method does not iterate over the code members of the unit,
+	 * and it does not reflect code members added after the validation.
+	 * 
+	 * @param name  the name of the code members to include
+	 * @param arity the number of parameters of the code members to include
+	 * 
+	 * @return the unmodifiable collection of code members with the given name
+	 *             and number of parameters
+	 */
+	public final Collection<CodeMember> getAllCodeMembersByName(String name, int arity) {
+		if (index == null)
+			return getAllCodeMembers().stream().filter(cm -> cm.getDescriptor().getName().equals(name)
+					&& cm.getDescriptor().getArgs().length == arity).collect(Collectors.toUnmodifiableList());
+
+		return index.getOrDefault(name, Collections.emptyMap()).getOrDefault(arity, Collections.emptyList());
+	}
+
 	/**
 	 * Adds a new {@link Global}, identified by its name
 	 * ({@link Global#getName()}), to this unit.
@@ -350,7 +405,11 @@ public abstract class Unit {
 	 * code members exist in this unit whose signatures matches one another,
 	 * according to {@link CFGDescriptor#matchesSignature(CFGDescriptor)}. This
 	 * avoids ambiguous call resolution. Moreover, this ensures that all
-	 * {@link CFG}s are valid, according to {@link CFG#validate()}.
+	 * {@link CFG}s are valid, according to {@link CFG#validate()}, and freezes
+	 * them (see {@link CFG#freeze()}). Validation also indexes the code members
+	 * of this unit by name and number of parameters, to speed up
+	 * {@link #getAllCodeMembersByName(String)} and
+	 * {@link #getAllCodeMembersByName(String, int)}.
 	 * 
 	 * @throws ProgramValidationException if the program has an invalid
 	 *                                        structure
@@ -363,7 +422,17 @@ public abstract class Unit {
 						cfg.getDescriptor().getSignature() + " is duplicated within unit " + this);
 		}
 
-		for (CFG cfg : getAllCFGs())
+		for (CFG cfg : getAllCFGs()) {
 			cfg.validate();
+			cfg.freeze();
+		}
+
+		Map<String, Map<Integer, Collection<CodeMember>>> idx = new HashMap<>();
+		for (CodeMember cm : getAllCodeMembers())
+			idx.computeIfAbsent(cm.getDescriptor().getName(), n -> new HashMap<>())
+					.computeIfAbsent(cm.getDescriptor().getArgs().length, a -> new ArrayList<>()).add(cm);
+		for (Map<Integer, Collection<CodeMember>> byArity : idx.values())
+			byArity.replaceAll((a, members) -> Collections.unmodifiableCollection(members));
+		index = idx;
 	}
 }
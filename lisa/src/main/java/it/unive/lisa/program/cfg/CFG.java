@@ -5,6 +5,7 @@ import it.unive.lisa.analysis.AnalysisState;
 import it.unive.lisa.analysis.CFGWithAnalysisResults;
 import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.StatementArrayMap;
 import it.unive.lisa.analysis.StatementStore;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.lattices.FunctionalLattice;
@@ -27,8 +28,11 @@ import it.unive.lisa.util.collections.externalSet.ExternalSet;
 import it.unive.lisa.util.datastructures.graph.AdjacencyMatrix;
 import it.unive.lisa.util.datastructures.graph.FixpointException;
 import it.unive.lisa.util.datastructures.graph.FixpointGraph;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder;
 import it.unive.lisa.util.workset.FIFOWorkingSet;
 import it.unive.lisa.util.workset.WorkingSet;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -37,6 +41,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -849,6 +854,720 @@ public class CFG extends FixpointGraph<CFG, Statement, Edge> implements CodeMemb
 								(StatementStore) expressions)));
 	}
 
+	/**
+	 * Computes a fixpoint over this control flow graph following the given
+	 * {@link WeakTopologicalOrder}, that is usually the one returned by
+	 * {@link #getWeakTopologicalOrder()}. This method returns a
+	 * {@link CFGWithAnalysisResults} instance mapping each {@link Statement} to
+	 * the {@link AnalysisState} computed by this method. The components of the
+	 * order are processed in sequence, and each of its cycles is iterated until
+	 * the result on its head stabilizes. Results obtained at different
+	 * iterations are composed only at heads of cycles, using
+	 * {@link Lattice#lub(Lattice)} up to {@link #DEFAULT_WIDENING_THRESHOLD}
+	 * iterations of the cycle. After overcoming that threshold,
+	 * {@link Lattice#widening(Lattice)} is used. The computation starts at the
+	 * statements returned by {@link #getEntrypoints()}, using
+	 * {@code entryState} as entry state for all of them.
+	 * {@code interprocedural} will be invoked to get the approximation of all
+	 * invoked cfgs.
+	 * 
+	 * @param <A>             the type of {@link AbstractState} contained into
+	 *                            the analysis state
+	 * @param <H>             the type of {@link HeapDomain} contained into the
+	 *                            computed abstract state
+	 * @param <V>             the type of {@link ValueDomain} contained into the
+	 *                            computed abstract state
+	 * @param entryState      the entry states to apply to each
+	 *                            {@link Statement} returned by
+	 *                            {@link #getEntrypoints()}
+	 * @param interprocedural the interprocedural analysis that can be queried
+	 *                            when a call towards an other cfg is
+	 *                            encountered
+	 * @param order           the {@link WeakTopologicalOrder} of this cfg to
+	 *                            follow
+	 * 
+	 * @return a {@link CFGWithAnalysisResults} instance that is equivalent to
+	 *             this control flow graph, and that stores for each
+	 *             {@link Statement} the result of the fixpoint computation
+	 * 
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a statement, or if the
+	 *                               order contains statements that are not
+	 *                               part of this cfg
+	 */
+	public final <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> CFGWithAnalysisResults<A, H, V> fixpoint(
+					AnalysisState<A, H, V> entryState, InterproceduralAnalysis<A, H, V> interprocedural,
+					WeakTopologicalOrder<CFG, Statement, Edge> order)
+					throws FixpointException {
+		return fixpoint(entryState, interprocedural, order, DEFAULT_WIDENING_THRESHOLD);
+	}
+
+	/**
+	 * Computes a fixpoint over this control flow graph following the given
+	 * {@link WeakTopologicalOrder}, that is usually the one returned by
+	 * {@link #getWeakTopologicalOrder()}. This method returns a
+	 * {@link CFGWithAnalysisResults} instance mapping each {@link Statement} to
+	 * the {@link AnalysisState} computed by this method. The components of the
+	 * order are processed in sequence, and each of its cycles is iterated until
+	 * the result on its head stabilizes. Results obtained at different
+	 * iterations are composed only at heads of cycles, using
+	 * {@link Lattice#lub(Lattice)} up to {@code widenAfter} iterations of the
+	 * cycle. After overcoming that threshold, {@link Lattice#widening(Lattice)}
+	 * is used. The computation starts at the statements returned by
+	 * {@link #getEntrypoints()}, using {@code entryState} as entry state for
+	 * all of them. {@code interprocedural} will be invoked to get the
+	 * approximation of all invoked cfgs.
+	 * 
+	 * @param <A>             the type of {@link AbstractState} contained into
+	 *                            the analysis state
+	 * @param <H>             the type of {@link HeapDomain} contained into the
+	 *                            computed abstract state
+	 * @param <V>             the type of {@link ValueDomain} contained into the
+	 *                            computed abstract state
+	 * @param entryState      the entry states to apply to each
+	 *                            {@link Statement} returned by
+	 *                            {@link #getEntrypoints()}
+	 * @param interprocedural the interprocedural analysis that can be queried
+	 *                            when a call towards an other cfg is
+	 *                            encountered
+	 * @param order           the {@link WeakTopologicalOrder} of this cfg to
+	 *                            follow
+	 * @param widenAfter      the number of iterations of a cycle after which
+	 *                            the {@link Lattice#lub(Lattice)} invocation on
+	 *                            its head gets replaced by the
+	 *                            {@link Lattice#widening(Lattice)} call. Use
+	 *                            {@code 0} to <b>always</b> use
+	 *                            {@link Lattice#lub(Lattice)}
+	 * 
+	 * @return a {@link CFGWithAnalysisResults} instance that is equivalent to
+	 *             this control flow graph, and that stores for each
+	 *             {@link Statement} the result of the fixpoint computation
+	 * 
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a statement, or if the
+	 *                               order contains statements that are not
+	 *                               part of this cfg
+	 */
+	public final <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> CFGWithAnalysisResults<A, H, V> fixpoint(
+					AnalysisState<A, H, V> entryState, InterproceduralAnalysis<A, H, V> interprocedural,
+					WeakTopologicalOrder<CFG, Statement, Edge> order,
+					int widenAfter)
+					throws FixpointException {
+		Map<Statement, AnalysisState<A, H, V>> start = new HashMap<>();
+		entrypoints.forEach(e -> start.put(e, entryState));
+		return fixpoint(entryState, start, interprocedural, order, widenAfter);
+	}
+
+	/**
+	 * Computes a fixpoint over this control flow graph following the given
+	 * {@link WeakTopologicalOrder}, that is usually the one returned by
+	 * {@link #getWeakTopologicalOrder()}. This method returns a
+	 * {@link CFGWithAnalysisResults} instance mapping each {@link Statement} to
+	 * the {@link AnalysisState} computed by this method. The components of the
+	 * order are processed in sequence, and each of its cycles is iterated until
+	 * the result on its head stabilizes. Results obtained at different
+	 * iterations are composed only at heads of cycles, using
+	 * {@link Lattice#lub(Lattice)} up to {@link #DEFAULT_WIDENING_THRESHOLD}
+	 * iterations of the cycle. After overcoming that threshold,
+	 * {@link Lattice#widening(Lattice)} is used. The computation starts at the
+	 * statements in {@code entrypoints}, using {@code entryState} as entry
+	 * state for all of them. {@code interprocedural} will be invoked to get the
+	 * approximation of all invoked cfgs.
+	 * 
+	 * @param <A>             the type of {@link AbstractState} contained into
+	 *                            the analysis state
+	 * @param <H>             the type of {@link HeapDomain} contained into the
+	 *                            computed abstract state
+	 * @param <V>             the type of {@link ValueDomain} contained into the
+	 *                            computed abstract state
+	 * @param entrypoints     the collection of {@link Statement}s that to use
+	 *                            as a starting point of the computation (that
+	 *                            must be nodes of this cfg)
+	 * @param entryState      the entry states to apply to each
+	 *                            {@link Statement} in {@code entrypoints}
+	 * @param interprocedural the interprocedural analysis that can be queried
+	 *                            when a call towards an other cfg is
+	 *                            encountered
+	 * @param order           the {@link WeakTopologicalOrder} of this cfg to
+	 *                            follow
+	 * 
+	 * @return a {@link CFGWithAnalysisResults} instance that is equivalent to
+	 *             this control flow graph, and that stores for each
+	 *             {@link Statement} the result of the fixpoint computation
+	 * 
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a statement, or if the
+	 *                               order contains statements that are not
+	 *                               part of this cfg
+	 */
+	public final <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> CFGWithAnalysisResults<A, H, V> fixpoint(
+					Collection<Statement> entrypoints, AnalysisState<A, H, V> entryState,
+					InterproceduralAnalysis<A, H, V> interprocedural,
+					WeakTopologicalOrder<CFG, Statement, Edge> order)
+					throws FixpointException {
+		return fixpoint(entrypoints, entryState, interprocedural, order, DEFAULT_WIDENING_THRESHOLD);
+	}
+
+	/**
+	 * Computes a fixpoint over this control flow graph following the given
+	 * {@link WeakTopologicalOrder}, that is usually the one returned by
+	 * {@link #getWeakTopologicalOrder()}. This method returns a
+	 * {@link CFGWithAnalysisResults} instance mapping each {@link Statement} to
+	 * the {@link AnalysisState} computed by this method. The components of the
+	 * order are processed in sequence, and each of its cycles is iterated until
+	 * the result on its head stabilizes. Results obtained at different
+	 * iterations are composed only at heads of cycles, using
+	 * {@link Lattice#lub(Lattice)} up to {@code widenAfter} iterations of the
+	 * cycle. After overcoming that threshold, {@link Lattice#widening(Lattice)}
+	 * is used. The computation starts at the statements in {@code entrypoints},
+	 * using {@code entryState} as entry state for all of them.
+	 * {@code interprocedural} will be invoked to get the approximation of all
+	 * invoked cfgs.
+	 * 
+	 * @param <A>             the type of {@link AbstractState} contained into
+	 *                            the analysis state
+	 * @param <H>             the type of {@link HeapDomain} contained into the
+	 *                            computed abstract state
+	 * @param <V>             the type of {@link ValueDomain} contained into the
+	 *                            computed abstract state
+	 * @param entrypoints     the collection of {@link Statement}s that to use
+	 *                            as a starting point of the computation (that
+	 *                            must be nodes of this cfg)
+	 * @param entryState      the entry states to apply to each
+	 *                            {@link Statement} in {@code entrypoints}
+	 * @param interprocedural the interprocedural analysis that can be queried
+	 *                            when a call towards an other cfg is
+	 *                            encountered
+	 * @param order           the {@link WeakTopologicalOrder} of this cfg to
+	 *                            follow
+	 * @param widenAfter      the number of iterations of a cycle after which
+	 *                            the {@link Lattice#lub(Lattice)} invocation on
+	 *                            its head gets replaced by the
+	 *                            {@link Lattice#widening(Lattice)} call. Use
+	 *                            {@code 0} to <b>always</b> use
+	 *                            {@link Lattice#lub(Lattice)}
+	 * 
+	 * @return a {@link CFGWithAnalysisResults} instance that is equivalent to
+	 *             this control flow graph, and that stores for each
+	 *             {@link Statement} the result of the fixpoint computation
+	 * 
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a statement, or if the
+	 *                               order contains statements that are not
+	 *                               part of this cfg
+	 */
+	public final <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> CFGWithAnalysisResults<A, H, V> fixpoint(
+					Collection<Statement> entrypoints, AnalysisState<A, H, V> entryState,
+					InterproceduralAnalysis<A, H, V> interprocedural,
+					WeakTopologicalOrder<CFG, Statement, Edge> order,
+					int widenAfter) throws FixpointException {
+		Map<Statement, AnalysisState<A, H, V>> start = new HashMap<>();
+		entrypoints.forEach(e -> start.put(e, entryState));
+		return fixpoint(entryState, start, interprocedural, order, widenAfter);
+	}
+
+	/**
+	 * Computes a fixpoint over this control flow graph following the given
+	 * {@link WeakTopologicalOrder}, that is usually the one returned by
+	 * {@link #getWeakTopologicalOrder()}. This method returns a
+	 * {@link CFGWithAnalysisResults} instance mapping each {@link Statement} to
+	 * the {@link AnalysisState} computed by this method. The components of the
+	 * order are processed in sequence, and each of its cycles is iterated until
+	 * the result on its head stabilizes. Results obtained at different
+	 * iterations are composed only at heads of cycles, using
+	 * {@link Lattice#lub(Lattice)} up to {@link #DEFAULT_WIDENING_THRESHOLD}
+	 * iterations of the cycle. After overcoming that threshold,
+	 * {@link Lattice#widening(Lattice)} is used. The computation starts at the
+	 * statements in {@code startingPoints}, using as its entry state their
+	 * respective value. {@code interprocedural} will be invoked to get the
+	 * approximation of all invoked cfgs.
+	 * 
+	 * @param <A>             the type of {@link AbstractState} contained into
+	 *                            the analysis state
+	 * @param <H>             the type of {@link HeapDomain} contained into the
+	 *                            computed abstract state
+	 * @param <V>             the type of {@link ValueDomain} contained into the
+	 *                            computed abstract state
+	 * @param singleton       an instance of the {@link AnalysisState}
+	 *                            containing the abstract state of the analysis
+	 *                            to run, used to retrieve top and bottom values
+	 * @param startingPoints  a map between {@link Statement}s that to use as a
+	 *                            starting point of the computation (that must
+	 *                            be nodes of this cfg) and the entry states to
+	 *                            apply on it
+	 * @param interprocedural the interprocedural analysis that can be queried
+	 *                            when a call towards an other cfg is
+	 *                            encountered
+	 * @param order           the {@link WeakTopologicalOrder} of this cfg to
+	 *                            follow
+	 * 
+	 * @return a {@link CFGWithAnalysisResults} instance that is equivalent to
+	 *             this control flow graph, and that stores for each
+	 *             {@link Statement} the result of the fixpoint computation
+	 * 
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a statement, or if the
+	 *                               order contains statements that are not
+	 *                               part of this cfg
+	 */
+	public final <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> CFGWithAnalysisResults<A, H, V> fixpoint(
+					AnalysisState<A, H, V> singleton,
+					Map<Statement, AnalysisState<A, H, V>> startingPoints,
+					InterproceduralAnalysis<A, H, V> interprocedural,
+					WeakTopologicalOrder<CFG, Statement, Edge> order)
+					throws FixpointException {
+		return fixpoint(singleton, startingPoints, interprocedural, order, DEFAULT_WIDENING_THRESHOLD);
+	}
+
+	/**
+	 * Computes a fixpoint over this control flow graph following the given
+	 * {@link WeakTopologicalOrder}, that is usually the one returned by
+	 * {@link #getWeakTopologicalOrder()}. This method returns a
+	 * {@link CFGWithAnalysisResults} instance mapping each {@link Statement} to
+	 * the {@link AnalysisState} computed by this method. The components of the
+	 * order are processed in sequence, and each of its cycles is iterated until
+	 * the result on its head stabilizes. Results obtained at different
+	 * iterations are composed only at heads of cycles, using
+	 * {@link Lattice#lub(Lattice)} up to {@code widenAfter} iterations of the
+	 * cycle. After overcoming that threshold, {@link Lattice#widening(Lattice)}
+	 * is used. The computation starts at the statements in
+	 * {@code startingPoints}, using as its entry state their respective value.
+	 * {@code interprocedural} will be invoked to get the approximation of all
+	 * invoked cfgs.
+	 * 
+	 * @param <A>             the type of {@link AbstractState} contained into
+	 *                            the analysis state
+	 * @param <H>             the type of {@link HeapDomain} contained into the
+	 *                            computed abstract state
+	 * @param <V>             the type of {@link ValueDomain} contained into the
+	 *                            computed abstract state
+	 * @param singleton       an instance of the {@link AnalysisState}
+	 *                            containing the abstract state of the analysis
+	 *                            to run, used to retrieve top and bottom values
+	 * @param startingPoints  a map between {@link Statement}s that to use as a
+	 *                            starting point of the computation (that must
+	 *                            be nodes of this cfg) and the entry states to
+	 *                            apply on it
+	 * @param interprocedural the interprocedural analysis that can be queried
+	 *                            when a call towards an other cfg is
+	 *                            encountered
+	 * @param order           the {@link WeakTopologicalOrder} of this cfg to
+	 *                            follow
+	 * @param widenAfter      the number of iterations of a cycle after which
+	 *                            the {@link Lattice#lub(Lattice)} invocation on
+	 *                            its head gets replaced by the
+	 *                            {@link Lattice#widening(Lattice)} call. Use
+	 *                            {@code 0} to <b>always</b> use
+	 *                            {@link Lattice#lub(Lattice)}
+	 * 
+	 * @return a {@link CFGWithAnalysisResults} instance that is equivalent to
+	 *             this control flow graph, and that stores for each
+	 *             {@link Statement} the result of the fixpoint computation
+	 * 
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a statement, or if the
+	 *                               order contains statements that are not
+	 *                               part of this cfg
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> CFGWithAnalysisResults<A, H, V> fixpoint(
+					AnalysisState<A, H, V> singleton,
+					Map<Statement, AnalysisState<A, H, V>> startingPoints,
+					InterproceduralAnalysis<A, H, V> interprocedural,
+					WeakTopologicalOrder<CFG, Statement, Edge> order,
+					int widenAfter)
+					throws FixpointException {
+		return new CFGWithAnalysisResults<A, H, V>(this, singleton, startingPoints,
+				super.fixpoint(startingPoints, interprocedural, order, widenAfter,
+						(st, entryState, callGraph, expressions) -> st.semantics(entryState, callGraph,
+								(StatementStore) expressions)));
+	}
+
+	/**
+	 * Computes a fixpoint over this control flow graph, analyzing its
+	 * independent strongly connected components in parallel. This method
+	 * returns a {@link CFGWithAnalysisResults} instance mapping each
+	 * {@link Statement} to the {@link AnalysisState} computed by this method.
+	 * Each component is analyzed on {@code pool} as soon as all the components
+	 * preceding it have been completed. The computation uses
+	 * {@link Lattice#lub(Lattice)} to compose results obtained at different
+	 * iterations, up to {@link #DEFAULT_WIDENING_THRESHOLD}
+	 * {@code * predecessors_number} times, where {@code predecessors_number} is
+	 * the number of expressions that are predecessors of the one being
+	 * processed. After overcoming that threshold,
+	 * {@link Lattice#widening(Lattice)} is used. Results do not depend on how
+	 * the components are scheduled on {@code pool}. Since a loop is analyzed
+	 * only once the statements preceding it are stable, its statements might be
+	 * updated fewer times than in the sequential fixpoint: widening might thus
+	 * be applied later, yielding results that can differ from (and be more
+	 * precise than) the sequential ones. The computation starts at the
+	 * statements returned by {@link #getEntrypoints()}, using
+	 * {@code entryState} as entry state for all of them.
+	 * {@code interprocedural} will be invoked to get the approximation of all
+	 * invoked cfgs, and it must thus support concurrent queries.
+	 * 
+	 * @param <A>             the type of {@link AbstractState} contained into
+	 *                            the analysis state
+	 * @param <H>             the type of {@link HeapDomain} contained into the
+	 *                            computed abstract state
+	 * @param <V>             the type of {@link ValueDomain} contained into the
+	 *                            computed abstract state
+	 * @param entryState      the entry states to apply to each
+	 *                            {@link Statement} returned by
+	 *                            {@link #getEntrypoints()}
+	 * @param interprocedural the interprocedural analysis that can be queried
+	 *                            when a call towards an other cfg is
+	 *                            encountered
+	 * @param pool            the {@link ForkJoinPool} where independent
+	 *                            portions of this cfg will be analyzed
+	 * 
+	 * @return a {@link CFGWithAnalysisResults} instance that is equivalent to
+	 *             this control flow graph, and that stores for each
+	 *             {@link Statement} the result of the fixpoint computation
+	 * 
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a statement, or if some
+	 *                               starting point is not part of this cfg
+	 */
+	public final <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> CFGWithAnalysisResults<A, H, V> fixpoint(
+					AnalysisState<A, H, V> entryState, InterproceduralAnalysis<A, H, V> interprocedural,
+					ForkJoinPool pool)
+					throws FixpointException {
+		return fixpoint(entryState, interprocedural, pool, DEFAULT_WIDENING_THRESHOLD);
+	}
+
+	/**
+	 * Computes a fixpoint over this control flow graph, analyzing its
+	 * independent strongly connected components in parallel. This method
+	 * returns a {@link CFGWithAnalysisResults} instance mapping each
+	 * {@link Statement} to the {@link AnalysisState} computed by this method.
+	 * Each component is analyzed on {@code pool} as soon as all the components
+	 * preceding it have been completed. The computation uses
+	 * {@link Lattice#lub(Lattice)} to compose results obtained at different
+	 * iterations, up to {@code widenAfter * predecessors_number} times, where
+	 * {@code predecessors_number} is the number of expressions that are
+	 * predecessors of the one being processed. After overcoming that threshold,
+	 * {@link Lattice#widening(Lattice)} is used. Results do not depend on how
+	 * the components are scheduled on {@code pool}. Since a loop is analyzed
+	 * only once the statements preceding it are stable, its statements might be
+	 * updated fewer times than in the sequential fixpoint: widening might thus
+	 * be applied later, yielding results that can differ from (and be more
+	 * precise than) the sequential ones. The computation starts at the
+	 * statements returned by {@link #getEntrypoints()}, using
+	 * {@code entryState} as entry state for all of them.
+	 * {@code interprocedural} will be invoked to get the approximation of all
+	 * invoked cfgs, and it must thus support concurrent queries.
+	 * 
+	 * @param <A>             the type of {@link AbstractState} contained into
+	 *                            the analysis state
+	 * @param <H>             the type of {@link HeapDomain} contained into the
+	 *                            computed abstract state
+	 * @param <V>             the type of {@link ValueDomain} contained into the
+	 *                            computed abstract state
+	 * @param entryState      the entry states to apply to each
+	 *                            {@link Statement} returned by
+	 *                            {@link #getEntrypoints()}
+	 * @param interprocedural the interprocedural analysis that can be queried
+	 *                            when a call towards an other cfg is
+	 *                            encountered
+	 * @param pool            the {@link ForkJoinPool} where independent
+	 *                            portions of this cfg will be analyzed
+	 * @param widenAfter      the number of times after which the
+	 *                            {@link Lattice#lub(Lattice)} invocation gets
+	 *                            replaced by the
+	 *                            {@link Lattice#widening(Lattice)} call. Use
+	 *                            {@code 0} to <b>always</b> use
+	 *                            {@link Lattice#lub(Lattice)}
+	 * 
+	 * @return a {@link CFGWithAnalysisResults} instance that is equivalent to
+	 *             this control flow graph, and that stores for each
+	 *             {@link Statement} the result of the fixpoint computation
+	 * 
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a statement, or if some
+	 *                               starting point is not part of this cfg
+	 */
+	public final <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> CFGWithAnalysisResults<A, H, V> fixpoint(
+					AnalysisState<A, H, V> entryState, InterproceduralAnalysis<A, H, V> interprocedural,
+					ForkJoinPool pool,
+					int widenAfter)
+					throws FixpointException {
+		Map<Statement, AnalysisState<A, H, V>> start = new HashMap<>();
+		entrypoints.forEach(e -> start.put(e, entryState));
+		return fixpoint(entryState, start, interprocedural, pool, widenAfter);
+	}
+
+	/**
+	 * Computes a fixpoint over this control flow graph, analyzing its
+	 * independent strongly connected components in parallel. This method
+	 * returns a {@link CFGWithAnalysisResults} instance mapping each
+	 * {@link Statement} to the {@link AnalysisState} computed by this method.
+	 * Each component is analyzed on {@code pool} as soon as all the components
+	 * preceding it have been completed. The computation uses
+	 * {@link Lattice#lub(Lattice)} to compose results obtained at different
+	 * iterations, up to {@link #DEFAULT_WIDENING_THRESHOLD}
+	 * {@code * predecessors_number} times, where {@code predecessors_number} is
+	 * the number of expressions that are predecessors of the one being
+	 * processed. After overcoming that threshold,
+	 * {@link Lattice#widening(Lattice)} is used. Results do not depend on how
+	 * the components are scheduled on {@code pool}. Since a loop is analyzed
+	 * only once the statements preceding it are stable, its statements might be
+	 * updated fewer times than in the sequential fixpoint: widening might thus
+	 * be applied later, yielding results that can differ from (and be more
+	 * precise than) the sequential ones. The computation starts at the
+	 * statements in {@code entrypoints}, using {@code entryState} as entry
+	 * state for all of them. {@code interprocedural} will be invoked to get the
+	 * approximation of all invoked cfgs, and it must thus support concurrent
+	 * queries.
+	 * 
+	 * @param <A>             the type of {@link AbstractState} contained into
+	 *                            the analysis state
+	 * @param <H>             the type of {@link HeapDomain} contained into the
+	 *                            computed abstract state
+	 * @param <V>             the type of {@link ValueDomain} contained into the
+	 *                            computed abstract state
+	 * @param entrypoints     the collection of {@link Statement}s that to use
+	 *                            as a starting point of the computation (that
+	 *                            must be nodes of this cfg)
+	 * @param entryState      the entry states to apply to each
+	 *                            {@link Statement} in {@code entrypoints}
+	 * @param interprocedural the interprocedural analysis that can be queried
+	 *                            when a call towards an other cfg is
+	 *                            encountered
+	 * @param pool            the {@link ForkJoinPool} where independent
+	 *                            portions of this cfg will be analyzed
+	 * 
+	 * @return a {@link CFGWithAnalysisResults} instance that is equivalent to
+	 *             this control flow graph, and that stores for each
+	 *             {@link Statement} the result of the fixpoint computation
+	 * 
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a statement, or if some
+	 *                               starting point is not part of this cfg
+	 */
+	public final <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> CFGWithAnalysisResults<A, H, V> fixpoint(
+					Collection<Statement> entrypoints, AnalysisState<A, H, V> entryState,
+					InterproceduralAnalysis<A, H, V> interprocedural,
+					ForkJoinPool pool)
+					throws FixpointException {
+		return fixpoint(entrypoints, entryState, interprocedural, pool, DEFAULT_WIDENING_THRESHOLD);
+	}
+
+	/**
+	 * Computes a fixpoint over this control flow graph, analyzing its
+	 * independent strongly connected components in parallel. This method
+	 * returns a {@link CFGWithAnalysisResults} instance mapping each
+	 * {@link Statement} to the {@link AnalysisState} computed by this method.
+	 * Each component is analyzed on {@code pool} as soon as all the components
+	 * preceding it have been completed. The computation uses
+	 * {@link Lattice#lub(Lattice)} to compose results obtained at different
+	 * iterations, up to {@code widenAfter * predecessors_number} times, where
+	 * {@code predecessors_number} is the number of expressions that are
+	 * predecessors of the one being processed. After overcoming that threshold,
+	 * {@link Lattice#widening(Lattice)} is used. Results do not depend on how
+	 * the components are scheduled on {@code pool}. Since a loop is analyzed
+	 * only once the statements preceding it are stable, its statements might be
+	 * updated fewer times than in the sequential fixpoint: widening might thus
+	 * be applied later, yielding results that can differ from (and be more
+	 * precise than) the sequential ones. The computation starts at the
+	 * statements in {@code entrypoints}, using {@code entryState} as entry
+	 * state for all of them. {@code interprocedural} will be invoked to get the
+	 * approximation of all invoked cfgs, and it must thus support concurrent
+	 * queries.
+	 * 
+	 * @param <A>             the type of {@link AbstractState} contained into
+	 *                            the analysis state
+	 * @param <H>             the type of {@link HeapDomain} contained into the
+	 *                            computed abstract state
+	 * @param <V>             the type of {@link ValueDomain} contained into the
+	 *                            computed abstract state
+	 * @param entrypoints     the collection of {@link Statement}s that to use
+	 *                            as a starting point of the computation (that
+	 *                            must be nodes of this cfg)
+	 * @param entryState      the entry states to apply to each
+	 *                            {@link Statement} in {@code entrypoints}
+	 * @param interprocedural the interprocedural analysis that can be queried
+	 *                            when a call towards an other cfg is
+	 *                            encountered
+	 * @param pool            the {@link ForkJoinPool} where independent
+	 *                            portions of this cfg will be analyzed
+	 * @param widenAfter      the number of times after which the
+	 *                            {@link Lattice#lub(Lattice)} invocation gets
+	 *                            replaced by the
+	 *                            {@link Lattice#widening(Lattice)} call. Use
+	 *                            {@code 0} to <b>always</b> use
+	 *                            {@link Lattice#lub(Lattice)}
+	 * 
+	 * @return a {@link CFGWithAnalysisResults} instance that is equivalent to
+	 *             this control flow graph, and that stores for each
+	 *             {@link Statement} the result of the fixpoint computation
+	 * 
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a statement, or if some
+	 *                               starting point is not part of this cfg
+	 */
+	public final <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> CFGWithAnalysisResults<A, H, V> fixpoint(
+					Collection<Statement> entrypoints, AnalysisState<A, H, V> entryState,
+					InterproceduralAnalysis<A, H, V> interprocedural,
+					ForkJoinPool pool,
+					int widenAfter) throws FixpointException {
+		Map<Statement, AnalysisState<A, H, V>> start = new HashMap<>();
+		entrypoints.forEach(e -> start.put(e, entryState));
+		return fixpoint(entryState, start, interprocedural, pool, widenAfter);
+	}
+
+	/**
+	 * Computes a fixpoint over this control flow graph, analyzing its
+	 * independent strongly connected components in parallel. This method
+	 * returns a {@link CFGWithAnalysisResults} instance mapping each
+	 * {@link Statement} to the {@link AnalysisState} computed by this method.
+	 * Each component is analyzed on {@code pool} as soon as all the components
+	 * preceding it have been completed. The computation uses
+	 * {@link Lattice#lub(Lattice)} to compose results obtained at different
+	 * iterations, up to {@link #DEFAULT_WIDENING_THRESHOLD}
+	 * {@code * predecessors_number} times, where {@code predecessors_number} is
+	 * the number of expressions that are predecessors of the one being
+	 * processed. After overcoming that threshold,
+	 * {@link Lattice#widening(Lattice)} is used. Results do not depend on how
+	 * the components are scheduled on {@code pool}. Since a loop is analyzed
+	 * only once the statements preceding it are stable, its statements might be
+	 * updated fewer times than in the sequential fixpoint: widening might thus
+	 * be applied later, yielding results that can differ from (and be more
+	 * precise than) the sequential ones. The computation starts at the
+	 * statements in {@code startingPoints}, using as its entry state their
+	 * respective value. {@code interprocedural} will be invoked to get the
+	 * approximation of all invoked cfgs, and it must thus support concurrent
+	 * queries.
+	 * 
+	 * @param <A>             the type of {@link AbstractState} contained into
+	 *                            the analysis state
+	 * @param <H>             the type of {@link HeapDomain} contained into the
+	 *                            computed abstract state
+	 * @param <V>             the type of {@link ValueDomain} contained into the
+	 *                            computed abstract state
+	 * @param singleton       an instance of the {@link AnalysisState}
+	 *                            containing the abstract state of the analysis
+	 *                            to run, used to retrieve top and bottom values
+	 * @param startingPoints  a map between {@link Statement}s that to use as a
+	 *                            starting point of the computation (that must
+	 *                            be nodes of this cfg) and the entry states to
+	 *                            apply on it
+	 * @param interprocedural the interprocedural analysis that can be queried
+	 *                            when a call towards an other cfg is
+	 *                            encountered
+	 * @param pool            the {@link ForkJoinPool} where independent
+	 *                            portions of this cfg will be analyzed
+	 * 
+	 * @return a {@link CFGWithAnalysisResults} instance that is equivalent to
+	 *             this control flow graph, and that stores for each
+	 *             {@link Statement} the result of the fixpoint computation
+	 * 
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a statement, or if some
+	 *                               starting point is not part of this cfg
+	 */
+	public final <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> CFGWithAnalysisResults<A, H, V> fixpoint(
+					AnalysisState<A, H, V> singleton,
+					Map<Statement, AnalysisState<A, H, V>> startingPoints,
+					InterproceduralAnalysis<A, H, V> interprocedural,
+					ForkJoinPool pool)
+					throws FixpointException {
+		return fixpoint(singleton, startingPoints, interprocedural, pool, DEFAULT_WIDENING_THRESHOLD);
+	}
+
+	/**
+	 * Computes a fixpoint over this control flow graph, analyzing its
+	 * independent strongly connected components in parallel. This method
+	 * returns a {@link CFGWithAnalysisResults} instance mapping each
+	 * {@link Statement} to the {@link AnalysisState} computed by this method.
+	 * Each component is analyzed on {@code pool} as soon as all the components
+	 * preceding it have been completed. The computation uses
+	 * {@link Lattice#lub(Lattice)} to compose results obtained at different
+	 * iterations, up to {@code widenAfter * predecessors_number} times, where
+	 * {@code predecessors_number} is the number of expressions that are
+	 * predecessors of the one being processed. After overcoming that threshold,
+	 * {@link Lattice#widening(Lattice)} is used. Results do not depend on how
+	 * the components are scheduled on {@code pool}. Since a loop is analyzed
+	 * only once the statements preceding it are stable, its statements might be
+	 * updated fewer times than in the sequential fixpoint: widening might thus
+	 * be applied later, yielding results that can differ from (and be more
+	 * precise than) the sequential ones. The computation starts at the
+	 * statements in {@code startingPoints}, using as its entry state their
+	 * respective value. {@code interprocedural} will be invoked to get the
+	 * approximation of all invoked cfgs, and it must thus support concurrent
+	 * queries.
+	 * 
+	 * @param <A>             the type of {@link AbstractState} contained into
+	 *                            the analysis state
+	 * @param <H>             the type of {@link HeapDomain} contained into the
+	 *                            computed abstract state
+	 * @param <V>             the type of {@link ValueDomain} contained into the
+	 *                            computed abstract state
+	 * @param singleton       an instance of the {@link AnalysisState}
+	 *                            containing the abstract state of the analysis
+	 *                            to run, used to retrieve top and bottom values
+	 * @param startingPoints  a map between {@link Statement}s that to use as a
+	 *                            starting point of the computation (that must
+	 *                            be nodes of this cfg) and the entry states to
+	 *                            apply on it
+	 * @param interprocedural the interprocedural analysis that can be queried
+	 *                            when a call towards an other cfg is
+	 *                            encountered
+	 * @param pool            the {@link ForkJoinPool} where independent
+	 *                            portions of this cfg will be analyzed
+	 * @param widenAfter      the number of times after which the
+	 *                            {@link Lattice#lub(Lattice)} invocation gets
+	 *                            replaced by the
+	 *                            {@link Lattice#widening(Lattice)} call. Use
+	 *                            {@code 0} to <b>always</b> use
+	 *                            {@link Lattice#lub(Lattice)}
+	 * 
+	 * @return a {@link CFGWithAnalysisResults} instance that is equivalent to
+	 *             this control flow graph, and that stores for each
+	 *             {@link Statement} the result of the fixpoint computation
+	 * 
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a statement, or if some
+	 *                               starting point is not part of this cfg
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> CFGWithAnalysisResults<A, H, V> fixpoint(
+					AnalysisState<A, H, V> singleton,
+					Map<Statement, AnalysisState<A, H, V>> startingPoints,
+					InterproceduralAnalysis<A, H, V> interprocedural,
+					ForkJoinPool pool,
+					int widenAfter)
+					throws FixpointException {
+		return new CFGWithAnalysisResults<A, H, V>(this, singleton, startingPoints,
+				super.fixpoint(startingPoints, interprocedural, pool, widenAfter,
+						(st, entryState, callGraph, expressions) -> st.semantics(entryState, callGraph,
+								(StatementStore) expressions)));
+	}
+
 	@Override
 	protected <A extends AbstractState<A, H, V>,
 			H extends HeapDomain<H>,
@@ -857,6 +1576,11 @@ public class CFG extends FixpointGraph<CFG, Statement, Edge> implements CodeMemb
 		return new StatementStore<>(entrystate);
 	}
 
+	@Override
+	protected <T> Map<Statement, T> mkResultMap() {
+		return new StatementArrayMap<>(0, adjacencyMatrix.getNextOffset());
+	}
+
 	@Override
 	protected <A extends AbstractState<A, H, V>,
 			H extends HeapDomain<H>,
@@ -885,6 +1609,12 @@ public class CFG extends FixpointGraph<CFG, Statement, Edge> implements CodeMemb
 		return DotCFG.fromCFG(this, null, labelGenerator);
 	}
 
+	@Override
+	public void dump(Writer writer, Function<Statement, String> labelGenerator) throws IOException {
+		// cfgs are streamed to the writer, without building a DotCFG first
+		DotCFG.writeCFG(this, null, labelGenerator, writer);
+	}
+
 	@Override
 	protected void preSimplify(Statement node) {
 		shiftVariableScopes(node);
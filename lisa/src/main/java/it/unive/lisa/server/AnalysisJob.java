@@ -0,0 +1,107 @@
+package it.unive.lisa.server;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An analysis request received by an {@link AnalysisServer}. A job carries
+ * the source code of the program to analyze, that is parsed by the frontend
+ * of the server, and a set of options, that are used by the server to build
+ * the configuration of the analysis. Jobs are exchanged as json objects, one
+ * per line, in the form:
+ *
+ * <pre>
+ * {"id": "job1", "source": "class foo { ... }", "options": {"key": "value"}}
+ * </pre>
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class AnalysisJob {
+
+	private String id;
+
+	private String source;
+
+	private Map<String, String> options;
+
+	/**
+	 * Builds an empty job.
+	 */
+	public AnalysisJob() {
+		this(null, null, Collections.emptyMap());
+	}
+
+	/**
+	 * Builds a job.
+	 *
+	 * @param id      the identifier of the job, used to match results with
+	 *                    jobs
+	 * @param source  the source code of the program to analyze
+	 * @param options the options of the analysis
+	 */
+	public AnalysisJob(String id, String source, Map<String, String> options) {
+		this.id = id;
+		this.source = source;
+		this.options = new HashMap<>(options);
+	}
+
+	/**
+	 * Yields the identifier of this job.
+	 *
+	 * @return the identifier
+	 */
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * Sets the identifier of this job.
+	 *
+	 * @param id the identifier
+	 */
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	/**
+	 * Yields the source code of the program to analyze.
+	 *
+	 * @return the source code
+	 */
+	public String getSource() {
+		return source;
+	}
+
+	/**
+	 * Sets the source code of the program to analyze.
+	 *
+	 * @param source the source code
+	 */
+	public void setSource(String source) {
+		this.source = source;
+	}
+
+	/**
+	 * Yields the options of the analysis.
+	 *
+	 * @return the options
+	 */
+	public Map<String, String> getOptions() {
+		return options;
+	}
+
+	/**
+	 * Sets the options of the analysis.
+	 *
+	 * @param options the options
+	 */
+	public void setOptions(Map<String, String> options) {
+		this.options = options == null ? new HashMap<>() : new HashMap<>(options);
+	}
+
+	@Override
+	public String toString() {
+		return "AnalysisJob [id=" + id + ", options=" + options + "]";
+	}
+}
@@ -0,0 +1,102 @@
+package it.unive.lisa.server;
+
+import it.unive.lisa.outputs.JsonReport;
+
+/**
+ * The outcome of an {@link AnalysisJob}, sent back by an
+ * {@link AnalysisServer}. A result holds either the {@link JsonReport} of the
+ * analysis, if the job completed successfully, or the description of the
+ * error that made it fail.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class AnalysisResult {
+
+	private String id;
+
+	private JsonReport report;
+
+	private String error;
+
+	/**
+	 * Builds an empty result.
+	 */
+	public AnalysisResult() {
+		this(null, null, null);
+	}
+
+	/**
+	 * Builds a result.
+	 *
+	 * @param id     the identifier of the job
+	 * @param report the report of the analysis, or {@code null} if the job
+	 *                   failed
+	 * @param error  the description of the error, or {@code null} if the job
+	 *                   succeeded
+	 */
+	public AnalysisResult(String id, JsonReport report, String error) {
+		this.id = id;
+		this.report = report;
+		this.error = error;
+	}
+
+	/**
+	 * Yields the identifier of the job that produced this result.
+	 *
+	 * @return the identifier
+	 */
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * Sets the identifier of the job that produced this result.
+	 *
+	 * @param id the identifier
+	 */
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	/**
+	 * Yields the report of the analysis, or {@code null} if the job failed.
+	 *
+	 * @return the report
+	 */
+	public JsonReport getReport() {
+		return report;
+	}
+
+	/**
+	 * Sets the report of the analysis.
+	 *
+	 * @param report the report
+	 */
+	public void setReport(JsonReport report) {
+		this.report = report;
+	}
+
+	/**
+	 * Yields the description of the error that made the job fail, or
+	 * {@code null} if the job succeeded.
+	 *
+	 * @return the error
+	 */
+	public String getError() {
+		return error;
+	}
+
+	/**
+	 * Sets the description of the error that made the job fail.
+	 *
+	 * @param error the error
+	 */
+	public void setError(String error) {
+		this.error = error;
+	}
+
+	@Override
+	public String toString() {
+		return "AnalysisResult [id=" + id + ", report=" + report + ", error=" + error + "]";
+	}
+}
@@ -0,0 +1,294 @@
+package it.unive.lisa.server;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import it.unive.lisa.LiSA;
+import it.unive.lisa.LiSAConfiguration;
+import it.unive.lisa.caches.AnalysisContext;
+import it.unive.lisa.outputs.JsonReport;
+import it.unive.lisa.program.Program;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A long-running server that executes {@link AnalysisJob}s, reusing the same
+ * JVM (and thus loaded classes, compiled code and the classpath scan of
+ * {@link it.unive.lisa.LiSAFactory}) for all of them. Jobs are read as json
+ * objects, one per line, and the {@link AnalysisResult} of each job is
+ * written back as a json object on a single line as soon as the job
+ * completes. Jobs can be received from any stream (see
+ * {@link #serve(InputStream, OutputStream)}), e.g. the standard input, or
+ * from the connections accepted by a socket (see
+ * {@link #serve(ServerSocket)}).<br>
+ * <br>
+ * Jobs are isolated from each other: each one is analyzed by a new
+ * {@link LiSA} instance, using the configuration built for it by the server,
+ * inside a dedicated sub-directory of the workdir of the server and, unless
+ * the configuration sets one, with a new {@link AnalysisContext}, that is
+ * also used to parse the program of the job. The sub-directory of a job is
+ * deleted as soon as its result has been built, unless the server has been
+ * instructed to keep it (see
+ * {@link #AnalysisServer(Frontend, Function, String, boolean)}): since the
+ * files created by the job are deleted with it, the report of the job then
+ * lists no file. Note that when serving over the standard streams, logging
+ * should not be directed to the standard output.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class AnalysisServer {
+
+	private static final Logger log = LogManager.getLogger(AnalysisServer.class);
+
+	/**
+	 * The frontend used to build the programs to analyze from the jobs
+	 */
+	private final Frontend frontend;
+
+	/**
+	 * The function building the configuration for each job
+	 */
+	private final Function<AnalysisJob, LiSAConfiguration> configurations;
+
+	/**
+	 * The directory containing the workdirs of the jobs
+	 */
+	private final String workdir;
+
+	/**
+	 * Whether or not the workdirs of the jobs are kept after their completion
+	 */
+	private final boolean keepWorkdirs;
+
+	/**
+	 * The mapper used to read jobs and to write results
+	 */
+	private final ObjectMapper mapper;
+
+	/**
+	 * The number of jobs received so far, used to name their workdirs
+	 */
+	private final AtomicInteger jobs;
+
+	/**
+	 * A frontend building {@link Program}s from the source code of
+	 * {@link AnalysisJob}s.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	@FunctionalInterface
+	public interface Frontend {
+
+		/**
+		 * Builds the program to analyze for the given job.
+		 *
+		 * @param job the job
+		 *
+		 * @return the program
+		 *
+		 * @throws Exception if the program cannot be built
+		 */
+		Program parse(AnalysisJob job) throws Exception;
+	}
+
+	/**
+	 * Builds the server. The workdir of each job is deleted as soon as its
+	 * result has been built.
+	 *
+	 * @param frontend       the frontend used to build the programs to analyze
+	 * @param configurations the function building a new configuration for
+	 *                           each job, possibly depending on its options.
+	 *                           The workdir of the returned configurations is
+	 *                           overwritten by the server
+	 * @param workdir        the directory where the workdirs of the jobs will
+	 *                           be created
+	 */
+	public AnalysisServer(Frontend frontend, Function<AnalysisJob, LiSAConfiguration> configurations,
+			String workdir) {
+		this(frontend, configurations, workdir, false);
+	}
+
+	/**
+	 * Builds the server.
+	 *
+	 * @param frontend       the frontend used to build the programs to analyze
+	 * @param configurations the function building a new configuration for
+	 *                           each job, possibly depending on its options.
+	 *                           The workdir of the returned configurations is
+	 *                           overwritten by the server
+	 * @param workdir        the directory where the workdirs of the jobs will
+	 *                           be created
+	 * @param keepWorkdirs   whether or not the workdir of each job, named
+	 *                           {@code job<n>} where {@code n} is the number
+	 *                           of jobs received so far, should be kept after
+	 *                           the job completes, so that the files listed in
+	 *                           its report can be read. If {@code true}, the
+	 *                           workdirs have to be deleted by the caller
+	 */
+	public AnalysisServer(Frontend frontend, Function<AnalysisJob, LiSAConfiguration> configurations,
+			String workdir, boolean keepWorkdirs) {
+		this.frontend = frontend;
+		this.configurations = configurations;
+		this.workdir = workdir;
+		this.keepWorkdirs = keepWorkdirs;
+		this.mapper = new ObjectMapper();
+		this.mapper.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+		this.jobs = new AtomicInteger();
+	}
+
+	/**
+	 * Executes the given job. Unless the server keeps the workdirs of the
+	 * jobs, the one of {@code job} is deleted before this method returns, and
+	 * the files it contained are not listed in the report of the job.
+	 *
+	 * @param job the job to execute
+	 *
+	 * @return the result of the job
+	 */
+	public AnalysisResult process(AnalysisJob job) {
+		String dir = Paths.get(workdir, "job" + jobs.incrementAndGet()).toString();
+		try {
+			LiSAConfiguration conf = configurations.apply(job);
+			conf.setWorkdir(dir);
+			if (conf.getAnalysisContext() == null)
+				conf.setAnalysisContext(new AnalysisContext());
+			// the program is parsed inside the context of the job, since the
+			// default one is reset at the end of each run
+			Program program = conf.getAnalysisContext().wrap(() -> frontend.parse(job)).call();
+			LiSA lisa = new LiSA(conf);
+			lisa.run(program);
+			Collection<String> files = keepWorkdirs ? lisa.getCreatedFiles() : Collections.emptyList();
+			return new AnalysisResult(job.getId(), new JsonReport(lisa.getWarnings(), files), null);
+		} catch (Exception e) {
+			log.error("Job " + job.getId() + " failed", e);
+			return new AnalysisResult(job.getId(), null, e.getClass().getSimpleName() + ": " + e.getMessage());
+		} finally {
+			if (!keepWorkdirs)
+				try {
+					FileUtils.deleteDirectory(new File(dir));
+				} catch (IOException e) {
+					log.warn("Unable to delete the workdir of job " + job.getId(), e);
+				}
+		}
+	}
+
+	/**
+	 * Executes all the jobs read from the given stream, writing their results
+	 * to the given one. This method returns when the end of the input is
+	 * reached. Neither of the streams is closed.
+	 *
+	 * @param input  the stream where jobs are read from
+	 * @param output the stream where results are written to
+	 *
+	 * @throws IOException if an error happens while reading or writing
+	 */
+	public void serve(InputStream input, OutputStream output) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+		Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+		String line;
+		while ((line = reader.readLine()) != null) {
+			if (line.isBlank())
+				continue;
+
+			AnalysisResult result;
+			try {
+				result = process(mapper.readValue(line, AnalysisJob.class));
+			} catch (IOException e) {
+				log.error("Unable to read job", e);
+				result = new AnalysisResult(null, null, "Malformed job: " + e.getMessage());
+			}
+
+			mapper.writeValue(writer, result);
+			writer.write('\n');
+			writer.flush();
+		}
+	}
+
+	/**
+	 * Accepts connections from the given socket, executing the jobs received
+	 * through each connection (see {@link #serve(InputStream, OutputStream)}).
+	 * At most one connection for each available processor is served at the
+	 * same time (see {@link #serve(ServerSocket, int)}). This method returns
+	 * when the socket is closed.
+	 *
+	 * @param socket the socket accepting connections
+	 *
+	 * @throws IOException if an error happens while accepting connections
+	 */
+	public void serve(ServerSocket socket) throws IOException {
+		serve(socket, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Accepts connections from the given socket, executing the jobs received
+	 * through each connection (see {@link #serve(InputStream, OutputStream)}).
+	 * Connections are served by a pool of {@code maxConnections} threads, and
+	 * each one is closed when the client stops sending jobs. While all the
+	 * threads are busy, no connection is accepted: new clients wait in the
+	 * backlog of the socket. This method returns when the socket is closed.
+	 *
+	 * @param socket         the socket accepting connections
+	 * @param maxConnections the maximum number of connections served at the
+	 *                           same time
+	 *
+	 * @throws IOException if an error happens while accepting connections
+	 */
+	public void serve(ServerSocket socket, int maxConnections) throws IOException {
+		AtomicInteger workers = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(maxConnections, task -> {
+			Thread worker = new Thread(task, "lisa-server-" + workers.incrementAndGet());
+			worker.setDaemon(true);
+			return worker;
+		});
+		Semaphore available = new Semaphore(maxConnections);
+
+		try {
+			while (!socket.isClosed()) {
+				available.acquireUninterruptibly();
+				Socket connection;
+				try {
+					connection = socket.accept();
+				} catch (SocketException e) {
+					available.release();
+					if (socket.isClosed())
+						return;
+					throw e;
+				}
+
+				executor.execute(() -> {
+					try (Socket c = connection) {
+						serve(c.getInputStream(), c.getOutputStream());
+					} catch (IOException e) {
+						log.error("Error while serving " + connection.getRemoteSocketAddress(), e);
+					} finally {
+						available.release();
+					}
+				});
+			}
+		} finally {
+			// connections being served are completed
+			executor.shutdown();
+		}
+	}
+}
@@ -5,20 +5,63 @@ import it.unive.lisa.program.annotations.Annotation;
 import it.unive.lisa.program.annotations.Annotations;
 import it.unive.lisa.type.Type;
 import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * An identifier of a program variable, representing either a program variable
  * (as an instance of {@link Variable}), or a resolved memory location (as an
- * instance of {@link HeapLocation}).
+ * instance of {@link HeapLocation}).<br>
+ * <br>
+ * Each distinct identifier (w.r.t. {@link #equals(Object)}) is assigned a
+ * numerical id by a global intern table, available through
+ * {@link #getInternId()}. Ids are assigned lazily and never change, and they
+ * can be used to sort or index identifiers. Once two identifiers have been
+ * assigned their ids, comparing them for equality does not need to compare
+ * their names. The intern table only holds weak references: an entry is
+ * released as soon as no identifier equal to it is reachable, so that the
+ * table does not grow with the identifiers of analyses that have already
+ * completed. The table is a {@link ConcurrentHashMap}, and ids are drawn from
+ * an atomic counter, so that threads interning different identifiers do not
+ * contend on a global lock.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
 public abstract class Identifier extends ValueExpression {
 
 	/**
-	 * The name of the identifier
+	 * The intern table, where each entry weakly references the canonical
+	 * instance of a distinct identifier, together with its id. Every interned
+	 * identifier keeps its canonical instance alive through
+	 * {@link #canonical}.
 	 */
-	private final String name;
+	private static final ConcurrentMap<InternEntry, InternEntry> INTERNED = new ConcurrentHashMap<>();
+
+	/**
+	 * The queue where the entries of {@link #INTERNED} whose canonical
+	 * instance has been collected are enqueued
+	 */
+	private static final ReferenceQueue<Identifier> RELEASED = new ReferenceQueue<>();
+
+	/**
+	 * The next id to assign
+	 */
+	private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+	/**
+	 * The value of {@link #id} before the id is assigned
+	 */
+	private static final int NO_ID = -1;
+
+	/**
+	 * The name of the identifier, lazily built through {@link #buildName()}
+	 * if it has not been provided when building the identifier
+	 */
+	private String name;
 
 	/**
 	 * Whether or not this identifier is weak, meaning that it should only
@@ -28,6 +71,22 @@ public abstract class Identifier extends ValueExpression {
 
 	private Annotations annotations;
 
+	/**
+	 * The id of this identifier, lazily retrieved from the intern table
+	 */
+	private int id = NO_ID;
+
+	/**
+	 * The canonical instance holding the id of this identifier, referenced
+	 * to keep its entry in the intern table alive
+	 */
+	private Identifier canonical;
+
+	/**
+	 * The cached hash code of this identifier, {@code 0} if not yet computed
+	 */
+	private int hash;
+
 	/**
 	 * Builds the identifier.
 	 * 
@@ -40,6 +99,18 @@ public abstract class Identifier extends ValueExpression {
 		this(types, name, weak, new Annotations());
 	}
 
+	/**
+	 * Builds the identifier, whose name will be built through
+	 * {@link #buildName()} the first time it is requested.
+	 * 
+	 * @param types the runtime types of this expression
+	 * @param weak  whether or not this identifier is weak, meaning that it
+	 *                  should only receive weak assignments
+	 */
+	protected Identifier(ExternalSet<Type> types, boolean weak) {
+		this(types, null, weak, new Annotations());
+	}
+
 	/**
 	 * Builds the identifier.
 	 * 
@@ -62,7 +133,24 @@ public abstract class Identifier extends ValueExpression {
 	 * @return the name
 	 */
 	public String getName() {
-		return name;
+		String result = name;
+		if (result == null) {
+			result = buildName();
+			name = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Builds the name of this identifier. This is invoked by
+	 * {@link #getName()} on identifiers built without a name, and it must
+	 * always yield the same name for the same identifier. The default
+	 * implementation yields {@code null}.
+	 * 
+	 * @return the name of this identifier
+	 */
+	protected String buildName() {
+		return null;
 	}
 
 	/**
@@ -78,13 +166,90 @@ public abstract class Identifier extends ValueExpression {
 		return weak;
 	}
 
+	/**
+	 * Yields the numerical id of this identifier. Two identifiers have
+	 * the same id if and only if they are equal. The id is assigned the first
+	 * time this method is invoked on an identifier equal to this one, and ids
+	 * are assigned in increasing order starting from {@code 0}. Ids of entries
+	 * released from the intern table are not reused. This method is
+	 * thread-safe.
+	 * 
+	 * @return the id of this identifier
+	 */
+	public final int getInternId() {
+		int result = id;
+		if (result == NO_ID) {
+			Identifier interned = intern();
+			canonical = interned;
+			result = interned.id;
+			id = result;
+		}
+		return result;
+	}
+
+	private Identifier intern() {
+		for (Reference<? extends Identifier> released; (released = RELEASED.poll()) != null;)
+			INTERNED.remove(released);
+
+		InternEntry candidate = new InternEntry(this);
+		while (true) {
+			// the id is drawn only if this identifier is not interned yet
+			InternEntry entry = INTERNED.computeIfAbsent(candidate, k -> candidate.assignId());
+			Identifier interned = entry.get();
+			if (interned != null)
+				return interned;
+			// the canonical instance has been collected after the lookup
+			INTERNED.remove(entry, entry);
+		}
+	}
+
+	/**
+	 * Yields the number of ids that have been assigned through
+	 * {@link #getInternId()}, including the ones of entries that have been
+	 * released from the intern table. All ids are lower than this value.
+	 * 
+	 * @return the number of assigned ids
+	 */
+	public static int getInternedCount() {
+		return NEXT_ID.get();
+	}
+
+	/**
+	 * Yields {@code true} if both this identifier and {@code other} have been
+	 * assigned an id, meaning that they can be compared through their ids.
+	 * 
+	 * @param other the other identifier
+	 * 
+	 * @return whether or not ids can be used to compare the two identifiers
+	 */
+	protected final boolean haveIds(Identifier other) {
+		return id != NO_ID && other.id != NO_ID;
+	}
+
+	/**
+	 * Yields {@code true} if this identifier and {@code other} have the same
+	 * id. This is meaningful only if {@link #haveIds(Identifier)} holds.
+	 * 
+	 * @param other the other identifier
+	 * 
+	 * @return whether or not the two identifiers have the same id
+	 */
+	protected final boolean sameId(Identifier other) {
+		return id == other.id;
+	}
+
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		// we do not call super here since variables should be uniquely
-		// identified by their name, regardless of their type
-		int result = 1;
-		result = prime * result + ((name == null) ? 0 : name.hashCode());
+		int result = hash;
+		if (result == 0) {
+			final int prime = 31;
+			// we do not call super here since variables should be uniquely
+			// identified by their name, regardless of their type
+			result = 1;
+			String name = getName();
+			result = prime * result + ((name == null) ? 0 : name.hashCode());
+			hash = result;
+		}
 		return result;
 	}
 
@@ -94,15 +259,18 @@ public abstract class Identifier extends ValueExpression {
 			return true;
 		if (obj == null)
 			return false;
+		if (obj instanceof Identifier && haveIds((Identifier) obj))
+			return sameId((Identifier) obj);
 		// we do not call super here since variables should be uniquely
 		// identified by their name, regardless of their type
 		if (getClass() != obj.getClass())
 			return false;
 		Identifier other = (Identifier) obj;
+		String name = getName();
 		if (name == null) {
-			if (other.name != null)
+			if (other.getName() != null)
 				return false;
-		} else if (!name.equals(other.name))
+		} else if (!name.equals(other.getName()))
 			return false;
 		return true;
 	}
@@ -140,4 +308,46 @@ public abstract class Identifier extends ValueExpression {
 					+ "' and '" + other + "'");
 		return this;
 	}
+
+	/**
+	 * An entry of the intern table, weakly referencing the canonical instance
+	 * of an identifier. Two entries are equal if their canonical instances are
+	 * equal, while entries whose instance has been collected are only equal to
+	 * themselves.
+	 * 
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	private static final class InternEntry extends WeakReference<Identifier> {
+
+		private final int hash;
+
+		private InternEntry(Identifier id) {
+			super(id, RELEASED);
+			this.hash = id.hashCode();
+		}
+
+		/**
+		 * Assigns the next id to the identifier referenced by this entry,
+		 * that is still reachable from the thread interning it.
+		 */
+		private InternEntry assignId() {
+			get().id = NEXT_ID.getAndIncrement();
+			return this;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof InternEntry))
+				return false;
+			Identifier mine = get();
+			return mine != null && mine.equals(((InternEntry) obj).get());
+		}
+	}
 }
@@ -16,6 +16,11 @@ public class OutOfScopeIdentifier extends Identifier {
 	private ScopeToken scope;
 	private Identifier id;
 
+	/**
+	 * The cached hash code of this identifier, {@code 0} if not yet computed
+	 */
+	private int hash;
+
 	/**
 	 * Builds the identifier outside the scope.
 	 *
@@ -23,7 +28,8 @@ public class OutOfScopeIdentifier extends Identifier {
 	 * @param scope the method call that caused the identifier to exit the scope
 	 */
 	public OutOfScopeIdentifier(Identifier id, ScopeToken scope) {
-		super(id.getTypes(), scope.toString() + ":" + id.getName(), id.isWeak());
+		// the name is built only when requested
+		super(id.getTypes(), id.isWeak());
 		this.id = id;
 		this.scope = scope;
 	}
@@ -34,10 +40,17 @@ public class OutOfScopeIdentifier extends Identifier {
 			return true;
 		if (o == null || getClass() != o.getClass())
 			return false;
-		if (!super.equals(o))
-			return false;
 		OutOfScopeIdentifier that = (OutOfScopeIdentifier) o;
-		return Objects.equals(scope, that.scope);
+		if (haveIds(that))
+			return sameId(that);
+		// this is equivalent to comparing the names, without building them
+		return Objects.equals(scope, that.scope) && id.getName().equals(that.id.getName())
+				&& scope.toString().equals(that.scope.toString());
+	}
+
+	@Override
+	protected String buildName() {
+		return scope.toString() + ":" + id.getName();
 	}
 
 	@Override
@@ -65,7 +78,12 @@ public class OutOfScopeIdentifier extends Identifier {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(super.hashCode(), scope);
+		int result = hash;
+		if (result == 0) {
+			result = Objects.hash(id.getName(), scope);
+			hash = result;
+		}
+		return result;
 	}
 
 	@Override
@@ -0,0 +1,132 @@
+package it.unive.lisa.util.collections;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A pool of canonical instances, used to hash-cons immutable objects: each
+ * object is passed through {@link #intern(Object)} right after its creation,
+ * and the instance returned by that method is used in its place. As a result,
+ * no two distinct instances built through the same pool are equal, and
+ * {@code ==} can be used instead of {@link Object#equals(Object)} to compare
+ * them.<br>
+ * <br>
+ * This is meant for abstract values (e.g., subclasses of
+ * {@link it.unive.lisa.analysis.nonrelational.value.BaseNonRelationalValueDomain}
+ * or {@link it.unive.lisa.analysis.nonrelational.inference.BaseInferredValue})
+ * that are created over and over during an analysis while only few of them
+ * are distinct: since {@link it.unive.lisa.analysis.BaseLattice} tests for
+ * identity before invoking {@link Object#equals(Object)}, comparisons between
+ * hash-consed values seldom need to compare their contents. Objects stored in
+ * a pool must be immutable, and their {@link Object#equals(Object)} and
+ * {@link Object#hashCode()} must compare their contents, as they are used to
+ * find the canonical instance. The cost of structural comparisons is paid
+ * only during interning: an {@link Object#equals(Object)} implementation can
+ * return {@code true} as soon as the two objects are the same instance, and
+ * it can avoid comparing the contents of objects whose (precomputed) hash
+ * codes differ.<br>
+ * <br>
+ * Instances of this class are thread-safe. The pool only holds weak
+ * references to its canonical instances: an instance is evicted as soon as it
+ * is no longer reachable, and since no other instance equal to it can be
+ * reachable at that point, the next equal object that is interned becomes
+ * the new canonical instance.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <T> the type of objects stored in this pool
+ */
+public class HashConsingPool<T> {
+
+	private final ConcurrentMap<Entry<T>, Entry<T>> pool;
+
+	/**
+	 * The queue where the entries whose instance has been collected are
+	 * enqueued
+	 */
+	private final ReferenceQueue<T> released;
+
+	/**
+	 * Builds an empty pool.
+	 */
+	public HashConsingPool() {
+		pool = new ConcurrentHashMap<>();
+		released = new ReferenceQueue<>();
+	}
+
+	/**
+	 * Yields the canonical instance equal to the given object. If no such
+	 * instance exists, {@code value} becomes the canonical one.
+	 *
+	 * @param value the object to intern
+	 *
+	 * @return the canonical instance equal to {@code value}
+	 */
+	public T intern(T value) {
+		expunge();
+		Entry<T> candidate = new Entry<>(value, released);
+		while (true) {
+			Entry<T> entry = pool.putIfAbsent(candidate, candidate);
+			if (entry == null)
+				return value;
+			T canonical = entry.get();
+			if (canonical != null)
+				return canonical;
+			// the canonical instance has been collected after the lookup
+			pool.remove(entry, entry);
+		}
+	}
+
+	/**
+	 * Yields the number of canonical instances stored in this pool. Instances
+	 * that have just become unreachable might still be counted.
+	 *
+	 * @return the number of instances
+	 */
+	public int size() {
+		expunge();
+		return pool.size();
+	}
+
+	private void expunge() {
+		for (Reference<? extends T> entry; (entry = released.poll()) != null;)
+			pool.remove(entry);
+	}
+
+	/**
+	 * An entry of the pool, weakly referencing a canonical instance. Two
+	 * entries are equal if their instances are equal, while entries whose
+	 * instance has been collected are only equal to themselves.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 *
+	 * @param <T> the type of the referenced instance
+	 */
+	private static final class Entry<T> extends WeakReference<T> {
+
+		private final int hash;
+
+		private Entry(T value, ReferenceQueue<T> queue) {
+			super(value, queue);
+			this.hash = value.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Entry))
+				return false;
+			T mine = get();
+			return mine != null && mine.equals(((Entry<?>) obj).get());
+		}
+	}
+}
@@ -0,0 +1,128 @@
+package it.unive.lisa.util.collections;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A cache with a bounded number of entries. When a new entry is added to a
+ * full cache, the least recently used entry is evicted. The cache keeps track
+ * of how many lookups found the requested key (<i>hits</i>) and how many did
+ * not (<i>misses</i>), so that its size can be tuned. Instances of this class
+ * are not thread-safe.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class LRUCache<K, V> {
+
+	/**
+	 * The entries, sorted from the least recently used to the most recently
+	 * used
+	 */
+	private final Map<K, V> entries;
+
+	private final int maxSize;
+
+	private long hits;
+
+	private long misses;
+
+	/**
+	 * Builds the cache.
+	 *
+	 * @param maxSize the maximum number of entries that this cache can hold;
+	 *                    if zero or negative, the cache does not store any
+	 *                    entry
+	 */
+	public LRUCache(int maxSize) {
+		this.maxSize = Math.max(0, maxSize);
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				return size() > LRUCache.this.maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Yields the value associated with the given key, marking the entry as
+	 * the most recently used one. Returns {@code null} if no such value
+	 * exists.
+	 *
+	 * @param key the key
+	 *
+	 * @return the value associated with {@code key}, or {@code null}
+	 */
+	public V get(K key) {
+		V value = entries.get(key);
+		if (value == null)
+			misses++;
+		else
+			hits++;
+		return value;
+	}
+
+	/**
+	 * Associates the given value to the given key, evicting the least
+	 * recently used entry if the cache is full.
+	 *
+	 * @param key   the key
+	 * @param value the value
+	 */
+	public void put(K key, V value) {
+		if (maxSize > 0)
+			entries.put(key, value);
+	}
+
+	/**
+	 * Yields the number of entries currently stored in this cache.
+	 *
+	 * @return the number of entries
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Yields the maximum number of entries that this cache can hold.
+	 *
+	 * @return the maximum size
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Yields the number of calls to {@link #get(Object)} that found a value.
+	 *
+	 * @return the number of hits
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Yields the number of calls to {@link #get(Object)} that did not find a
+	 * value.
+	 *
+	 * @return the number of misses
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Removes all the entries of this cache, and resets the hit and miss
+	 * counters.
+	 */
+	public void clear() {
+		entries.clear();
+		hits = 0;
+		misses = 0;
+	}
+}
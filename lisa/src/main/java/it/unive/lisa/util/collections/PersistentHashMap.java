@@ -0,0 +1,700 @@
+package it.unive.lisa.util.collections;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A {@link Map} backed by a persistent hash array mapped trie. The trie is
+ * never modified in place: each update creates a new version of the nodes
+ * along the path to the updated key, sharing all the other nodes with the
+ * previous version. As a consequence, copying an instance of this class
+ * through {@link #PersistentHashMap(Map)} takes constant time, and each
+ * update on the copy (or on the original map) takes time and memory
+ * logarithmic in the size of the map, while the two maps keep sharing most of
+ * their structure. This makes this class well suited for functions that are
+ * copied and then slightly modified, as it happens in abstract environments.
+ * Maps that are built from scratch, instead, should be created through a
+ * {@link Builder}, that creates each node of the trie exactly once.<br>
+ * <br>
+ * The entries returned while iterating over this map are immutable. Instances
+ * of this class are not thread-safe, but different copies can be used by
+ * different threads.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+
+	/**
+	 * The number of hash bits consumed at each level of the trie
+	 */
+	private static final int BITS = 5;
+
+	/**
+	 * The mask selecting the hash bits of a single level
+	 */
+	private static final int MASK = (1 << BITS) - 1;
+
+	private Node<K, V> root;
+
+	private int size;
+
+	/**
+	 * Builds an empty map.
+	 */
+	public PersistentHashMap() {
+		this.root = null;
+		this.size = 0;
+	}
+
+	/**
+	 * Builds a map containing the same mappings of the given one. If
+	 * {@code other} is an instance of this class, its structure is shared
+	 * with the new map and the copy takes constant time. Otherwise, the trie
+	 * is built through a {@link Builder}.
+	 *
+	 * @param other the map to copy
+	 */
+	@SuppressWarnings("unchecked")
+	public PersistentHashMap(Map<? extends K, ? extends V> other) {
+		PersistentHashMap<K, V> o;
+		if (other instanceof PersistentHashMap)
+			o = (PersistentHashMap<K, V>) other;
+		else {
+			Builder<K, V> builder = new Builder<>(other.size());
+			for (Entry<? extends K, ? extends V> e : other.entrySet())
+				builder.put(e.getKey(), e.getValue());
+			o = builder.build();
+		}
+		this.root = o.root;
+		this.size = o.size;
+	}
+
+	private static int hash(Object key) {
+		return key == null ? 0 : key.hashCode();
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return root != null && root.find(key, hash(key), 0) != null;
+	}
+
+	@Override
+	public V get(Object key) {
+		if (root == null)
+			return null;
+		Leaf<K, V> leaf = root.find(key, hash(key), 0);
+		return leaf == null ? null : leaf.value;
+	}
+
+	@Override
+	public V put(K key, V value) {
+		int hash = hash(key);
+		Leaf<K, V> previous = root == null ? null : root.find(key, hash, 0);
+		if (root == null)
+			root = new Leaf<>(hash, key, value);
+		else
+			root = root.put(hash, key, value, 0);
+		if (previous == null) {
+			size++;
+			return null;
+		}
+		return previous.value;
+	}
+
+	@Override
+	public V remove(Object key) {
+		if (root == null)
+			return null;
+		int hash = hash(key);
+		Leaf<K, V> previous = root.find(key, hash, 0);
+		if (previous == null)
+			return null;
+		root = root.remove(key, hash, 0);
+		size--;
+		return previous.value;
+	}
+
+	@Override
+	public void clear() {
+		root = null;
+		size = 0;
+	}
+
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		return new AbstractSet<>() {
+
+			@Override
+			public Iterator<Entry<K, V>> iterator() {
+				return new EntryIterator();
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				if (!(o instanceof Entry))
+					return false;
+				Entry<?, ?> e = (Entry<?, ?>) o;
+				Leaf<K, V> leaf = root == null ? null : root.find(e.getKey(), hash(e.getKey()), 0);
+				return leaf != null && Objects.equals(leaf.value, e.getValue());
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+
+			@Override
+			public void clear() {
+				PersistentHashMap.this.clear();
+			}
+		};
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o instanceof PersistentHashMap) {
+			PersistentHashMap<?, ?> other = (PersistentHashMap<?, ?>) o;
+			if (root == other.root)
+				// shared structure
+				return true;
+			if (size != other.size)
+				return false;
+		}
+		return super.equals(o);
+	}
+
+	/**
+	 * A builder of {@link PersistentHashMap}s. Mappings are first collected,
+	 * and the trie is then built bottom-up when {@link #build()} is invoked,
+	 * creating each of its nodes exactly once. Instead, filling an empty map
+	 * through {@link PersistentHashMap#put(Object, Object)} copies the whole
+	 * path to the updated key at each insertion. If the same key is added more
+	 * than once, the last value added wins. Instances of this class are not
+	 * thread-safe.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 *
+	 * @param <K> the type of the keys
+	 * @param <V> the type of the values
+	 */
+	public static final class Builder<K, V> {
+
+		private Leaf<K, V>[] leaves;
+
+		private int size;
+
+		/**
+		 * The number of leaves that have been replaced by a later one with the
+		 * same key while building the trie
+		 */
+		private int replaced;
+
+		/**
+		 * Builds an empty builder.
+		 */
+		public Builder() {
+			this(8);
+		}
+
+		/**
+		 * Builds an empty builder, able to hold the given number of mappings
+		 * without resizing.
+		 *
+		 * @param expected the expected number of mappings
+		 */
+		public Builder(int expected) {
+			this.leaves = newLeaves(Math.max(1, expected));
+			this.size = 0;
+		}
+
+		/**
+		 * Adds a mapping to the map being built.
+		 *
+		 * @param key   the key
+		 * @param value the value
+		 *
+		 * @return this builder
+		 */
+		public Builder<K, V> put(K key, V value) {
+			if (size == leaves.length)
+				leaves = Arrays.copyOf(leaves, size * 2);
+			leaves[size++] = new Leaf<>(hash(key), key, value);
+			return this;
+		}
+
+		/**
+		 * Builds the map containing all the mappings added to this builder.
+		 * The builder must not be used afterwards.
+		 *
+		 * @return the map
+		 */
+		public PersistentHashMap<K, V> build() {
+			PersistentHashMap<K, V> result = new PersistentHashMap<>();
+			if (size == 0)
+				return result;
+			replaced = 0;
+			result.root = build(newLeaves(size), 0, size, 0);
+			result.size = size - replaced;
+			return result;
+		}
+
+		/**
+		 * Builds the node holding the leaves in {@code [from, to)}, that all
+		 * share the hash bits consumed by the levels above {@code shift}.
+		 * {@code tmp} is a scratch array as long as {@link #leaves}.
+		 */
+		private Node<K, V> build(Leaf<K, V>[] tmp, int from, int to, int shift) {
+			if (to - from == 1)
+				return leaves[from];
+
+			int hash = leaves[from].hash;
+			boolean single = true;
+			for (int i = from + 1; i < to && single; i++)
+				single = leaves[i].hash == hash;
+			if (single)
+				return collision(hash, from, to);
+
+			// stable counting sort of the range by the hash bits of this
+			// level, so that later leaves still follow earlier ones
+			int[] starts = new int[MASK + 2];
+			for (int i = from; i < to; i++)
+				starts[((leaves[i].hash >>> shift) & MASK) + 1]++;
+			for (int b = 0; b <= MASK; b++)
+				starts[b + 1] += starts[b];
+			int[] next = starts.clone();
+			for (int i = from; i < to; i++)
+				tmp[from + next[(leaves[i].hash >>> shift) & MASK]++] = leaves[i];
+			System.arraycopy(tmp, from, leaves, from, to - from);
+
+			int bitmap = 0;
+			for (int b = 0; b <= MASK; b++)
+				if (starts[b + 1] > starts[b])
+					bitmap |= 1 << b;
+			Node<K, V>[] children = newNodes(Integer.bitCount(bitmap));
+			int c = 0;
+			for (int b = 0; b <= MASK; b++)
+				if (starts[b + 1] > starts[b])
+					children[c++] = build(tmp, from + starts[b], from + starts[b + 1], shift + BITS);
+			return new BitmapNode<>(bitmap, children);
+		}
+
+		/**
+		 * Builds the node holding the leaves in {@code [from, to)}, that all
+		 * have the given hash, keeping only the last leaf of each key.
+		 */
+		private Node<K, V> collision(int hash, int from, int to) {
+			Leaf<K, V>[] distinct = newLeaves(to - from);
+			int n = 0;
+			for (int i = from; i < to; i++) {
+				int j = 0;
+				while (j < n && !Objects.equals(distinct[j].key, leaves[i].key))
+					j++;
+				if (j < n)
+					replaced++;
+				else
+					n++;
+				distinct[j] = leaves[i];
+			}
+
+			if (n == 1)
+				return distinct[0];
+			return new CollisionNode<>(hash, n == distinct.length ? distinct : Arrays.copyOf(distinct, n));
+		}
+	}
+
+	/**
+	 * An iterator over the leaves of a version of the trie. Since the trie is
+	 * never modified in place, removals performed through
+	 * {@link #remove()} do not affect the iteration.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	private class EntryIterator implements Iterator<Entry<K, V>> {
+
+		private final Deque<Node<K, V>> stack = new ArrayDeque<>();
+
+		private Leaf<K, V> next;
+
+		private Leaf<K, V> last;
+
+		private EntryIterator() {
+			if (root != null)
+				stack.push(root);
+			advance();
+		}
+
+		private void advance() {
+			next = null;
+			while (next == null && !stack.isEmpty()) {
+				Node<K, V> node = stack.pop();
+				if (node instanceof Leaf)
+					next = (Leaf<K, V>) node;
+				else
+					node.pushChildren(stack);
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public Entry<K, V> next() {
+			if (next == null)
+				throw new NoSuchElementException();
+			last = next;
+			advance();
+			return last;
+		}
+
+		@Override
+		public void remove() {
+			if (last == null)
+				throw new IllegalStateException();
+			PersistentHashMap.this.remove(last.key);
+			last = null;
+		}
+	}
+
+	/**
+	 * A node of the trie. Nodes are immutable: update operations return a new
+	 * node, or the same node if the update does not change the mappings.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 *
+	 * @param <K> the type of the keys
+	 * @param <V> the type of the values
+	 */
+	private abstract static class Node<K, V> {
+
+		abstract Leaf<K, V> find(Object key, int hash, int shift);
+
+		abstract Node<K, V> put(int hash, K key, V value, int shift);
+
+		/**
+		 * Removes the given key, that must be contained in this node.
+		 * Yields {@code null} if the node becomes empty.
+		 */
+		abstract Node<K, V> remove(Object key, int hash, int shift);
+
+		abstract void pushChildren(Deque<Node<K, V>> stack);
+
+		/**
+		 * Whether or not this node stores a single hash, and can thus be
+		 * moved to a different level of the trie.
+		 */
+		abstract boolean isSingleHash();
+
+		abstract int singleHash();
+	}
+
+	/**
+	 * Builds a node containing both the given nodes, that store different
+	 * hashes.
+	 */
+	private static <K, V> Node<K, V> merge(Node<K, V> first, Node<K, V> second, int shift) {
+		int i1 = (first.singleHash() >>> shift) & MASK;
+		int i2 = (second.singleHash() >>> shift) & MASK;
+		if (i1 == i2) {
+			Node<K, V>[] children = newNodes(1);
+			children[0] = merge(first, second, shift + BITS);
+			return new BitmapNode<>(1 << i1, children);
+		}
+
+		Node<K, V>[] children = newNodes(2);
+		children[i1 < i2 ? 0 : 1] = first;
+		children[i1 < i2 ? 1 : 0] = second;
+		return new BitmapNode<>((1 << i1) | (1 << i2), children);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <K, V> Node<K, V>[] newNodes(int length) {
+		return (Node<K, V>[]) new Node<?, ?>[length];
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <K, V> Leaf<K, V>[] newLeaves(int length) {
+		return (Leaf<K, V>[]) new Leaf<?, ?>[length];
+	}
+
+	private static final class Leaf<K, V> extends Node<K, V> implements Entry<K, V> {
+
+		private final int hash;
+
+		private final K key;
+
+		private final V value;
+
+		private Leaf(int hash, K key, V value) {
+			this.hash = hash;
+			this.key = key;
+			this.value = value;
+		}
+
+		private boolean matches(Object key, int hash) {
+			return this.hash == hash && Objects.equals(this.key, key);
+		}
+
+		@Override
+		Leaf<K, V> find(Object key, int hash, int shift) {
+			return matches(key, hash) ? this : null;
+		}
+
+		@Override
+		Node<K, V> put(int hash, K key, V value, int shift) {
+			if (matches(key, hash))
+				return this.value == value ? this : new Leaf<>(hash, key, value);
+			Leaf<K, V> added = new Leaf<>(hash, key, value);
+			if (this.hash != hash)
+				return merge(this, added, shift);
+
+			Leaf<K, V>[] leaves = newLeaves(2);
+			leaves[0] = this;
+			leaves[1] = added;
+			return new CollisionNode<>(hash, leaves);
+		}
+
+		@Override
+		Node<K, V> remove(Object key, int hash, int shift) {
+			return null;
+		}
+
+		@Override
+		void pushChildren(Deque<Node<K, V>> stack) {
+		}
+
+		@Override
+		boolean isSingleHash() {
+			return true;
+		}
+
+		@Override
+		int singleHash() {
+			return hash;
+		}
+
+		@Override
+		public K getKey() {
+			return key;
+		}
+
+		@Override
+		public V getValue() {
+			return value;
+		}
+
+		@Override
+		public V setValue(V value) {
+			throw new UnsupportedOperationException("Entries of a persistent map cannot be modified");
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Entry))
+				return false;
+			Entry<?, ?> e = (Entry<?, ?>) o;
+			return Objects.equals(key, e.getKey()) && Objects.equals(value, e.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return hash ^ Objects.hashCode(value);
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + value;
+		}
+	}
+
+	/**
+	 * A node holding entries whose keys have the same hash.
+	 */
+	private static final class CollisionNode<K, V> extends Node<K, V> {
+
+		private final int hash;
+
+		private final Leaf<K, V>[] leaves;
+
+		private CollisionNode(int hash, Leaf<K, V>[] leaves) {
+			this.hash = hash;
+			this.leaves = leaves;
+		}
+
+		private int indexOf(Object key) {
+			for (int i = 0; i < leaves.length; i++)
+				if (Objects.equals(leaves[i].key, key))
+					return i;
+			return -1;
+		}
+
+		@Override
+		Leaf<K, V> find(Object key, int hash, int shift) {
+			if (this.hash != hash)
+				return null;
+			int idx = indexOf(key);
+			return idx == -1 ? null : leaves[idx];
+		}
+
+		@Override
+		Node<K, V> put(int hash, K key, V value, int shift) {
+			Leaf<K, V> added = new Leaf<>(hash, key, value);
+			if (this.hash != hash)
+				return merge(this, added, shift);
+
+			int idx = indexOf(key);
+			Leaf<K, V>[] copy;
+			if (idx == -1) {
+				copy = newLeaves(leaves.length + 1);
+				System.arraycopy(leaves, 0, copy, 0, leaves.length);
+				copy[leaves.length] = added;
+			} else {
+				if (leaves[idx].value == value)
+					return this;
+				copy = leaves.clone();
+				copy[idx] = added;
+			}
+			return new CollisionNode<>(hash, copy);
+		}
+
+		@Override
+		Node<K, V> remove(Object key, int hash, int shift) {
+			int idx = indexOf(key);
+			if (leaves.length == 2)
+				return leaves[1 - idx];
+			Leaf<K, V>[] copy = newLeaves(leaves.length - 1);
+			System.arraycopy(leaves, 0, copy, 0, idx);
+			System.arraycopy(leaves, idx + 1, copy, idx, leaves.length - idx - 1);
+			return new CollisionNode<>(hash, copy);
+		}
+
+		@Override
+		void pushChildren(Deque<Node<K, V>> stack) {
+			for (Leaf<K, V> leaf : leaves)
+				stack.push(leaf);
+		}
+
+		@Override
+		boolean isSingleHash() {
+			return true;
+		}
+
+		@Override
+		int singleHash() {
+			return hash;
+		}
+	}
+
+	/**
+	 * An internal node of the trie, holding up to 32 children. The bitmap
+	 * tells which children are present, and the position of a child inside
+	 * the array is given by the number of bits set before its own.
+	 */
+	private static final class BitmapNode<K, V> extends Node<K, V> {
+
+		private final int bitmap;
+
+		private final Node<K, V>[] children;
+
+		private BitmapNode(int bitmap, Node<K, V>[] children) {
+			this.bitmap = bitmap;
+			this.children = children;
+		}
+
+		private int position(int bit) {
+			return Integer.bitCount(bitmap & (bit - 1));
+		}
+
+		@Override
+		Leaf<K, V> find(Object key, int hash, int shift) {
+			int bit = 1 << ((hash >>> shift) & MASK);
+			if ((bitmap & bit) == 0)
+				return null;
+			return children[position(bit)].find(key, hash, shift + BITS);
+		}
+
+		@Override
+		Node<K, V> put(int hash, K key, V value, int shift) {
+			int bit = 1 << ((hash >>> shift) & MASK);
+			int pos = position(bit);
+			if ((bitmap & bit) == 0) {
+				Node<K, V>[] copy = newNodes(children.length + 1);
+				System.arraycopy(children, 0, copy, 0, pos);
+				copy[pos] = new Leaf<>(hash, key, value);
+				System.arraycopy(children, pos, copy, pos + 1, children.length - pos);
+				return new BitmapNode<>(bitmap | bit, copy);
+			}
+
+			Node<K, V> child = children[pos];
+			Node<K, V> updated = child.put(hash, key, value, shift + BITS);
+			if (updated == child)
+				return this;
+			Node<K, V>[] copy = children.clone();
+			copy[pos] = updated;
+			return new BitmapNode<>(bitmap, copy);
+		}
+
+		@Override
+		Node<K, V> remove(Object key, int hash, int shift) {
+			int bit = 1 << ((hash >>> shift) & MASK);
+			int pos = position(bit);
+			Node<K, V> updated = children[pos].remove(key, hash, shift + BITS);
+
+			if (updated != null) {
+				if (children.length == 1 && updated.isSingleHash())
+					// the parent can hold the child directly
+					return updated;
+				Node<K, V>[] copy = children.clone();
+				copy[pos] = updated;
+				return new BitmapNode<>(bitmap, copy);
+			}
+
+			if (children.length == 1)
+				return null;
+			if (children.length == 2 && children[1 - pos].isSingleHash())
+				return children[1 - pos];
+			Node<K, V>[] copy = newNodes(children.length - 1);
+			System.arraycopy(children, 0, copy, 0, pos);
+			System.arraycopy(children, pos + 1, copy, pos, children.length - pos - 1);
+			return new BitmapNode<>(bitmap & ~bit, copy);
+		}
+
+		@Override
+		void pushChildren(Deque<Node<K, V>> stack) {
+			for (int i = children.length - 1; i >= 0; i--)
+				stack.push(children[i]);
+		}
+
+		@Override
+		boolean isSingleHash() {
+			return false;
+		}
+
+		@Override
+		int singleHash() {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -86,10 +87,30 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 
 	/**
 	 * The bits representing the set. If a bit is 1 then the corresponding
-	 * element of the cache is in the set.
+	 * element of the cache is in the set. The array can be longer than
+	 * {@link #length}: all the words that follow the first {@link #length}
+	 * ones are zero.
 	 */
 	private long[] bits;
 
+	/**
+	 * The number of significant words of {@link #bits}, that is, the index of
+	 * the last non-zero word plus one ({@code 0} if the set is empty)
+	 */
+	private int length;
+
+	/**
+	 * The cached number of elements of this set, or {@code -1} if it has not
+	 * been computed since the last modification
+	 */
+	private int size;
+
+	/**
+	 * The cached hash code of this set, or {@code 0} if it has not been
+	 * computed since the last modification
+	 */
+	private int hash;
+
 	/**
 	 * The cache that generated this set and that contains the elements of this
 	 * set.
@@ -103,6 +124,8 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 	 */
 	BitExternalSet(ExternalSetCache<T> cache) {
 		this.bits = new long[1];
+		this.length = 0;
+		this.size = 0;
 		this.cache = cache;
 	}
 
@@ -113,7 +136,9 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 	 * @param cache the cache
 	 */
 	BitExternalSet(long[] bits, ExternalSetCache<T> cache) {
-		this.bits = bits;
+		this.bits = bits.length == 0 ? new long[1] : bits;
+		this.length = significantWords(bits, bits.length);
+		this.size = -1;
 		this.cache = cache;
 	}
 
@@ -123,7 +148,10 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 	 * @param other the other set
 	 */
 	BitExternalSet(BitExternalSet<T> other) {
-		this.bits = other.bits.clone();
+		this.bits = Arrays.copyOf(other.bits, Math.max(1, other.length));
+		this.length = other.length;
+		this.size = other.size;
+		this.hash = other.hash;
 		this.cache = other.cache;
 	}
 
@@ -137,8 +165,10 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 	BitExternalSet(ExternalSetCache<T> cache, T element) {
 		this.cache = cache;
 		int pos = cache.indexOfOrAdd(element);
-		bits = new long[1 + bitvector_index(pos)];
+		length = 1 + bitvector_index(pos);
+		bits = new long[length];
 		set(bits, pos);
+		size = 1;
 	}
 
 	/**
@@ -154,39 +184,77 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 			add(e);
 	}
 
+	/**
+	 * Builds a set with the given bits and cache, where {@code length} is the
+	 * number of significant words of {@code bits}.
+	 */
+	private BitExternalSet(long[] bits, int length, ExternalSetCache<T> cache) {
+		this.bits = bits;
+		this.length = length;
+		this.size = -1;
+		this.cache = cache;
+	}
+
+	/**
+	 * Yields the number of significant words among the first {@code length}
+	 * ones of the given bits.
+	 */
+	private static int significantWords(long[] bits, int length) {
+		while (length > 0 && bits[length - 1] == 0L)
+			length--;
+		return length;
+	}
+
 	@Override
 	public ExternalSetCache<T> getCache() {
 		return cache;
 	}
 
+	/**
+	 * Invalidates the cached size and hash code after a modification.
+	 */
+	private void modified() {
+		size = -1;
+		hash = 0;
+	}
+
+	/**
+	 * Makes sure that {@link #bits} has at least {@code targetLength} words,
+	 * at least doubling its capacity when it needs to be reallocated.
+	 */
 	private void expand(int targetLength) {
-		long[] localbits = bits;
-		bits = new long[targetLength];
-		System.arraycopy(localbits, 0, bits, 0, localbits.length);
+		if (targetLength <= bits.length)
+			return;
+		bits = Arrays.copyOf(bits, Math.max(targetLength, bits.length << 1));
 	}
 
-	private void shrink(int targetLength) {
-		long[] localbits = bits;
-		bits = new long[targetLength];
-		System.arraycopy(localbits, 0, bits, 0, targetLength);
+	/**
+	 * Halves the capacity of {@link #bits} when less than a quarter of it is
+	 * in use.
+	 */
+	private void shrink() {
+		if (bits.length > 4 && length < bits.length >> 2)
+			bits = Arrays.copyOf(bits, bits.length >> 1);
 	}
 
 	@Override
 	public boolean add(T e) {
-		long[] localbits = bits;
 		int pos = cache.indexOfOrAdd(e);
 		int bitvector = bitvector_index(pos);
 
-		if (bitvector >= localbits.length) {
-			// the array is not long enough for the position
+		if (bitvector >= length) {
+			// the significant words are not enough for the position
 			// of the element that we are adding
 			expand(1 + bitvector);
-			set(bits, pos);
-			return true;
-		} else if (isset(localbits, pos))
+			length = 1 + bitvector;
+		} else if (isset(bits, pos))
 			return false;
 
-		set(localbits, pos);
+		set(bits, pos);
+		int count = size;
+		modified();
+		if (count >= 0)
+			size = count + 1;
 		return true;
 	}
 
@@ -203,14 +271,17 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 			ExternalSet.super.addAll(other);
 		else {
 			BitExternalSet<T> o = (BitExternalSet<T>) other;
-			long[] localbits = this.bits, otherbits = o.bits;
-			int thislength = localbits.length, otherlength = otherbits.length;
-
-			if (thislength < otherlength)
-				expand(otherlength);
-
-			for (--otherlength; otherlength >= 0; otherlength--)
-				bits[otherlength] |= otherbits[otherlength];
+			int otherlength = o.length;
+			if (otherlength == 0)
+				return;
+
+			expand(otherlength);
+			long[] localbits = bits, otherbits = o.bits;
+			for (int i = otherlength - 1; i >= 0; i--)
+				localbits[i] |= otherbits[i];
+			if (length < otherlength)
+				length = otherlength;
+			modified();
 		}
 	}
 
@@ -228,52 +299,39 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 		if (pos < 0)
 			return false;
 
-		long[] localbits = this.bits;
-		if (bitvector_index(pos) >= localbits.length)
+		int bitvector = bitvector_index(pos);
+		if (bitvector >= length || !isset(bits, pos))
 			return false;
 
-		unset(localbits, pos);
-		removeTrailingZeros();
+		unset(bits, pos);
+		if (bitvector == length - 1 && bits[bitvector] == 0L) {
+			length = significantWords(bits, bitvector);
+			shrink();
+		}
+
+		int count = size;
+		modified();
+		if (count > 0)
+			size = count - 1;
 		return true;
 	}
 
 	@Override
 	public int size() {
-		long bitvector;
-		int count = 0;
-		long[] localbits = this.bits;
-
-		for (int pos = localbits.length - 1; pos >= 0; pos--) {
-			bitvector = localbits[pos];
-			if (bitvector != 0L)
-				for (int i = 0; i < 64; i++)
-					// we iterate over all possible bits of the bitvector
-					if (isset(localbits, 64 * pos + i))
-						count++;
+		int count = size;
+		if (count < 0) {
+			count = 0;
+			long[] localbits = bits;
+			for (int i = length - 1; i >= 0; i--)
+				count += Long.bitCount(localbits[i]);
+			size = count;
 		}
-
 		return count;
 	}
 
 	@Override
 	public boolean isEmpty() {
-		removeTrailingZeros();
-		return bits.length == 1 && bits[0] == 0L;
-	}
-
-	private void removeTrailingZeros() {
-		long[] localbits = bits;
-		int length = localbits.length;
-
-		// we search for the right-most bitvector that has at least one
-		// bit set to 1, excluding the first one since if even if it is
-		// zero we have to leave it as it is (at least one bitvector is needed)
-		while (length > 1 && localbits[length - 1] == 0L)
-			length--;
-
-		if (length != localbits.length)
-			// if we decreased at least once, we can shrink the bits
-			shrink(length);
+		return length == 0;
 	}
 
 	@Override
@@ -281,11 +339,26 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 		return new BitSetIterator();
 	}
 
+	/**
+	 * {@inheritDoc}<br>
+	 * <br>
+	 * The hash code is computed lazily and cached until this set is modified.
+	 */
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + Arrays.hashCode(bits);
+		int result = hash;
+		if (result == 0) {
+			// same as Arrays.hashCode over the significant words, always
+			// including the first one
+			long[] localbits = bits;
+			int h = 1;
+			for (int i = 0, l = Math.max(1, length); i < l; i++) {
+				long word = localbits[i];
+				h = 31 * h + (int) (word ^ (word >>> 32));
+			}
+			result = 31 + h;
+			hash = result;
+		}
 		return result;
 	}
 
@@ -307,9 +380,12 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 		BitExternalSet<?> other = (BitExternalSet<?>) obj;
 		if (cache != other.cache)
 			return false;
-		if (!Arrays.equals(bits, other.bits))
+		if (length != other.length)
 			return false;
-		return true;
+		int h1 = hash, h2 = other.hash;
+		if (h1 != 0 && h2 != 0 && h1 != h2)
+			return false;
+		return Arrays.equals(bits, 0, length, other.bits, 0, length);
 	}
 
 	@Override
@@ -320,6 +396,9 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 	@Override
 	public void clear() {
 		this.bits = new long[1];
+		this.length = 0;
+		modified();
+		this.size = 0;
 	}
 
 	@Override
@@ -340,15 +419,16 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 			return ExternalSet.super.contains(other);
 
 		BitExternalSet<T> o = (BitExternalSet<T>) other;
-		long[] otherbits = o.bits, localbits = bits;
-		if (otherbits.length > localbits.length)
+		int otherlength = o.length;
+		if (otherlength > length)
 			// clever check: this cannot contain other if other is bigger
 			return false;
 
 		// if at least one bit that is 0 in this is 1 in other, than this does
 		// not contain other
-		for (int i = otherbits.length - 1; i >= 0; i--)
-			if ((localbits[i] | otherbits[i]) != localbits[i])
+		long[] otherbits = o.bits, localbits = bits;
+		for (int i = otherlength - 1; i >= 0; i--)
+			if ((otherbits[i] & ~localbits[i]) != 0L)
 				return false;
 
 		return true;
@@ -369,8 +449,7 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 		BitExternalSet<T> o = (BitExternalSet<T>) other;
 		// if at least one bit is one on both, then the two intersect
 		long[] otherbits = o.bits, localbits = bits;
-		int min = (otherbits.length > localbits.length) ? localbits.length : otherbits.length;
-		for (int i = min - 1; i >= 0; i--)
+		for (int i = Math.min(length, o.length) - 1; i >= 0; i--)
 			if ((localbits[i] & otherbits[i]) != 0L)
 				return true;
 
@@ -391,28 +470,14 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 
 		BitExternalSet<T> o = (BitExternalSet<T>) other;
 
-		int index;
-		long[] otherbits;
-		BitExternalSet<T> result;
-
-		// copy the shortest one, then perform bitwise and with the longest one
-		// on
-		// common bits
-		if (this.bits.length > o.bits.length) {
-			otherbits = this.bits;
-			index = o.bits.length;
-			result = new BitExternalSet<>(o);
-		} else {
-			otherbits = o.bits;
-			index = bits.length;
-			result = new BitExternalSet<>(this);
-		}
+		// only the common words can have bits set in both sets
+		long[] localbits = bits, otherbits = o.bits;
+		int min = Math.min(length, o.length);
+		long[] res = new long[Math.max(1, min)];
+		for (int i = min - 1; i >= 0; i--)
+			res[i] = localbits[i] & otherbits[i];
 
-		long[] res = result.bits;
-		while (index > 0)
-			res[--index] &= otherbits[index];
-		result.removeTrailingZeros();
-		return result;
+		return new BitExternalSet<>(res, significantWords(res, min), cache);
 	}
 
 	@Override
@@ -429,19 +494,13 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 
 		BitExternalSet<T> o = (BitExternalSet<T>) other;
 
-		long[] localbits = this.bits;
-		int pos = localbits.length;
-		BitExternalSet<T> result = new BitExternalSet<>(this);
-		long[] otherbits = o.bits, res = result.bits;
-
-		if (otherbits.length < pos)
-			pos = otherbits.length;
-
-		while (--pos >= 0)
-			res[pos] &= ~otherbits[pos];
+		int thislength = length;
+		long[] res = Arrays.copyOf(bits, Math.max(1, thislength));
+		long[] otherbits = o.bits;
+		for (int i = Math.min(thislength, o.length) - 1; i >= 0; i--)
+			res[i] &= ~otherbits[i];
 
-		result.removeTrailingZeros();
-		return result;
+		return new BitExternalSet<>(res, significantWords(res, thislength), cache);
 	}
 
 	@Override
@@ -458,102 +517,75 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 
 		BitExternalSet<T> o = (BitExternalSet<T>) other;
 
-		long[] localbits = this.bits, otherbits = o.bits;
-		int thislength = localbits.length, otherlength = otherbits.length;
-		BitExternalSet<T> result;
-
-		if (thislength < otherlength) {
-			result = new BitExternalSet<>(o);
-			long[] res = result.bits;
-			for (--thislength; thislength >= 0; thislength--)
-				res[thislength] |= localbits[thislength];
-		} else {
-			result = new BitExternalSet<>(this);
-			long[] res = result.bits;
-			while (--otherlength >= 0)
-				res[otherlength] |= otherbits[otherlength];
-		}
+		// copy the longest one, then perform bitwise or with the shortest one
+		BitExternalSet<T> longest = length < o.length ? o : this;
+		BitExternalSet<T> shortest = longest == this ? o : this;
+		long[] res = Arrays.copyOf(longest.bits, Math.max(1, longest.length));
+		long[] otherbits = shortest.bits;
+		for (int i = shortest.length - 1; i >= 0; i--)
+			res[i] |= otherbits[i];
 
-		return result;
+		return new BitExternalSet<>(res, longest.length, cache);
 	}
 
 	/**
-	 * An iterator over the elements of a {@link BitExternalSet}.
+	 * An iterator over the elements of a {@link BitExternalSet}. The iterator
+	 * visits one word at a time, extracting its set bits through
+	 * {@link Long#numberOfTrailingZeros(long)}.
 	 * 
 	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
 	 */
 	private class BitSetIterator implements Iterator<T> {
 
-		/**
-		 * The next bit to look at
-		 */
-		private int next;
-
 		/**
 		 * The bits to iterate over
 		 */
 		private final long[] bits;
 
 		/**
-		 * The total number of bits to iterate over
+		 * The number of words to iterate over
 		 */
-		private final int totalBits;
+		private final int length;
 
 		/**
-		 * Builds an iterator from the given bits and elements.
+		 * The index of the word being visited
 		 */
-		private BitSetIterator() {
-			this.bits = BitExternalSet.this.bits;
-			this.totalBits = bits.length << 6; // we go back to the integer
-												// representation
-			this.next = findNextBit();
-		}
+		private int index;
 
 		/**
-		 * Yields the next non-ZERO bit in the set.
-		 * 
-		 * @return the position of the next non-zero bit in the set, starting at
-		 *             {@code start} non-inclusive, or {@code -1}
+		 * The bits of the word being visited that have not been returned yet
 		 */
-		private int findNextBit() {
-			long[] localbits = this.bits;
-			int start = next;
-			int l = this.totalBits;
-
-			while (start < l) {
-				int pos = bitvector_index(start);
-				long bitvector = localbits[pos];
-
-				while (bitvector == 0L) {
-					// we can skip to the next vector
-					if ((start += 64) >= l)
-						return -1;
-					bitvector = localbits[++pos];
-				}
-
-				long bit = bitmask(start);
-				do {
-					if ((bitvector & bit) != 0L)
-						return start;
-
-					bit <<= 1;
-					start++;
-				} while (bit != 0);
-			}
+		private long word;
 
-			return -1;
+		/**
+		 * Builds an iterator from the given bits and elements.
+		 */
+		private BitSetIterator() {
+			this.bits = BitExternalSet.this.bits;
+			this.length = BitExternalSet.this.length;
+			this.index = 0;
+			this.word = length == 0 ? 0L : bits[0];
 		}
 
 		@Override
 		public boolean hasNext() {
-			return next >= 0;
+			while (word == 0L) {
+				// we can skip to the next vector
+				if (++index >= length)
+					return false;
+				word = bits[index];
+			}
+			return true;
 		}
 
 		@Override
 		public T next() {
-			int nb = next++;
-			next = findNextBit();
+			if (!hasNext())
+				throw new NoSuchElementException();
 
+			int nb = (index << 6) + Long.numberOfTrailingZeros(word);
+			// clear the lowest set bit
+			word &= word - 1;
 			return cache.get(nb);
 		}
 
@@ -581,8 +613,7 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 			// if it's not inside the cache, it's not in the set
 			return false;
 
-		int bitvector = bitvector_index(pos);
-		return bitvector < bits.length && isset(bits, pos);
+		return bitvector_index(pos) < length && isset(bits, pos);
 	}
 
 	@Override
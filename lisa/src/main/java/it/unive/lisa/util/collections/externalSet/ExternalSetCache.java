@@ -1,15 +1,26 @@
 package it.unive.lisa.util.collections.externalSet;
 
-import java.util.ArrayList;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A cache for creating {@link ExternalSet}s of the elements contained in this
- * cache.
+ * cache.<br>
+ * <br>
+ * Elements are stored in an append-only array, and a
+ * {@link ConcurrentHashMap} maps each element to its position. Lookups (both
+ * by element and by position) never acquire locks: the array is published
+ * through a volatile field, and its slots are written with release semantics
+ * before the corresponding index becomes visible. Adding a new element only
+ * locks the bin of the map where the element falls, and briefly the array
+ * while the element is appended to it. Instances of this class are
+ * thread-safe.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -17,25 +28,34 @@ import java.util.Map;
  */
 public class ExternalSetCache<T> {
 
+	private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(Object[].class);
+
+	/**
+	 * The key used in {@link #indexes} in place of {@code null}
+	 */
+	private static final Object NULL_KEY = new Object();
+
 	/**
-	 * The collection of elements in this cache
+	 * The elements in this cache, where the first {@link #nextIndex} slots are
+	 * in use. The array is replaced by a bigger copy when it is full.
 	 */
-	private final List<T> elements = new ArrayList<>(16);
+	private volatile Object[] elements = new Object[16];
 
 	/**
 	 * A map from the elements to their index
 	 */
-	private final Map<T, Integer> indexes = new HashMap<>(16);
+	private final ConcurrentMap<Object, Integer> indexes = new ConcurrentHashMap<>(16);
 
 	/**
-	 * The next index available for new elements
+	 * The next index available for new elements, incremented only after the
+	 * element has been stored in {@link #elements}
 	 */
-	private int nextIndex;
+	private final AtomicInteger nextIndex = new AtomicInteger();
 
 	/**
-	 * The index assigned to the {@code null} key, if any.
+	 * The lock guarding the appends to {@link #elements}
 	 */
-	private int indexOfNull = -1;
+	private final Object appendLock = new Object();
 
 	/**
 	 * Builds an empty {@link ExternalSet} that uses this cache.
@@ -87,12 +107,9 @@ public class ExternalSetCache<T> {
 	 * 
 	 * @return the index of {@code e}, or {@code -1}
 	 */
-	protected synchronized final int indexOf(T e) {
-		if (e == null)
-			return indexOfNull;
-
+	protected final int indexOf(T e) {
 		Integer result;
-		return (result = indexes.get(e)) == null ? -1 : result;
+		return (result = indexes.get(e == null ? NULL_KEY : e)) == null ? -1 : result;
 	}
 
 	/**
@@ -103,25 +120,31 @@ public class ExternalSetCache<T> {
 	 * 
 	 * @return the index of {@code e}
 	 */
-	protected synchronized final int indexOfOrAdd(T e) {
-		if (e == null) {
-			if (indexOfNull == -1) {
-				elements.add(null);
-				indexOfNull = nextIndex++;
-			}
-			return indexOfNull;
-		}
-
-		Integer result = indexes.get(e);
+	protected final int indexOfOrAdd(T e) {
+		Object key = e == null ? NULL_KEY : e;
+		Integer result = indexes.get(key);
 		if (result == null)
-			return indexes.computeIfAbsent(e, el -> {
-				elements.add(e);
-				return nextIndex++;
-			});
-
+			return indexes.computeIfAbsent(key, el -> append(e));
 		return result;
 	}
 
+	/**
+	 * Appends the given element to {@link #elements}, yielding its index.
+	 */
+	private int append(T e) {
+		synchronized (appendLock) {
+			int index = nextIndex.get();
+			Object[] array = elements;
+			if (index == array.length) {
+				array = Arrays.copyOf(array, array.length << 1);
+				elements = array;
+			}
+			SLOTS.setRelease(array, index, e);
+			nextIndex.set(index + 1);
+			return index;
+		}
+	}
+
 	/**
 	 * Yields the {@code pos}-th element of this cache.
 	 *
@@ -129,18 +152,24 @@ public class ExternalSetCache<T> {
 	 * 
 	 * @return the element
 	 */
-	protected final synchronized T get(int pos) {
-		return elements.get(pos);
+	@SuppressWarnings("unchecked")
+	protected final T get(int pos) {
+		int size = nextIndex.get();
+		if (pos < 0 || pos >= size)
+			throw new IndexOutOfBoundsException("Index " + pos + " out of bounds for length " + size);
+		return (T) SLOTS.getAcquire(elements, pos);
 	}
 
 	/**
-	 * Cleans the cache, removing all elements.
+	 * Cleans the cache, removing all elements. This method should not be
+	 * invoked while other threads are using this cache.
 	 */
-	public final synchronized void clear() {
-		elements.clear();
+	public final void clear() {
 		indexes.clear();
-		indexOfNull = -1;
-		nextIndex = 0;
+		synchronized (appendLock) {
+			elements = new Object[16];
+			nextIndex.set(0);
+		}
 	}
 
 	/**
@@ -148,22 +177,25 @@ public class ExternalSetCache<T> {
 	 * 
 	 * @return the number of elements
 	 */
-	public final synchronized int size() {
-		return elements.size();
+	public final int size() {
+		return nextIndex.get();
 	}
 
 	@Override
-	public final synchronized String toString() {
-		return elements.toString();
+	public final String toString() {
+		return getAllElements().toString();
 	}
 
 	/**
 	 * Yields an unmodifiable view of all the elements currently in the cache.
-	 * For a view that always stays up-to-date, use {@link #mkUniversalSet()}.
+	 * The view is not affected by elements added later on: for a view that
+	 * always stays up-to-date, use {@link #mkUniversalSet()}.
 	 * 
 	 * @return a view of the elements inside this cache
 	 */
-	synchronized Collection<T> getAllElements() {
-		return Collections.unmodifiableCollection(elements);
+	@SuppressWarnings("unchecked")
+	Collection<T> getAllElements() {
+		int size = nextIndex.get();
+		return Collections.unmodifiableList(Arrays.asList((T[]) elements).subList(0, size));
 	}
-}
\ No newline at end of file
+}
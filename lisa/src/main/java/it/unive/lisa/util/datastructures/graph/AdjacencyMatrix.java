@@ -7,12 +7,15 @@ import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
 import it.unive.lisa.util.workset.LIFOWorkingSet;
 import it.unive.lisa.util.workset.VisitOnceWorkingSet;
 import it.unive.lisa.util.workset.WorkingSet;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -55,6 +58,12 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 	 */
 	private int nextOffset;
 
+	/**
+	 * The compressed view of this matrix, if it has been built through
+	 * {@link #freeze()} and this matrix has not been modified since then
+	 */
+	private volatile CompressedAdjacency<N, E, G> frozen;
+
 	/**
 	 * Builds a new matrix.
 	 */
@@ -106,8 +115,10 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 	 * @param node the node to add
 	 */
 	public void addNode(N node) {
-		if (matrix.putIfAbsent(node, Pair.of(edgeFactory.mkEmptySet(), edgeFactory.mkEmptySet())) == null)
+		if (matrix.putIfAbsent(node, Pair.of(edgeFactory.mkEmptySet(), edgeFactory.mkEmptySet())) == null) {
 			nextOffset = node.setOffset(nextOffset) + 1;
+			frozen = null;
+		}
 	}
 
 	/**
@@ -124,6 +135,7 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 		edges.getLeft().forEach(this::removeEdge);
 		edges.getRight().forEach(this::removeEdge);
 		matrix.remove(node);
+		frozen = null;
 	}
 
 	/**
@@ -153,6 +165,7 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 
 		matrix.get(e.getSource()).getRight().add(e);
 		matrix.get(e.getDestination()).getLeft().add(e);
+		frozen = null;
 	}
 
 	/**
@@ -166,6 +179,7 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 
 		matrix.get(e.getSource()).getRight().remove(e);
 		matrix.get(e.getDestination()).getLeft().remove(e);
+		frozen = null;
 	}
 
 	/**
@@ -180,6 +194,10 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 	 *             {@code null}
 	 */
 	public final E getEdgeConnecting(N source, N destination) {
+		CompressedAdjacency<N, E, G> frozen = this.frozen;
+		if (frozen != null)
+			return frozen.getEdgeConnecting(source, destination);
+
 		if (!matrix.containsKey(source))
 			return null;
 
@@ -228,13 +246,28 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 	 * Yields the collection of the nodes that are followers of the given one,
 	 * that is, all nodes such that there exist an edge in this matrix going
 	 * from the given node to such node. Yields {@code null} if the node is not
-	 * in this matrix.
+	 * in this matrix. If this matrix has been frozen, the returned collection
+	 * is unmodifiable and no new collection is created.
 	 * 
 	 * @param node the node
 	 * 
 	 * @return the collection of followers, or {@code null}
 	 */
 	public final Collection<N> followersOf(N node) {
+		CompressedAdjacency<N, E, G> frozen = this.frozen;
+		if (frozen != null)
+			return frozen.followersOf(node);
+		return computeFollowers(node);
+	}
+
+	/**
+	 * Computes the followers of the given node from the edges of this matrix.
+	 * 
+	 * @param node the node
+	 * 
+	 * @return the collection of followers, or {@code null}
+	 */
+	final Collection<N> computeFollowers(N node) {
 		if (!matrix.containsKey(node))
 			return null;
 
@@ -245,13 +278,29 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 	 * Yields the collection of the nodes that are predecessors of the given
 	 * vertex, that is, all nodes such that there exist an edge in this matrix
 	 * going from such node to the given one. Yields {@code null} if the node is
-	 * not in this matrix.
+	 * not in this matrix. If this matrix has been frozen, the returned
+	 * collection is unmodifiable and no new collection is created.
 	 * 
 	 * @param node the node
 	 * 
 	 * @return the collection of predecessors, or {@code null}
 	 */
 	public final Collection<N> predecessorsOf(N node) {
+		CompressedAdjacency<N, E, G> frozen = this.frozen;
+		if (frozen != null)
+			return frozen.predecessorsOf(node);
+		return computePredecessors(node);
+	}
+
+	/**
+	 * Computes the predecessors of the given node from the edges of this
+	 * matrix.
+	 * 
+	 * @param node the node
+	 * 
+	 * @return the collection of predecessors, or {@code null}
+	 */
+	final Collection<N> computePredecessors(N node) {
 		if (!matrix.containsKey(node))
 			return null;
 
@@ -288,6 +337,7 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 			Map<Pair<E, E>, E> replacedEdges) {
 		removedEdges.clear();
 		replacedEdges.clear();
+		frozen = null;
 
 		for (N t : targets) {
 			ExternalSet<E> ingoing = matrix.get(t).getLeft();
@@ -347,6 +397,62 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 		}
 	}
 
+	/**
+	 * Freezes this matrix, building its {@link CompressedAdjacency} view. The
+	 * view is used to answer {@link #followersOf(Node)},
+	 * {@link #predecessorsOf(Node)} and {@link #getEdgeConnecting(Node, Node)}
+	 * queries until this matrix is modified through one of its methods, after
+	 * which it is discarded. If the matrix is already frozen, the existing
+	 * view is returned. Note that modifying the sets of edges returned by
+	 * {@link #getIngoingEdges(Node)} and {@link #getOutgoingEdges(Node)} does
+	 * not discard the view.<br>
+	 * <br>
+	 * Before building the view, the offsets of the nodes are reassigned
+	 * (following the order of their current offsets) so that the offsets
+	 * used by the nodes, together with the ones used by their nested nodes
+	 * (see {@link Node#setOffset(int)}), are exactly the numbers between
+	 * {@code 0} (included) and {@link #getNextOffset()} (excluded). This
+	 * removes the holes left by removed nodes, allowing offsets to be used as
+	 * indexes in plain arrays.
+	 * 
+	 * @return the compressed view of this matrix
+	 */
+	public synchronized CompressedAdjacency<N, E, G> freeze() {
+		if (frozen == null) {
+			List<N> nodes = new ArrayList<>(matrix.keySet());
+			nodes.sort(Comparator.comparingInt(N::getOffset));
+			nextOffset = 0;
+			for (N node : nodes)
+				nextOffset = node.setOffset(nextOffset) + 1;
+			frozen = new CompressedAdjacency<>(this);
+		}
+		return frozen;
+	}
+
+	/**
+	 * Yields the offset that will be assigned to the next node added to this
+	 * matrix. All the nodes of this matrix, and the ones nested into them,
+	 * have an offset lower than the returned value. If this matrix is frozen
+	 * (see {@link #freeze()}), every offset lower than the returned value is
+	 * used by exactly one node.
+	 * 
+	 * @return the next offset
+	 */
+	public int getNextOffset() {
+		return nextOffset;
+	}
+
+	/**
+	 * Yields the {@link CompressedAdjacency} view of this matrix, if this
+	 * matrix has been frozen through {@link #freeze()} and has not been
+	 * modified since then, or {@code null} otherwise.
+	 * 
+	 * @return the compressed view of this matrix, or {@code null}
+	 */
+	public CompressedAdjacency<N, E, G> getFrozenView() {
+		return frozen;
+	}
+
 	/**
 	 * Yields {@code true} if the given node is contained in this matrix.
 	 * 
@@ -0,0 +1,366 @@
+package it.unive.lisa.util.datastructures.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable view of an {@link AdjacencyMatrix} in compressed sparse row
+ * format. Nodes are numbered from {@code 0} to {@code size() - 1}, and the
+ * successors (resp. predecessors) of each node are stored contiguously in a
+ * single {@code int} array, delimited by an offset array. Edges are stored in
+ * an open-addressing hash table indexed by the pair of numbers of their
+ * endpoints.<br>
+ * <br>
+ * Once built, instances of this class can be queried without allocating any
+ * object: {@link #followersOf(Node)} and {@link #predecessorsOf(Node)} return
+ * unmodifiable lists that are built together with the view, and
+ * {@link #getEdgeConnecting(Node, Node)} performs a constant-time lookup. The
+ * view is built by {@link AdjacencyMatrix#freeze()}, and it is discarded by
+ * the matrix as soon as the latter is modified. Instances of this class are
+ * thread-safe.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <N> the type of the {@link Node}s in this view
+ * @param <E> the type of the {@link Edge}s in this view
+ * @param <G> the type of the {@link Graph}s this view can be used in
+ */
+public final class CompressedAdjacency<N extends Node<N, E, G>, E extends Edge<N, E, G>, G extends Graph<G, N, E>> {
+
+	private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+	/**
+	 * The nodes, indexed by their number
+	 */
+	private final Object[] nodes;
+
+	/**
+	 * The number of each node, indexed by its offset (see
+	 * {@link Node#getOffset()}), or {@code -1}
+	 */
+	private final int[] byOffset;
+
+	/**
+	 * The number of each node, used when {@link #byOffset} cannot be used
+	 */
+	private final Map<N, Integer> byNode;
+
+	/**
+	 * The successors of node {@code i} are stored in {@link #successors}
+	 * between {@code successorsStart[i]} (included) and
+	 * {@code successorsStart[i + 1]} (excluded)
+	 */
+	private final int[] successorsStart;
+
+	private final int[] successors;
+
+	/**
+	 * The predecessors of node {@code i} are stored in {@link #predecessors}
+	 * between {@code predecessorsStart[i]} (included) and
+	 * {@code predecessorsStart[i + 1]} (excluded)
+	 */
+	private final int[] predecessorsStart;
+
+	private final int[] predecessors;
+
+	private final List<N>[] followersViews;
+
+	private final List<N>[] predecessorsViews;
+
+	/**
+	 * The keys of the edge table, in the form {@code source << 32 | dest}
+	 */
+	private final long[] edgeKeys;
+
+	/**
+	 * The edges of the edge table, {@code null} for empty slots
+	 */
+	private final Object[] edges;
+
+	/**
+	 * Builds the view of the given matrix. Successors and predecessors of each
+	 * node are stored in the iteration order of
+	 * {@link AdjacencyMatrix#followersOf(Node)} and
+	 * {@link AdjacencyMatrix#predecessorsOf(Node)}, respectively.
+	 *
+	 * @param matrix the matrix
+	 */
+	@SuppressWarnings("unchecked")
+	CompressedAdjacency(AdjacencyMatrix<N, E, G> matrix) {
+		Collection<N> all = matrix.getNodes();
+		int size = all.size();
+		nodes = all.toArray();
+		byNode = new HashMap<>(size);
+		int maxOffset = -1;
+		for (int i = 0; i < size; i++) {
+			N node = (N) nodes[i];
+			byNode.put(node, i);
+			maxOffset = Math.max(maxOffset, node.getOffset());
+		}
+
+		byOffset = new int[maxOffset + 1];
+		Arrays.fill(byOffset, -1);
+		for (int i = 0; i < size; i++) {
+			int offset = ((N) nodes[i]).getOffset();
+			if (offset < 0)
+				continue;
+			// in case of duplicated offsets, lookups will use byNode
+			byOffset[offset] = byOffset[offset] == -1 ? i : -2;
+		}
+
+		List<Collection<N>> followers = new ArrayList<>(size), preds = new ArrayList<>(size);
+		int followersCount = 0, predsCount = 0;
+		for (int i = 0; i < size; i++) {
+			Collection<N> f = matrix.computeFollowers((N) nodes[i]);
+			Collection<N> p = matrix.computePredecessors((N) nodes[i]);
+			followers.add(f);
+			preds.add(p);
+			followersCount += f.size();
+			predsCount += p.size();
+		}
+
+		successorsStart = new int[size + 1];
+		successors = new int[followersCount];
+		followersViews = newViews(size);
+		fill(followers, successorsStart, successors, followersViews);
+
+		predecessorsStart = new int[size + 1];
+		predecessors = new int[predsCount];
+		predecessorsViews = newViews(size);
+		fill(preds, predecessorsStart, predecessors, predecessorsViews);
+
+		// at most half of the slots are used
+		int capacity = Integer.highestOneBit(Math.max(1, followersCount) * 2) * 2;
+		edgeKeys = new long[capacity];
+		edges = new Object[capacity];
+		for (int i = 0; i < size; i++)
+			for (E e : matrix.getOutgoingEdges((N) nodes[i])) {
+				long key = key(i, indexOf(e.getDestination()));
+				int slot = slot(key);
+				if (edges[slot] == null) {
+					// the first edge found is the one that
+					// AdjacencyMatrix.getEdgeConnecting would return
+					edgeKeys[slot] = key;
+					edges[slot] = e;
+				}
+			}
+	}
+
+	private void fill(List<Collection<N>> rows, int[] start, int[] targets, List<N>[] views) {
+		int pos = 0;
+		for (int i = 0; i < rows.size(); i++) {
+			start[i] = pos;
+			// the array only contains elements of the collection
+			@SuppressWarnings("unchecked")
+			List<N> row = (List<N>) (List<?>) Arrays.asList(rows.get(i).toArray());
+			for (N target : row)
+				targets[pos++] = indexOf(target);
+			views[i] = Collections.unmodifiableList(row);
+		}
+		start[rows.size()] = pos;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <N> List<N>[] newViews(int length) {
+		return (List<N>[]) new List<?>[length];
+	}
+
+	private static long key(int source, int destination) {
+		return ((long) source << 32) | (destination & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Yields the slot of the edge table containing the given key, or the empty
+	 * slot where it should be inserted.
+	 */
+	private int slot(long key) {
+		int mask = edges.length - 1;
+		int slot = (int) ((key * HASH_MULTIPLIER) >>> 32) & mask;
+		while (edges[slot] != null && edgeKeys[slot] != key)
+			slot = (slot + 1) & mask;
+		return slot;
+	}
+
+	/**
+	 * Yields the number of nodes in this view.
+	 *
+	 * @return the number of nodes
+	 */
+	public int size() {
+		return nodes.length;
+	}
+
+	/**
+	 * Yields the node with the given number.
+	 *
+	 * @param index the number of the node, between {@code 0} (included) and
+	 *                  {@link #size()} (excluded)
+	 *
+	 * @return the node
+	 */
+	@SuppressWarnings("unchecked")
+	public N getNode(int index) {
+		return (N) nodes[index];
+	}
+
+	/**
+	 * Yields the number of the given node, or {@code -1} if the node is not
+	 * part of this view.
+	 *
+	 * @param node the node
+	 *
+	 * @return the number of the node, or {@code -1}
+	 */
+	public int indexOf(N node) {
+		int offset = node.getOffset();
+		if (offset >= 0 && offset < byOffset.length) {
+			int index = byOffset[offset];
+			if (index >= 0 && nodes[index] == node)
+				return index;
+		}
+
+		Integer index = byNode.get(node);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Yields the position in the successors array where the successors of the
+	 * given node begin. Successors can be retrieved through
+	 * {@link #successorAt(int)} for all positions between this (included) and
+	 * {@link #successorsEnd(int)} (excluded).
+	 *
+	 * @param index the number of the node
+	 *
+	 * @return the position of the first successor
+	 */
+	public int successorsBegin(int index) {
+		return successorsStart[index];
+	}
+
+	/**
+	 * Yields the position in the successors array where the successors of the
+	 * given node end (excluded).
+	 *
+	 * @param index the number of the node
+	 *
+	 * @return the position following the one of the last successor
+	 */
+	public int successorsEnd(int index) {
+		return successorsStart[index + 1];
+	}
+
+	/**
+	 * Yields the number of the successor stored at the given position.
+	 *
+	 * @param position the position
+	 *
+	 * @return the number of the successor
+	 */
+	public int successorAt(int position) {
+		return successors[position];
+	}
+
+	/**
+	 * Yields the position in the predecessors array where the predecessors of
+	 * the given node begin. Predecessors can be retrieved through
+	 * {@link #predecessorAt(int)} for all positions between this (included)
+	 * and {@link #predecessorsEnd(int)} (excluded).
+	 *
+	 * @param index the number of the node
+	 *
+	 * @return the position of the first predecessor
+	 */
+	public int predecessorsBegin(int index) {
+		return predecessorsStart[index];
+	}
+
+	/**
+	 * Yields the position in the predecessors array where the predecessors of
+	 * the given node end (excluded).
+	 *
+	 * @param index the number of the node
+	 *
+	 * @return the position following the one of the last predecessor
+	 */
+	public int predecessorsEnd(int index) {
+		return predecessorsStart[index + 1];
+	}
+
+	/**
+	 * Yields the number of the predecessor stored at the given position.
+	 *
+	 * @param position the position
+	 *
+	 * @return the number of the predecessor
+	 */
+	public int predecessorAt(int position) {
+		return predecessors[position];
+	}
+
+	/**
+	 * Yields the followers of the given node, or {@code null} if the node is
+	 * not part of this view.
+	 *
+	 * @param node the node
+	 *
+	 * @return the unmodifiable list of followers, or {@code null}
+	 */
+	public List<N> followersOf(N node) {
+		int index = indexOf(node);
+		return index < 0 ? null : followersViews[index];
+	}
+
+	/**
+	 * Yields the predecessors of the given node, or {@code null} if the node
+	 * is not part of this view.
+	 *
+	 * @param node the node
+	 *
+	 * @return the unmodifiable list of predecessors, or {@code null}
+	 */
+	public List<N> predecessorsOf(N node) {
+		int index = indexOf(node);
+		return index < 0 ? null : predecessorsViews[index];
+	}
+
+	/**
+	 * Yields the edge connecting the two given nodes, if any. Yields
+	 * {@code null} if such edge does not exist.
+	 *
+	 * @param source      the number of the source node
+	 * @param destination the number of the destination node
+	 *
+	 * @return the edge connecting {@code source} to {@code destination}, or
+	 *             {@code null}
+	 */
+	@SuppressWarnings("unchecked")
+	public E getEdgeConnecting(int source, int destination) {
+		return (E) edges[slot(key(source, destination))];
+	}
+
+	/**
+	 * Yields the edge connecting the two given nodes, if any. Yields
+	 * {@code null} if such edge does not exist, or if one of the two node is
+	 * not part of this view.
+	 *
+	 * @param source      the source node
+	 * @param destination the destination node
+	 *
+	 * @return the edge connecting {@code source} to {@code destination}, or
+	 *             {@code null}
+	 */
+	public E getEdgeConnecting(N source, N destination) {
+		int src = indexOf(source);
+		if (src < 0)
+			return null;
+		int dest = indexOf(destination);
+		if (dest < 0)
+			return null;
+		return getEdgeConnecting(src, dest);
+	}
+}
@@ -7,16 +7,27 @@ import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.lattices.FunctionalLattice;
 import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.caches.AnalysisContext;
 import it.unive.lisa.interprocedural.InterproceduralAnalysis;
+import it.unive.lisa.util.datastructures.graph.algorithms.StronglyConnectedComponents;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder.Component;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder.Cycle;
+import it.unive.lisa.util.workset.FIFOWorkingSet;
 import it.unive.lisa.util.workset.WorkingSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.concurrent.atomic.AtomicInteger;
-import org.apache.commons.lang3.tuple.Pair;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -44,6 +55,12 @@ public abstract class FixpointGraph<G extends FixpointGraph<G, N, E>,
 	 */
 	public static final int DEFAULT_WIDENING_THRESHOLD = 5;
 
+	/**
+	 * The weak topological order of this graph, lazily computed by
+	 * {@link #getWeakTopologicalOrder()}
+	 */
+	private WeakTopologicalOrder<G, N, E> wto;
+
 	/**
 	 * Builds the graph.
 	 */
@@ -183,13 +200,9 @@ public abstract class FixpointGraph<G extends FixpointGraph<G, N, E>,
 					Map<N, AnalysisState<A, H, V>> startingPoints, InterproceduralAnalysis<A, H, V> interprocedural,
 					WorkingSet<N> ws, int widenAfter, SemanticFunction<N, E, G, A, H, V, F> semantics)
 					throws FixpointException {
-		int size = adjacencyMatrix.getNodes().size();
-		Map<N, AtomicInteger> lubs = new HashMap<>(size);
-		Map<N, Pair<AnalysisState<A, H, V>, F>> result = new HashMap<>(size);
+		Results<AnalysisState<A, H, V>, F> results = new Results<>(freeze());
 		startingPoints.keySet().forEach(ws::push);
 
-		AnalysisState<A, H, V> oldApprox = null, newApprox;
-		F oldIntermediate = null, newIntermediate;
 		try {
 			while (!ws.isEmpty()) {
 				N current = ws.pop();
@@ -197,87 +210,506 @@ public abstract class FixpointGraph<G extends FixpointGraph<G, N, E>,
 				if (current == null)
 					throw new FixpointException(
 							"Unknown node encountered during fixpoint execution in '" + this + "'");
-				if (!adjacencyMatrix.getNodes().contains(current))
-					throw new FixpointException("'" + current
-							+ "' is not part of this graph, and cannot be analyzed in this fixpoint computation");
-
-				AnalysisState<A, H, V> entrystate;
-				try {
-					entrystate = getEntryState(current, startingPoints, result);
-				} catch (SemanticException e) {
-					throw new FixpointException(
-							"Exception while computing the entry state for '" + current + "' in " + this, e);
-				}
 
-				if (entrystate == null)
-					throw new FixpointException(current + " does not have an entry state");
+				if (update(current, startingPoints, interprocedural, widenAfter, semantics, results))
+					for (N instr : followersOf(current))
+						ws.push(instr);
+			}
 
-				if (result.containsKey(current)) {
-					oldApprox = result.get(current).getLeft();
-					oldIntermediate = result.get(current).getRight();
-				} else {
-					oldApprox = null;
-					oldIntermediate = null;
-				}
+			return flatten(results);
+		} catch (Exception e) {
+			log.fatal("Unexpected exception during fixpoint computation of '" + this + "': " + e);
+			throw new FixpointException("Unexpected exception during fixpoint computation", e);
+		}
+	}
 
-				try {
-					newIntermediate = (F) mkInternalStore(entrystate);
-					newApprox = semantics.compute(current, entrystate, interprocedural, newIntermediate);
-				} catch (SemanticException e) {
-					log.error("Evaluation of the semantics of '" + current + "' in " + this
-							+ " led to an exception: " + e);
-					throw new FixpointException("Semantic exception during fixpoint computation", e);
+	/**
+	 * Computes a fixpoint over this graph, exploiting the given
+	 * {@link ForkJoinPool} to process independent portions of the graph in
+	 * parallel. This method returns a {@code Map<N, AnalysisState<A, H, V>>}
+	 * instance mapping each {@link Node} to the {@link AnalysisState} computed
+	 * by this method. Note that the returned map has entries also for inner
+	 * nodes.<br>
+	 * <br>
+	 * The graph is first decomposed in its
+	 * {@link StronglyConnectedComponents strongly connected components}, whose
+	 * condensation is a directed acyclic graph. Each component is then
+	 * scheduled on {@code pool} as soon as all the components that precede it
+	 * have been completely analyzed, and its fixpoint is computed using a
+	 * {@link FIFOWorkingSet} holding only its own nodes. Sequences of
+	 * components where each one is the only follower of the previous one, and
+	 * the only predecessor of the next one, are analyzed within the same task
+	 * to avoid scheduling overhead. Inside each component, results obtained at
+	 * different iterations are composed exactly as in
+	 * {@link #fixpoint(Map, InterproceduralAnalysis, WorkingSet, int, SemanticFunction)}:
+	 * {@link Lattice#lub(Lattice)} is used up to
+	 * {@code widenAfter * predecessors_number} times, and
+	 * {@link Lattice#widening(Lattice)} afterwards. Since each component is
+	 * always analyzed with the same entry states and in the same order, the
+	 * results do not depend on how tasks are scheduled.<br>
+	 * <br>
+	 * Each node of a cyclic component keeps its own count of the iterations
+	 * that used {@link Lattice#lub(Lattice)}, as it happens in the sequential
+	 * fixpoint. However, a component is iterated only once all the ones
+	 * preceding it are stable, while the sequential fixpoint re-evaluates its
+	 * nodes every time one of their predecessors changes: nodes of a cycle
+	 * might thus be updated fewer times, and widening might be applied later.
+	 * This can yield results that differ from (and are more precise than) the
+	 * ones of the sequential fixpoint. The computation starts at the nodes in
+	 * {@code startingPoints}, using as its entry state their respective value:
+	 * nodes that are not reachable from those are not evaluated.<br>
+	 * <br>
+	 * Since the semantics of different nodes is computed concurrently,
+	 * {@code interprocedural} must support concurrent queries.
+	 * 
+	 * @param <A>             the type of {@link AbstractState}
+	 * @param <H>             the type of {@link HeapDomain} contained into the
+	 *                            computed abstract state
+	 * @param <V>             the type of {@link ValueDomain} contained into the
+	 *                            computed abstract state
+	 * @param <F>             the type of {@link FunctionalLattice} that will
+	 *                            hold analysis states computed on intermediate
+	 *                            nodes
+	 * @param startingPoints  a map between {@link Node}s that to use as a
+	 *                            starting point of the computation (that must
+	 *                            be nodes of this graph) and the entry states
+	 *                            to apply on it
+	 * @param interprocedural the interprocedural analysis that can be queried
+	 *                            when a call towards an other graph is
+	 *                            encountered
+	 * @param pool            the {@link ForkJoinPool} where the analysis of
+	 *                            each component will be executed
+	 * @param widenAfter      the number of times after which the
+	 *                            {@link Lattice#lub(Lattice)} invocation gets
+	 *                            replaced by the
+	 *                            {@link Lattice#widening(Lattice)} call. Use
+	 *                            {@code 0} to <b>always</b> use
+	 *                            {@link Lattice#lub(Lattice)}
+	 * @param semantics       the {@link SemanticFunction} that will be used for
+	 *                            computing the abstract post-state of nodes
+	 * 
+	 * @return a map that stores for each {@link Node} the result of the
+	 *             fixpoint computation
+	 * 
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a node, or if some
+	 *                               unknown/invalid node ends up in the working
+	 *                               set
+	 */
+	@SuppressWarnings("unchecked")
+	protected <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			F extends FunctionalLattice<F, N, AnalysisState<A, H, V>>> Map<N, AnalysisState<A, H, V>> fixpoint(
+					Map<N, AnalysisState<A, H, V>> startingPoints, InterproceduralAnalysis<A, H, V> interprocedural,
+					ForkJoinPool pool, int widenAfter, SemanticFunction<N, E, G, A, H, V, F> semantics)
+					throws FixpointException {
+		for (N start : startingPoints.keySet())
+			if (!adjacencyMatrix.getNodes().contains(start))
+				throw new FixpointException("'" + start
+						+ "' is not part of this graph, and cannot be analyzed in this fixpoint computation");
+
+		StronglyConnectedComponents<G, N, E> sccs = new StronglyConnectedComponents<>();
+		List<Collection<N>> components = sccs.build((G) this);
+		int count = components.size();
+
+		// the condensation of the graph
+		List<Set<Integer>> preds = new ArrayList<>(count);
+		List<Set<Integer>> succs = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			preds.add(new TreeSet<>());
+			succs.add(new TreeSet<>());
+		}
+		for (int i = 0; i < count; i++)
+			for (N node : components.get(i))
+				for (N pred : predecessorsOf(node)) {
+					int j = sccs.componentOf(pred);
+					if (j != i) {
+						preds.get(i).add(j);
+						succs.get(j).add(i);
+					}
 				}
 
-				if (oldApprox != null && oldIntermediate != null)
+		// chains of components are grouped in a single task
+		int[] groupOf = new int[count];
+		List<List<Integer>> groups = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Set<Integer> p = preds.get(i);
+			int single = p.size() == 1 ? p.iterator().next() : -1;
+			if (single != -1 && succs.get(single).size() == 1) {
+				groupOf[i] = groupOf[single];
+				groups.get(groupOf[i]).add(i);
+			} else {
+				groupOf[i] = groups.size();
+				groups.add(new ArrayList<>(Collections.singletonList(i)));
+			}
+		}
+
+		// each node is updated by a single task, and tasks reading the
+		// results of a node are scheduled after the one updating it
+		Results<AnalysisState<A, H, V>, F> results = new Results<>(freeze());
+
+		// tasks have to use the context of the analysis, whatever thread
+		// executes them
+		AnalysisContext context = AnalysisContext.current();
+
+		// groups are created in topological order
+		CompletableFuture<?>[] tasks = new CompletableFuture<?>[groups.size()];
+		for (int g = 0; g < tasks.length; g++) {
+			List<Integer> group = groups.get(g);
+			Runnable task = context.wrap(() -> {
+				for (int c : group)
 					try {
-						if (widenAfter == 0) {
-							newApprox = newApprox.lub(oldApprox);
-							newIntermediate = newIntermediate.lub(oldIntermediate);
-						} else {
-							// we multiply by the number of predecessors since
-							// if we have more than one
-							// the threshold will be reached faster
-							int lub = lubs
-									.computeIfAbsent(current,
-											e -> new AtomicInteger(widenAfter * predecessorsOf(e).size()))
-									.getAndDecrement();
-							if (lub > 0) {
-								newApprox = newApprox.lub(oldApprox);
-								newIntermediate = newIntermediate.lub(oldIntermediate);
-							} else {
-								newApprox = oldApprox.widening(newApprox);
-								newIntermediate = oldIntermediate.widening(newIntermediate);
-							}
-						}
-					} catch (SemanticException e) {
-						throw new FixpointException(
-								"Exception while updating the analysis results of '" + current + "' in " + this,
-								e);
+						solve(components.get(c), sccs, c, startingPoints, interprocedural, widenAfter, semantics,
+								results);
+					} catch (FixpointException e) {
+						throw new CompletionException(e);
 					}
+			});
 
-				if ((oldApprox == null && oldIntermediate == null) || !newApprox.lessOrEqual(oldApprox)
-						|| !newIntermediate.lessOrEqual(oldIntermediate)) {
-					result.put(current, Pair.of(newApprox, newIntermediate));
-					for (N instr : followersOf(current))
+			CompletableFuture<?>[] deps = preds.get(group.get(0)).stream().map(c -> tasks[groupOf[c]])
+					.toArray(CompletableFuture<?>[]::new);
+			if (deps.length == 0)
+				tasks[g] = CompletableFuture.runAsync(task, pool);
+			else
+				tasks[g] = CompletableFuture.allOf(deps).thenRunAsync(task, pool);
+		}
+
+		try {
+			CompletableFuture.allOf(tasks).join();
+			return flatten(results);
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof FixpointException)
+				throw (FixpointException) e.getCause();
+			log.fatal("Unexpected exception during fixpoint computation of '" + this + "': " + e.getCause());
+			throw new FixpointException("Unexpected exception during fixpoint computation", e.getCause());
+		} catch (Exception e) {
+			log.fatal("Unexpected exception during fixpoint computation of '" + this + "': " + e);
+			throw new FixpointException("Unexpected exception during fixpoint computation", e);
+		}
+	}
+
+	private <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			F extends FunctionalLattice<F, N, AnalysisState<A, H, V>>> void solve(
+					Collection<N> component, StronglyConnectedComponents<G, N, E> sccs, int index,
+					Map<N, AnalysisState<A, H, V>> startingPoints, InterproceduralAnalysis<A, H, V> interprocedural,
+					int widenAfter, SemanticFunction<N, E, G, A, H, V, F> semantics,
+					Results<AnalysisState<A, H, V>, F> results)
+					throws FixpointException {
+		WorkingSet<N> ws = FIFOWorkingSet.mk();
+		for (N node : component)
+			if (startingPoints.containsKey(node))
+				ws.push(node);
+			else
+				for (N pred : predecessorsOf(node))
+					if (sccs.componentOf(pred) != index && results.contains(results.indexOf(pred))) {
+						// reachable from an already analyzed component
+						ws.push(node);
+						break;
+					}
+
+		while (!ws.isEmpty()) {
+			N current = ws.pop();
+			if (update(current, startingPoints, interprocedural, widenAfter, semantics, results))
+				for (N instr : followersOf(current))
+					if (sccs.componentOf(instr) == index)
 						ws.push(instr);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			F extends FunctionalLattice<F, N, AnalysisState<A, H, V>>> boolean update(
+					N current,
+					Map<N, AnalysisState<A, H, V>> startingPoints, InterproceduralAnalysis<A, H, V> interprocedural,
+					int widenAfter, SemanticFunction<N, E, G, A, H, V, F> semantics,
+					Results<AnalysisState<A, H, V>, F> results)
+					throws FixpointException {
+		int index = results.indexOf(current);
+		if (index < 0)
+			throw new FixpointException("'" + current
+					+ "' is not part of this graph, and cannot be analyzed in this fixpoint computation");
+
+		AnalysisState<A, H, V> entrystate;
+		try {
+			entrystate = getEntryState(current, index, startingPoints, results);
+		} catch (SemanticException e) {
+			throw new FixpointException(
+					"Exception while computing the entry state for '" + current + "' in " + this, e);
+		}
+
+		if (entrystate == null)
+			throw new FixpointException(current + " does not have an entry state");
+
+		AnalysisState<A, H, V> oldApprox = null, newApprox;
+		F oldIntermediate = null, newIntermediate;
+		if (results.contains(index)) {
+			oldApprox = results.getState(index);
+			oldIntermediate = results.getIntermediate(index);
+		}
+
+		try {
+			newIntermediate = (F) mkInternalStore(entrystate);
+			newApprox = semantics.compute(current, entrystate, interprocedural, newIntermediate);
+		} catch (SemanticException e) {
+			log.error("Evaluation of the semantics of '" + current + "' in " + this
+					+ " led to an exception: " + e);
+			throw new FixpointException("Semantic exception during fixpoint computation", e);
+		}
+
+		if (oldApprox != null && oldIntermediate != null)
+			try {
+				if (widenAfter == 0) {
+					newApprox = newApprox.lub(oldApprox);
+					newIntermediate = newIntermediate.lub(oldIntermediate);
+				} else {
+					// we multiply by the number of predecessors since
+					// if we have more than one
+					// the threshold will be reached faster
+					int lub = results.getAndDecrementLubs(index, widenAfter * results.predecessorsCount(index));
+					if (lub > 0) {
+						newApprox = newApprox.lub(oldApprox);
+						newIntermediate = newIntermediate.lub(oldIntermediate);
+					} else {
+						newApprox = oldApprox.widening(newApprox);
+						newIntermediate = oldIntermediate.widening(newIntermediate);
+					}
 				}
+			} catch (SemanticException e) {
+				throw new FixpointException(
+						"Exception while updating the analysis results of '" + current + "' in " + this,
+						e);
 			}
 
-			HashMap<N, AnalysisState<A, H, V>> finalResults = new HashMap<>(result.size());
-			for (Entry<N, Pair<AnalysisState<A, H, V>, F>> e : result.entrySet()) {
-				finalResults.put(e.getKey(), e.getValue().getLeft());
-				for (Entry<N, AnalysisState<A, H, V>> ee : e.getValue().getRight())
-					finalResults.put(ee.getKey(), ee.getValue());
+		try {
+			if ((oldApprox == null && oldIntermediate == null) || !newApprox.lessOrEqual(oldApprox)
+					|| !newIntermediate.lessOrEqual(oldIntermediate)) {
+				results.put(index, newApprox, newIntermediate);
+				return true;
 			}
+		} catch (SemanticException e) {
+			throw new FixpointException(
+					"Exception while updating the analysis results of '" + current + "' in " + this, e);
+		}
+
+		return false;
+	}
 
-			return finalResults;
+	/**
+	 * Yields the weak topological order of this graph, computed through
+	 * {@link WeakTopologicalOrder#build(Graph)}. The order is computed the
+	 * first time this method is invoked, and it is then cached: the structure
+	 * of this graph is thus assumed not to change after that moment (as it
+	 * happens after the finalization of the program).
+	 * 
+	 * @return the weak topological order of this graph
+	 */
+	@SuppressWarnings("unchecked")
+	public final synchronized WeakTopologicalOrder<G, N, E> getWeakTopologicalOrder() {
+		if (wto == null) {
+			wto = new WeakTopologicalOrder<>();
+			wto.build((G) this);
+		}
+
+		return wto;
+	}
+
+	/**
+	 * Computes a fixpoint over this graph following the given weak topological
+	 * order, according to Bourdoncle's recursive iteration strategy. This
+	 * method returns a {@code Map<N, AnalysisState<A, H, V>>} instance mapping
+	 * each {@link Node} to the {@link AnalysisState} computed by this method.
+	 * Note that the returned map has entries also for inner nodes. Components
+	 * of the order are processed in sequence, and each {@link Cycle} is
+	 * iterated (together with all the cycles nested in it) until the result on
+	 * its head stabilizes. Heads are the only nodes where results obtained at
+	 * different iterations are composed: {@link Lattice#lub(Lattice)} is used
+	 * for the first {@code widenAfter} iterations of the cycle, while
+	 * {@link Lattice#widening(Lattice)} is used afterwards. The result of any
+	 * other node is simply replaced by the newly computed one. The computation
+	 * starts at the nodes in {@code startingPoints}, using as its entry state
+	 * their respective value: nodes that are not reachable from those are not
+	 * evaluated. {@code cg} will be invoked to get the approximation of all
+	 * invoked graphs.
+	 * 
+	 * @param <A>             the type of {@link AbstractState}
+	 * @param <H>             the type of {@link HeapDomain} contained into the
+	 *                            computed abstract state
+	 * @param <V>             the type of {@link ValueDomain} contained into the
+	 *                            computed abstract state
+	 * @param <F>             the type of {@link FunctionalLattice} that will
+	 *                            hold analysis states computed on intermediate
+	 *                            nodes
+	 * @param startingPoints  a map between {@link Node}s that to use as a
+	 *                            starting point of the computation (that must
+	 *                            be nodes of this graph) and the entry states
+	 *                            to apply on it
+	 * @param interprocedural the interprocedural analysis that can be queried
+	 *                            when a call towards an other graph is
+	 *                            encountered
+	 * @param order           the {@link WeakTopologicalOrder} of this graph
+	 *                            that drives the computation
+	 * @param widenAfter      the number of iterations of a cycle after which
+	 *                            the {@link Lattice#lub(Lattice)} invocation on
+	 *                            its head gets replaced by the
+	 *                            {@link Lattice#widening(Lattice)} call. Use
+	 *                            {@code 0} to <b>always</b> use
+	 *                            {@link Lattice#lub(Lattice)}
+	 * @param semantics       the {@link SemanticFunction} that will be used for
+	 *                            computing the abstract post-state of nodes
+	 * 
+	 * @return a map that stores for each {@link Node} the result of the
+	 *             fixpoint computation
+	 * 
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a node, or if the order
+	 *                               contains nodes that are not part of this
+	 *                               graph
+	 */
+	protected <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			F extends FunctionalLattice<F, N, AnalysisState<A, H, V>>> Map<N, AnalysisState<A, H, V>> fixpoint(
+					Map<N, AnalysisState<A, H, V>> startingPoints, InterproceduralAnalysis<A, H, V> interprocedural,
+					WeakTopologicalOrder<G, N, E> order, int widenAfter, SemanticFunction<N, E, G, A, H, V, F> semantics)
+					throws FixpointException {
+		Results<AnalysisState<A, H, V>, F> results = new Results<>(freeze());
+
+		try {
+			iterate(order.getComponents(), startingPoints, interprocedural, widenAfter, semantics, results);
+			return flatten(results);
+		} catch (FixpointException e) {
+			throw e;
 		} catch (Exception e) {
 			log.fatal("Unexpected exception during fixpoint computation of '" + this + "': " + e);
 			throw new FixpointException("Unexpected exception during fixpoint computation", e);
 		}
 	}
 
+	private <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			F extends FunctionalLattice<F, N, AnalysisState<A, H, V>>> void iterate(
+					List<Component<N>> components,
+					Map<N, AnalysisState<A, H, V>> startingPoints, InterproceduralAnalysis<A, H, V> interprocedural,
+					int widenAfter, SemanticFunction<N, E, G, A, H, V, F> semantics,
+					Results<AnalysisState<A, H, V>, F> results)
+					throws FixpointException {
+		for (Component<N> component : components)
+			if (!component.isCycle())
+				process(component.getHead(), false, startingPoints, interprocedural, widenAfter, semantics,
+						results);
+			else {
+				// the first evaluation of the head of the cycle
+				process(component.getHead(), true, startingPoints, interprocedural, widenAfter, semantics,
+						results);
+				// iterate the body until the head is stable
+				do
+					iterate(((Cycle<N>) component).getBody(), startingPoints, interprocedural, widenAfter,
+							semantics, results);
+				while (process(component.getHead(), true, startingPoints, interprocedural, widenAfter, semantics,
+						results));
+			}
+	}
+
+	@SuppressWarnings("unchecked")
+	private <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			F extends FunctionalLattice<F, N, AnalysisState<A, H, V>>> boolean process(
+					N current, boolean head,
+					Map<N, AnalysisState<A, H, V>> startingPoints, InterproceduralAnalysis<A, H, V> interprocedural,
+					int widenAfter, SemanticFunction<N, E, G, A, H, V, F> semantics,
+					Results<AnalysisState<A, H, V>, F> results)
+					throws FixpointException {
+		int index = results.indexOf(current);
+		if (index < 0)
+			throw new FixpointException("'" + current
+					+ "' is not part of this graph, and cannot be analyzed in this fixpoint computation");
+
+		AnalysisState<A, H, V> entrystate;
+		try {
+			entrystate = getEntryState(current, index, startingPoints, results);
+		} catch (SemanticException e) {
+			throw new FixpointException(
+					"Exception while computing the entry state for '" + current + "' in " + this, e);
+		}
+
+		if (entrystate == null)
+			// not reached yet
+			return false;
+
+		AnalysisState<A, H, V> newApprox;
+		F newIntermediate;
+		try {
+			newIntermediate = (F) mkInternalStore(entrystate);
+			newApprox = semantics.compute(current, entrystate, interprocedural, newIntermediate);
+		} catch (SemanticException e) {
+			log.error("Evaluation of the semantics of '" + current + "' in " + this
+					+ " led to an exception: " + e);
+			throw new FixpointException("Semantic exception during fixpoint computation", e);
+		}
+
+		if (!results.contains(index) || !head) {
+			results.put(index, newApprox, newIntermediate);
+			return true;
+		}
+
+		AnalysisState<A, H, V> oldApprox = results.getState(index);
+		F oldIntermediate = results.getIntermediate(index);
+		try {
+			if (widenAfter == 0 || results.getAndDecrementLubs(index, widenAfter) > 0) {
+				newApprox = newApprox.lub(oldApprox);
+				newIntermediate = newIntermediate.lub(oldIntermediate);
+			} else {
+				newApprox = oldApprox.widening(newApprox);
+				newIntermediate = oldIntermediate.widening(newIntermediate);
+			}
+
+			if (newApprox.lessOrEqual(oldApprox) && newIntermediate.lessOrEqual(oldIntermediate))
+				return false;
+		} catch (SemanticException e) {
+			throw new FixpointException(
+					"Exception while updating the analysis results of '" + current + "' in " + this, e);
+		}
+
+		results.put(index, newApprox, newIntermediate);
+		return true;
+	}
+
+	private <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			F extends FunctionalLattice<F, N, AnalysisState<A, H, V>>> Map<N, AnalysisState<A, H, V>> flatten(
+					Results<AnalysisState<A, H, V>, F> results) {
+		Map<N, AnalysisState<A, H, V>> finalResults = mkResultMap();
+		for (int i = 0; i < results.size(); i++)
+			if (results.contains(i)) {
+				finalResults.put(results.getNode(i), results.getState(i));
+				for (Entry<N, AnalysisState<A, H, V>> e : results.getIntermediate(i))
+					finalResults.put(e.getKey(), e.getValue());
+			}
+
+		return finalResults;
+	}
+
+	/**
+	 * Builds the map where the results of a fixpoint computation are
+	 * collected once the computation terminates. The default implementation
+	 * of this method returns a new {@link HashMap}.
+	 * 
+	 * @param <T> the type of the values of the map
+	 * 
+	 * @return the map where results will be stored
+	 */
+	protected <T> Map<N, T> mkResultMap() {
+		return new HashMap<>();
+	}
+
 	/**
 	 * Builds a new instance of the {@link FunctionalLattice} that is used to
 	 * store the fixpoint results on internal nodes, that is, node that are
@@ -302,28 +734,24 @@ public abstract class FixpointGraph<G extends FixpointGraph<G, N, E>,
 			H extends HeapDomain<H>,
 			V extends ValueDomain<V>,
 			F extends FunctionalLattice<F, N, AnalysisState<A, H, V>>> AnalysisState<A, H, V> getEntryState(
-					N current,
+					N current, int index,
 					Map<N, AnalysisState<A, H, V>> startingPoints,
-					Map<N, Pair<AnalysisState<A, H, V>, F>> result)
+					Results<AnalysisState<A, H, V>, F> results)
 					throws SemanticException {
 		AnalysisState<A, H, V> entrystate = startingPoints.get(current);
-		Collection<N> preds = predecessorsOf(current);
-		List<AnalysisState<A, H, V>> states = new ArrayList<>(preds.size());
+		CompressedAdjacency<N, E, G> view = results.view;
 
-		for (N pred : preds)
-			if (result.containsKey(pred)) {
+		for (int pos = view.predecessorsBegin(index); pos < view.predecessorsEnd(index); pos++) {
+			int pred = view.predecessorAt(pos);
+			if (results.contains(pred)) {
 				// this might not have been computed yet
-				E edge = adjacencyMatrix.getEdgeConnecting(pred, current);
-				AnalysisState<A, H, V> traversed = edge.traverse(result.get(pred).getLeft());
+				E edge = view.getEdgeConnecting(pred, index);
+				AnalysisState<A, H, V> traversed = edge.traverse(results.getState(pred));
 				// we clean it from out-of-scope variables
-				states.add(cleanUpPostState(pred, traversed));
+				AnalysisState<A, H, V> state = cleanUpPostState(view.getNode(pred), traversed);
+				entrystate = entrystate == null ? state : entrystate.lub(state);
 			}
-
-		for (AnalysisState<A, H, V> s : states)
-			if (entrystate == null)
-				entrystate = s;
-			else
-				entrystate = entrystate.lub(s);
+		}
 
 		return entrystate;
 	}
@@ -353,4 +781,90 @@ public abstract class FixpointGraph<G extends FixpointGraph<G, N, E>,
 					throws SemanticException {
 		return computedState;
 	}
+
+	/**
+	 * The results of a fixpoint computation, stored in plain arrays indexed
+	 * by the numbers that the {@link CompressedAdjacency} view of this graph
+	 * assigns to the nodes. Instances of this class are not synchronized: the
+	 * parallel fixpoint can use them since each node is updated by a single
+	 * task, and tasks reading the results of a node always happen after the
+	 * one that computed them.
+	 *
+	 * @param <S> the type of the states computed for the nodes
+	 * @param <F> the type of the stores holding the states computed for
+	 *                internal nodes
+	 */
+	private final class Results<S, F> {
+
+		/**
+		 * Marks counters of {@link #lubs} that have not been initialized
+		 */
+		private static final int UNSET = Integer.MIN_VALUE;
+
+		private final CompressedAdjacency<N, E, G> view;
+
+		private final Object[] states;
+
+		private final Object[] intermediates;
+
+		/**
+		 * The number of least upper bounds that can still be performed on
+		 * each node before switching to widening
+		 */
+		private final int[] lubs;
+
+		private Results(CompressedAdjacency<N, E, G> view) {
+			this.view = view;
+			this.states = new Object[view.size()];
+			this.intermediates = new Object[view.size()];
+			this.lubs = new int[view.size()];
+			Arrays.fill(lubs, UNSET);
+		}
+
+		private int size() {
+			return states.length;
+		}
+
+		private int indexOf(N node) {
+			return view.indexOf(node);
+		}
+
+		private N getNode(int index) {
+			return view.getNode(index);
+		}
+
+		private int predecessorsCount(int index) {
+			return view.predecessorsEnd(index) - view.predecessorsBegin(index);
+		}
+
+		private boolean contains(int index) {
+			return index >= 0 && states[index] != null;
+		}
+
+		@SuppressWarnings("unchecked")
+		private S getState(int index) {
+			return (S) states[index];
+		}
+
+		@SuppressWarnings("unchecked")
+		private F getIntermediate(int index) {
+			return (F) intermediates[index];
+		}
+
+		private void put(int index, S state, F intermediate) {
+			states[index] = state;
+			intermediates[index] = intermediate;
+		}
+
+		/**
+		 * Decrements the counter of the given node, initializing it to
+		 * {@code initial} if this is the first time it is used, and yields its
+		 * value before the decrement.
+		 */
+		private int getAndDecrementLubs(int index, int initial) {
+			if (lubs[index] == UNSET)
+				lubs[index] = initial;
+			return lubs[index]--;
+		}
+	}
 }
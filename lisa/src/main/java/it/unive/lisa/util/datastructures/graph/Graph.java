@@ -228,6 +228,18 @@ public abstract class Graph<G extends Graph<G, N, E>, N extends Node<N, E, G>, E
 		return adjacencyMatrix.predecessorsOf(node);
 	}
 
+	/**
+	 * Freezes the {@link AdjacencyMatrix} of this graph (see
+	 * {@link AdjacencyMatrix#freeze()}), so that successors, predecessors and
+	 * edges can be queried without allocating new objects until the graph is
+	 * modified. This should be invoked once the graph has been fully built.
+	 * 
+	 * @return the compressed view of the matrix of this graph
+	 */
+	public final CompressedAdjacency<N, E, G> freeze() {
+		return adjacencyMatrix.freeze();
+	}
+
 	/**
 	 * Dumps the content of this graph in the given writer, formatted as a dot
 	 * file.
@@ -22,6 +22,19 @@ public interface Node<N extends Node<N, E, G>, E extends Edge<N, E, G>, G extend
 	 */
 	int setOffset(int offset);
 
+	/**
+	 * Yields the offset of this node, as set by {@link #setOffset(int)}, or
+	 * {@code -1} if it has not been set yet. Offsets are only used to speed up
+	 * lookups on graphs: the default implementation returns {@code -1},
+	 * meaning that nodes are looked up through {@link Object#hashCode()} and
+	 * {@link Object#equals(Object)}.
+	 * 
+	 * @return the offset of this node
+	 */
+	default int getOffset() {
+		return -1;
+	}
+
 	/**
 	 * Checks if this node is effectively equal to the given one, that is, if
 	 * they have the same structure while potentially being different instances.
@@ -0,0 +1,188 @@
+package it.unive.lisa.util.datastructures.graph.algorithms;
+
+import it.unive.lisa.util.datastructures.graph.Edge;
+import it.unive.lisa.util.datastructures.graph.Graph;
+import it.unive.lisa.util.datastructures.graph.Node;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * An algorithm that computes the strongly connected components (SCCs) of a
+ * graph. Two nodes belong to the same component if each of them can be reached
+ * from the other one. Since the graph obtained by collapsing each component in
+ * a single node (the <i>condensation</i> of the original graph) is acyclic, the
+ * components are returned in topological order: if an edge goes from a node in
+ * component {@code i} to a node in component {@code j}, then {@code i <= j}.
+ * <br>
+ * <br>
+ * The computation follows Tarjan's algorithm, and it is carried out without
+ * recursion, so that it can be safely applied to graphs with long chains of
+ * nodes.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <N> the type of {@link Node}s in the target graphs
+ * @param <E> the type of {@link Edge}s in the target graphs
+ * @param <G> the type of the target graphs
+ *
+ * @see <a href=
+ *          "https://en.wikipedia.org/wiki/Tarjan%27s_strongly_connected_components_algorithm">Tarjan's
+ *          strongly connected components algorithm</a>
+ */
+public class StronglyConnectedComponents<G extends Graph<G, N, E>,
+		N extends Node<N, E, G>,
+		E extends Edge<N, E, G>> {
+
+	private final List<Collection<N>> components;
+
+	private final Map<N, Integer> indexes;
+
+	/**
+	 * Builds the components. To run the algorithm, use {@link #build(Graph)}.
+	 */
+	public StronglyConnectedComponents() {
+		components = new ArrayList<>();
+		indexes = new IdentityHashMap<>();
+	}
+
+	/**
+	 * Yields the components computed by the last call to {@link #build(Graph)},
+	 * in topological order.
+	 *
+	 * @return the components
+	 */
+	public List<Collection<N>> getComponents() {
+		return components;
+	}
+
+	/**
+	 * Yields the position, inside the list returned by {@link #getComponents()},
+	 * of the component containing the given node, or {@code -1} if the node
+	 * was not part of the graph passed as argument to the last call to
+	 * {@link #build(Graph)}.
+	 *
+	 * @param node the node
+	 *
+	 * @return the index of the component containing {@code node}
+	 */
+	public int componentOf(N node) {
+		return indexes.getOrDefault(node, -1);
+	}
+
+	/**
+	 * Builds the strongly connected components of the given graph. The visit
+	 * starts from the entrypoints of the graph, and then continues with all the
+	 * nodes that have not been reached, so that every node of the graph is part
+	 * of exactly one component. The returned value, that can also be accessed
+	 * later through {@link #getComponents()}, lists the components in
+	 * topological order.
+	 *
+	 * @param graph the graph whose components are to be computed
+	 *
+	 * @return the components of the graph, in topological order
+	 */
+	public List<Collection<N>> build(G graph) {
+		components.clear();
+		indexes.clear();
+
+		List<N> roots = new ArrayList<>(graph.getEntrypoints());
+		roots.addAll(graph.getNodes());
+		components.addAll(compute(roots, graph::followersOf));
+		for (int i = 0; i < components.size(); i++)
+			for (N node : components.get(i))
+				indexes.put(node, i);
+
+		return components;
+	}
+
+	/**
+	 * Computes the strongly connected components of the graph formed by the
+	 * given nodes, where the edges leaving each node are described by
+	 * {@code followers}. This is useful for graph-like structures that are not
+	 * instances of {@link Graph}. The visit starts from the elements of
+	 * {@code roots}, in the order they are provided: nodes that are not
+	 * reachable from those are not part of any component. Nodes are compared
+	 * by identity.
+	 * 
+	 * @param <T>       the type of the nodes
+	 * @param roots     the nodes where the visit starts
+	 * @param followers the function yielding the followers of each node
+	 * 
+	 * @return the components of the graph, in topological order
+	 */
+	public static <T> List<Collection<T>> compute(Iterable<T> roots,
+			Function<T, ? extends Iterable<T>> followers) {
+		List<Collection<T>> result = new ArrayList<>();
+		Map<T, int[]> visit = new IdentityHashMap<>();
+		Set<T> onStack = Collections.newSetFromMap(new IdentityHashMap<>());
+		LinkedList<T> stack = new LinkedList<>();
+		int[] counter = new int[] { 0 };
+
+		for (T root : roots)
+			if (!visit.containsKey(root))
+				visit(root, followers, result, visit, onStack, stack, counter);
+
+		// tarjan's algorithm yields components in reverse topological order
+		Collections.reverse(result);
+		return result;
+	}
+
+	private static <T> void visit(T root, Function<T, ? extends Iterable<T>> followers, List<Collection<T>> result,
+			Map<T, int[]> visit, Set<T> onStack, LinkedList<T> stack, int[] counter) {
+		// each frame holds a node and the iterator over its followers
+		LinkedList<Map.Entry<T, Iterator<T>>> frames = new LinkedList<>();
+		open(root, followers, visit, onStack, stack, counter, frames);
+
+		while (!frames.isEmpty()) {
+			T node = frames.peek().getKey();
+			Iterator<T> succs = frames.peek().getValue();
+			int[] data = visit.get(node);
+
+			if (succs.hasNext()) {
+				T next = succs.next();
+				if (!visit.containsKey(next))
+					open(next, followers, visit, onStack, stack, counter, frames);
+				else if (onStack.contains(next))
+					// low-link = min(low-link, index of next)
+					data[1] = Math.min(data[1], visit.get(next)[0]);
+				continue;
+			}
+
+			frames.pop();
+			if (data[1] == data[0]) {
+				// node is the root of a component
+				Collection<T> component = new ArrayList<>();
+				T element;
+				do {
+					element = stack.pop();
+					onStack.remove(element);
+					component.add(element);
+				} while (element != node);
+				result.add(component);
+			}
+
+			if (!frames.isEmpty()) {
+				int[] parent = visit.get(frames.peek().getKey());
+				parent[1] = Math.min(parent[1], data[1]);
+			}
+		}
+	}
+
+	private static <T> void open(T node, Function<T, ? extends Iterable<T>> followers, Map<T, int[]> visit,
+			Set<T> onStack, LinkedList<T> stack, int[] counter, LinkedList<Map.Entry<T, Iterator<T>>> frames) {
+		// index and low-link of the node
+		visit.put(node, new int[] { counter[0], counter[0] });
+		counter[0]++;
+		stack.push(node);
+		onStack.add(node);
+		frames.push(Map.entry(node, followers.apply(node).iterator()));
+	}
+}
@@ -0,0 +1,319 @@
+package it.unive.lisa.util.datastructures.graph.algorithms;
+
+import it.unive.lisa.util.datastructures.graph.Edge;
+import it.unive.lisa.util.datastructures.graph.Graph;
+import it.unive.lisa.util.datastructures.graph.Node;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * An algorithm that computes Bourdoncle's weak topological order (WTO) of the
+ * nodes of a graph. A WTO is a hierarchical ordering of the nodes, where each
+ * strongly connected region of the graph is represented by a {@link Cycle}
+ * with a distinguished {@link Cycle#getHead() head}, whose body is itself a
+ * weak topological order. For every edge {@code u -> v}, either {@code u}
+ * comes before {@code v} in the order, or {@code v} is the head of a cycle
+ * containing {@code u}. This means that every cycle of the graph passes
+ * through at least one head, making heads the only points where
+ * {@link it.unive.lisa.analysis.Lattice#widening(it.unive.lisa.analysis.Lattice)}
+ * needs to be applied during fixpoint computations.<br>
+ * <br>
+ * The computation is carried out without recursion, so that it can be safely
+ * applied to graphs with long chains of nodes.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <N> the type of {@link Node}s in the target graphs
+ * @param <E> the type of {@link Edge}s in the target graphs
+ * @param <G> the type of the target graphs
+ *
+ * @see <a href="https://doi.org/10.1007/BFb0039704">F. Bourdoncle, Efficient
+ *          chaotic iteration strategies with widenings</a>
+ */
+public class WeakTopologicalOrder<G extends Graph<G, N, E>, N extends Node<N, E, G>, E extends Edge<N, E, G>> {
+
+	private final LinkedList<Component<N>> components;
+
+	private final Set<N> heads;
+
+	/**
+	 * Builds the order. To run the algorithm, use {@link #build(Graph)}.
+	 */
+	public WeakTopologicalOrder() {
+		components = new LinkedList<>();
+		heads = Collections.newSetFromMap(new IdentityHashMap<>());
+	}
+
+	/**
+	 * Yields the top-level components of the last order computed through
+	 * {@link #build(Graph)}.
+	 *
+	 * @return the top-level components, in the order they should be processed
+	 */
+	public List<Component<N>> getComponents() {
+		return components;
+	}
+
+	/**
+	 * Yields {@code true} if and only if the given node is the head of a
+	 * {@link Cycle} of the last order computed through {@link #build(Graph)}.
+	 *
+	 * @param node the node to check
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean isHead(N node) {
+		return heads.contains(node);
+	}
+
+	/**
+	 * Yields the heads of all the {@link Cycle}s of the last order computed
+	 * through {@link #build(Graph)}.
+	 *
+	 * @return the heads
+	 */
+	public Collection<N> getHeads() {
+		return heads;
+	}
+
+	/**
+	 * Builds the weak topological order of the given graph. The visit starts
+	 * from the entrypoints of the graph, and then continues with all the nodes
+	 * that have not been reached, so that every node of the graph is part of
+	 * the returned order. The returned value can also be accessed later through
+	 * {@link #getComponents()}.
+	 *
+	 * @param graph the graph whose order is to be computed
+	 *
+	 * @return the top-level components of the order
+	 */
+	public List<Component<N>> build(G graph) {
+		components.clear();
+		heads.clear();
+
+		Map<N, Integer> dfn = new IdentityHashMap<>();
+		LinkedList<N> stack = new LinkedList<>();
+		int[] num = new int[] { 0 };
+
+		for (N root : graph.getEntrypoints())
+			if (dfn.getOrDefault(root, 0) == 0)
+				visit(graph, root, components, dfn, stack, num);
+
+		for (N root : graph.getNodes())
+			if (dfn.getOrDefault(root, 0) == 0)
+				visit(graph, root, components, dfn, stack, num);
+
+		return components;
+	}
+
+	private void visit(G graph, N root, LinkedList<Component<N>> partition, Map<N, Integer> dfn,
+			LinkedList<N> stack, int[] num) {
+		LinkedList<Frame> frames = new LinkedList<>();
+		frames.push(new Frame(root, partition, false));
+		int returned = 0;
+		boolean hasReturned = false;
+
+		while (!frames.isEmpty()) {
+			Frame frame = frames.peek();
+
+			if (frame.successors == null) {
+				frame.successors = graph.followersOf(frame.node).iterator();
+				if (!frame.component) {
+					stack.push(frame.node);
+					dfn.put(frame.node, ++num[0]);
+					frame.head = num[0];
+				}
+			} else if (hasReturned && !frame.component) {
+				// the visit of a successor just completed
+				if (returned <= frame.head) {
+					frame.head = returned;
+					frame.loop = true;
+				}
+			}
+			hasReturned = false;
+
+			if (descend(frame, frames, dfn))
+				continue;
+
+			frames.pop();
+			if (frame.component) {
+				// the body of the cycle has been computed
+				heads.add(frame.node);
+				frame.partition.addFirst(new Cycle<>(frame.node, frame.body));
+				returned = frame.head;
+				hasReturned = true;
+				continue;
+			}
+
+			if (frame.head == dfn.get(frame.node)) {
+				dfn.put(frame.node, Integer.MAX_VALUE);
+				N element = stack.pop();
+				if (frame.loop) {
+					while (element != frame.node) {
+						dfn.put(element, 0);
+						element = stack.pop();
+					}
+					// the value to return is delivered when the component
+					// frame completes
+					Frame cycle = new Frame(frame.node, frame.partition, true);
+					cycle.head = frame.head;
+					frames.push(cycle);
+					continue;
+				} else
+					frame.partition.addFirst(new Vertex<>(frame.node));
+			}
+
+			returned = frame.head;
+			hasReturned = true;
+		}
+	}
+
+	private boolean descend(Frame frame, LinkedList<Frame> frames, Map<N, Integer> dfn) {
+		while (frame.successors.hasNext()) {
+			N succ = frame.successors.next();
+			int d = dfn.getOrDefault(succ, 0);
+			if (d == 0) {
+				frames.push(new Frame(succ, frame.component ? frame.body : frame.partition, false));
+				return true;
+			} else if (!frame.component && d <= frame.head) {
+				frame.head = d;
+				frame.loop = true;
+			}
+		}
+
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		return StringUtils.join(components, " ");
+	}
+
+	/**
+	 * A frame of the (simulated) recursive visit of the graph.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	private class Frame {
+		private final N node;
+		private final LinkedList<Component<N>> partition;
+		private final boolean component;
+		private final LinkedList<Component<N>> body;
+		private Iterator<N> successors;
+		private int head;
+		private boolean loop;
+
+		private Frame(N node, LinkedList<Component<N>> partition, boolean component) {
+			this.node = node;
+			this.partition = partition;
+			this.component = component;
+			this.body = component ? new LinkedList<>() : null;
+		}
+	}
+
+	/**
+	 * A component of a {@link WeakTopologicalOrder}: either a single
+	 * {@link Vertex} or a {@link Cycle}.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 *
+	 * @param <N> the type of nodes in this component
+	 */
+	public abstract static class Component<N> {
+
+		private final N head;
+
+		private Component(N head) {
+			this.head = head;
+		}
+
+		/**
+		 * Yields the head of this component, that is, the node itself for a
+		 * {@link Vertex} and the head of the cycle for a {@link Cycle}.
+		 *
+		 * @return the head
+		 */
+		public N getHead() {
+			return head;
+		}
+
+		/**
+		 * Yields {@code true} if and only if this component is a
+		 * {@link Cycle}.
+		 *
+		 * @return {@code true} if that condition holds
+		 */
+		public abstract boolean isCycle();
+	}
+
+	/**
+	 * A {@link Component} made of a single node that is not part of any
+	 * strongly connected region at its level of nesting.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 *
+	 * @param <N> the type of nodes in this component
+	 */
+	public static class Vertex<N> extends Component<N> {
+
+		private Vertex(N node) {
+			super(node);
+		}
+
+		@Override
+		public boolean isCycle() {
+			return false;
+		}
+
+		@Override
+		public String toString() {
+			return String.valueOf(getHead());
+		}
+	}
+
+	/**
+	 * A {@link Component} representing a strongly connected region of the
+	 * graph, made of a head and of a body that is itself a weak topological
+	 * order.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 *
+	 * @param <N> the type of nodes in this component
+	 */
+	public static class Cycle<N> extends Component<N> {
+
+		private final List<Component<N>> body;
+
+		private Cycle(N head, List<Component<N>> body) {
+			super(head);
+			this.body = body;
+		}
+
+		/**
+		 * Yields the components nested in this cycle, head excluded, in the
+		 * order they should be processed.
+		 *
+		 * @return the body of this cycle
+		 */
+		public List<Component<N>> getBody() {
+			return body;
+		}
+
+		@Override
+		public boolean isCycle() {
+			return true;
+		}
+
+		@Override
+		public String toString() {
+			return "(" + getHead() + (body.isEmpty() ? "" : " " + StringUtils.join(body, " ")) + ")";
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package it.unive.lisa.util.file;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -99,12 +100,14 @@ public class FileManager {
 	 * 
 	 * @param name the name of the file to create
 	 * 
-	 * @return a {@link Writer} instance that can write to the created file
+	 * @return a buffered {@link Writer} instance that can write to the created
+	 *             file
 	 * 
 	 * @throws IOException if something goes wrong while creating the file
 	 */
 	public Writer mkDotFile(String name) throws IOException {
-		return mkOutputFile(cleanupForDotFile(name) + ".dot", false);
+		// dot files are written a few characters at a time
+		return new BufferedWriter(mkOutputFile(cleanupForDotFile(name) + ".dot", false));
 	}
 
 	private static String cleanupForDotFile(String name) {
@@ -0,0 +1,176 @@
+package it.unive.lisa.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * An annotation processor that generates the index of the analysis components
+ * defined in the compiled sources. The index is a resource named
+ * {@value #INDEX}, where each line has the form
+ * {@code component=implementation}, with both sides being binary class names:
+ * {@code implementation} is a concrete class that can be assigned to
+ * {@code component}, one of the components listed in
+ * {@code LiSAFactory.configurableComponents()}. The index is read by
+ * {@code LiSAFactory} to find the alternatives of each component without
+ * scanning the classpath.<br>
+ * <br>
+ * The processor claims no annotation, and it inspects every class (including
+ * nested ones) that is compiled. If only part of the sources is compiled, the
+ * index found in the class output is merged with the new entries: the entries
+ * of the classes that are compiled again are replaced, while the ones of the
+ * classes that are still available are kept. Since the index is a single
+ * resource built from all the classes, the processor is not registered for
+ * Gradle's incremental compilation, that recompiles all the sources whenever
+ * the processor is used.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@SupportedAnnotationTypes("*")
+public class ComponentIndexProcessor extends AbstractProcessor {
+
+	/**
+	 * The name of the generated resource
+	 */
+	public static final String INDEX = "META-INF/lisa/components";
+
+	/**
+	 * The components to index, that must be kept in sync with
+	 * {@code LiSAFactory.configurableComponents()}
+	 */
+	private static final List<String> COMPONENTS = Arrays.asList(
+			"it.unive.lisa.interprocedural.callgraph.CallGraph",
+			"it.unive.lisa.analysis.AbstractState",
+			"it.unive.lisa.analysis.heap.HeapDomain",
+			"it.unive.lisa.analysis.value.ValueDomain",
+			"it.unive.lisa.analysis.nonrelational.heap.NonRelationalHeapDomain",
+			"it.unive.lisa.analysis.nonrelational.value.NonRelationalValueDomain");
+
+	/**
+	 * The lines of the index, sorted to make the output deterministic
+	 */
+	private final Set<String> entries = new TreeSet<>();
+
+	/**
+	 * The binary names of the classes that have been compiled
+	 */
+	private final Set<String> compiled = new HashSet<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver()) {
+			writeIndex();
+			return false;
+		}
+
+		Elements elements = processingEnv.getElementUtils();
+		Types types = processingEnv.getTypeUtils();
+		for (Element root : roundEnv.getRootElements())
+			collect(root, elements);
+
+		for (String name : COMPONENTS) {
+			TypeElement component = elements.getTypeElement(name);
+			if (component == null)
+				// the component is not available in this compilation
+				continue;
+
+			TypeMirror target = types.erasure(component.asType());
+			for (Element root : roundEnv.getRootElements())
+				visit(root, name, target, elements, types);
+		}
+
+		return false;
+	}
+
+	private void visit(Element element, String component, TypeMirror target, Elements elements, Types types) {
+		if (!element.getKind().isClass() && !element.getKind().isInterface())
+			return;
+
+		TypeElement type = (TypeElement) element;
+		if (type.getKind() == ElementKind.CLASS && !type.getModifiers().contains(Modifier.ABSTRACT)
+				&& types.isAssignable(types.erasure(type.asType()), target))
+			entries.add(component + "=" + elements.getBinaryName(type));
+
+		for (Element nested : type.getEnclosedElements())
+			visit(nested, component, target, elements, types);
+	}
+
+	private void collect(Element element, Elements elements) {
+		if (!element.getKind().isClass() && !element.getKind().isInterface())
+			return;
+
+		TypeElement type = (TypeElement) element;
+		compiled.add(elements.getBinaryName(type).toString());
+		for (Element nested : type.getEnclosedElements())
+			collect(nested, elements);
+	}
+
+	private boolean mergeExistingIndex() {
+		List<String> lines;
+		try {
+			FileObject index = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX);
+			try (BufferedReader reader = new BufferedReader(index.openReader(true))) {
+				lines = reader.lines().collect(Collectors.toList());
+			}
+		} catch (IOException | IllegalArgumentException e) {
+			// no index has been generated by a previous compilation
+			return false;
+		}
+
+		Elements elements = processingEnv.getElementUtils();
+		for (String line : lines) {
+			int separator = line.indexOf('=');
+			if (separator < 0)
+				continue;
+			String implementation = line.substring(separator + 1).trim();
+			// classes compiled again have already been inspected, while the
+			// ones that are not available anymore have been removed
+			if (!compiled.contains(implementation)
+					&& elements.getTypeElement(implementation.replace('$', '.')) != null)
+				entries.add(line.trim());
+		}
+		return true;
+	}
+
+	private void writeIndex() {
+		// an existing index is overwritten even if no entry is left
+		if (!mergeExistingIndex() && entries.isEmpty())
+			return;
+
+		try {
+			FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX);
+			try (Writer writer = index.openWriter()) {
+				for (String entry : entries)
+					writer.write(entry + "\n");
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Kind.WARNING,
+					"Unable to write the component index: " + e.getMessage());
+		}
+	}
+}
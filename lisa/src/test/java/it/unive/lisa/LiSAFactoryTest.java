@@ -12,11 +12,16 @@ import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
 import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.caches.Caches;
 import it.unive.lisa.symbolic.value.Variable;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import org.junit.Test;
+import org.reflections.Reflections;
+import org.reflections.scanners.SubTypesScanner;
 
 public class LiSAFactoryTest {
 
@@ -111,4 +116,18 @@ public class LiSAFactoryTest {
 
 		return def.getClass();
 	}
+
+	@Test
+	public void ensureIndexMatchesClasspath() {
+		Reflections scanner = new Reflections(LiSA.class, new SubTypesScanner());
+		for (ConfigurableComponent<?> comp : components) {
+			Set<Class<?>> expected = new HashSet<>();
+			for (Class<?> c : scanner.getSubTypesOf(comp.getComponent()))
+				if (!Modifier.isAbstract(c.getModifiers()) && !Modifier.isInterface(c.getModifiers())
+						&& !c.isAnonymousClass())
+					expected.add(c);
+			assertEquals("Wrong alternatives for " + comp.getComponent().getName(), expected,
+					new HashSet<>(comp.getAlternatives()));
+		}
+	}
 }
@@ -0,0 +1,114 @@
+package it.unive.lisa.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.program.CompilationUnit;
+import it.unive.lisa.program.SourceCodeLocation;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CFGDescriptor;
+import it.unive.lisa.program.cfg.edge.SequentialEdge;
+import it.unive.lisa.program.cfg.statement.Literal;
+import it.unive.lisa.program.cfg.statement.NoOp;
+import it.unive.lisa.program.cfg.statement.Return;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.type.Untyped;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import org.junit.Test;
+
+public class StatementArrayMapTest {
+
+	private static final SourceCodeLocation location = new SourceCodeLocation("fake", 0, 0);
+
+	private final CFG cfg = new CFG(
+			new CFGDescriptor(location, new CompilationUnit(location, "foo", false), true, "foo"));
+
+	private final Statement first = new NoOp(cfg, location);
+	private final Statement removed = new NoOp(cfg, location);
+	private final Literal value = new Literal(cfg, location, 5, Untyped.INSTANCE);
+	private final Statement ret = new Return(cfg, location, value);
+
+	private void build() {
+		cfg.addNode(first, true);
+		cfg.addNode(removed);
+		cfg.addNode(ret);
+		cfg.addEdge(new SequentialEdge(first, removed));
+		cfg.addEdge(new SequentialEdge(removed, ret));
+	}
+
+	@Test
+	public void testFreezeAssignsDenseOffsets() {
+		build();
+		cfg.getAdjacencyMatrix().removeNode(removed);
+		assertEquals(2, ret.getOffset());
+
+		cfg.freeze();
+		assertEquals(0, first.getOffset());
+		assertEquals(1, ret.getOffset());
+		assertEquals(2, value.getOffset());
+		assertEquals(3, cfg.getAdjacencyMatrix().getNextOffset());
+	}
+
+	@Test
+	public void testSameBehaviorAsHashMap() {
+		build();
+		cfg.freeze();
+		StatementArrayMap<String> map = new StatementArrayMap<>();
+		Map<Statement, String> expected = new HashMap<>();
+		Statement detached = new NoOp(cfg, location);
+		for (Statement st : new Statement[] { value, first, detached, ret }) {
+			map.put(st, st.toString());
+			expected.put(st, st.toString());
+		}
+
+		assertEquals(expected, map);
+		assertEquals(expected.hashCode(), map.hashCode());
+		assertEquals("5", map.get(value));
+		assertTrue(map.containsKey(detached));
+		assertFalse(map.containsKey(removed));
+
+		assertEquals("5", map.remove(value));
+		expected.remove(value);
+		assertEquals(expected, map);
+
+		Iterator<Map.Entry<Statement, String>> it = map.entrySet().iterator();
+		while (it.hasNext())
+			if (it.next().getKey() == detached)
+				it.remove();
+		expected.remove(detached);
+		assertEquals(expected, map);
+	}
+
+	@Test
+	public void testSharedOffsets() {
+		build();
+		cfg.freeze();
+		StatementArrayMap<String> map = new StatementArrayMap<>(0, 4);
+		Statement sameOffset = new NoOp(cfg, location);
+		sameOffset.setOffset(ret.getOffset());
+		map.put(ret, "ret");
+		map.put(sameOffset, "other");
+		assertEquals(2, map.size());
+		assertEquals("ret", map.get(ret));
+		assertEquals("other", map.get(sameOffset));
+	}
+
+	@Test
+	public void testCopiesAreIndependent() {
+		build();
+		cfg.freeze();
+		StatementArrayMap<String> map = new StatementArrayMap<>();
+		map.put(first, "first");
+		StatementArrayMap<String> copy = new StatementArrayMap<>(map);
+		copy.put(first, "changed");
+		copy.put(ret, "ret");
+		assertEquals("first", map.get(first));
+		assertNull(map.get(ret));
+		assertEquals(1, map.size());
+		assertEquals(2, copy.size());
+	}
+}
@@ -0,0 +1,34 @@
+package it.unive.lisa.analysis.impl.nonInterference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.analysis.SemanticException;
+import org.junit.Test;
+
+public class NonInterferenceTest {
+
+	@Test
+	public void testHashConsing() throws SemanticException {
+		NonInterference singleton = new NonInterference();
+		assertSame(singleton, singleton.top());
+		assertSame(singleton.bottom(), singleton.top().bottom());
+		assertSame(singleton, singleton.bottom().lub(singleton.top()));
+		assertTrue(singleton.bottom().lessOrEqual(singleton));
+		assertNotEquals(singleton.top(), singleton.bottom());
+	}
+
+	@Test
+	public void testDistinctPools() {
+		NonInterference first = new NonInterference();
+		NonInterference second = new NonInterference();
+		assertNotSame(first, second);
+		assertEquals(first, second);
+		assertEquals(first.hashCode(), second.hashCode());
+		assertEquals(first.bottom(), second.bottom());
+		assertNotSame(first.bottom(), second.bottom());
+	}
+}
@@ -0,0 +1,112 @@
+package it.unive.lisa.analysis.impl.numeric;
+
+import static it.unive.lisa.analysis.impl.numeric.Interval.MINUS_INFINITY;
+import static it.unive.lisa.analysis.impl.numeric.Interval.PLUS_INFINITY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.nonrelational.value.ArrayValueEnvironment;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.caches.Caches;
+import it.unive.lisa.symbolic.types.IntType;
+import it.unive.lisa.symbolic.value.BinaryExpression;
+import it.unive.lisa.symbolic.value.BinaryOperator;
+import it.unive.lisa.symbolic.value.Constant;
+import it.unive.lisa.symbolic.value.UnaryOperator;
+import it.unive.lisa.symbolic.value.Variable;
+import org.junit.Test;
+
+public class IntervalTest {
+
+	private static final Interval singleton = new Interval();
+
+	private static Interval eval(BinaryOperator op, Interval left, Interval right) {
+		return singleton.evalBinaryExpression(op, left, right, null);
+	}
+
+	@Test
+	public void testCanonicalInstances() {
+		assertSame(singleton.top(), Interval.of(MINUS_INFINITY, PLUS_INFINITY));
+		assertSame(singleton.bottom(), Interval.of(5, 4));
+		assertSame(Interval.of(7, 7), Interval.of(7, 7));
+		assertEquals(Interval.of(1000, 1000), Interval.of(1000, 1000));
+		assertTrue(new Interval().isTop());
+	}
+
+	@Test
+	public void testOrder() throws SemanticException {
+		assertTrue(Interval.of(0, 5).lessOrEqual(Interval.of(0, PLUS_INFINITY)));
+		assertTrue(Interval.of(0, 5).lessOrEqual(Interval.of(MINUS_INFINITY, 5)));
+		assertFalse(Interval.of(0, PLUS_INFINITY).lessOrEqual(Interval.of(0, 5)));
+		assertEquals(Interval.of(-3, 8), Interval.of(-3, 0).lub(Interval.of(2, 8)));
+		assertEquals(Interval.of(2, 5), Interval.of(0, 5).glb(Interval.of(2, PLUS_INFINITY)));
+		assertTrue(Interval.of(0, 1).glb(Interval.of(2, 3)).isBottom());
+		assertEquals(Interval.of(0, PLUS_INFINITY), Interval.of(0, 5).widening(Interval.of(0, 6)));
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	public void testBoxedAdapters() {
+		assertEquals(Interval.of(-3, 8), new Interval(-3, 8));
+		assertEquals(Interval.of(MINUS_INFINITY, 8), new Interval(null, 8));
+		assertEquals(Interval.of(-3, PLUS_INFINITY), new Interval(-3, null));
+		assertEquals(Integer.valueOf(-3), Interval.of(-3, 8).getLow());
+		assertEquals(Integer.valueOf(8), Interval.of(-3, 8).getHigh());
+		assertNull(Interval.of(MINUS_INFINITY, 8).getLow());
+		assertNull(Interval.of(-3, PLUS_INFINITY).getHigh());
+		// bounds that do not fit in an int are approximated with infinity
+		assertNull(Interval.of(Integer.MIN_VALUE - 1L, Integer.MAX_VALUE + 1L).getLow());
+		assertNull(Interval.of(Integer.MIN_VALUE - 1L, Integer.MAX_VALUE + 1L).getHigh());
+	}
+
+	@Test
+	public void testSaturatingArithmetic() {
+		Interval big = Interval.of(PLUS_INFINITY - 1, PLUS_INFINITY - 1);
+		Interval result = eval(BinaryOperator.NUMERIC_ADD, big, Interval.of(1, 1));
+		assertEquals(PLUS_INFINITY - 1, result.getLowBound());
+		assertTrue(result.highIsPlusInfinity());
+
+		result = eval(BinaryOperator.NUMERIC_MUL, big, Interval.of(-2, 2));
+		assertTrue(result.isTop());
+
+		// int overflow does not wrap around
+		result = eval(BinaryOperator.NUMERIC_MUL, Interval.of(Integer.MAX_VALUE, Integer.MAX_VALUE),
+				Interval.of(2, 2));
+		assertEquals(Integer.MAX_VALUE * 2L, result.getLowBound());
+	}
+
+	@Test
+	public void testInfiniteBounds() {
+		Interval positive = Interval.of(1, PLUS_INFINITY);
+		assertEquals(Interval.of(MINUS_INFINITY, -1),
+				singleton.evalUnaryExpression(UnaryOperator.NUMERIC_NEG, positive, null));
+		assertEquals(Interval.of(MINUS_INFINITY, -2), eval(BinaryOperator.NUMERIC_MUL, positive, Interval.of(-2, -2)));
+		assertEquals(Interval.of(0, 10), eval(BinaryOperator.NUMERIC_DIV, Interval.of(10, 10), positive));
+		assertEquals(Interval.of(-10, 10), eval(BinaryOperator.NUMERIC_DIV, Interval.of(10, 10), Interval.of(-1, 1)));
+	}
+
+	@Test
+	public void testAssumeKeepsEnvironment() throws SemanticException {
+		Variable x = new Variable(Caches.types().mkSingletonSet(IntType.INSTANCE), "x");
+		Variable y = new Variable(Caches.types().mkSingletonSet(IntType.INSTANCE), "y");
+		ValueEnvironment<Interval> env = new ArrayValueEnvironment<>(singleton)
+				.assign(x, new Constant(IntType.INSTANCE, 0), null)
+				.assign(y, new Constant(IntType.INSTANCE, 3), null);
+
+		for (BinaryOperator op : new BinaryOperator[] { BinaryOperator.COMPARISON_GE, BinaryOperator.COMPARISON_GT,
+				BinaryOperator.COMPARISON_LE, BinaryOperator.COMPARISON_LT }) {
+			ValueEnvironment<Interval> left = singleton.assume(env,
+					new BinaryExpression(x.getTypes(), x, new Constant(IntType.INSTANCE, 5), op), null);
+			ValueEnvironment<Interval> right = singleton.assume(env,
+					new BinaryExpression(x.getTypes(), new Constant(IntType.INSTANCE, 5), x, op), null);
+			assertSame(ArrayValueEnvironment.class, left.getClass());
+			assertSame(ArrayValueEnvironment.class, right.getClass());
+			assertEquals(Interval.of(3, 3), left.getState(y));
+			assertEquals(Interval.of(3, 3), right.getState(y));
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package it.unive.lisa.analysis.nonrelational;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.analysis.ScopeToken;
+import it.unive.lisa.caches.Caches;
+import it.unive.lisa.program.SourceCodeLocation;
+import it.unive.lisa.program.cfg.CodeLocation;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.OutOfScopeIdentifier;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class IdentifierArrayMapTest {
+
+	private static final ExternalSet<Type> types = Caches.types().mkEmptySet();
+
+	private static Identifier var(int i) {
+		return new Variable(types, "v" + i);
+	}
+
+	@Test
+	public void testInternIds() {
+		Identifier x = var(0), y = var(0), z = var(1);
+		assertEquals(x.getInternId(), y.getInternId());
+		assertNotEquals(x.getInternId(), z.getInternId());
+		assertEquals(x, y);
+		assertNotEquals(x, z);
+		assertEquals(x.hashCode(), y.hashCode());
+	}
+
+	@Test
+	public void testInternIdsOfReleasedIdentifiers() {
+		Identifier x = var(-1), y = var(-1);
+		int id = x.getInternId();
+		assertEquals(id, y.getInternId());
+		x = null;
+		// the entry of the intern table must survive as long as an
+		// identifier holding the id is reachable
+		System.gc();
+		assertEquals(id, var(-1).getInternId());
+		assertEquals(y, var(-1));
+	}
+
+	@Test
+	public void testConcurrentInternIds() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<int[]>> results = new ArrayList<>();
+			for (int t = 0; t < 4; t++)
+				results.add(executor.submit(() -> {
+					int[] ids = new int[500];
+					for (int i = 0; i < ids.length; i++)
+						ids[i] = var(1000 + i).getInternId();
+					return ids;
+				}));
+
+			int[] expected = results.get(0).get();
+			for (Future<int[]> result : results)
+				assertArrayEquals(expected, result.get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testOutOfScopeIdentifiers() {
+		CodeLocation location = new SourceCodeLocation("fake", 0, 0);
+		ScopeToken scope = new ScopeToken(() -> location);
+		OutOfScopeIdentifier x = new OutOfScopeIdentifier(var(0), scope);
+		OutOfScopeIdentifier y = new OutOfScopeIdentifier(var(0), scope);
+		assertEquals(scope + ":" + var(0).getName(), x.getName());
+		assertEquals(x, y);
+		assertEquals(x.getInternId(), y.getInternId());
+		assertNotEquals(x.getInternId(), var(0).getInternId());
+	}
+
+	@Test
+	public void testAgainstHashMap() {
+		Random random = new Random(42);
+		Map<Identifier, Integer> expected = new HashMap<>();
+		IdentifierArrayMap<Integer> actual = new IdentifierArrayMap<>();
+		for (int i = 0; i < 5000; i++) {
+			Identifier key = var(random.nextInt(200));
+			if (random.nextInt(3) == 0)
+				assertEquals(expected.remove(key), actual.remove(key));
+			else
+				assertEquals(expected.put(key, i), actual.put(key, i));
+			assertEquals(expected.size(), actual.size());
+		}
+
+		assertEquals(expected, actual);
+		assertEquals(actual, expected);
+		assertEquals(expected.hashCode(), actual.hashCode());
+		assertEquals(expected, new IdentifierArrayMap<>(expected));
+
+		int last = -1;
+		for (Entry<Identifier, Integer> e : actual.entrySet()) {
+			assertTrue(last < e.getKey().getInternId());
+			last = e.getKey().getInternId();
+		}
+	}
+
+	@Test
+	public void testCopiesAreIndependent() {
+		IdentifierArrayMap<Integer> original = new IdentifierArrayMap<>();
+		for (int i = 0; i < 50; i++)
+			original.put(var(i), i);
+
+		IdentifierArrayMap<Integer> copy = new IdentifierArrayMap<>(original);
+		assertEquals(original, copy);
+		copy.put(var(0), -1);
+		copy.remove(var(1));
+		copy.put(var(100), 0);
+
+		assertEquals(Integer.valueOf(0), original.get(var(0)));
+		assertEquals(Integer.valueOf(1), original.get(var(1)));
+		assertFalse(original.containsKey(var(100)));
+		assertEquals(50, original.size());
+		assertEquals(Integer.valueOf(-1), copy.get(var(0)));
+		assertFalse(copy.containsKey(var(1)));
+		assertEquals(50, copy.size());
+
+		for (Iterator<Identifier> it = copy.keySet().iterator(); it.hasNext();)
+			if (it.next().getName().endsWith("0"))
+				it.remove();
+		assertFalse(copy.containsKey(var(10)));
+		assertEquals(Integer.valueOf(11), copy.get(var(11)));
+		copy.clear();
+		assertTrue(copy.isEmpty());
+		assertEquals(50, original.size());
+	}
+}
@@ -0,0 +1,150 @@
+package it.unive.lisa.analysis.nonrelational.value;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.analysis.SemanticDomain.Satisfiability;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.representation.DomainRepresentation;
+import it.unive.lisa.analysis.representation.StringRepresentation;
+import it.unive.lisa.symbolic.value.BinaryOperator;
+import it.unive.lisa.symbolic.value.UnaryOperator;
+import java.util.List;
+import org.junit.Test;
+
+public class FiniteNonRelationalValueDomainTest {
+
+	/**
+	 * bottom < low < {left, right} < top, where left and right are
+	 * incomparable
+	 */
+	private static class Elem extends FiniteNonRelationalValueDomain<Elem> {
+
+		private static final Elem BOTTOM = new Elem(0);
+		private static final Elem LOW = new Elem(1);
+		private static final Elem LEFT = new Elem(2);
+		private static final Elem RIGHT = new Elem(3);
+		private static final Elem TOP = new Elem(4);
+
+		private static final Tables<Elem> TABLES = new Tables<>(List.of(BOTTOM, LOW, LEFT, RIGHT, TOP));
+
+		private Elem(int index) {
+			super(index);
+		}
+
+		@Override
+		protected Tables<Elem> tables() {
+			return TABLES;
+		}
+
+		@Override
+		protected boolean lessOrEqualElement(Elem other) {
+			return this == LOW;
+		}
+
+		@Override
+		protected Elem evalUnary(UnaryOperator operator, Elem arg) {
+			return arg == LEFT ? RIGHT : arg == RIGHT ? LEFT : arg;
+		}
+
+		@Override
+		protected Elem evalBinary(BinaryOperator operator, Elem left, Elem right) {
+			return left == right ? LOW : top();
+		}
+
+		@Override
+		protected Satisfiability satisfiesBinary(BinaryOperator operator, Elem left, Elem right) {
+			return left == right ? Satisfiability.SATISFIED : Satisfiability.UNKNOWN;
+		}
+
+		@Override
+		public Elem top() {
+			return TOP;
+		}
+
+		@Override
+		public Elem bottom() {
+			return BOTTOM;
+		}
+
+		@Override
+		public DomainRepresentation representation() {
+			return new StringRepresentation(String.valueOf(hashCode()));
+		}
+	}
+
+	/**
+	 * bottom < {a, b} < {c, d} < top: a and b have two minimal upper bounds
+	 */
+	private static class NotALattice extends FiniteNonRelationalValueDomain<NotALattice> {
+
+		private static final NotALattice[] ELEMENTS = new NotALattice[6];
+
+		private NotALattice(int index) {
+			super(index);
+		}
+
+		@Override
+		protected Tables<NotALattice> tables() {
+			return null;
+		}
+
+		@Override
+		protected boolean lessOrEqualElement(NotALattice other) {
+			return hashCode() < 3 && other.hashCode() >= 3;
+		}
+
+		@Override
+		public NotALattice top() {
+			return ELEMENTS[5];
+		}
+
+		@Override
+		public NotALattice bottom() {
+			return ELEMENTS[0];
+		}
+
+		@Override
+		public DomainRepresentation representation() {
+			return new StringRepresentation(String.valueOf(hashCode()));
+		}
+	}
+
+	@Test
+	public void testLatticeOperations() throws SemanticException {
+		assertSame(Elem.TOP, Elem.LEFT.lub(Elem.RIGHT));
+		assertSame(Elem.LEFT, Elem.LOW.lub(Elem.LEFT));
+		assertSame(Elem.TOP, Elem.LEFT.widening(Elem.RIGHT));
+		assertSame(Elem.LOW, Elem.LEFT.glb(Elem.RIGHT));
+		assertSame(Elem.LOW, Elem.LOW.glb(Elem.RIGHT));
+		assertTrue(Elem.LOW.lessOrEqual(Elem.RIGHT));
+		assertFalse(Elem.LEFT.lessOrEqual(Elem.RIGHT));
+		assertFalse(Elem.RIGHT.lessOrEqual(Elem.LOW));
+		assertTrue(Elem.TOP.isTop());
+		assertTrue(Elem.BOTTOM.isBottom());
+		assertEquals(Elem.TOP, new Elem(4));
+	}
+
+	@Test
+	public void testTransferFunctions() {
+		assertSame(Elem.RIGHT, Elem.TOP.evalUnaryExpression(UnaryOperator.NUMERIC_NEG, Elem.LEFT, null));
+		assertSame(Elem.BOTTOM, Elem.TOP.evalUnaryExpression(UnaryOperator.NUMERIC_NEG, Elem.BOTTOM, null));
+		assertSame(Elem.LOW, Elem.TOP.evalBinaryExpression(BinaryOperator.NUMERIC_ADD, Elem.LEFT, Elem.LEFT, null));
+		assertSame(Elem.TOP, Elem.TOP.evalBinaryExpression(BinaryOperator.NUMERIC_ADD, Elem.LEFT, Elem.RIGHT, null));
+		assertSame(Elem.BOTTOM,
+				Elem.TOP.evalBinaryExpression(BinaryOperator.NUMERIC_ADD, Elem.LEFT, Elem.BOTTOM, null));
+		assertEquals(Satisfiability.SATISFIED,
+				Elem.TOP.satisfiesBinaryExpression(BinaryOperator.COMPARISON_EQ, Elem.LOW, Elem.LOW, null));
+		assertEquals(Satisfiability.UNKNOWN,
+				Elem.TOP.satisfiesUnaryExpression(UnaryOperator.NUMERIC_NEG, Elem.LOW, null));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNotALattice() {
+		for (int i = 0; i < NotALattice.ELEMENTS.length; i++)
+			NotALattice.ELEMENTS[i] = new NotALattice(i);
+		new FiniteNonRelationalValueDomain.Tables<>(List.of(NotALattice.ELEMENTS));
+	}
+}
@@ -0,0 +1,183 @@
+package it.unive.lisa.caches;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.SimpleAbstractState;
+import it.unive.lisa.analysis.impl.heap.MonolithicHeap;
+import it.unive.lisa.analysis.impl.types.InferredTypes;
+import it.unive.lisa.analysis.nonrelational.inference.InferenceSystem;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.interprocedural.callgraph.impl.RTACallGraph;
+import it.unive.lisa.interprocedural.impl.ModularWorstCaseAnalysis;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.Parameter;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.symbolic.types.BoolType;
+import it.unive.lisa.symbolic.value.PushAny;
+import it.unive.lisa.symbolic.value.Skip;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+public class AnalysisContextTest {
+
+	private static final String TYPES_PROGRAM = "imp-testcases/type-inference/program.imp";
+
+	/**
+	 * Infers the types of the test program, analyzing the cfgs in parallel
+	 * on {@code executor} (if not {@code null}) through the interprocedural
+	 * analysis or, if {@code perCFG} holds, analyzing each cfg on its own
+	 * with the parallel fixpoint on {@code pool} (if not {@code null}).
+	 */
+	private static Map<String, String> inferTypes(ExecutorService executor, boolean perCFG, ForkJoinPool pool)
+			throws Exception {
+		// the program is parsed inside the context, since the frontend creates
+		// sets of types too, and sets built with the caches of different
+		// contexts cannot be combined
+		Program program = IMPFrontend.processFile(TYPES_PROGRAM, false);
+		// as lisa does, the types cache is filled before the analysis starts,
+		// so that the universal sets of types are the same in all runs
+		program.getRegisteredTypes().forEach(Caches.types().mkEmptySet()::add);
+		RTACallGraph callgraph = new RTACallGraph();
+		callgraph.init(program);
+		ModularWorstCaseAnalysis<SimpleAbstractState<MonolithicHeap, InferenceSystem<InferredTypes>>, MonolithicHeap,
+				InferenceSystem<InferredTypes>> analysis = new ModularWorstCaseAnalysis<>();
+		analysis.init(program, callgraph);
+		analysis.setExecutor(executor);
+
+		AnalysisState<SimpleAbstractState<MonolithicHeap, InferenceSystem<InferredTypes>>, MonolithicHeap,
+				InferenceSystem<InferredTypes>> entry = new AnalysisState<>(
+						new SimpleAbstractState<>(new MonolithicHeap(), new InferenceSystem<>(new InferredTypes()))
+								.top(),
+						new Skip());
+		if (!perCFG)
+			analysis.fixpoint(entry);
+
+		Map<String, String> result = new TreeMap<>();
+		for (CFG cfg : program.getAllCFGs()) {
+			CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, InferenceSystem<InferredTypes>>,
+					MonolithicHeap, InferenceSystem<InferredTypes>> res;
+			if (!perCFG)
+				res = analysis.getAnalysisResultsOf(cfg).iterator().next();
+			else {
+				// parameters are set as the interprocedural analysis does
+				AnalysisState<SimpleAbstractState<MonolithicHeap, InferenceSystem<InferredTypes>>, MonolithicHeap,
+						InferenceSystem<InferredTypes>> prepared = entry;
+				for (Parameter arg : cfg.getDescriptor().getArgs()) {
+					ExternalSet<Type> all = Caches.types().mkSet(arg.getStaticType().allInstances());
+					Variable id = new Variable(all, arg.getName(), arg.getAnnotations());
+					prepared = prepared.assign(id, new PushAny(all), cfg.getGenericProgramPoint());
+				}
+
+				if (pool == null)
+					res = cfg.fixpoint(prepared, analysis);
+				else
+					res = cfg.fixpoint(prepared, analysis, pool);
+			}
+
+			for (Statement st : cfg.getNodes())
+				result.put(st.getLocation() + " " + st, res.getAnalysisStateAfter(st).toString());
+		}
+		return result;
+	}
+
+	@Test
+	public void testBinding() {
+		AnalysisContext outer = new AnalysisContext(), inner = new AnalysisContext();
+		AnalysisContext def = AnalysisContext.current();
+		assertSame(def.getTypes(), Caches.types());
+
+		outer.execute(() -> {
+			assertSame(outer, AnalysisContext.current());
+			assertSame(outer.getTypes(), Caches.types());
+			inner.execute(() -> {
+				assertSame(inner, AnalysisContext.current());
+				return null;
+			});
+			assertSame(outer, AnalysisContext.current());
+			return null;
+		});
+
+		assertSame(def, AnalysisContext.current());
+	}
+
+	@Test
+	public void testIsolation() {
+		AnalysisContext first = new AnalysisContext(), second = new AnalysisContext();
+		first.execute(() -> Caches.types().mkSingletonSet(BoolType.INSTANCE));
+		assertEquals(1, first.getTypes().size());
+		assertEquals(0, second.getTypes().size());
+
+		InferredTypes top1 = first.execute(() -> new InferredTypes().top());
+		InferredTypes top2 = second.execute(() -> new InferredTypes().top());
+		assertNotSame(top1, top2);
+		assertSame(first.getTypes(), top1.getRuntimeTypes().getCache());
+		assertSame(second.getTypes(), top2.getRuntimeTypes().getCache());
+		assertSame(top1, first.execute(() -> new InferredTypes().top()));
+	}
+
+	@Test
+	public void testConstantsFollowInstances() {
+		AnalysisContext first = new AnalysisContext(), second = new AnalysisContext();
+		InferredTypes domain = first.execute(() -> new InferredTypes());
+		// instances keep the constants of the context where they were built
+		InferredTypes top = second.execute(() -> domain.top());
+		assertSame(first.getTypes(), top.getRuntimeTypes().getCache());
+		assertSame(top, first.execute(() -> new InferredTypes().top()));
+	}
+
+	@Test
+	public void testResetDefault() {
+		AnalysisContext def = AnalysisContext.current();
+		InferredTypes top = new InferredTypes().top();
+		AnalysisContext.resetDefault();
+		assertNotSame(def, AnalysisContext.current());
+		assertNotSame(top, new InferredTypes().top());
+		assertSame(AnalysisContext.current().getTypes(), new InferredTypes().top().getRuntimeTypes().getCache());
+	}
+
+	@Test
+	public void testWrap() throws Exception {
+		AnalysisContext context = new AnalysisContext();
+		AtomicReference<AnalysisContext> seen = new AtomicReference<>();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			CompletableFuture.runAsync(context.wrap(() -> seen.set(AnalysisContext.current())), executor).get();
+			assertSame(context, seen.get());
+			CompletableFuture.runAsync(() -> seen.set(AnalysisContext.current()), executor).get();
+			assertTrue(seen.get() != context);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testParallelTypeInference() throws Exception {
+		Map<String, String> sequential = new AnalysisContext().wrap(() -> inferTypes(null, false, null)).call();
+		Map<String, String> perCFG = new AnalysisContext().wrap(() -> inferTypes(null, true, null)).call();
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			assertEquals(sequential, new AnalysisContext().wrap(() -> inferTypes(executor, false, null)).call());
+			assertEquals(perCFG, new AnalysisContext().wrap(() -> inferTypes(null, true, pool)).call());
+		} finally {
+			executor.shutdown();
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package it.unive.lisa.checks;
+
+import it.unive.lisa.checks.syntactic.CheckTool;
+import it.unive.lisa.checks.syntactic.SyntacticCheck;
+import it.unive.lisa.program.CompilationUnit;
+import it.unive.lisa.program.Global;
+import it.unive.lisa.program.Unit;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.Statement;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link SyntacticCheck} that issues a warning on each visited cfg, reporting
+ * its name, and that records the threads where cfgs have been visited.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class CFGNamesCheck implements SyntacticCheck {
+
+	private final Collection<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+	/**
+	 * Yields the threads where cfgs have been visited by this check.
+	 *
+	 * @return the threads
+	 */
+	public Collection<Thread> getThreads() {
+		return threads;
+	}
+
+	@Override
+	public void beforeExecution(CheckTool tool) {
+	}
+
+	@Override
+	public void afterExecution(CheckTool tool) {
+	}
+
+	@Override
+	public boolean visit(CheckTool tool, CFG graph, Statement node) {
+		return true;
+	}
+
+	@Override
+	public boolean visit(CheckTool tool, CFG g) {
+		threads.add(Thread.currentThread());
+		tool.warnOn(g, "Found cfg " + g.getDescriptor().getName());
+		return true;
+	}
+
+	@Override
+	public boolean visit(CheckTool tool, CFG graph, Edge edge) {
+		return true;
+	}
+
+	@Override
+	public boolean visitCompilationUnit(CheckTool tool, CompilationUnit unit) {
+		return true;
+	}
+
+	@Override
+	public void visitGlobal(CheckTool tool, Unit unit, Global global, boolean instance) {
+	}
+}
@@ -1,18 +1,27 @@
 package it.unive.lisa.checks;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
 import it.unive.lisa.AnalysisTestExecutor;
 import it.unive.lisa.LiSAConfiguration;
 import it.unive.lisa.checks.syntactic.CheckTool;
 import it.unive.lisa.checks.syntactic.SyntacticCheck;
+import it.unive.lisa.imp.IMPFrontend;
 import it.unive.lisa.imp.ParsingException;
 import it.unive.lisa.program.CompilationUnit;
 import it.unive.lisa.program.Global;
+import it.unive.lisa.program.Program;
 import it.unive.lisa.program.Unit;
 import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.edge.Edge;
 import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.program.cfg.statement.VariableRef;
 import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.Test;
 
 public class ChecksExecutorTest extends AnalysisTestExecutor {
@@ -59,4 +68,37 @@ public class ChecksExecutorTest extends AnalysisTestExecutor {
 		LiSAConfiguration conf = new LiSAConfiguration().addSyntacticCheck(new VariableI());
 		perform("syntactic", "expressions.imp", conf);
 	}
+
+	@ThreadSafeCheck
+	private static class ParallelCFGNames extends CFGNamesCheck {
+	}
+
+	@Test
+	public void testParallelChecks() throws ParsingException {
+		StringBuilder source = new StringBuilder();
+		for (int i = 0; i < 20; i++) {
+			source.append("class c").append(i).append(" {");
+			for (int j = 0; j < 20; j++)
+				source.append(" m").append(j).append("() { return ").append(j).append("; }");
+			source.append(" }");
+		}
+		Program program = IMPFrontend.processText(source.toString());
+
+		CheckTool expected = new CheckTool();
+		ChecksExecutor.executeAll(expected, program, List.of(new CFGNamesCheck()));
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			CheckTool actual = new CheckTool();
+			CFGNamesCheck sequential = new CFGNamesCheck();
+			CFGNamesCheck parallel = new ParallelCFGNames();
+			ChecksExecutor.executeAll(actual, program, List.of(sequential, parallel), pool);
+
+			assertEquals(new HashSet<>(expected.getWarnings()), new HashSet<>(actual.getWarnings()));
+			assertEquals(Set.of(Thread.currentThread()), sequential.getThreads());
+			assertFalse(parallel.getThreads().contains(Thread.currentThread()));
+		} finally {
+			pool.shutdown();
+		}
+	}
 }
@@ -6,6 +6,7 @@ import it.unive.lisa.AnalysisSetupException;
 import it.unive.lisa.AnalysisTestExecutor;
 import it.unive.lisa.LiSAConfiguration;
 import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.dataflow.DefiniteForwardDataflowDomain;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.impl.dataflow.AvailableExpressions;
 import org.junit.Test;
@@ -18,4 +19,12 @@ public class AvailableExpressionsTest extends AnalysisTestExecutor {
 				getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new AvailableExpressions()));
 		perform("available-expressions", "available-expressions.imp", conf);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testAvailableExpressionsBitVectors() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration().setDumpAnalysis(true)
+				.setAbstractState(getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class),
+						new DefiniteForwardDataflowDomain<>(new AvailableExpressions(), true)));
+		perform("available-expressions-bits", "available-expressions.imp", conf);
+	}
+}
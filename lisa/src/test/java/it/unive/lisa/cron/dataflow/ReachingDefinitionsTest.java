@@ -6,6 +6,7 @@ import it.unive.lisa.AnalysisSetupException;
 import it.unive.lisa.AnalysisTestExecutor;
 import it.unive.lisa.LiSAConfiguration;
 import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.dataflow.PossibleForwardDataflowDomain;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.impl.dataflow.ReachingDefinitions;
 import org.junit.Test;
@@ -18,4 +19,12 @@ public class ReachingDefinitionsTest extends AnalysisTestExecutor {
 				getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new ReachingDefinitions()));
 		perform("reaching-definitions", "reaching-definitions.imp", conf);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testReachingDefinitionsBitVectors() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration().setDumpAnalysis(true)
+				.setAbstractState(getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class),
+						new PossibleForwardDataflowDomain<>(new ReachingDefinitions(), true)));
+		perform("reaching-definitions-bits", "reaching-definitions.imp", conf);
+	}
+}
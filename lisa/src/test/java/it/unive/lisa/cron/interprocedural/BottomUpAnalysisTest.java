@@ -0,0 +1,56 @@
+package it.unive.lisa.cron.interprocedural;
+
+import static it.unive.lisa.LiSAFactory.getDefaultFor;
+
+import it.unive.lisa.AnalysisSetupException;
+import it.unive.lisa.AnalysisTestExecutor;
+import it.unive.lisa.LiSAConfiguration;
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.impl.numeric.Sign;
+import it.unive.lisa.interprocedural.callgraph.impl.RTACallGraph;
+import it.unive.lisa.interprocedural.impl.BottomUpAnalysis;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.Test;
+
+public class BottomUpAnalysisTest extends AnalysisTestExecutor {
+
+	@Test
+	public void testRTABottomUp() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration().setInferTypes(true)
+				.setAbstractState(getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new Sign()))
+				.setDumpAnalysis(true)
+				.setInterproceduralAnalysis(new BottomUpAnalysis<>())
+				.setCallGraph(new RTACallGraph());
+		perform("interprocedural", "RTABottomUp", "programContextSensitive1.imp", conf);
+	}
+
+	@Test
+	public void testRTABottomUpRecursive() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration().setInferTypes(true)
+				.setAbstractState(getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new Sign()))
+				.setDumpAnalysis(true)
+				.setInterproceduralAnalysis(new BottomUpAnalysis<>())
+				.setCallGraph(new RTACallGraph());
+		perform("interprocedural", "RTABottomUpRecursive", "programRecursive.imp", conf);
+	}
+
+	@Test
+	public void testRTABottomUpRecursiveInParallel() throws AnalysisSetupException {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			LiSAConfiguration conf = new LiSAConfiguration().setInferTypes(true)
+					.setAbstractState(
+							getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new Sign()))
+					.setDumpAnalysis(true)
+					.setInterproceduralAnalysis(new BottomUpAnalysis<>())
+					.setCallGraph(new RTACallGraph())
+					.setExecutor(executor);
+			// results must be the same of the sequential analysis
+			perform("interprocedural", "RTABottomUpRecursiveParallel", "programRecursive.imp", conf);
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -1,6 +1,8 @@
 package it.unive.lisa.cron.interprocedural;
 
 import static it.unive.lisa.LiSAFactory.getDefaultFor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import it.unive.lisa.AnalysisSetupException;
 import it.unive.lisa.AnalysisTestExecutor;
@@ -10,7 +12,9 @@ import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.impl.numeric.Sign;
 import it.unive.lisa.interprocedural.callgraph.impl.RTACallGraph;
 import it.unive.lisa.interprocedural.impl.ContextBasedAnalysis;
+import it.unive.lisa.interprocedural.impl.KLimitedToken;
 import it.unive.lisa.interprocedural.impl.RecursionFreeToken;
+import it.unive.lisa.interprocedural.impl.SingleScopeToken;
 import org.junit.Test;
 
 public class ContextSensitiveAnalysisTest extends AnalysisTestExecutor {
@@ -37,12 +41,36 @@ public class ContextSensitiveAnalysisTest extends AnalysisTestExecutor {
 
 	@Test
 	public void testRTAContextSensitive3() throws AnalysisSetupException {
+		ContextBasedAnalysis<?, ?, ?> analysis = new ContextBasedAnalysis<>();
+		RTACallGraph callgraph = new RTACallGraph();
 		LiSAConfiguration conf = new LiSAConfiguration().setInferTypes(true)
 				.setAbstractState(getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new Sign()))
 				.setDumpAnalysis(true)
-				.setInterproceduralAnalysis(new ContextBasedAnalysis<>())
-				.setCallGraph(new RTACallGraph());
+				.setInterproceduralAnalysis(analysis)
+				.setCallGraph(callgraph);
 		perform("interprocedural", "RTAContextSensitive3", "programContextSensitive3.imp", conf);
+		// the result of identity changes when helper is called the second
+		// time: only the results of helper and main need to be computed
+		// again
+		assertTrue(analysis.getAvoidedFixpoints() > 0);
+		// some calls are evaluated more than once with the same entry state
+		// while no result changes
+		assertTrue(analysis.getSummaryCacheHits() > 0);
+		// calls are resolved again when the results of helper are updated
+		assertTrue(callgraph.getResolutionCacheHits() > 0);
+	}
+
+	@Test
+	public void testRTAContextSensitive3Uncached() throws AnalysisSetupException {
+		ContextBasedAnalysis<?, ?, ?> analysis = new ContextBasedAnalysis<>(SingleScopeToken.getSingleton(), 0);
+		LiSAConfiguration conf = new LiSAConfiguration().setInferTypes(true)
+				.setAbstractState(getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new Sign()))
+				.setDumpAnalysis(true)
+				.setInterproceduralAnalysis(analysis)
+				.setCallGraph(new RTACallGraph());
+		// results must be the same of the ones computed using the cache
+		perform("interprocedural", "RTAContextSensitive3Uncached", "programContextSensitive3.imp", conf);
+		assertEquals(0, analysis.getSummaryCacheHits());
 	}
 
 	@Test
@@ -55,4 +83,14 @@ public class ContextSensitiveAnalysisTest extends AnalysisTestExecutor {
 		perform("interprocedural", "RTAContextSensitive4", "programContextSensitive3.imp", conf);
 	}
 
+	@Test
+	public void testRTAContextSensitive5() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration().setInferTypes(true)
+				.setAbstractState(getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new Sign()))
+				.setDumpAnalysis(true)
+				.setInterproceduralAnalysis(new ContextBasedAnalysis<>(KLimitedToken.getSingleton(2)))
+				.setCallGraph(new RTACallGraph());
+		perform("interprocedural", "RTAContextSensitive5", "programContextSensitive3.imp", conf);
+	}
+
 }
@@ -11,6 +11,8 @@ import it.unive.lisa.analysis.impl.numeric.Sign;
 import it.unive.lisa.interprocedural.callgraph.impl.CHACallGraph;
 import it.unive.lisa.interprocedural.callgraph.impl.RTACallGraph;
 import it.unive.lisa.interprocedural.impl.ModularWorstCaseAnalysis;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.junit.Test;
 
 @SuppressWarnings("rawtypes")
@@ -35,4 +37,22 @@ public class ModularWorstCaseAnalysisTest extends AnalysisTestExecutor {
 				.setCallGraph(new RTACallGraph());
 		perform("interprocedural", "RTA", "program.imp", conf);
 	}
+
+	@Test
+	public void testRTACallGraphInParallel() throws AnalysisSetupException {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			LiSAConfiguration conf = new LiSAConfiguration().setInferTypes(true)
+					.setAbstractState(
+							getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new Sign()))
+					.setDumpAnalysis(true)
+					.setInterproceduralAnalysis(new ModularWorstCaseAnalysis())
+					.setCallGraph(new RTACallGraph())
+					.setExecutor(executor);
+			// results must be the same of the sequential analysis
+			perform("interprocedural", "RTA", "program.imp", conf);
+		} finally {
+			executor.shutdown();
+		}
+	}
 }
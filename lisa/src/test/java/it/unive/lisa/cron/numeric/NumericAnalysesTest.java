@@ -11,6 +11,7 @@ import it.unive.lisa.analysis.impl.numeric.IntegerConstantPropagation;
 import it.unive.lisa.analysis.impl.numeric.Interval;
 import it.unive.lisa.analysis.impl.numeric.Parity;
 import it.unive.lisa.analysis.impl.numeric.Sign;
+import it.unive.lisa.analysis.nonrelational.value.ArrayValueEnvironment;
 import org.junit.Test;
 
 public class NumericAnalysesTest extends AnalysisTestExecutor {
@@ -36,6 +37,14 @@ public class NumericAnalysesTest extends AnalysisTestExecutor {
 		perform("interval", "program.imp", conf);
 	}
 
+	@Test
+	public void testIntervalArrayEnvironment() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration().setDumpAnalysis(true)
+				.setAbstractState(getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class),
+						new ArrayValueEnvironment<>(new Interval())));
+		perform("interval-array", "program.imp", conf);
+	}
+
 	@Test
 	public void testIntegerConstantPropagation() throws AnalysisSetupException {
 		LiSAConfiguration conf = new LiSAConfiguration().setDumpAnalysis(true)
@@ -0,0 +1,69 @@
+package it.unive.lisa.outputs;
+
+import static org.junit.Assert.assertEquals;
+
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.Statement;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.function.Function;
+import org.junit.Test;
+
+public class DotCFGTest {
+
+	private static final String SOURCE = "class foo { "
+			+ "bar(x) { "
+			+ "def i = 0; "
+			+ "while (i < x) { "
+			+ "if (i > 5) i = i + 2; else i = i + 1; "
+			+ "} "
+			+ "return i; "
+			+ "} "
+			+ "}";
+
+	private static CFG mkCFG() throws ParsingException {
+		Program program = IMPFrontend.processText(SOURCE);
+		return program.getAllCFGs().iterator().next();
+	}
+
+	private static void check(CFG cfg, String title, Function<Statement, String> labelGenerator)
+			throws IOException {
+		StringWriter model = new StringWriter();
+		DotCFG.fromCFG(cfg, title, labelGenerator).dumpDot(model);
+
+		StringWriter streamed = new StringWriter();
+		DotCFG.writeCFG(cfg, title, labelGenerator, streamed);
+
+		assertEquals(model.toString(), streamed.toString());
+
+		DotGraph<Statement, Edge, CFG> read = DotGraph.readDot(new StringReader(streamed.toString()));
+		assertEquals(DotGraph.readDot(new StringReader(model.toString())), read);
+	}
+
+	@Test
+	public void testStreamingWithoutLabels() throws ParsingException, IOException {
+		check(mkCFG(), null, st -> "");
+	}
+
+	@Test
+	public void testStreamingWithLabels() throws ParsingException, IOException {
+		check(mkCFG(), "['foo.imp':1:1]", st -> "state of <" + st + ">\nline & \\ end");
+	}
+
+	@Test
+	public void testDumpMatchesModel() throws ParsingException, IOException {
+		CFG cfg = mkCFG();
+		StringWriter model = new StringWriter();
+		DotCFG.fromCFG(cfg, null, st -> st.getLocation().toString()).dumpDot(model);
+
+		StringWriter dumped = new StringWriter();
+		cfg.dump(dumped, st -> st.getLocation().toString());
+
+		assertEquals(model.toString(), dumped.toString());
+	}
+}
@@ -0,0 +1,113 @@
+package it.unive.lisa.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ComponentIndexProcessorTest {
+
+	private static final String VALUE_DOMAIN = "it.unive.lisa.analysis.nonrelational.value.NonRelationalValueDomain";
+
+	private File output;
+
+	@Before
+	public void setup() throws IOException {
+		output = Files.createTempDirectory("lisa-index").toFile();
+	}
+
+	@After
+	public void cleanup() throws IOException {
+		FileUtils.deleteDirectory(output);
+	}
+
+	private static JavaFileObject source(String name, String code) {
+		return new SimpleJavaFileObject(URI.create("string:///" + name + ".java"), JavaFileObject.Kind.SOURCE) {
+			@Override
+			public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+				return code;
+			}
+		};
+	}
+
+	private void compile(JavaFileObject... sources) {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		// the classes compiled before are visible, as it happens in
+		// incremental compilations
+		String classpath = output.getAbsolutePath() + File.pathSeparator + System.getProperty("java.class.path");
+		List<String> options = Arrays.asList("-d", output.getAbsolutePath(), "-classpath", classpath);
+		JavaCompiler.CompilationTask task = compiler.getTask(null, null, null, options, null, Arrays.asList(sources));
+		task.setProcessors(Collections.singletonList(new ComponentIndexProcessor()));
+		assertTrue("Compilation failed", task.call());
+	}
+
+	private List<String> index() throws IOException {
+		return Files.readAllLines(new File(output, ComponentIndexProcessor.INDEX).toPath());
+	}
+
+	private static String entry(String implementation) {
+		return VALUE_DOMAIN + "=" + implementation;
+	}
+
+	@Test
+	public void testFullCompilation() throws IOException {
+		compile(source("First", "public class First extends it.unive.lisa.analysis.impl.numeric.Sign {}"),
+				source("Second", "public class Second extends it.unive.lisa.analysis.impl.numeric.Sign {"
+						+ " public static class Nested extends it.unive.lisa.analysis.impl.numeric.Sign {} }"),
+				source("Other", "public class Other {}"));
+		List<String> index = index();
+		assertTrue(index.contains(entry("First")));
+		assertTrue(index.contains(entry("Second")));
+		assertTrue(index.contains(entry("Second$Nested")));
+		assertTrue(index.stream().noneMatch(line -> line.endsWith("=Other")));
+	}
+
+	@Test
+	public void testPartialCompilation() throws IOException {
+		compile(source("First", "public class First extends it.unive.lisa.analysis.impl.numeric.Sign {}"),
+				source("Second", "public class Second extends it.unive.lisa.analysis.impl.numeric.Sign {}"));
+		List<String> full = index();
+
+		// only Third is compiled: the entries of First and Second must be
+		// kept
+		compile(source("Third", "public class Third extends it.unive.lisa.analysis.impl.numeric.Sign {}"));
+		List<String> index = index();
+		assertTrue(index.containsAll(full));
+		assertTrue(index.contains(entry("Third")));
+		assertEquals(full.size() + 1, index.size());
+
+		// Second is compiled again and it is not a component anymore
+		compile(source("Second", "public class Second {}"));
+		index = index();
+		assertTrue(index.contains(entry("First")));
+		assertTrue(index.contains(entry("Third")));
+		assertTrue(index.stream().noneMatch(line -> line.endsWith("=Second")));
+	}
+
+	@Test
+	public void testRemovedClassesAreDropped() throws IOException {
+		compile(source("First", "public class First extends it.unive.lisa.analysis.impl.numeric.Sign {}"),
+				source("Second", "public class Second extends it.unive.lisa.analysis.impl.numeric.Sign {}"));
+
+		// the source of Second has been deleted, together with its class
+		assertTrue(new File(output, "Second.class").delete());
+		compile(source("First", "public class First extends it.unive.lisa.analysis.impl.numeric.Sign {}"));
+		List<String> index = index();
+		assertTrue(index.contains(entry("First")));
+		assertTrue(index.stream().noneMatch(line -> line.endsWith("=Second")));
+	}
+}
@@ -0,0 +1,49 @@
+package it.unive.lisa.program;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.program.cfg.CodeMember;
+import java.util.Collection;
+import java.util.HashSet;
+import org.junit.Test;
+
+public class CodeMemberIndexTest {
+
+	private static void check(Unit unit, Collection<CodeMember> before, String name, int arity) {
+		Collection<CodeMember> after = unit.getAllCodeMembersByName(name, arity);
+		assertEquals("Index of '" + name + "' with " + arity + " parameters in " + unit + " differs after validation",
+				new HashSet<>(before), new HashSet<>(after));
+		for (CodeMember cm : after) {
+			assertEquals(name, cm.getDescriptor().getName());
+			assertEquals(arity, cm.getDescriptor().getArgs().length);
+		}
+	}
+
+	@Test
+	public void testIndex() throws ParsingException, ProgramValidationException {
+		Program prog = IMPFrontend.processFile("imp-testcases/program-finalization/simple-inheritance.imp", false);
+		CompilationUnit second = prog.getUnit("second");
+
+		// before validation, the code members are searched linearly
+		Collection<CodeMember> fooProg = prog.getAllCodeMembersByName("foo", 3);
+		Collection<CodeMember> fooProgWrong = prog.getAllCodeMembersByName("foo", 2);
+		Collection<CodeMember> fooProgAll = prog.getAllCodeMembersByName("foo");
+		Collection<CodeMember> fooSecond = second.getAllCodeMembersByName("foo", 3);
+		Collection<CodeMember> missing = prog.getAllCodeMembersByName("bar", 0);
+		assertEquals(2, fooProg.size());
+		assertEquals(1, fooSecond.size());
+		assertTrue(fooProgWrong.isEmpty());
+		assertTrue(missing.isEmpty());
+
+		prog.validateAndFinalize();
+
+		check(prog, fooProg, "foo", 3);
+		check(prog, fooProgWrong, "foo", 2);
+		check(prog, missing, "bar", 0);
+		check(second, fooSecond, "foo", 3);
+		assertEquals(new HashSet<>(fooProgAll), new HashSet<>(prog.getAllCodeMembersByName("foo")));
+	}
+}
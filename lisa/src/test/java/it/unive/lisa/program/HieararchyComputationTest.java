@@ -1,5 +1,6 @@
 package it.unive.lisa.program;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -7,6 +8,8 @@ import static org.junit.Assert.assertTrue;
 import it.unive.lisa.imp.IMPFrontend;
 import it.unive.lisa.imp.ParsingException;
 import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeMember;
+import java.util.HashSet;
 import org.junit.Test;
 
 public class HieararchyComputationTest {
@@ -183,4 +186,20 @@ public class HieararchyComputationTest {
 
 		overrides(fooFirst, fooThird);
 	}
+
+	@Test
+	public void testDispatchTables() throws ParsingException, ProgramValidationException {
+		for (String file : new String[] { "simple-inheritance.imp", "tree-sanitized.imp", "skip-one.imp" }) {
+			Program prog = IMPFrontend.processFile("imp-testcases/program-finalization/" + file, false);
+			prog.validateAndFinalize();
+
+			for (CompilationUnit unit : prog.getUnits())
+				for (CodeMember cm : unit.getInstanceCodeMembers(true)) {
+					String name = cm.getDescriptor().getName();
+					assertEquals("Wrong dispatch targets for '" + name + "' in '" + unit.getName() + "'",
+							new HashSet<>(unit.getInstanceCodeMembersByName(name, true)),
+							new HashSet<>(unit.getDispatchTargets(name)));
+				}
+		}
+	}
 }
@@ -1,10 +1,15 @@
 package it.unive.lisa.program.cfg;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.SimpleAbstractState;
 import it.unive.lisa.analysis.impl.heap.MonolithicHeap;
+import it.unive.lisa.analysis.impl.numeric.Interval;
 import it.unive.lisa.analysis.impl.numeric.Sign;
 import it.unive.lisa.analysis.lattices.ExpressionSet;
 import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
@@ -15,7 +20,13 @@ import it.unive.lisa.interprocedural.callgraph.CallGraphConstructionException;
 import it.unive.lisa.interprocedural.callgraph.impl.RTACallGraph;
 import it.unive.lisa.interprocedural.impl.ModularWorstCaseAnalysis;
 import it.unive.lisa.program.Program;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.util.datastructures.graph.FixpointException;
+import it.unive.lisa.util.datastructures.graph.algorithms.StronglyConnectedComponents;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder.Component;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.Test;
 
 public class FixpointTest {
@@ -75,4 +86,150 @@ public class FixpointTest {
 			fail("The fixpoint computation has thrown an exception");
 		}
 	}
+
+	@Test
+	public void testWeakTopologicalOrderOfNestedLoops() throws ParsingException {
+		Program p = IMPFrontend.processText("class nested { foo() { def i = 0; while (i < 10) { def j = 0; "
+				+ "while (j < i) { j = j + 1; } i = i + 1; } return i; } }");
+		CFG cfg = p.getAllCFGs().iterator().next();
+		WeakTopologicalOrder<CFG, Statement, Edge> wto = cfg.getWeakTopologicalOrder();
+
+		assertEquals("Wrong number of loop heads", 2, wto.getHeads().size());
+		int count = 0, cycles = 0;
+		for (Component<Statement> c : wto.getComponents()) {
+			count++;
+			if (c.isCycle())
+				cycles++;
+		}
+		assertEquals("Wrong number of top-level cycles", 1, cycles);
+		assertTrue("Top-level components should be fewer than the nodes", count < cfg.getNodesCount());
+		assertTrue("The order should be cached", wto == cfg.getWeakTopologicalOrder());
+	}
+
+	@Test
+	public void testWeakTopologicalOrderFixpoint() throws ParsingException, InterproceduralAnalysisException,
+			CallGraphConstructionException, FixpointException, SemanticException {
+		Program p = IMPFrontend.processText("class nested { foo() { def i = 0; while (i < 10) { def j = 0; "
+				+ "while (j < i) { j = j + 1; } i = i + 1; } return i; } }");
+		CFG cfg = p.getAllCFGs().iterator().next();
+		CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+				ValueEnvironment<Sign>> fifo = cfg.fixpoint(mkState(), mkAnalysis(p));
+		CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+				ValueEnvironment<Sign>> wto = cfg.fixpoint(mkState(), mkAnalysis(p), cfg.getWeakTopologicalOrder());
+
+		for (Statement st : cfg.getNodes())
+			assertEquals("Different results on " + st, fifo.getAnalysisStateAfter(st),
+					wto.getAnalysisStateAfter(st));
+	}
+
+	@Test
+	public void testParallelFixpoint() throws ParsingException, InterproceduralAnalysisException,
+			CallGraphConstructionException, FixpointException, SemanticException {
+		Program p = IMPFrontend.processText("class parallel { foo(x) { def i = 0; if (x > 0) { while (i < x) "
+				+ "{ i = i + 1; } } else { def j = -1; while (j > x) { j = j - 1; } i = j; } return i; } }");
+		CFG cfg = p.getAllCFGs().iterator().next();
+
+		StronglyConnectedComponents<CFG, Statement, Edge> sccs = new StronglyConnectedComponents<>();
+		sccs.build(cfg);
+		assertEquals(2, sccs.getComponents().stream().filter(c -> c.size() > 1).count());
+		for (Edge e : cfg.getEdges())
+			assertTrue(sccs.componentOf(e.getSource()) <= sccs.componentOf(e.getDestination()));
+
+		CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+				ValueEnvironment<Sign>> fifo = cfg.fixpoint(mkState(), mkAnalysis(p), 0);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+					ValueEnvironment<Sign>> parallel = cfg.fixpoint(mkState(), mkAnalysis(p), pool, 0);
+
+			for (Statement st : cfg.getNodes())
+				assertEquals("Different results on " + st, fifo.getAnalysisStateAfter(st),
+						parallel.getAnalysisStateAfter(st));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private AnalysisState<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>, MonolithicHeap,
+			ValueEnvironment<Interval>> mkIntervalState() {
+		return new AnalysisState<>(
+				new SimpleAbstractState<>(new MonolithicHeap(), new ValueEnvironment<>(new Interval())),
+				new ExpressionSet<>());
+	}
+
+	private ModularWorstCaseAnalysis<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>, MonolithicHeap,
+			ValueEnvironment<Interval>> mkIntervalAnalysis(Program p)
+					throws InterproceduralAnalysisException, CallGraphConstructionException {
+		ModularWorstCaseAnalysis<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>, MonolithicHeap,
+				ValueEnvironment<Interval>> analysis = new ModularWorstCaseAnalysis<>();
+		RTACallGraph callgraph = new RTACallGraph();
+		callgraph.init(p);
+		analysis.init(p, callgraph);
+		return analysis;
+	}
+
+	@Test
+	public void testParallelFixpointWithWidening() throws ParsingException, InterproceduralAnalysisException,
+			CallGraphConstructionException, FixpointException, SemanticException {
+		Program p = IMPFrontend.processText("class parallel { "
+				+ "nested() { def i = 0; while (i < 10) { def j = 0; while (j < i) { j = j + 1; } i = i + 1; } "
+				+ "return i; } "
+				+ "sequence() { def i = 0; while (i < 10) { i = i + 1; } def j = 0; while (j < i) { j = j + 2; } "
+				+ "return j; } "
+				+ "branches(x) { def i = 0; def k = 5; while (x > 0) { if (i < 10) i = i + 1; else i = i - 1; } "
+				+ "while (k < 20) { k = k + 2; } return k; } }");
+		ModularWorstCaseAnalysis<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>, MonolithicHeap,
+				ValueEnvironment<Interval>> analysis = mkIntervalAnalysis(p);
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (CFG cfg : p.getAllCFGs()) {
+				CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>, MonolithicHeap,
+						ValueEnvironment<Interval>> fifo = cfg.fixpoint(mkIntervalState(), analysis);
+				CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>, MonolithicHeap,
+						ValueEnvironment<Interval>> parallel = cfg.fixpoint(mkIntervalState(), analysis, pool);
+
+				for (Statement st : cfg.getNodes())
+					assertEquals("Different results on " + st + " in " + cfg, fifo.getAnalysisStateAfter(st),
+							parallel.getAnalysisStateAfter(st));
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testParallelFixpointWidensLater() throws ParsingException, InterproceduralAnalysisException,
+			CallGraphConstructionException, FixpointException, SemanticException {
+		// the second loop is iterated by the sequential fixpoint while the
+		// first one is still unstable, consuming its lubs
+		Program p = IMPFrontend.processText("class parallel { foo(x) { def i = 0; while (x > 0) { if (i < 10) "
+				+ "i = i + 1; else i = i - 1; } def j = i; while (j < 20) { j = j + 2; } return j; } }");
+		CFG cfg = p.getAllCFGs().iterator().next();
+		ModularWorstCaseAnalysis<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>, MonolithicHeap,
+				ValueEnvironment<Interval>> analysis = mkIntervalAnalysis(p);
+
+		CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>, MonolithicHeap,
+				ValueEnvironment<Interval>> fifo = cfg.fixpoint(mkIntervalState(), analysis);
+		ForkJoinPool single = new ForkJoinPool(1), pool = new ForkJoinPool(4);
+		try {
+			CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>, MonolithicHeap,
+					ValueEnvironment<Interval>> sequential = cfg.fixpoint(mkIntervalState(), analysis, single);
+			CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>, MonolithicHeap,
+					ValueEnvironment<Interval>> parallel = cfg.fixpoint(mkIntervalState(), analysis, pool);
+
+			boolean morePrecise = false;
+			for (Statement st : cfg.getNodes()) {
+				assertEquals("Results on " + st + " depend on scheduling", sequential.getAnalysisStateAfter(st),
+						parallel.getAnalysisStateAfter(st));
+				assertTrue("Less precise result on " + st,
+						parallel.getAnalysisStateAfter(st).lessOrEqual(fifo.getAnalysisStateAfter(st)));
+				morePrecise |= !parallel.getAnalysisStateAfter(st).equals(fifo.getAnalysisStateAfter(st));
+			}
+			assertTrue("Widening should have been applied later than in the sequential fixpoint", morePrecise);
+		} finally {
+			single.shutdown();
+			pool.shutdown();
+		}
+	}
 }
@@ -26,6 +26,7 @@ import it.unive.lisa.analysis.nonrelational.heap.HeapEnvironment;
 import it.unive.lisa.analysis.nonrelational.heap.NonRelationalHeapDomain;
 import it.unive.lisa.analysis.nonrelational.inference.InferenceSystem;
 import it.unive.lisa.analysis.nonrelational.inference.InferredValue.InferredPair;
+import it.unive.lisa.analysis.nonrelational.value.ArrayValueEnvironment;
 import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
 import it.unive.lisa.analysis.representation.DomainRepresentation;
 import it.unive.lisa.analysis.representation.StringRepresentation;
@@ -279,7 +280,7 @@ public class SemanticsSanityTest {
 	}
 
 	private Object domainFor(Class<?> root, Class<?> param) {
-		if (root == ValueEnvironment.class)
+		if (root == ValueEnvironment.class || root == ArrayValueEnvironment.class)
 			return new Sign();
 		if (root == HeapEnvironment.class)
 			return new NRHeap();
@@ -0,0 +1,197 @@
+package it.unive.lisa.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import it.unive.lisa.LiSAConfiguration;
+import it.unive.lisa.checks.CFGNamesCheck;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.outputs.JsonReport.JsonWarning;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AnalysisServerTest {
+
+	private static final String PROGRAM = "class foo { bar() { def x = 1; return x; } baz() { return 2; } }";
+
+	private File workdir;
+
+	private AnalysisServer server;
+
+	@Before
+	public void setup() throws IOException {
+		workdir = Files.createTempDirectory("lisa-server").toFile();
+		server = new AnalysisServer(job -> IMPFrontend.processText(job.getSource()),
+				job -> new LiSAConfiguration().addSyntacticCheck(new CFGNamesCheck())
+						.setJsonOutput(Boolean.parseBoolean(job.getOptions().getOrDefault("json", "false"))),
+				workdir.getAbsolutePath());
+	}
+
+	@After
+	public void cleanup() throws IOException {
+		FileUtils.deleteDirectory(workdir);
+	}
+
+	private static String job(String id, String source, boolean json) throws IOException {
+		return new ObjectMapper().writeValueAsString(
+				new AnalysisJob(id, source, Collections.singletonMap("json", String.valueOf(json))));
+	}
+
+	private static List<AnalysisResult> read(String output) throws IOException {
+		ObjectMapper mapper = new ObjectMapper();
+		List<AnalysisResult> results = new ArrayList<>();
+		BufferedReader reader = new BufferedReader(new StringReader(output));
+		String line;
+		while ((line = reader.readLine()) != null)
+			results.add(mapper.readValue(line, AnalysisResult.class));
+		return results;
+	}
+
+	private static List<String> messages(AnalysisResult result) {
+		List<String> messages = new ArrayList<>();
+		for (JsonWarning warning : result.getReport().getWarnings())
+			messages.add(warning.getMessage());
+		return messages;
+	}
+
+	@Test
+	public void testStreams() throws IOException {
+		String input = job("first", PROGRAM, false) + "\n\n" + "not a job\n" + job("second", "class {", false)
+				+ "\n" + job("third", PROGRAM, true) + "\n";
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		server.serve(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+		List<AnalysisResult> results = read(output.toString(StandardCharsets.UTF_8));
+		assertEquals(4, results.size());
+
+		assertEquals("first", results.get(0).getId());
+		assertNull(results.get(0).getError());
+		assertEquals(2, messages(results.get(0)).size());
+		assertEquals(Collections.emptyList(), new ArrayList<>(results.get(0).getReport().getFiles()));
+
+		assertNull(results.get(1).getId());
+		assertNotNull(results.get(1).getError());
+
+		assertEquals("second", results.get(2).getId());
+		assertNull(results.get(2).getReport());
+		assertNotNull(results.get(2).getError());
+
+		assertEquals("third", results.get(3).getId());
+		assertEquals(messages(results.get(0)), messages(results.get(3)));
+		// the report has been deleted together with the workdir of the job
+		assertEquals(Collections.emptyList(), new ArrayList<>(results.get(3).getReport().getFiles()));
+		assertEquals(Collections.emptyList(), List.of(workdir.list()));
+	}
+
+	@Test
+	public void testKeepWorkdirs() throws IOException {
+		AnalysisServer keeping = new AnalysisServer(job -> IMPFrontend.processText(job.getSource()),
+				job -> new LiSAConfiguration().setJsonOutput(true), workdir.getAbsolutePath(), true);
+		AnalysisResult result = keeping.process(new AnalysisJob("kept", PROGRAM, Collections.emptyMap()));
+		assertNull(result.getError());
+		assertEquals(Collections.singletonList("report.json"), new ArrayList<>(result.getReport().getFiles()));
+		assertEquals(Collections.singletonList("report.json"), List.of(new File(workdir, "job1").list()));
+	}
+
+	@Test
+	public void testSocket() throws IOException, InterruptedException {
+		// the socket is closed explicitly to stop the server before joining
+		// its thread
+		ServerSocket socket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress());
+		Thread thread = new Thread(() -> {
+			try {
+				server.serve(socket);
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		});
+		thread.start();
+
+		try (Socket client = new Socket(InetAddress.getLoopbackAddress(), socket.getLocalPort())) {
+			OutputStream out = client.getOutputStream();
+			out.write((job("remote", PROGRAM, false) + "\n").getBytes(StandardCharsets.UTF_8));
+			out.flush();
+			BufferedReader reader = new BufferedReader(
+					new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+			AnalysisResult result = new ObjectMapper().readValue(reader.readLine(), AnalysisResult.class);
+			assertEquals("remote", result.getId());
+			assertEquals(2, messages(result).size());
+		} finally {
+			socket.close();
+			thread.join(10000);
+		}
+	}
+
+	@Test
+	public void testSocketBoundedConnections() throws IOException, InterruptedException {
+		ServerSocket socket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress());
+		Thread thread = new Thread(() -> {
+			try {
+				server.serve(socket, 1);
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		});
+		thread.start();
+
+		try (Socket first = new Socket(InetAddress.getLoopbackAddress(), socket.getLocalPort())) {
+			assertEquals("first", send(first, "first").getId());
+
+			try (Socket second = new Socket(InetAddress.getLoopbackAddress(), socket.getLocalPort())) {
+				// the only worker is busy with the first connection
+				second.setSoTimeout(500);
+				OutputStream out = second.getOutputStream();
+				out.write((job("second", PROGRAM, false) + "\n").getBytes(StandardCharsets.UTF_8));
+				out.flush();
+				try {
+					second.getInputStream().read();
+					fail("The second connection has been served while the first one was open");
+				} catch (SocketTimeoutException e) {
+					// expected
+				}
+
+				// closing the first connection releases the worker
+				first.close();
+				second.setSoTimeout(10000);
+				BufferedReader reader = new BufferedReader(
+						new InputStreamReader(second.getInputStream(), StandardCharsets.UTF_8));
+				AnalysisResult result = new ObjectMapper().readValue(reader.readLine(), AnalysisResult.class);
+				assertEquals("second", result.getId());
+			}
+		} finally {
+			socket.close();
+			thread.join(10000);
+		}
+	}
+
+	private static AnalysisResult send(Socket client, String id) throws IOException {
+		OutputStream out = client.getOutputStream();
+		out.write((job(id, PROGRAM, false) + "\n").getBytes(StandardCharsets.UTF_8));
+		out.flush();
+		BufferedReader reader = new BufferedReader(
+				new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+		return new ObjectMapper().readValue(reader.readLine(), AnalysisResult.class);
+	}
+}
@@ -0,0 +1,35 @@
+package it.unive.lisa.util.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class HashConsingPoolTest {
+
+	@Test
+	public void testIntern() {
+		HashConsingPool<String> pool = new HashConsingPool<>();
+		String first = new String("value"), second = new String("value");
+		assertNotSame(first, second);
+		assertSame(first, pool.intern(first));
+		assertSame(first, pool.intern(second));
+		assertSame(first, pool.intern(first));
+		assertEquals(1, pool.size());
+	}
+
+	@Test
+	public void testEviction() throws InterruptedException {
+		HashConsingPool<String> pool = new HashConsingPool<>();
+		String kept = pool.intern(new String("kept"));
+		pool.intern(new String("dropped"));
+		// the canonical instance of "dropped" is no longer reachable
+		for (int i = 0; i < 20 && pool.size() > 1; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertEquals(1, pool.size());
+		assertSame(kept, pool.intern(new String("kept")));
+	}
+}
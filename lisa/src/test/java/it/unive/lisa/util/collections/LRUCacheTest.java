@@ -0,0 +1,48 @@
+package it.unive.lisa.util.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class LRUCacheTest {
+
+	@Test
+	public void testEviction() {
+		LRUCache<String, Integer> cache = new LRUCache<>(2);
+		cache.put("a", 1);
+		cache.put("b", 2);
+		// a becomes the most recently used entry
+		assertEquals(Integer.valueOf(1), cache.get("a"));
+		cache.put("c", 3);
+		assertEquals(2, cache.size());
+		assertNull(cache.get("b"));
+		assertEquals(Integer.valueOf(1), cache.get("a"));
+		assertEquals(Integer.valueOf(3), cache.get("c"));
+	}
+
+	@Test
+	public void testCounters() {
+		LRUCache<String, Integer> cache = new LRUCache<>(10);
+		assertNull(cache.get("a"));
+		cache.put("a", 1);
+		cache.get("a");
+		cache.get("a");
+		assertEquals(2, cache.getHits());
+		assertEquals(1, cache.getMisses());
+
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getHits());
+		assertEquals(0, cache.getMisses());
+	}
+
+	@Test
+	public void testDisabled() {
+		LRUCache<String, Integer> cache = new LRUCache<>(0);
+		cache.put("a", 1);
+		assertEquals(0, cache.size());
+		assertNull(cache.get("a"));
+		assertEquals(1, cache.getMisses());
+	}
+}
@@ -0,0 +1,162 @@
+package it.unive.lisa.util.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import org.junit.Test;
+
+public class PersistentHashMapTest {
+
+	private static class Colliding {
+		private final int value;
+
+		private Colliding(int value) {
+			this.value = value;
+		}
+
+		@Override
+		public int hashCode() {
+			return value % 3;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Colliding && ((Colliding) obj).value == value;
+		}
+
+		@Override
+		public String toString() {
+			return String.valueOf(value);
+		}
+	}
+
+	@Test
+	public void testAgainstHashMap() {
+		Random random = new Random(42);
+		Map<Integer, Integer> expected = new HashMap<>();
+		PersistentHashMap<Integer, Integer> actual = new PersistentHashMap<>();
+		for (int i = 0; i < 20000; i++) {
+			// negative keys exercise all the bits of the hash
+			int key = random.nextInt(2000) * (random.nextBoolean() ? 1 : -65537);
+			if (random.nextInt(3) == 0)
+				assertEquals(expected.remove(key), actual.remove(key));
+			else
+				assertEquals(expected.put(key, i), actual.put(key, i));
+			assertEquals(expected.size(), actual.size());
+		}
+
+		assertEquals(expected, actual);
+		assertEquals(actual, expected);
+		assertEquals(expected.hashCode(), actual.hashCode());
+		for (Entry<Integer, Integer> e : actual.entrySet())
+			assertEquals(expected.get(e.getKey()), e.getValue());
+	}
+
+	@Test
+	public void testCollisions() {
+		Map<Colliding, Integer> expected = new HashMap<>();
+		PersistentHashMap<Colliding, Integer> actual = new PersistentHashMap<>();
+		for (int i = 0; i < 30; i++) {
+			expected.put(new Colliding(i), i);
+			actual.put(new Colliding(i), i);
+		}
+		assertEquals(expected, actual);
+
+		for (int i = 0; i < 30; i += 2) {
+			assertEquals(expected.remove(new Colliding(i)), actual.remove(new Colliding(i)));
+			assertEquals(expected, actual);
+		}
+		assertNull(actual.get(new Colliding(0)));
+		assertTrue(actual.containsKey(new Colliding(1)));
+	}
+
+	@Test
+	public void testCopiesAreIndependent() {
+		PersistentHashMap<String, Integer> original = new PersistentHashMap<>();
+		for (int i = 0; i < 100; i++)
+			original.put("k" + i, i);
+
+		PersistentHashMap<String, Integer> copy = new PersistentHashMap<>(original);
+		assertEquals(original, copy);
+		copy.put("k0", -1);
+		copy.remove("k1");
+		copy.put("new", 0);
+
+		assertEquals(Integer.valueOf(0), original.get("k0"));
+		assertEquals(Integer.valueOf(1), original.get("k1"));
+		assertFalse(original.containsKey("new"));
+		assertEquals(100, original.size());
+		assertEquals(Integer.valueOf(-1), copy.get("k0"));
+		assertFalse(copy.containsKey("k1"));
+		assertEquals(100, copy.size());
+	}
+
+	@Test
+	public void testIteratorRemoval() {
+		PersistentHashMap<Integer, Integer> map = new PersistentHashMap<>();
+		for (int i = 0; i < 100; i++)
+			map.put(i, i);
+
+		int seen = 0;
+		for (Iterator<Integer> it = map.keySet().iterator(); it.hasNext(); seen++)
+			if (it.next() % 2 == 0)
+				it.remove();
+
+		assertEquals(100, seen);
+		assertEquals(50, map.size());
+		for (int i = 0; i < 100; i++)
+			assertEquals(i % 2 != 0, map.containsKey(i));
+	}
+
+	@Test
+	public void testBuilder() {
+		Random random = new Random(7);
+		Map<Integer, Integer> expected = new HashMap<>();
+		PersistentHashMap.Builder<Integer, Integer> builder = new PersistentHashMap.Builder<>();
+		for (int i = 0; i < 5000; i++) {
+			// duplicate keys are added, and the last value must be kept
+			int key = random.nextInt(3000) * (random.nextBoolean() ? 1 : -65537);
+			expected.put(key, i);
+			builder.put(key, i);
+		}
+		PersistentHashMap<Integer, Integer> built = builder.build();
+
+		assertEquals(expected.size(), built.size());
+		assertEquals(expected, built);
+		assertEquals(expected.hashCode(), built.hashCode());
+
+		// the built trie must support further updates
+		for (int i = 0; i < 3000; i += 3) {
+			assertEquals(expected.remove(i), built.remove(i));
+			assertEquals(expected.put(-i, i), built.put(-i, i));
+		}
+		assertEquals(expected, built);
+		assertEquals(expected.size(), built.size());
+	}
+
+	@Test
+	public void testBuilderCollisions() {
+		Map<Colliding, Integer> expected = new HashMap<>();
+		PersistentHashMap.Builder<Colliding, Integer> builder = new PersistentHashMap.Builder<>(2);
+		for (int i = 0; i < 60; i++) {
+			expected.put(new Colliding(i % 30), i);
+			builder.put(new Colliding(i % 30), i);
+		}
+		PersistentHashMap<Colliding, Integer> built = builder.build();
+		assertEquals(30, built.size());
+		assertEquals(expected, built);
+
+		for (int i = 0; i < 30; i += 2) {
+			assertEquals(expected.remove(new Colliding(i)), built.remove(new Colliding(i)));
+			assertEquals(expected, built);
+		}
+		assertEquals(0, new PersistentHashMap.Builder<Colliding, Integer>().build().size());
+	}
+}
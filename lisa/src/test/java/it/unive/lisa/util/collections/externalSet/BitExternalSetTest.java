@@ -1,5 +1,7 @@
 package it.unive.lisa.util.collections.externalSet;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
@@ -316,4 +318,39 @@ public class BitExternalSetTest {
 		tmp.removeAll(set2);
 		verify(Set::equals, Pair.of(tmp, eset1.difference(eset2)));
 	}
+
+	@Test
+	public void testCachedSizeAndHashAfterRemovals() {
+		ExternalSetCache<String> cache = new ExternalSetCache<>();
+		ExternalSet<String> small = cache.mkEmptySet();
+		ExternalSet<String> large = cache.mkEmptySet();
+		List<String> elements = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			String str = String.valueOf(i);
+			elements.add(str);
+			large.add(str);
+			if (i < 10)
+				small.add(str);
+		}
+
+		int hash = small.hashCode();
+		assertEquals(1000, large.size());
+		large.hashCode();
+		for (String str : elements.subList(10, elements.size()))
+			assertTrue(large.remove(str));
+		assertFalse(large.remove(elements.get(500)));
+
+		assertEquals(10, large.size());
+		assertEquals(small, large);
+		assertEquals(hash, large.hashCode());
+		assertEquals(elements.subList(0, 10), new ArrayList<>(large));
+
+		for (String str : elements.subList(0, 10))
+			large.remove(str);
+		assertTrue(large.isEmpty());
+		assertEquals(0, large.size());
+		assertEquals(cache.mkEmptySet(), large);
+		assertEquals(cache.mkEmptySet().hashCode(), large.hashCode());
+		assertFalse(large.iterator().hasNext());
+	}
 }
@@ -0,0 +1,73 @@
+package it.unive.lisa.util.collections.externalSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class ExternalSetCacheTest {
+
+	private static final int THREADS = 8;
+	private static final int ELEMENTS = 5000;
+
+	@Test
+	public void testConcurrentInsertions() throws Exception {
+		ExternalSetCache<String> cache = new ExternalSetCache<>();
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<ExternalSet<String>>> futures = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				int shift = t;
+				futures.add(executor.submit(() -> {
+					ExternalSet<String> set = cache.mkEmptySet();
+					// every thread adds the same elements in a different order
+					for (int i = 0; i < ELEMENTS; i++)
+						set.add(String.valueOf((i * 7 + shift * 13) % ELEMENTS));
+					return set;
+				}));
+			}
+
+			for (Future<ExternalSet<String>> future : futures) {
+				ExternalSet<String> set = future.get();
+				assertEquals(ELEMENTS, set.size());
+				assertEquals(ELEMENTS, new HashSet<>(set).size());
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(ELEMENTS, cache.size());
+		Set<Integer> indexes = new HashSet<>();
+		for (int i = 0; i < ELEMENTS; i++) {
+			String element = String.valueOf(i);
+			int index = cache.indexOf(element);
+			indexes.add(index);
+			assertEquals(element, cache.get(index));
+		}
+		assertEquals(ELEMENTS, indexes.size());
+	}
+
+	@Test
+	public void testNullElement() {
+		ExternalSetCache<String> cache = new ExternalSetCache<>();
+		assertEquals(-1, cache.indexOf(null));
+		int index = cache.indexOfOrAdd(null);
+		assertEquals(index, cache.indexOfOrAdd(null));
+		assertNull(cache.get(index));
+		assertEquals(1, cache.size());
+
+		cache.clear();
+		assertEquals(-1, cache.indexOf(null));
+		assertEquals(0, cache.size());
+		String foo = "foo";
+		assertSame(foo, cache.get(cache.indexOfOrAdd(foo)));
+	}
+}
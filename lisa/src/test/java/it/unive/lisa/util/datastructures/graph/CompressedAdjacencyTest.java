@@ -0,0 +1,94 @@
+package it.unive.lisa.util.datastructures.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import it.unive.lisa.program.CompilationUnit;
+import it.unive.lisa.program.SourceCodeLocation;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CFGDescriptor;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.edge.FalseEdge;
+import it.unive.lisa.program.cfg.edge.SequentialEdge;
+import it.unive.lisa.program.cfg.edge.TrueEdge;
+import it.unive.lisa.program.cfg.statement.Literal;
+import it.unive.lisa.program.cfg.statement.NoOp;
+import it.unive.lisa.program.cfg.statement.Return;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.type.Untyped;
+import java.util.HashSet;
+import org.junit.Test;
+
+public class CompressedAdjacencyTest {
+
+	private static final SourceCodeLocation location = new SourceCodeLocation("fake", 0, 0);
+
+	private final CFG cfg = new CFG(
+			new CFGDescriptor(location, new CompilationUnit(location, "foo", false), true, "foo"));
+
+	private final Statement cond = new Literal(cfg, location, true, Untyped.INSTANCE);
+	private final Statement left = new NoOp(cfg, location);
+	private final Statement right = new NoOp(cfg, location);
+	private final Statement ret = new Return(cfg, location, new Literal(cfg, location, 5, Untyped.INSTANCE));
+
+	private AdjacencyMatrix<Statement, Edge, CFG> build() {
+		cfg.addNode(cond, true);
+		cfg.addNode(left);
+		cfg.addNode(right);
+		cfg.addNode(ret);
+		cfg.addEdge(new TrueEdge(cond, left));
+		cfg.addEdge(new FalseEdge(cond, right));
+		cfg.addEdge(new SequentialEdge(left, ret));
+		cfg.addEdge(new SequentialEdge(right, ret));
+		cfg.addEdge(new SequentialEdge(right, cond));
+		return cfg.getAdjacencyMatrix();
+	}
+
+	@Test
+	public void testSameAnswersAsMatrix() {
+		AdjacencyMatrix<Statement, Edge, CFG> matrix = build();
+		CompressedAdjacency<Statement, Edge, CFG> frozen = cfg.freeze();
+		assertSame(frozen, matrix.getFrozenView());
+		assertEquals(4, frozen.size());
+
+		for (Statement source : matrix.getNodes()) {
+			assertEquals(new HashSet<>(matrix.computeFollowers(source)),
+					new HashSet<>(matrix.followersOf(source)));
+			assertEquals(new HashSet<>(matrix.computePredecessors(source)),
+					new HashSet<>(matrix.predecessorsOf(source)));
+
+			int index = frozen.indexOf(source);
+			assertSame(source, frozen.getNode(index));
+			assertEquals(matrix.computeFollowers(source).size(),
+					frozen.successorsEnd(index) - frozen.successorsBegin(index));
+			for (int pos = frozen.successorsBegin(index); pos < frozen.successorsEnd(index); pos++)
+				assertNotNull(frozen.getEdgeConnecting(index, frozen.successorAt(pos)));
+
+			for (Statement dest : matrix.getNodes()) {
+				Edge expected = null;
+				for (Edge e : matrix.getOutgoingEdges(source))
+					if (e.getDestination() == dest)
+						expected = e;
+				assertSame(expected, matrix.getEdgeConnecting(source, dest));
+			}
+		}
+
+		assertNull(frozen.followersOf(new NoOp(cfg, location)));
+		assertEquals(-1, frozen.indexOf(new NoOp(cfg, location)));
+	}
+
+	@Test
+	public void testModificationsDiscardTheView() {
+		AdjacencyMatrix<Statement, Edge, CFG> matrix = build();
+		cfg.freeze();
+		cfg.addEdge(new SequentialEdge(left, right));
+		assertNull(matrix.getFrozenView());
+		assertEquals(2, matrix.followersOf(left).size());
+
+		CompressedAdjacency<Statement, Edge, CFG> frozen = cfg.freeze();
+		assertEquals(2, frozen.followersOf(left).size());
+		assertSame(frozen, cfg.freeze());
+	}
+}